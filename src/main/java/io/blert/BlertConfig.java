@@ -23,11 +23,14 @@
 
 package io.blert;
 
+import io.blert.core.CaptureProfile;
 import javax.annotation.Nullable;
 import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.ConfigSection;
+import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 @ConfigGroup("blert")
 public interface BlertConfig extends Config {
@@ -43,4 +46,38 @@ public interface BlertConfig extends Config {
     default @Nullable String apiKey() {
         return null;
     }
+
+    @ConfigItem(
+            keyName = "captureProfile",
+            name = "Capture detail",
+            description = "How much derived data to record. Lower settings skip expensive processing each tick,"
+                    + " which can help on slower machines.",
+            position = 2,
+            section = GENERAL_SECTION)
+    default CaptureProfile captureProfile() {
+        return CaptureProfile.FULL;
+    }
+
+    @ConfigItem(
+            keyName = "tickBudget",
+            name = "Tick time budget",
+            description = "If recording consistently takes longer than this each tick, optional tracking is"
+                    + " temporarily reduced and the recording is marked as partial. Set to 0 to disable.",
+            position = 3,
+            section = GENERAL_SECTION)
+    @Range(max = 50)
+    @Units(Units.MILLISECONDS)
+    default int tickBudget() {
+        return 5;
+    }
+
+    @ConfigItem(
+            keyName = "archiveChallenges",
+            name = "Keep local archive",
+            description = "Save a compact copy of each recorded challenge to the .runelite/blert/archive folder.",
+            position = 4,
+            section = GENERAL_SECTION)
+    default boolean archiveChallenges() {
+        return false;
+    }
 }
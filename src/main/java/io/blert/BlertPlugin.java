@@ -25,19 +25,26 @@ package io.blert;
 
 import com.google.gson.Gson;
 import com.google.inject.Provides;
+import io.blert.archive.RaidArchiveWriter;
 import io.blert.challenges.colosseum.ColosseumChallenge;
 import io.blert.challenges.inferno.InfernoChallenge;
 import io.blert.challenges.mokhaiotl.MokhaiotlChallenge;
 import io.blert.challenges.tob.TheatreChallenge;
+import io.blert.client.DefinitionCache;
 import io.blert.client.WebSocketManager;
 import io.blert.core.AttackRegistry;
+import io.blert.core.CheckpointStore;
 import io.blert.core.RecordableChallenge;
 import io.blert.core.SpellRegistry;
-import io.blert.util.DeferredTask;
+import io.blert.events.StageAnalytics;
 import io.blert.util.Location;
+import io.blert.util.TickScheduler;
 import java.awt.image.BufferedImage;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import lombok.Getter;
@@ -47,6 +54,7 @@ import net.runelite.api.GameState;
 import net.runelite.api.WorldType;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
@@ -60,6 +68,13 @@ import net.runelite.client.util.ImageUtil;
 @Slf4j
 @PluginDescriptor(name = "Blert")
 public class BlertPlugin extends Plugin {
+    private static final Path ARCHIVE_DIRECTORY =
+            RuneLite.RUNELITE_DIR.toPath().resolve("blert").resolve("archive");
+    private static final Path DEFINITIONS_DIRECTORY =
+            RuneLite.RUNELITE_DIR.toPath().resolve("blert").resolve("definitions");
+    private static final Path CHECKPOINT_DIRECTORY =
+            RuneLite.RUNELITE_DIR.toPath().resolve("blert").resolve("checkpoints");
+
     @Inject
     private Client client;
 
@@ -78,6 +93,9 @@ public class BlertPlugin extends Plugin {
     @Inject
     private WebSocketManager websocketManager;
 
+    @Inject
+    private ScheduledExecutorService executor;
+
     @Inject
     @Getter
     private Gson gson;
@@ -93,6 +111,20 @@ public class BlertPlugin extends Plugin {
     @Getter
     private final SpellRegistry spellRegistry = new SpellRegistry();
 
+    @Getter
+    private final StageAnalytics stageAnalytics = new StageAnalytics();
+
+    @Getter
+    private DefinitionCache definitionCache;
+
+    @Getter
+    private CheckpointStore checkpointStore;
+
+    /**
+     * Opens the server connection once definitions have been loaded at startup.
+     */
+    private @Nullable CompletableFuture<Void> connectOnLoad = null;
+
     private final List<RecordableChallenge> challenges = new ArrayList<>();
 
     @Getter
@@ -128,27 +160,30 @@ public class BlertPlugin extends Plugin {
     private LoginState loginState = LoginState.LOGGED_OUT;
     private boolean enabled = true;
 
-    private DeferredTask deferredTask;
+    private final TickScheduler scheduler = new TickScheduler(() -> client.getTickCount());
 
     @Override
     protected void startUp() throws Exception {
         attackRegistry.setGson(gson);
         spellRegistry.setGson(gson);
-        attackRegistry.loadDefaults();
-        spellRegistry.loadDefaults();
+        // Bundled definitions are loaded off the client thread to keep plugin startup fast. The executor runs tasks in
+        // order, so the cached server definitions below are applied on top of the defaults.
+        CompletableFuture<Void> attacksLoaded = attackRegistry.loadDefaultsAsync(executor);
+        CompletableFuture<Void> spellsLoaded = spellRegistry.loadDefaultsAsync(executor);
 
-        websocketManager.open();
+        // Definitions cached from the server supersede the bundled defaults.
+        definitionCache = new DefinitionCache(DEFINITIONS_DIRECTORY, gson, attackRegistry, spellRegistry, executor);
+        CompletableFuture<Void> cacheLoaded = CompletableFuture.runAsync(definitionCache::load, executor);
 
-        sidePanel = new BlertPluginPanel(config, configManager, websocketManager);
-        final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/blert.png");
-        sidePanelButton = NavigationButton.builder()
-                .tooltip("Blert")
-                .priority(6)
-                .icon(icon)
-                .panel(sidePanel)
-                .build();
-        clientToolbar.addNavigation(sidePanelButton);
-        sidePanel.startPanel();
+        // Checkpoints are kept per account, and are loaded once the account is known.
+        checkpointStore = new CheckpointStore(CHECKPOINT_DIRECTORY, executor);
+
+        // The handshake advertises the cached definition versions, and definitions sent by the server in response
+        // must not be overwritten by those loaded from disk, so only connect once loading has finished.
+        connectOnLoad = CompletableFuture.allOf(attacksLoaded, spellsLoaded, cacheLoaded)
+                .thenRun(websocketManager::open);
+
+        installSidePanel();
 
         challenges.add(new TheatreChallenge(client, clientThread));
         challenges.add(new ColosseumChallenge(client, clientThread));
@@ -160,11 +195,32 @@ public class BlertPlugin extends Plugin {
 
         if (loginState.isLoggedIn()) {
             checkWorldType();
+            loadCheckpoint();
         }
     }
 
+    /**
+     * Builds the side panel and adds it to the client toolbar.
+     */
+    void installSidePanel() {
+        sidePanel = new BlertPluginPanel(config, configManager, websocketManager);
+        final BufferedImage icon = ImageUtil.loadImageResource(getClass(), "/blert.png");
+        sidePanelButton = NavigationButton.builder()
+                .tooltip("Blert")
+                .priority(6)
+                .icon(icon)
+                .panel(sidePanel)
+                .build();
+        clientToolbar.addNavigation(sidePanelButton);
+        sidePanel.startPanel();
+    }
+
     @Override
     protected void shutDown() throws Exception {
+        if (connectOnLoad != null) {
+            connectOnLoad.cancel(false);
+            connectOnLoad = null;
+        }
         websocketManager.close();
 
         clientToolbar.removeNavigation(sidePanelButton);
@@ -177,13 +233,12 @@ public class BlertPlugin extends Plugin {
         }
 
         challenges.clear();
+        scheduler.clear();
     }
 
     @Subscribe(priority = 10)
     public void onGameTick(GameTick gameTick) {
-        if (deferredTask != null) {
-            deferredTask.tick();
-        }
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
 
         if (loginState != LoginState.JUST_LOGGED_IN) {
             updateActiveChallenge();
@@ -204,7 +259,9 @@ public class BlertPlugin extends Plugin {
         }
 
         if (gameState == GameState.LOGGED_IN) {
-            if (config.apiKey() != null && websocketManager.shouldTryToConnect()) {
+            // Until startup loading finishes, the connection is opened by `connectOnLoad`.
+            boolean loaded = connectOnLoad == null || connectOnLoad.isDone();
+            if (loaded && config.apiKey() != null && websocketManager.shouldTryToConnect()) {
                 websocketManager.open();
             }
 
@@ -212,13 +269,12 @@ public class BlertPlugin extends Plugin {
 
             // If the player was not already logged in, notify the server that they have.
             if (!loginState.isLoggedIn()) {
-                deferredTask = new DeferredTask(
-                        () -> {
-                            if (websocketManager.getEventHandler() != null) {
-                                websocketManager.getEventHandler().updateGameState(GameState.LOGGED_IN);
-                            }
-                        },
-                        3);
+                loadCheckpoint();
+                scheduler.schedule(3, () -> {
+                    if (websocketManager.getEventHandler() != null) {
+                        websocketManager.getEventHandler().updateGameState(GameState.LOGGED_IN);
+                    }
+                });
             }
 
             loginState = loginState.logIn();
@@ -263,7 +319,21 @@ public class BlertPlugin extends Plugin {
             }
 
             activeChallenge = challenge;
-            activeChallenge.initialize(websocketManager.getEventHandler(), attackRegistry, spellRegistry);
+
+            // Stage analytics are registered ahead of the websocket handler so that a stage's summary is ready by
+            // the time its completion is reported. Handlers added on reconnect are appended after it.
+            activeChallenge.addEventHandler(stageAnalytics);
+            activeChallenge.initialize(
+                    websocketManager.getEventHandler(),
+                    attackRegistry,
+                    spellRegistry,
+                    config.captureProfile(),
+                    config.tickBudget(),
+                    checkpointStore);
+            if (config.archiveChallenges()) {
+                activeChallenge.addEventHandler(
+                        new RaidArchiveWriter(activeChallenge.getTimeline(), ARCHIVE_DIRECTORY, executor));
+            }
 
             log.info("Entered challenge \"{}\"", activeChallenge.getName());
         } else if (activeChallenge != null) {
@@ -274,6 +344,14 @@ public class BlertPlugin extends Plugin {
         }
     }
 
+    /**
+     * Loads the challenge checkpoint of the logged in account.
+     */
+    private void loadCheckpoint() {
+        long accountHash = client.getAccountHash();
+        executor.execute(() -> checkpointStore.load(accountHash));
+    }
+
     private void checkWorldType() {
         var worldTypes = client.getWorldType();
         enabled = !worldTypes.contains(WorldType.BETA_WORLD)
@@ -31,7 +31,9 @@ import io.blert.core.Challenge;
 import io.blert.core.ChallengeMode;
 import io.blert.core.Stage;
 import io.blert.json.PastChallenge;
+import io.blert.json.StageSummary;
 import io.blert.ui.*;
+import io.blert.util.Tick;
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.StringSelection;
@@ -40,9 +42,13 @@ import java.awt.event.MouseEvent;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import javax.swing.*;
@@ -90,6 +96,19 @@ public class BlertPluginPanel extends PluginPanel {
     // API keys are 24-character hex strings.
     private static final Pattern API_KEY_PATTERN = Pattern.compile("[0-9a-fA-F]{24}");
 
+    // Model updates are coalesced and applied to the view at most once per frame.
+    private static final int UPDATE_INTERVAL_MS = 16;
+
+    // Recent recordings are materialized in pages as the user scrolls towards the end of the list.
+    private static final int RECORDINGS_PAGE_SIZE = 15;
+    private static final int RECORDINGS_SCROLL_THRESHOLD = 64;
+
+    private static final int DIRTY_USER = 1;
+    private static final int DIRTY_GETTING_STARTED = 1 << 1;
+    private static final int DIRTY_CHALLENGE = 1 << 2;
+    private static final int DIRTY_RECORDINGS = 1 << 3;
+    private static final int DIRTY_ALL = DIRTY_USER | DIRTY_GETTING_STARTED | DIRTY_CHALLENGE | DIRTY_RECORDINGS;
+
     private final BlertConfig config;
     private final ConfigManager configManager;
     private final WebSocketManager websocketManager;
@@ -103,6 +122,29 @@ public class BlertPluginPanel extends PluginPanel {
     private final JTextField apiKeyField = new JTextField();
     private final JLabel apiKeyErrorLabel = new JLabel("Not a valid Blert API key.");
     private final Timer shutdownLabelTimer;
+    private final Timer updateTimer;
+
+    // User panel components.
+    private final StatusDot userStatusDot = new StatusDot();
+    private final JLabel userStatusText = new JLabel();
+    private final JLabel userLabel = new JLabel();
+    private final RoundedButton connectButton = new RoundedButton("Connect");
+    private final JLabel configHint = new JLabel("Follow the setup steps below");
+
+    // Challenge panel components.
+    private final JLabel challengeMessageLabel = new JLabel();
+    private final StatusDot challengeStatusDot = new StatusDot();
+    private final JLabel challengeTitleLabel = new JLabel();
+    private final JLabel stageSummaryLabel = new JLabel();
+    private JPanel activeChallengePanel;
+    private Component challengeButtonStrut;
+    private JPanel challengeButtonPanel;
+
+    // Recent recordings components, keyed by challenge ID.
+    private final Map<String, RecordingRow> recordingRows = new HashMap<>();
+    private final JLabel noRecordingsLabel = new JLabel("No past recordings.");
+    private final Component recordingsGlue = Box.createVerticalGlue();
+    private int materializedRecordings = RECORDINGS_PAGE_SIZE;
 
     private final List<PastChallenge> recentRecordings = new ArrayList<>();
 
@@ -112,6 +154,51 @@ public class BlertPluginPanel extends PluginPanel {
     private Instant shutdownTime = null;
     private Challenge currentChallenge = null;
     private String currentChallengeId = null;
+    private @Nullable StageSummary stageSummary = null;
+
+    /**
+     * Bitmask of {@code DIRTY_*} flags indicating which sections of the panel are out of date with the model.
+     */
+    private int dirty = 0;
+
+    /**
+     * A copy of the model taken under the panel's lock, from which the view is rebuilt without holding it.
+     */
+    private static final class PanelState {
+        private final ConnectionState connectionState;
+        private final @Nullable String connectedUsername;
+        private final @Nullable Instant shutdownTime;
+        private final WebSocketEventHandler.Status challengeStatus;
+        private final @Nullable Challenge currentChallenge;
+        private final @Nullable String currentChallengeId;
+        private final @Nullable StageSummary stageSummary;
+        private final List<PastChallenge> materializedRecordings;
+
+        private PanelState(BlertPluginPanel panel) {
+            this.connectionState = panel.connectionState;
+            this.connectedUsername = panel.connectedUsername;
+            this.shutdownTime = panel.shutdownTime;
+            this.challengeStatus = panel.challengeStatus;
+            this.currentChallenge = panel.currentChallenge;
+            this.currentChallengeId = panel.currentChallengeId;
+            this.stageSummary = panel.stageSummary;
+            int count = Math.min(panel.materializedRecordings, panel.recentRecordings.size());
+            this.materializedRecordings = new ArrayList<>(panel.recentRecordings.subList(0, count));
+        }
+    }
+
+    /**
+     * A materialized recent recording, along with the displayed values it was built from.
+     */
+    private static final class RecordingRow {
+        private final List<Object> signature;
+        private final FeedItem item;
+
+        private RecordingRow(List<Object> signature, FeedItem item) {
+            this.signature = signature;
+            this.item = item;
+        }
+    }
 
     public BlertPluginPanel(BlertConfig config, ConfigManager configManager, WebSocketManager websocketManager) {
         super(false);
@@ -121,6 +208,9 @@ public class BlertPluginPanel extends PluginPanel {
 
         shutdownLabelTimer = new Timer(1000, e -> updateShutdownLabel());
 
+        updateTimer = new Timer(UPDATE_INTERVAL_MS, e -> flushPendingUpdates());
+        updateTimer.setRepeats(false);
+
         apiKeyField.setFont(FONT_SMALL);
         apiKeyField.setForeground(TEXT_MAIN);
         apiKeyField.setCaretColor(TEXT_MAIN);
@@ -166,24 +256,33 @@ public class BlertPluginPanel extends PluginPanel {
 
         add(topContainer, BorderLayout.NORTH);
 
+        createUserPanel();
+        createGettingStartedPanel();
+        createChallengePanel();
         createRecentRecordingsPanel();
         add(recentRecordingsPanel, BorderLayout.CENTER);
 
-        rebuildUserPanel();
-        rebuildGettingStartedPanel();
-        rebuildChallengePanel();
-        populateRecentRecordingsPanel();
+        synchronized (this) {
+            dirty = DIRTY_ALL;
+        }
+        flushPendingUpdates();
 
         shutdownLabelTimer.start();
-        revalidate();
-        repaint();
     }
 
     public void stopPanel() {
         shutdownLabelTimer.stop();
+        updateTimer.stop();
     }
 
     private void updateShutdownLabel() {
+        Instant shutdownTime;
+        ConnectionState connectionState;
+        synchronized (this) {
+            shutdownTime = this.shutdownTime;
+            connectionState = this.connectionState;
+        }
+
         if (shutdownTime == null) {
             if (connectionState == ConnectionState.CONNECTED) {
                 serverStatusLabel.setText("✔ Blert server is online");
@@ -206,63 +305,115 @@ public class BlertPluginPanel extends PluginPanel {
     }
 
     public void updateConnectionState(ConnectionState state, @Nullable String username) {
-        SwingUtilities.invokeLater(() -> {
-            synchronized (this) {
-                this.connectionState = state;
-                this.connectedUsername = username;
-                rebuildUserPanel();
-                rebuildGettingStartedPanel();
-                rebuildChallengePanel();
-                revalidate();
-                repaint();
-            }
-        });
+        synchronized (this) {
+            this.connectionState = state;
+            this.connectedUsername = username;
+            markDirty(DIRTY_USER | DIRTY_GETTING_STARTED | DIRTY_CHALLENGE);
+        }
     }
 
     public void updateChallengeStatus(
             WebSocketEventHandler.Status status, @Nullable Challenge challenge, @Nullable String challengeId) {
-        SwingUtilities.invokeLater(() -> {
-            synchronized (this) {
-                this.challengeStatus = status;
-                this.currentChallenge = challenge;
-                this.currentChallengeId = challengeId;
-                rebuildChallengePanel();
-                revalidate();
-                repaint();
+        synchronized (this) {
+            int sections = DIRTY_CHALLENGE;
+            if (challenge == null && this.currentChallenge != null) {
+                // Start the next challenge's view of the history from the first page again.
+                resetRecordingPaging();
+                sections |= DIRTY_RECORDINGS;
             }
-        });
+            this.challengeStatus = status;
+            this.currentChallenge = challenge;
+            this.currentChallengeId = challengeId;
+            markDirty(sections);
+        }
+    }
+
+    public void setStageSummary(@Nullable StageSummary stageSummary) {
+        synchronized (this) {
+            this.stageSummary = stageSummary;
+            markDirty(DIRTY_CHALLENGE);
+        }
     }
 
     public void setRecentRecordings(@Nullable List<PastChallenge> recentRecordings) {
-        SwingUtilities.invokeLater(() -> {
-            synchronized (this) {
-                this.recentRecordings.clear();
-                if (recentRecordings != null) {
-                    this.recentRecordings.addAll(recentRecordings);
-                }
-                populateRecentRecordingsPanel();
-                revalidate();
-                repaint();
+        synchronized (this) {
+            this.recentRecordings.clear();
+            if (recentRecordings != null) {
+                this.recentRecordings.addAll(recentRecordings);
             }
-        });
+            if (this.recentRecordings.isEmpty()) {
+                resetRecordingPaging();
+            }
+            markDirty(DIRTY_RECORDINGS);
+        }
     }
 
     public void setShutdownTime(@Nullable Instant shutdownTime) {
-        SwingUtilities.invokeLater(() -> {
-            synchronized (this) {
-                this.shutdownTime = shutdownTime;
-                updateShutdownLabel();
-                rebuildChallengePanel();
-            }
-        });
+        synchronized (this) {
+            this.shutdownTime = shutdownTime;
+            markDirty(DIRTY_USER | DIRTY_CHALLENGE);
+        }
+    }
+
+    /**
+     * Flags sections of the panel as needing an update and schedules a flush if one is not already pending.
+     * Must be called while holding the panel's lock.
+     */
+    private void markDirty(int sections) {
+        dirty |= sections;
+        if (!updateTimer.isRunning()) {
+            updateTimer.start();
+        }
     }
 
     /**
-     * Rebuilds the user panel based on the current connection state.
+     * Shrinks the materialized recordings window back to its first page. Must be called while holding the panel's
+     * lock.
      */
-    private void rebuildUserPanel() {
-        userPanel.removeAll();
+    private void resetRecordingPaging() {
+        materializedRecordings = RECORDINGS_PAGE_SIZE;
+    }
+
+    /**
+     * Applies all model changes accumulated since the last flush to the view. Runs on the EDT.
+     */
+    private void flushPendingUpdates() {
+        if (userPanel == null) {
+            // The panel hasn't been started yet; its initial build will pick up the current model.
+            return;
+        }
+
+        int sections;
+        PanelState state;
+        synchronized (this) {
+            sections = dirty;
+            dirty = 0;
+            if (sections == 0) {
+                return;
+            }
+            state = new PanelState(this);
+        }
+
+        // Swing components are only touched on the EDT, so the view can be rebuilt without blocking model updates
+        // from other threads.
+        if ((sections & DIRTY_USER) != 0) {
+            updateUserPanel(state);
+        }
+        if ((sections & DIRTY_GETTING_STARTED) != 0) {
+            updateGettingStartedPanel(state);
+        }
+        if ((sections & DIRTY_CHALLENGE) != 0) {
+            updateChallengePanel(state);
+        }
+        if ((sections & DIRTY_RECORDINGS) != 0) {
+            updateRecentRecordingsPanel(state);
+        }
+
+        revalidate();
+        repaint();
+    }
 
+    private void createUserPanel() {
         userPanel.add(createHeader("SERVER CONNECTION"), BorderLayout.NORTH);
 
         CardPanel card = new CardPanel();
@@ -279,17 +430,13 @@ public class BlertPluginPanel extends PluginPanel {
         statusContainer.setOpaque(false);
         statusContainer.setBorder(new EmptyBorder(0, -6, 0, 0));
 
-        StatusDot statusDot = new StatusDot();
+        userStatusText.setFont(FONT_BOLD);
 
-        JLabel statusText = new JLabel();
-        statusText.setFont(FONT_BOLD);
-
-        JLabel userLabel = new JLabel();
         userLabel.setFont(FONT_REGULAR);
         userLabel.setForeground(TEXT_MUTED);
 
-        statusContainer.add(statusDot);
-        statusContainer.add(statusText);
+        statusContainer.add(userStatusDot);
+        statusContainer.add(userStatusText);
 
         topRow.add(statusContainer, BorderLayout.WEST);
         topRow.add(userLabel, BorderLayout.EAST);
@@ -298,17 +445,26 @@ public class BlertPluginPanel extends PluginPanel {
         serverStatusLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         serverStatusLabel.setBorder(new EmptyBorder(4, 0, 0, 0));
 
-        RoundedButton connectButton = new RoundedButton("Connect");
         connectButton.addActionListener(e -> connectToServer());
         connectButton.setAlignmentX(Component.LEFT_ALIGNMENT);
         connectButton.setMaximumSize(new Dimension(Short.MAX_VALUE, 25));
 
-        JLabel configHint = new JLabel("Follow the setup steps below");
         configHint.setFont(FONT_SMALL);
         configHint.setForeground(TEXT_MUTED);
         configHint.setAlignmentX(Component.LEFT_ALIGNMENT);
         configHint.setBorder(new EmptyBorder(4, 0, 0, 0));
 
+        card.add(topRow);
+        card.add(serverStatusLabel);
+        card.add(Box.createVerticalStrut(4));
+        card.add(connectButton);
+        card.add(configHint);
+    }
+
+    /**
+     * Updates the user panel based on the snapshotted connection state.
+     */
+    private void updateUserPanel(PanelState state) {
         Color stateColor = ACCENT_RED;
         String stateTitle;
         String detailMsg = null;
@@ -316,12 +472,12 @@ public class BlertPluginPanel extends PluginPanel {
         boolean showButton = false;
         boolean hasKey = hasApiKey();
 
-        switch (connectionState) {
+        switch (state.connectionState) {
             case CONNECTED:
                 stateColor = ACCENT_GREEN;
                 stateTitle = "Connected";
                 showUser = true;
-                userLabel.setText(connectedUsername != null ? connectedUsername : "Unknown");
+                userLabel.setText(state.connectedUsername != null ? state.connectedUsername : "Unknown");
                 serverStatusLabel.setForeground(TEXT_MAIN);
                 serverStatusLabel.setHorizontalAlignment(SwingConstants.LEFT);
                 updateShutdownLabel();
@@ -346,29 +502,26 @@ public class BlertPluginPanel extends PluginPanel {
                 break;
         }
 
-        statusDot.setColor(stateColor);
-        statusText.setText(stateTitle);
-        statusText.setForeground(stateColor == ACCENT_GREEN ? TEXT_MAIN : stateColor);
+        userStatusDot.setColor(stateColor);
+        userStatusText.setText(stateTitle);
+        userStatusText.setForeground(stateColor == ACCENT_GREEN ? TEXT_MAIN : stateColor);
         userLabel.setVisible(showUser);
 
-        card.add(topRow);
-
-        if (connectionState == ConnectionState.CONNECTED) {
-            card.add(serverStatusLabel);
+        if (state.connectionState == ConnectionState.CONNECTED) {
+            serverStatusLabel.setVisible(true);
         } else if (detailMsg != null) {
             serverStatusLabel.setText(detailMsg);
             serverStatusLabel.setForeground(ACCENT_RED);
-            card.add(serverStatusLabel);
+            serverStatusLabel.setVisible(true);
+        } else {
+            serverStatusLabel.setVisible(false);
         }
 
-        card.add(Box.createVerticalStrut(4));
-        if (showButton) {
-            card.add(connectButton);
-        } else if (!hasKey
-                && connectionState != ConnectionState.CONNECTED
-                && connectionState != ConnectionState.CONNECTING) {
-            card.add(configHint);
-        }
+        connectButton.setVisible(showButton);
+        configHint.setVisible(!showButton
+                && !hasKey
+                && state.connectionState != ConnectionState.CONNECTED
+                && state.connectionState != ConnectionState.CONNECTING);
     }
 
     private void connectToServer() {
@@ -388,8 +541,10 @@ public class BlertPluginPanel extends PluginPanel {
             protected void done() {
                 try {
                     boolean success = get();
-                    if (!success && connectionState == ConnectionState.CONNECTING) {
-                        updateConnectionState(ConnectionState.DISCONNECTED, null);
+                    synchronized (BlertPluginPanel.this) {
+                        if (!success && connectionState == ConnectionState.CONNECTING) {
+                            updateConnectionState(ConnectionState.DISCONNECTED, null);
+                        }
                     }
                 } catch (Exception e) {
                     updateConnectionState(ConnectionState.DISCONNECTED, null);
@@ -403,15 +558,7 @@ public class BlertPluginPanel extends PluginPanel {
      * Builds the getting started panel, which walks new users through creating a Blert
      * account and API key if they haven't entered one.
      */
-    private void rebuildGettingStartedPanel() {
-        gettingStartedPanel.removeAll();
-
-        boolean showSetup = !hasApiKey() || connectionState == ConnectionState.REJECTED;
-        gettingStartedPanel.setVisible(showSetup);
-        if (!showSetup) {
-            return;
-        }
-
+    private void createGettingStartedPanel() {
         gettingStartedPanel.add(createHeader("GETTING STARTED"), BorderLayout.NORTH);
 
         CardPanel card = new CardPanel();
@@ -463,6 +610,10 @@ public class BlertPluginPanel extends PluginPanel {
         gettingStartedPanel.add(card, BorderLayout.CENTER);
     }
 
+    private void updateGettingStartedPanel(PanelState state) {
+        gettingStartedPanel.setVisible(!hasApiKey() || state.connectionState == ConnectionState.REJECTED);
+    }
+
     /**
      * Saves the API key entered into the panel's text field to plugin config,
      * which automatically triggers a connection to the server.
@@ -547,48 +698,92 @@ public class BlertPluginPanel extends PluginPanel {
         return !Strings.isNullOrEmpty(config.apiKey());
     }
 
-    private void rebuildChallengePanel() {
-        challengeStatusPanel.removeAll();
+    private void createChallengePanel() {
         challengeStatusPanel.add(createHeader("CURRENT CHALLENGE"), BorderLayout.NORTH);
 
         CardPanel card = new CardPanel();
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         card.setBorder(new EmptyBorder(8, 8, 8, 8));
 
+        challengeMessageLabel.setFont(FONT_BOLD);
+        challengeMessageLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        stageSummaryLabel.setFont(FONT_SMALLEST);
+        stageSummaryLabel.setForeground(TEXT_MUTED);
+        stageSummaryLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        stageSummaryLabel.setBorder(new EmptyBorder(6, 0, 0, 0));
+
+        activeChallengePanel = createActiveChallengePanel();
+        challengeButtonStrut = Box.createVerticalStrut(8);
+        challengeButtonPanel = createViewCopyButtonPanel();
+
+        card.add(Box.createVerticalGlue());
+        card.add(challengeMessageLabel);
+        card.add(activeChallengePanel);
+        card.add(stageSummaryLabel);
+        card.add(challengeButtonStrut);
+        card.add(challengeButtonPanel);
         card.add(Box.createVerticalGlue());
 
-        if (connectionState != ConnectionState.CONNECTED) {
-            JLabel msg = new JLabel("Offline");
-            msg.setFont(FONT_BOLD);
-            msg.setForeground(TEXT_MUTED);
-            msg.setAlignmentX(Component.CENTER_ALIGNMENT);
-            card.add(msg);
-
-        } else if (challengeStatus == WebSocketEventHandler.Status.IDLE) {
-            boolean shuttingDown = (shutdownTime != null);
-            JLabel msg = new JLabel(shuttingDown ? "Server Maintenance" : "No Active Challenge");
-            msg.setFont(FONT_BOLD);
-            msg.setForeground(shuttingDown ? ACCENT_RED : TEXT_MAIN);
-            msg.setAlignmentX(Component.CENTER_ALIGNMENT);
-            card.add(msg);
+        challengeStatusPanel.add(card, BorderLayout.CENTER);
+    }
 
-        } else {
-            JPanel activeRaidPanel = createActiveRaidPanel();
-            card.add(activeRaidPanel);
+    private void updateChallengePanel(PanelState state) {
+        boolean active = false;
 
-            if (currentChallenge != null && currentChallengeId != null) {
-                card.add(Box.createVerticalStrut(8));
+        if (state.connectionState != ConnectionState.CONNECTED) {
+            challengeMessageLabel.setText("Offline");
+            challengeMessageLabel.setForeground(TEXT_MUTED);
+        } else if (state.challengeStatus == WebSocketEventHandler.Status.IDLE) {
+            boolean shuttingDown = (state.shutdownTime != null);
+            challengeMessageLabel.setText(shuttingDown ? "Server Maintenance" : "No Active Challenge");
+            challengeMessageLabel.setForeground(shuttingDown ? ACCENT_RED : TEXT_MAIN);
+        } else {
+            active = true;
 
-                JPanel buttonPanel = createViewCopyButtonPanel();
-                card.add(buttonPanel);
+            Color statusColor = ACCENT_GREEN;
+            if (state.challengeStatus == WebSocketEventHandler.Status.CHALLENGE_STARTING
+                    || state.challengeStatus == WebSocketEventHandler.Status.CHALLENGE_ENDING) {
+                statusColor = ACCENT_YELLOW;
             }
+
+            challengeStatusDot.setColor(statusColor);
+            challengeTitleLabel.setText(
+                    (state.currentChallenge != null) ? state.currentChallenge.getName() : "Unknown Raid");
         }
 
-        card.add(Box.createVerticalGlue());
+        boolean showButtons = active && state.currentChallenge != null && state.currentChallengeId != null;
 
-        challengeStatusPanel.add(card, BorderLayout.CENTER);
-        challengeStatusPanel.revalidate();
-        challengeStatusPanel.repaint();
+        boolean showSummary = active && state.stageSummary != null;
+        if (showSummary) {
+            stageSummaryLabel.setText(formatStageSummary(state.stageSummary));
+        }
+
+        challengeMessageLabel.setVisible(!active);
+        activeChallengePanel.setVisible(active);
+        stageSummaryLabel.setVisible(showSummary);
+        challengeButtonStrut.setVisible(showButtons);
+        challengeButtonPanel.setVisible(showButtons);
+    }
+
+    private static String formatStageSummary(StageSummary summary) {
+        StringBuilder text = new StringBuilder(stageName(summary.stage))
+                .append(" (")
+                .append(Tick.asTimeString(summary.ticks))
+                .append(')');
+        for (StageSummary.Player player : summary.players) {
+            text.append("<br>")
+                    .append(player.username)
+                    .append(": ")
+                    .append(player.attacks)
+                    .append(" attacks, ")
+                    .append(player.ticksOffCooldown)
+                    .append(" idle");
+            if (player.deaths > 0) {
+                text.append(", died");
+            }
+        }
+        return wrapText(text.toString());
     }
 
     private JPanel createViewCopyButtonPanel() {
@@ -598,41 +793,36 @@ public class BlertPluginPanel extends PluginPanel {
         btnPanel.setMaximumSize(new Dimension(Short.MAX_VALUE, 26));
 
         RoundedButton viewBtn = new RoundedButton("View");
-        viewBtn.addActionListener(e -> LinkBrowser.browse(challengeUrl(currentChallenge, currentChallengeId)));
+        viewBtn.addActionListener(e -> currentChallengeUrl().ifPresent(LinkBrowser::browse));
 
         RoundedButton copyBtn = new RoundedButton("Copy Link");
-        copyBtn.addActionListener(e -> Toolkit.getDefaultToolkit()
-                .getSystemClipboard()
-                .setContents(new StringSelection(challengeUrl(currentChallenge, currentChallengeId)), null));
+        copyBtn.addActionListener(e -> currentChallengeUrl()
+                .ifPresent(url ->
+                        Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(url), null)));
 
         btnPanel.add(viewBtn);
         btnPanel.add(copyBtn);
         return btnPanel;
     }
 
-    private JPanel createActiveRaidPanel() {
-        String title = (currentChallenge != null) ? currentChallenge.getName() : "Unknown Raid";
-        Color statusColor = ACCENT_GREEN;
-
-        if (challengeStatus == WebSocketEventHandler.Status.CHALLENGE_STARTING
-                || challengeStatus == WebSocketEventHandler.Status.CHALLENGE_ENDING) {
-            statusColor = ACCENT_YELLOW;
+    private synchronized Optional<String> currentChallengeUrl() {
+        if (currentChallenge == null || currentChallengeId == null) {
+            return Optional.empty();
         }
+        return Optional.of(challengeUrl(currentChallenge, currentChallengeId));
+    }
 
+    private JPanel createActiveChallengePanel() {
         JPanel titlePanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 6, 0));
         titlePanel.setOpaque(false);
         titlePanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         titlePanel.setMaximumSize(new Dimension(Short.MAX_VALUE, 30));
 
-        StatusDot statusDot = new StatusDot();
-        statusDot.setColor(statusColor);
+        challengeTitleLabel.setFont(FONT_BOLD.deriveFont(14f));
+        challengeTitleLabel.setForeground(TEXT_MAIN);
 
-        JLabel titleLabel = new JLabel(title);
-        titleLabel.setFont(FONT_BOLD.deriveFont(14f));
-        titleLabel.setForeground(TEXT_MAIN);
-
-        titlePanel.add(statusDot);
-        titlePanel.add(titleLabel);
+        titlePanel.add(challengeStatusDot);
+        titlePanel.add(challengeTitleLabel);
         return titlePanel;
     }
 
@@ -645,6 +835,11 @@ public class BlertPluginPanel extends PluginPanel {
         recentRecordingsContainer = new ScrollablePanel(new GridBagLayout());
         recentRecordingsContainer.setBackground(BG_BASE);
 
+        noRecordingsLabel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        noRecordingsLabel.setFont(FONT_REGULAR);
+        noRecordingsLabel.setForeground(TEXT_MUTED);
+        noRecordingsLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
         JScrollPane scrollPane = new JScrollPane(
                 recentRecordingsContainer,
                 JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
@@ -655,71 +850,120 @@ public class BlertPluginPanel extends PluginPanel {
         scrollPane.getViewport().setBackground(BG_BASE);
         scrollPane.getVerticalScrollBar().setUI(new ThinScrollBarUI());
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> onRecordingsScrolled(e.getAdjustable()));
 
         scrollPane.setPreferredSize(new Dimension(0, 0));
 
         recentRecordingsPanel.add(scrollPane, BorderLayout.CENTER);
     }
 
-    private void populateRecentRecordingsPanel() {
-        if (recentRecordingsContainer == null) {
+    /**
+     * Materializes another page of recent recordings when the list is scrolled near its end.
+     */
+    private void onRecordingsScrolled(Adjustable scrollBar) {
+        if (scrollBar.getValue() + scrollBar.getVisibleAmount()
+                < scrollBar.getMaximum() - RECORDINGS_SCROLL_THRESHOLD) {
             return;
         }
 
-        recentRecordingsContainer.removeAll();
+        synchronized (this) {
+            if (materializedRecordings < recentRecordings.size()) {
+                materializedRecordings += RECORDINGS_PAGE_SIZE;
+                markDirty(DIRTY_RECORDINGS);
+            }
+        }
+    }
 
-        GridBagConstraints gbc = new GridBagConstraints();
-        gbc.gridx = 0;
-        gbc.gridy = 0;
-        gbc.weightx = 1.0;
-        gbc.fill = GridBagConstraints.HORIZONTAL;
-        gbc.anchor = GridBagConstraints.NORTH;
-        gbc.insets = new Insets(0, 0, 5, 0);
+    /**
+     * Reconciles the recent recordings list with the model. Rows whose displayed values haven't changed are kept,
+     * and only recordings within the materialized window have components created for them.
+     */
+    private void updateRecentRecordingsPanel(PanelState state) {
+        List<Component> rows = new ArrayList<>();
 
-        if (recentRecordings.isEmpty()) {
-            JLabel noRecordingsLabel = new JLabel("No past recordings.");
-            noRecordingsLabel.setBorder(new EmptyBorder(10, 0, 0, 0));
-            noRecordingsLabel.setFont(FONT_REGULAR);
-            noRecordingsLabel.setForeground(TEXT_MUTED);
-            noRecordingsLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            recentRecordingsContainer.add(noRecordingsLabel, gbc);
+        if (state.materializedRecordings.isEmpty()) {
+            recordingRows.clear();
+            rows.add(noRecordingsLabel);
         } else {
-            for (PastChallenge challenge : recentRecordings) {
+            Map<String, RecordingRow> retained = new HashMap<>(state.materializedRecordings.size());
+
+            for (PastChallenge challenge : state.materializedRecordings) {
                 Pair<String, Color> statusInfo = getChallengeStatusInfo(challenge.status, challenge.stage);
                 String timeAgo = null;
                 if (challenge.timestamp != null) {
                     timeAgo = formatTimeAgo(challenge.timestamp.toInstant());
                 }
 
-                FeedItem item = new FeedItem(
-                        statusInfo.getLeft(),
-                        challengeModeToString(challenge.challenge, challenge.mode),
-                        challenge.challengeTicks,
-                        timeAgo,
-                        statusInfo.getRight(),
-                        challenge.party != null ? challenge.party : new ArrayList<>());
-
-                item.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mousePressed(MouseEvent e) {
-                        LinkBrowser.browse(challengeUrl(
-                                Objects.requireNonNull(Challenge.fromId(challenge.challenge)), challenge.id));
-                    }
-                });
+                List<String> party = challenge.party != null ? challenge.party : new ArrayList<>();
+                String mode = challengeModeToString(challenge.challenge, challenge.mode);
+                List<Object> signature = Arrays.asList(
+                        challenge.challenge, statusInfo.getLeft(), mode, challenge.challengeTicks, timeAgo, party);
+
+                RecordingRow row = recordingRows.get(challenge.id);
+                if (row == null || !row.signature.equals(signature)) {
+                    FeedItem item = new FeedItem(
+                            statusInfo.getLeft(),
+                            mode,
+                            challenge.challengeTicks,
+                            timeAgo,
+                            statusInfo.getRight(),
+                            party);
+                    item.addMouseListener(new MouseAdapter() {
+                        @Override
+                        public void mousePressed(MouseEvent e) {
+                            LinkBrowser.browse(challengeUrl(
+                                    Objects.requireNonNull(Challenge.fromId(challenge.challenge)), challenge.id));
+                        }
+                    });
+                    row = new RecordingRow(signature, item);
+                }
 
-                recentRecordingsContainer.add(item, gbc);
-                gbc.gridy++;
+                retained.put(challenge.id, row);
+                rows.add(row.item);
             }
 
-            GridBagConstraints glueGbc = new GridBagConstraints();
-            glueGbc.gridx = 0;
-            glueGbc.gridy = gbc.gridy;
-            glueGbc.weighty = 1.0;
-            recentRecordingsContainer.add(Box.createVerticalGlue(), glueGbc);
+            recordingRows.clear();
+            recordingRows.putAll(retained);
+            rows.add(recordingsGlue);
         }
 
-        recentRecordingsContainer.revalidate();
-        recentRecordingsContainer.repaint();
+        GridBagConstraints rowGbc = new GridBagConstraints();
+        rowGbc.gridx = 0;
+        rowGbc.gridy = GridBagConstraints.RELATIVE;
+        rowGbc.weightx = 1.0;
+        rowGbc.fill = GridBagConstraints.HORIZONTAL;
+        rowGbc.anchor = GridBagConstraints.NORTH;
+        rowGbc.insets = new Insets(0, 0, 5, 0);
+
+        GridBagConstraints glueGbc = new GridBagConstraints();
+        glueGbc.gridx = 0;
+        glueGbc.gridy = GridBagConstraints.RELATIVE;
+        glueGbc.weighty = 1.0;
+
+        // Patch the container in place, only touching positions whose component has changed.
+        boolean changed = false;
+        for (int i = 0; i < rows.size(); i++) {
+            Component row = rows.get(i);
+            if (i < recentRecordingsContainer.getComponentCount() && recentRecordingsContainer.getComponent(i) == row) {
+                continue;
+            }
+
+            if (row.getParent() == recentRecordingsContainer) {
+                recentRecordingsContainer.remove(row);
+            }
+            recentRecordingsContainer.add(row, row == recordingsGlue ? glueGbc : rowGbc, i);
+            changed = true;
+        }
+
+        while (recentRecordingsContainer.getComponentCount() > rows.size()) {
+            recentRecordingsContainer.remove(rows.size());
+            changed = true;
+        }
+
+        if (changed) {
+            recentRecordingsContainer.revalidate();
+            recentRecordingsContainer.repaint();
+        }
     }
 
     private Pair<String, Color> getChallengeStatusInfo(int status, int stageId) {
@@ -733,6 +977,15 @@ public class BlertPluginPanel extends PluginPanel {
             return Pair.of("Abandoned", Color.GRAY);
         }
 
+        String boss = stageName(stageId);
+
+        if (status == PastChallenge.STATUS_WIPED) {
+            return Pair.of(boss + " Wipe", Color.RED);
+        }
+        return Pair.of(boss + " Reset", Color.GRAY);
+    }
+
+    private static String stageName(int stageId) {
         String boss = "Unknown";
         Stage stage = Stage.fromId(stageId);
         if (stage != null) {
@@ -828,10 +1081,7 @@ public class BlertPluginPanel extends PluginPanel {
             boss = "Wave " + wave;
         }
 
-        if (status == PastChallenge.STATUS_WIPED) {
-            return Pair.of(boss + " Wipe", Color.RED);
-        }
-        return Pair.of(boss + " Reset", Color.GRAY);
+        return boss;
     }
 
     private String challengeModeToString(int challengeId, int modeId) {
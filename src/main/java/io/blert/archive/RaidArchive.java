@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.archive;
+
+import io.blert.core.Challenge;
+import io.blert.core.ChallengeMode;
+import io.blert.core.ChallengeTimeline;
+import io.blert.core.Stage;
+import io.blert.events.EventType;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A compact on-disk archive of a recorded challenge.
+ * <p>
+ * An archive begins with a header describing the challenge, followed by an index of the stages it contains (with the
+ * range of ticks each spans) and then one block per stage. Each block stores the stage's timeline column-wise: ticks
+ * and coordinates are delta-encoded, IDs and target room IDs are dictionary-coded, and all integers are written as
+ * variable-length quantities.
+ * <p>
+ * Archives are read through a memory-mapped file. Only the header and index are parsed on open; stage blocks are
+ * decoded on demand.
+ * <p>
+ * An archive holds only what the challenge's {@link ChallengeTimeline} recorded: player attacks, spells and deaths,
+ * and NPC spawns, deaths and attacks. It is not a full replay of the challenge's event stream, and requests for any
+ * other event type are rejected.
+ * <p>
+ * The timeline of a long session is bounded, so an archive may not contain every stage that was played. The header
+ * records how much of the challenge was lost before the archive was written.
+ */
+public class RaidArchive {
+    public static final String FILE_EXTENSION = ".blra";
+
+    private static final int MAGIC = 0x424c5241;
+    private static final int VERSION = 2;
+
+    // stage ID, min tick, max tick, offset, length
+    private static final int INDEX_ENTRY_SIZE = 5 * Integer.BYTES;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Header {
+        private final Challenge challenge;
+        private final ChallengeMode mode;
+        private final List<String> party;
+        private final long startTime;
+        private final int challengeTime;
+
+        /**
+         * Number of stage occurrences evicted from the start of the challenge's timeline, which the archive omits.
+         */
+        private final int evictedStages;
+
+        /**
+         * Number of events dropped from the archived stages because their timeline columns were full.
+         */
+        private final int droppedRows;
+
+        /**
+         * Returns whether the archive is missing any part of the challenge's timeline.
+         */
+        public boolean isTruncated() {
+            return evictedStages > 0 || droppedRows > 0;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    public static class StageEntry {
+        private final @Nullable Stage stage;
+        private final int minTick;
+        private final int maxTick;
+
+        @Getter(lombok.AccessLevel.NONE)
+        private final int offset;
+
+        @Getter(lombok.AccessLevel.NONE)
+        private final int length;
+    }
+
+    private final ByteBuffer buffer;
+
+    @Getter
+    private final Header header;
+
+    @Getter
+    private final List<StageEntry> stages;
+
+    /**
+     * Opens an archive file by memory-mapping it.
+     *
+     * @param path Path to the archive.
+     * @return The opened archive.
+     * @throws IOException If the file cannot be read or is not a valid archive.
+     */
+    public static RaidArchive open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new RaidArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    RaidArchive(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        try {
+            ByteBuffer in = buffer.duplicate();
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a raid archive");
+            }
+            int version = in.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported raid archive version " + version);
+            }
+
+            Challenge challenge = Challenge.fromId(in.getInt());
+            if (challenge == null) {
+                throw new IOException("Raid archive has an unknown challenge");
+            }
+            ChallengeMode mode = ChallengeMode.fromId(in.getInt());
+            long startTime = in.getLong();
+            int challengeTime = in.getInt();
+            int evictedStages = in.getInt();
+            int droppedRows = in.getInt();
+
+            int partySize = in.get() & 0xff;
+            List<String> party = new ArrayList<>(partySize);
+            for (int i = 0; i < partySize; i++) {
+                byte[] username = new byte[in.getShort() & 0xffff];
+                in.get(username);
+                party.add(new String(username, StandardCharsets.UTF_8));
+            }
+            this.header = new Header(
+                    challenge,
+                    mode,
+                    Collections.unmodifiableList(party),
+                    startTime,
+                    challengeTime,
+                    evictedStages,
+                    droppedRows);
+
+            int stageCount = in.getInt();
+            if (stageCount < 0 || stageCount > in.remaining() / INDEX_ENTRY_SIZE) {
+                throw new IOException("Raid archive has an invalid stage count " + stageCount);
+            }
+            int blocksStart = in.position() + stageCount * INDEX_ENTRY_SIZE;
+
+            List<StageEntry> entries = new ArrayList<>(stageCount);
+            for (int i = 0; i < stageCount; i++) {
+                Stage stage = Stage.fromId(in.getInt());
+                StageEntry entry = new StageEntry(stage, in.getInt(), in.getInt(), in.getInt(), in.getInt());
+                if (entry.offset < blocksStart || entry.length < 0 || entry.length > in.limit() - entry.offset) {
+                    throw new IOException("Raid archive stage " + i + " lies outside of the file");
+                }
+                entries.add(entry);
+            }
+            this.stages = Collections.unmodifiableList(entries);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated raid archive", e);
+        }
+    }
+
+    /**
+     * Returns the index of the last occurrence of a stage in the archive, or -1 if it is not present.
+     */
+    public int indexOf(Stage stage) {
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            if (stages.get(i).stage == stage) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes all of the rows recorded during a stage.
+     *
+     * @param index Index of the stage in {@link #getStages()}.
+     * @return The stage's rows, by event type.
+     * @throws IOException If the stage's block is malformed.
+     */
+    public Map<EventType, ChallengeTimeline.Rows> readStage(int index) throws IOException {
+        StageEntry entry = stages.get(index);
+        ByteBuffer in = buffer.duplicate();
+        in.limit(entry.offset + entry.length);
+        in.position(entry.offset);
+
+        try {
+            Map<EventType, ChallengeTimeline.Rows> rows = new EnumMap<>(EventType.class);
+            int streamCount = in.get() & 0xff;
+            for (int i = 0; i < streamCount; i++) {
+                EventType type = eventType(in.getShort());
+                ChallengeTimeline.Rows stream = readStream(in);
+                if (type != null) {
+                    rows.put(type, stream);
+                }
+            }
+            return rows;
+        } catch (BufferUnderflowException | IllegalStateException | IndexOutOfBoundsException e) {
+            throw new IOException("Malformed block for stage " + index + " in raid archive", e);
+        }
+    }
+
+    /**
+     * Decodes the rows of a single event type recorded within a tick range of a stage.
+     *
+     * @param index    Index of the stage in {@link #getStages()}.
+     * @param type     The event type.
+     * @param fromTick First tick of the range, inclusive.
+     * @param toTick   Last tick of the range, inclusive.
+     * @return Matching rows, in recorded order.
+     * @throws IOException              If the stage's block is malformed.
+     * @throws IllegalArgumentException If the event type is not one which archives store.
+     */
+    public ChallengeTimeline.Rows readRange(int index, EventType type, int fromTick, int toTick) throws IOException {
+        if (!ChallengeTimeline.isTracked(type)) {
+            throw new IllegalArgumentException("Raid archives do not store " + type + " events");
+        }
+
+        StageEntry entry = stages.get(index);
+        ChallengeTimeline.Rows stream = null;
+        if (fromTick <= entry.maxTick && toTick >= entry.minTick) {
+            stream = readStage(index).get(type);
+        }
+        if (stream == null) {
+            return new ChallengeTimeline.Rows(new int[0], new int[0], new int[0], new long[0], new int[0]);
+        }
+
+        int count = 0;
+        int[] rows = new int[stream.size()];
+        for (int row = 0; row < stream.size(); row++) {
+            int tick = stream.getTick(row);
+            if (tick >= fromTick && tick <= toTick) {
+                rows[count++] = row;
+            }
+        }
+
+        int[] ticks = new int[count];
+        int[] slots = new int[count];
+        int[] ids = new int[count];
+        long[] targetRoomIds = new long[count];
+        int[] coords = new int[count];
+        for (int i = 0; i < count; i++) {
+            ticks[i] = stream.getTick(rows[i]);
+            slots[i] = stream.getSlot(rows[i]);
+            ids[i] = stream.getId(rows[i]);
+            targetRoomIds[i] = stream.getTargetRoomId(rows[i]);
+            coords[i] = stream.getCoords(rows[i]);
+        }
+        return new ChallengeTimeline.Rows(ticks, slots, ids, targetRoomIds, coords);
+    }
+
+    /**
+     * Serializes a challenge into the archive format.
+     *
+     * @param header Information about the challenge.
+     * @param stages The challenge's stages, in the order they were played.
+     * @return The encoded archive.
+     */
+    public static byte[] encode(Header header, List<ChallengeTimeline.StageRecord> stages) throws IOException {
+        List<byte[]> blocks = new ArrayList<>(stages.size());
+        int[] minTicks = new int[stages.size()];
+        int[] maxTicks = new int[stages.size()];
+
+        for (int i = 0; i < stages.size(); i++) {
+            ByteArrayOutputStream block = new ByteArrayOutputStream();
+            Map<EventType, ChallengeTimeline.Rows> streams = stages.get(i).getRows();
+
+            int minTick = Integer.MAX_VALUE;
+            int maxTick = Integer.MIN_VALUE;
+            block.write(streams.size());
+            for (Map.Entry<EventType, ChallengeTimeline.Rows> stream : streams.entrySet()) {
+                ChallengeTimeline.Rows rows = stream.getValue();
+                int type = stream.getKey().getId();
+                block.write(type >>> 8);
+                block.write(type);
+                writeStream(block, rows);
+
+                for (int row = 0; row < rows.size(); row++) {
+                    minTick = Math.min(minTick, rows.getTick(row));
+                    maxTick = Math.max(maxTick, rows.getTick(row));
+                }
+            }
+
+            blocks.add(block.toByteArray());
+            minTicks[i] = streams.isEmpty() ? 0 : minTick;
+            maxTicks[i] = streams.isEmpty() ? 0 : maxTick;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(header.challenge.getId());
+        out.writeInt(header.mode.getId());
+        out.writeLong(header.startTime);
+        out.writeInt(header.challengeTime);
+        out.writeInt(header.evictedStages);
+        out.writeInt(header.droppedRows);
+        out.writeByte(header.party.size());
+        for (String username : header.party) {
+            byte[] encoded = username.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(encoded.length);
+            out.write(encoded);
+        }
+        out.writeInt(stages.size());
+
+        int offset = out.size() + stages.size() * INDEX_ENTRY_SIZE;
+        for (int i = 0; i < stages.size(); i++) {
+            out.writeInt(stages.get(i).getStage().getId());
+            out.writeInt(minTicks[i]);
+            out.writeInt(maxTicks[i]);
+            out.writeInt(offset);
+            out.writeInt(blocks.get(i).length);
+            offset += blocks.get(i).length;
+        }
+        for (byte[] block : blocks) {
+            out.write(block);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeStream(ByteArrayOutputStream out, ChallengeTimeline.Rows rows) {
+        final int size = rows.size();
+        writeVarint(out, size);
+
+        int previous = 0;
+        for (int row = 0; row < size; row++) {
+            writeVarint(out, zigzag(rows.getTick(row) - previous));
+            previous = rows.getTick(row);
+        }
+
+        for (int row = 0; row < size; row++) {
+            out.write(rows.getSlot(row) + 1);
+        }
+
+        long[] values = new long[size];
+        for (int row = 0; row < size; row++) {
+            values[row] = rows.getId(row);
+        }
+        writeDictionary(out, values);
+        for (int row = 0; row < size; row++) {
+            values[row] = rows.getTargetRoomId(row);
+        }
+        writeDictionary(out, values);
+
+        previous = 0;
+        for (int row = 0; row < size; row++) {
+            writeVarint(out, zigzag(rows.getX(row) - previous));
+            previous = rows.getX(row);
+        }
+        previous = 0;
+        for (int row = 0; row < size; row++) {
+            writeVarint(out, zigzag(rows.getY(row) - previous));
+            previous = rows.getY(row);
+        }
+    }
+
+    private static ChallengeTimeline.Rows readStream(ByteBuffer in) {
+        // Every row occupies at least one byte, which bounds the size of a well-formed stream.
+        final int size = readLength(in);
+
+        int[] ticks = new int[size];
+        int previous = 0;
+        for (int row = 0; row < size; row++) {
+            previous += (int) unzigzag(readVarint(in));
+            ticks[row] = previous;
+        }
+
+        int[] slots = new int[size];
+        for (int row = 0; row < size; row++) {
+            slots[row] = (in.get() & 0xff) - 1;
+        }
+
+        long[] values = readDictionary(in, size);
+        int[] ids = new int[size];
+        for (int row = 0; row < size; row++) {
+            ids[row] = (int) values[row];
+        }
+        long[] targetRoomIds = readDictionary(in, size);
+
+        int[] coords = new int[size];
+        previous = 0;
+        for (int row = 0; row < size; row++) {
+            previous += (int) unzigzag(readVarint(in));
+            coords[row] = previous << 16;
+        }
+        previous = 0;
+        for (int row = 0; row < size; row++) {
+            previous += (int) unzigzag(readVarint(in));
+            coords[row] |= previous & 0xffff;
+        }
+
+        return new ChallengeTimeline.Rows(ticks, slots, ids, targetRoomIds, coords);
+    }
+
+    /**
+     * Writes a column as a dictionary of its distinct values in order of first appearance, followed by each row's
+     * index into the dictionary.
+     */
+    private static void writeDictionary(ByteArrayOutputStream out, long[] values) {
+        Map<Long, Integer> dictionary = new LinkedHashMap<>();
+        for (long value : values) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+
+        writeVarint(out, dictionary.size());
+        for (long value : dictionary.keySet()) {
+            writeVarint(out, zigzag(value));
+        }
+        for (long value : values) {
+            writeVarint(out, dictionary.get(value));
+        }
+    }
+
+    private static long[] readDictionary(ByteBuffer in, int size) {
+        long[] dictionary = new long[readLength(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = unzigzag(readVarint(in));
+        }
+
+        long[] values = new long[size];
+        for (int row = 0; row < size; row++) {
+            values[row] = dictionary[(int) readVarint(in)];
+        }
+        return values;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in raid archive");
+    }
+
+    /**
+     * Reads a count of items which each occupy at least one of the buffer's remaining bytes.
+     */
+    private static int readLength(ByteBuffer in) {
+        long length = readVarint(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalStateException("Length " + length + " exceeds raid archive block");
+        }
+        return (int) length;
+    }
+
+    private static @Nullable EventType eventType(int id) {
+        for (EventType type : EventType.values()) {
+            if (type.getId() == id) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
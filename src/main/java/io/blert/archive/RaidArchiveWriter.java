@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.archive;
+
+import io.blert.core.ChallengeTimeline;
+import io.blert.events.ChallengeEndEvent;
+import io.blert.events.ChallengeStartEvent;
+import io.blert.events.Event;
+import io.blert.events.EventHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An event handler which writes a {@link RaidArchive} of each recorded challenge when it ends.
+ * <p>
+ * The challenge's timeline is copied on the thread that dispatches the end event; encoding and writing the archive
+ * happen on the provided executor. If the timeline was compacted or overflowed during the challenge, the archive's
+ * header records what was lost.
+ * <p>
+ * Only the event types kept by the timeline are archived; stage updates, player and NPC updates, and other events
+ * sent to the server are not.
+ */
+@Slf4j
+public class RaidArchiveWriter implements EventHandler {
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+
+    private final ChallengeTimeline timeline;
+    private final Path directory;
+    private final Executor executor;
+
+    private @Nullable ChallengeStartEvent startEvent = null;
+    private long startTime = 0;
+
+    public RaidArchiveWriter(ChallengeTimeline timeline, Path directory, Executor executor) {
+        this.timeline = timeline;
+        this.directory = directory;
+        this.executor = executor;
+    }
+
+    @Override
+    public void handleEvent(int clientTick, Event event) {
+        switch (event.getType()) {
+            case CHALLENGE_START:
+                startEvent = (ChallengeStartEvent) event;
+                startTime = System.currentTimeMillis();
+                break;
+
+            case CHALLENGE_END: {
+                ChallengeEndEvent endEvent = (ChallengeEndEvent) event;
+                ChallengeStartEvent start = startEvent;
+                startEvent = null;
+
+                // A soft end means the challenge was never actually entered.
+                if (start == null || endEvent.isSoft()) {
+                    break;
+                }
+
+                RaidArchive.Header header = new RaidArchive.Header(
+                        start.getChallenge(),
+                        start.getMode(),
+                        new ArrayList<>(start.getParty()),
+                        startTime,
+                        endEvent.getChallengeTime(),
+                        timeline.getEvictedStages(),
+                        timeline.getDroppedRows());
+                List<ChallengeTimeline.StageRecord> stages = timeline.export();
+                executor.execute(() -> write(header, stages));
+                break;
+            }
+
+            default:
+                break;
+        }
+    }
+
+    private void write(RaidArchive.Header header, List<ChallengeTimeline.StageRecord> stages) {
+        String name = header.getChallenge().name().toLowerCase() + '-'
+                + FILE_TIMESTAMP.format(Instant.ofEpochMilli(header.getStartTime()));
+        Path file = directory.resolve(name + RaidArchive.FILE_EXTENSION);
+        Path temporary = directory.resolve(name + RaidArchive.FILE_EXTENSION + ".tmp");
+
+        try {
+            byte[] archive = RaidArchive.encode(header, stages);
+            Files.createDirectories(directory);
+            Files.write(temporary, archive);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Archived {} ({} bytes) to {}", header.getChallenge(), archive.length, file);
+            if (header.isTruncated()) {
+                log.info("Raid archive {} is missing {} evicted stages and {} dropped events",
+                        file, header.getEvictedStages(), header.getDroppedRows());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write raid archive {}", file, e);
+        }
+    }
+}
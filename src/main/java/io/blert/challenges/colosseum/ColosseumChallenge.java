@@ -26,12 +26,11 @@ package io.blert.challenges.colosseum;
 import io.blert.core.*;
 import io.blert.events.ChallengeEndEvent;
 import io.blert.events.ChallengeStartEvent;
-import io.blert.util.DeferredTask;
 import io.blert.util.Location;
 import io.blert.util.Tick;
+import io.blert.util.TickScheduler;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -41,17 +40,19 @@ import net.runelite.api.coords.WorldArea;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
 import net.runelite.client.callback.ClientThread;
-import net.runelite.client.util.Text;
-import org.apache.commons.lang3.tuple.Pair;
 
 @Slf4j
 public final class ColosseumChallenge extends RecordableChallenge {
+    static final String COLOSSEUM_END_LITERAL = "Colosseum duration: ";
     static final Pattern COLOSSEUM_END_REGEX = Pattern.compile("Colosseum duration: (" + Tick.TIME_STRING_REGEX + ")");
 
     private static final int COLOSSEUM_REGION_ID = 7216;
     private static final int COLOSSEUM_LOBBY_REGION_ID = 7316;
     private static final WorldArea COLOSSEUM_AREA = new WorldArea(1806, 3088, 38, 38, 0);
 
+    private static final String WAVE_START_PREFIX = "Wave: ";
+    private static final Pattern WAVE_START_REGEX = Pattern.compile("^Wave: (\\d+)$");
+
     private static final int MINIMUS_NPC_ID = 12808;
     private static final int REWARD_CHEST_OBJECT_ID = 50741;
 
@@ -65,11 +66,27 @@ public final class ColosseumChallenge extends RecordableChallenge {
 
     private final List<Handicap> waveHandicapOptions = new ArrayList<>(3);
 
-    private @Nullable DeferredTask deferredTask = null;
+    private @Nullable TickScheduler.Handle pendingStateChange = null;
     private boolean stateChangeCooldown;
 
+    /**
+     * Checkpoint of an interrupted run which is resumed once the game confirms that the run is still in progress.
+     */
+    private @Nullable ChallengeCheckpoint pendingResume = null;
+
     public ColosseumChallenge(Client client, ClientThread clientThread) {
         super(Challenge.COLOSSEUM, client, clientThread);
+
+        getChatClassifier().onContains(COLOSSEUM_END_LITERAL, COLOSSEUM_END_REGEX, match -> {
+            if (!getState().isInactive()) {
+                reportedChallengeTicks = match.ticks(1);
+            }
+        });
+        getChatClassifier().onPrefix(WAVE_START_PREFIX, WAVE_START_REGEX, match -> {
+            if (pendingResume != null && !getState().isInactive()) {
+                resolveResume(Integer.parseInt(match.group(1)));
+            }
+        });
     }
 
     @Nullable
@@ -109,10 +126,6 @@ public final class ColosseumChallenge extends RecordableChallenge {
                 waveDataTracker.tick();
             }
         }
-
-        if (deferredTask != null) {
-            deferredTask.tick();
-        }
     }
 
     @Nullable
@@ -138,22 +151,19 @@ public final class ColosseumChallenge extends RecordableChallenge {
 
             if (getState() == ChallengeState.ACTIVE) {
                 stateChangeCooldown = true;
-                deferredTask = new DeferredTask(
-                        () -> {
-                            stateChangeCooldown = false;
-
-                            if (!waveHandicapOptions.isEmpty()) {
-                                // The debuff selection varbit stores the index of the selected debuff option, starting
-                                // from 1.
-                                int selectedDebuffIndex = client.getVarbitValue(HANDICAP_SELECTION_VARBIT_ID) - 1;
-                                Handicap selectedHandicap = waveHandicapOptions.get(selectedDebuffIndex);
-                                if (waveDataTracker != null) {
-                                    waveDataTracker.setHandicapOptions(waveHandicapOptions.toArray(new Handicap[3]));
-                                    waveDataTracker.setHandicap(selectedHandicap);
-                                }
-                            }
-                        },
-                        3);
+                queueStateChange(3, () -> {
+                    stateChangeCooldown = false;
+
+                    if (!waveHandicapOptions.isEmpty()) {
+                        // The debuff selection varbit stores the index of the selected debuff option, starting from 1.
+                        int selectedDebuffIndex = client.getVarbitValue(HANDICAP_SELECTION_VARBIT_ID) - 1;
+                        Handicap selectedHandicap = waveHandicapOptions.get(selectedDebuffIndex);
+                        if (waveDataTracker != null) {
+                            waveDataTracker.setHandicapOptions(waveHandicapOptions.toArray(new Handicap[3]));
+                            waveDataTracker.setHandicap(selectedHandicap);
+                        }
+                    }
+                });
             }
         }
         super.onNpcDespawned(event);
@@ -162,31 +172,11 @@ public final class ColosseumChallenge extends RecordableChallenge {
     @Override
     public void onGameObjectSpawned(GameObjectSpawned event) {
         if (event.getGameObject().getId() == REWARD_CHEST_OBJECT_ID) {
-            if (deferredTask != null) {
-                deferredTask.cancel();
-            }
             queueFinishColosseum(ChallengeState.COMPLETE);
         }
         super.onGameObjectSpawned(event);
     }
 
-    @Override
-    public void onChatMessage(ChatMessage event) {
-        if (!getState().isInactive()) {
-            Matcher matcher = ColosseumChallenge.COLOSSEUM_END_REGEX.matcher(Text.removeTags(event.getMessage()));
-            if (matcher.find()) {
-                try {
-                    reportedChallengeTicks = Tick.fromTimeString(matcher.group(1))
-                            .map(Pair::getLeft)
-                            .orElse(-1);
-                } catch (Exception e) {
-                    reportedChallengeTicks = -1;
-                }
-            }
-        }
-        super.onChatMessage(event);
-    }
-
     @Override
     public void onScriptPreFired(ScriptPreFired event) {
         if (!getState().isInactive() && event.getScriptId() == HANDICAP_SELECTION_SCRIPT_ID) {
@@ -227,23 +217,84 @@ public final class ColosseumChallenge extends RecordableChallenge {
         setState(ChallengeState.STARTING);
         reportedChallengeTicks = -1;
 
+        ChallengeCheckpoint checkpoint = takeCheckpoint();
+        if (checkpoint != null) {
+            // The client restarted mid-run. The run may have been forfeited while the client was down, so the
+            // checkpoint is only resumed once the wave start message confirms the interrupted wave is in progress.
+            log.info("Found Colosseum checkpoint at {}; waiting for wave start", checkpoint.getStage());
+            pendingResume = checkpoint;
+            currentWave = checkpointWave(checkpoint) - 1;
+            recordedChallengeTicks = checkpoint.getChallengeTicks();
+        } else {
+            clearCheckpoint();
+            dispatchChallengeStart(Stage.COLOSSEUM_WAVE_1, null);
+        }
+    }
+
+    private void resolveResume(int startedWave) {
+        ChallengeCheckpoint checkpoint = pendingResume;
+        pendingResume = null;
+
+        if (startedWave == checkpointWave(checkpoint)) {
+            log.info("Resuming Colosseum challenge from {}", checkpoint.getStage());
+            dispatchChallengeStart(checkpoint.getStage(), checkpoint.getChallengeId());
+            saveCheckpoint(checkpoint.getStage(), recordedChallengeTicks);
+            return;
+        }
+
+        // The interrupted run ended while the client was down, and this is a different one.
+        log.info("Discarding stale Colosseum checkpoint at {}; wave {} started", checkpoint.getStage(), startedWave);
+        clearCheckpoint();
+        if (waveDataTracker != null) {
+            waveDataTracker.terminate();
+            waveDataTracker = null;
+        }
+        currentWave = startedWave - 1;
+        recordedChallengeTicks = 0;
+        dispatchChallengeStart(WaveDataTracker.waveToStage(startedWave), null);
+        prepareNextWave();
+    }
+
+    private static int checkpointWave(ChallengeCheckpoint checkpoint) {
+        return checkpoint.getStage().getId() - Stage.COLOSSEUM_WAVE_1.getId() + 1;
+    }
+
+    private void dispatchChallengeStart(Stage stage, @Nullable String resumeChallengeId) {
         List<String> usernames = getParty().stream().map(Raider::getUsername).collect(Collectors.toList());
         dispatchEvent(new ChallengeStartEvent(
-                getChallenge(), ChallengeMode.NO_MODE, Stage.COLOSSEUM_WAVE_1, usernames, false));
+                getChallenge(),
+                ChallengeMode.NO_MODE,
+                stage,
+                usernames,
+                false,
+                getCaptureProfile(),
+                resumeChallengeId));
     }
 
     private void queueFinishColosseum(ChallengeState state) {
         stateChangeCooldown = true;
-        deferredTask = new DeferredTask(() -> finishColosseum(state), 3);
+        queueStateChange(3, () -> finishColosseum(state));
+    }
+
+    private void queueStateChange(int ticks, Runnable change) {
+        if (pendingStateChange != null) {
+            pendingStateChange.cancel();
+        }
+        // State changes run after the wave tracker has processed the tick.
+        pendingStateChange = getScheduler().defer(ticks, TickScheduler.Priority.AFTER_TICK, change);
     }
 
     private void finishColosseum(ChallengeState state) {
         log.debug("Ending Colosseum challenge: {}", state);
         stateChangeCooldown = false;
         int reported = reportedChallengeTicks;
+        boolean started = pendingResume == null;
 
         cleanup();
-        dispatchEvent(new ChallengeEndEvent(reported, -1));
+        clearCheckpoint();
+        if (started) {
+            dispatchEvent(new ChallengeEndEvent(reported, -1));
+        }
         setState(state);
     }
 
@@ -255,6 +306,9 @@ public final class ColosseumChallenge extends RecordableChallenge {
         currentWave++;
         if (currentWave < 13) {
             waveDataTracker = new WaveDataTracker(this, client, currentWave, recordedChallengeTicks);
+            if (pendingResume == null) {
+                saveCheckpoint(waveDataTracker.getStage(), recordedChallengeTicks);
+            }
         }
     }
 
@@ -272,6 +326,7 @@ public final class ColosseumChallenge extends RecordableChallenge {
     }
 
     private void reset() {
+        pendingResume = null;
         currentWave = 0;
         recordedChallengeTicks = 0;
         reportedChallengeTicks = -1;
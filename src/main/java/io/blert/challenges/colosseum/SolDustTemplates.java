@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.challenges.colosseum;
+
+import io.blert.events.colosseum.SolDustEvent;
+import javax.annotation.Nullable;
+
+/**
+ * Precomputed tile masks for recognizing Sol Heredit's dust patterns.
+ * <p>
+ * Patterns are told apart by the dust which lands on the ring of tiles exactly two tiles away from Sol. Each tile on
+ * that ring is assigned a bit, so the dust seen in a tick folds into a single mask relative to Sol's position and is
+ * classified with a handful of bit operations:
+ * <pre>
+ *   no dust on the ring       = shield 1 (safe ring two tiles out)
+ *   two prongs on one side    = trident 1
+ *   three prongs on one side  = trident 2
+ *   anything else             = shield 2 (safe ring three tiles out)
+ * </pre>
+ * A trident's direction is the side of the ring its prongs fall on, checked against a mask per direction. Each corner
+ * of the ring lies on two sides, so a prong on a corner is resolved by the trident's other prongs.
+ */
+final class SolDustTemplates {
+    private static final int RING_DISTANCE = 2;
+
+    private final int solSize;
+    private final int ringSide;
+    private final long westMask;
+    private final long eastMask;
+    private final long northMask;
+    private final long southMask;
+
+    /**
+     * Builds the templates for a Sol of the given size.
+     *
+     * @param solSize Width of Sol's footprint, in tiles.
+     */
+    SolDustTemplates(int solSize) {
+        this.solSize = solSize;
+        this.ringSide = solSize + 2 * RING_DISTANCE;
+        if (4 * (ringSide - 1) > Long.SIZE) {
+            throw new IllegalArgumentException("Unsupported Sol size: " + solSize);
+        }
+
+        // Each side's mask includes the corners at both of its ends.
+        long west = 0;
+        long east = 0;
+        long north = 0;
+        long south = 0;
+        for (int i = -RING_DISTANCE; i < solSize + RING_DISTANCE; i++) {
+            west |= tileMask(-RING_DISTANCE, i);
+            east |= tileMask(solSize + RING_DISTANCE - 1, i);
+            north |= tileMask(i, solSize + RING_DISTANCE - 1);
+            south |= tileMask(i, -RING_DISTANCE);
+        }
+
+        this.westMask = west;
+        this.eastMask = east;
+        this.northMask = north;
+        this.southMask = south;
+    }
+
+    int getSolSize() {
+        return solSize;
+    }
+
+    /**
+     * Returns the ring bit for a tile, or 0 if the tile is not on the ring.
+     *
+     * @param dx X offset of the tile from Sol's southwest tile.
+     * @param dy Y offset of the tile from Sol's southwest tile.
+     * @return Bit representing the tile.
+     */
+    long tileMask(int dx, int dy) {
+        int x = dx + RING_DISTANCE;
+        int y = dy + RING_DISTANCE;
+        int last = ringSide - 1;
+        if (x < 0 || y < 0 || x > last || y > last) {
+            return 0;
+        }
+
+        // Walk the ring counter-clockwise from its southwest corner.
+        int index;
+        if (y == 0) {
+            index = x;
+        } else if (x == last) {
+            index = last + y;
+        } else if (y == last) {
+            index = 2 * last + (last - x);
+        } else if (x == 0) {
+            index = 3 * last + (last - y);
+        } else {
+            return 0;
+        }
+        return 1L << index;
+    }
+
+    /**
+     * Identifies the dust pattern from the ring tiles it covered.
+     *
+     * @param ring Accumulated ring mask of the tick's dust.
+     * @return The pattern.
+     */
+    SolDustEvent.Pattern pattern(long ring) {
+        switch (Long.bitCount(ring)) {
+            case 0:
+                return SolDustEvent.Pattern.SHIELD_1;
+            case 2:
+                return SolDustEvent.Pattern.TRIDENT_1;
+            case 3:
+                return SolDustEvent.Pattern.TRIDENT_2;
+            default:
+                return SolDustEvent.Pattern.SHIELD_2;
+        }
+    }
+
+    /**
+     * Identifies the direction of a trident pattern from the ring tiles it covered.
+     *
+     * @param ring Accumulated ring mask of the tick's dust.
+     * @return The direction, or {@code null} if the pattern is not a trident.
+     */
+    @Nullable
+    SolDustEvent.Direction direction(long ring) {
+        SolDustEvent.Pattern pattern = pattern(ring);
+        if (pattern != SolDustEvent.Pattern.TRIDENT_1 && pattern != SolDustEvent.Pattern.TRIDENT_2) {
+            return null;
+        }
+
+        // A trident's prongs all fall on one side. Two distinct tiles share at most one side, even when either is a
+        // corner, so the side holding the most prongs is the only one holding all of them. Should the prongs somehow
+        // not share a side, ties are broken in the order the sides are checked.
+        SolDustEvent.Direction direction = SolDustEvent.Direction.WEST;
+        int prongs = Long.bitCount(ring & westMask);
+        if (Long.bitCount(ring & eastMask) > prongs) {
+            direction = SolDustEvent.Direction.EAST;
+            prongs = Long.bitCount(ring & eastMask);
+        }
+        if (Long.bitCount(ring & northMask) > prongs) {
+            direction = SolDustEvent.Direction.NORTH;
+            prongs = Long.bitCount(ring & northMask);
+        }
+        if (Long.bitCount(ring & southMask) > prongs) {
+            direction = SolDustEvent.Direction.SOUTH;
+        }
+        return direction;
+    }
+}
@@ -27,25 +27,22 @@ import io.blert.core.*;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.colosseum.*;
 import io.blert.util.Tick;
+import io.blert.util.TickScheduler;
 import java.util.*;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
-import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.LocalPoint;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
-import net.runelite.client.util.Text;
 import org.apache.commons.lang3.tuple.Pair;
 
 @Slf4j
 public class WaveDataTracker extends DataTracker {
     private static final String bossStartMessage = "Sol Heredit jumps down from his seat...";
-    private final String waveStartMessage;
-    private final Pattern waveEndRegex;
 
     private final int ticksOnEntry;
 
@@ -63,16 +60,20 @@ public class WaveDataTracker extends DataTracker {
     private static final Set<Integer> SOL_LASER_SHOT_GRAPHIC_OBJECT_IDS = Set.of(2693, 2694, 2695);
     private static final int SOL_POOL_GRAPHIC_OBJECT_ID = 2698;
 
-    private final Map<WorldPoint, NPC> healingTotems = new HashMap<>();
+    // The Colosseum arena spans 38x38 tiles.
+    private final StageGrid<NPC> healingTotems = StageGrid.forScene(38, 38);
     private final Map<NPC, Pair<NPC, Integer>> activeHeals = new HashMap<>();
 
-    private final List<GameObject> reentryPrimaryPoolsSpawned = new ArrayList<>();
-    private final List<GroundObject> reentrySecondaryPoolsSpawned = new ArrayList<>();
-    private final List<GameObject> reentryPrimaryPoolsDespawned = new ArrayList<>();
-    private final List<GroundObject> reentrySecondaryPoolsDespawned = new ArrayList<>();
-    private final Set<WorldPoint> solDustGraphics = new HashSet<>();
-    private final List<WorldPoint> solPools = new ArrayList<>();
-    private GraphicsObject solLaserGraphic;
+    private final List<GameObject> reentryPrimaryPoolsSpawned = getTickArena().list();
+    private final List<GroundObject> reentrySecondaryPoolsSpawned = getTickArena().list();
+    private final List<GameObject> reentryPrimaryPoolsDespawned = getTickArena().list();
+    private final List<GroundObject> reentrySecondaryPoolsDespawned = getTickArena().list();
+    private final List<WorldPoint> solDustGraphics = getTickArena().list();
+    private final List<WorldPoint> solPools = getTickArena().list();
+    private int solLaserGraphicId = -1;
+
+    private @Nullable NPC sol = null;
+    private @Nullable SolDustTemplates solDustTemplates = null;
 
     private static final Map<String, EquipmentSlot> GRAPPLE_MESSAGES = Map.of(
             "Sol Heredit: I'LL CRUSH YOUR BODY!", EquipmentSlot.TORSO,
@@ -85,6 +86,7 @@ public class WaveDataTracker extends DataTracker {
 
     private @Nullable EquipmentSlot pendingGrappleTarget = null;
     private int pendingGrappleTick = -1;
+    private @Nullable TickScheduler.Handle grappleTimeout = null;
 
     public static Stage waveToStage(int wave) {
         return Stage.values()[Stage.COLOSSEUM_WAVE_1.ordinal() + wave - 1];
@@ -93,10 +95,27 @@ public class WaveDataTracker extends DataTracker {
     public WaveDataTracker(RecordableChallenge challenge, Client client, int wave, int ticksOnEntry) {
         super(challenge, client, waveToStage(wave));
 
-        this.waveStartMessage = "Wave: " + wave;
-        this.waveEndRegex =
-                Pattern.compile("Wave " + wave + " completed! " + "Wave duration: (" + Tick.TIME_STRING_REGEX + ")");
         this.ticksOnEntry = ticksOnEntry;
+
+        ChatClassifier chat = getChatClassifier();
+        chat.onMessage("Wave: " + wave, match -> startWave(0));
+        chat.onMessage(bossStartMessage, match -> startWave(-1));
+
+        if (getStage() == Stage.COLOSSEUM_WAVE_12) {
+            GRAPPLE_MESSAGES.forEach((message, slot) -> chat.onMessage(message, match -> onGrappleAnnounced(slot)));
+            chat.onMessage(GRAPPLE_DEFEND_MESSAGE, match -> dispatchGrapple(SolGrappleEvent.Outcome.DEFEND));
+            chat.onMessage(GRAPPLE_PARRY_MESSAGE, match -> dispatchGrapple(SolGrappleEvent.Outcome.PARRY));
+            chat.onContains(
+                    ColosseumChallenge.COLOSSEUM_END_LITERAL,
+                    ColosseumChallenge.COLOSSEUM_END_REGEX,
+                    this::onColosseumEnd);
+        } else {
+            String waveEndLiteral = "Wave " + wave + " completed! Wave duration: ";
+            Pattern waveEndRegex = Pattern.compile(Pattern.quote(waveEndLiteral) + "(" + Tick.TIME_STRING_REGEX + ")");
+            chat.onContains(waveEndLiteral, waveEndRegex, match -> finish(match.group(1)));
+        }
+
+        getProjectileTracker().onSpawn(HEALING_TOTEM_PROJECTILE_ID, this::onHealingTotemProjectile);
     }
 
     @Override
@@ -104,7 +123,13 @@ public class WaveDataTracker extends DataTracker {
         return ColosseumNpc.withId(event.getNpc().getId()).map(colosseumNpc -> {
             NPC npc = event.getNpc();
             if (colosseumNpc.isHealingTotem()) {
-                healingTotems.put(npc.getWorldLocation(), npc);
+                LocalPoint local = LocalPoint.fromWorld(client, npc.getWorldLocation());
+                if (local != null) {
+                    healingTotems.put(local, npc);
+                }
+            }
+            if (ColosseumNpc.isSolHeredit(npc.getId())) {
+                sol = npc;
             }
             if (colosseumNpc.isManticore()) {
                 return new Manticore(npc, generateRoomId(npc), new Hitpoints(colosseumNpc.getHitpoints()));
@@ -119,10 +144,14 @@ public class WaveDataTracker extends DataTracker {
             if (ColosseumNpc.withId(trackedNpc.getNpc().getId())
                     .map(ColosseumNpc::isHealingTotem)
                     .orElse(false)) {
-                healingTotems.remove(trackedNpc.getNpc().getWorldLocation());
+                NPC totem = trackedNpc.getNpc();
+                healingTotems.remove(LocalPoint.fromWorld(client, totem.getWorldLocation()), totem);
             }
             activeHeals.remove(trackedNpc.getNpc());
         }
+        if (event.getNpc() == sol) {
+            sol = null;
+        }
         return ColosseumNpc.withId(event.getNpc().getId()).isPresent();
     }
 
@@ -181,13 +210,7 @@ public class WaveDataTracker extends DataTracker {
             handleSolEvents();
         }
 
-        reentryPrimaryPoolsSpawned.clear();
-        reentrySecondaryPoolsSpawned.clear();
-        reentryPrimaryPoolsDespawned.clear();
-        reentrySecondaryPoolsDespawned.clear();
-        solDustGraphics.clear();
-        solPools.clear();
-        solLaserGraphic = null;
+        solLaserGraphicId = -1;
     }
 
     @Override
@@ -222,14 +245,13 @@ public class WaveDataTracker extends DataTracker {
         }
     }
 
-    @Override
-    protected void onProjectile(ProjectileMoved event) {
-        Projectile projectile = event.getProjectile();
-        if (projectile.getId() != HEALING_TOTEM_PROJECTILE_ID) {
+    private void onHealingTotemProjectile(ProjectileTracker.TrackedProjectile projectile) {
+        if (!projectile.isSeenAtLaunch()) {
             return;
         }
 
-        NPC totem = healingTotems.get(projectile.getSourcePoint());
+        WorldPoint source = projectile.getSourcePoint();
+        NPC totem = source != null ? healingTotems.get(LocalPoint.fromWorld(client, source)) : null;
         if (totem == null) {
             return;
         }
@@ -239,16 +261,17 @@ public class WaveDataTracker extends DataTracker {
             return;
         }
 
-        int cycle = client.getGameCycle() - projectile.getStartCycle();
-        if (cycle == 0) {
-            getTrackedNpcs().getByNpc((NPC) target).ifPresent(npc -> {
-                activeHeals.put(npc.getNpc(), Pair.of(totem, getTick()));
-            });
-        }
+        getTrackedNpcs().getByNpc((NPC) target).ifPresent(npc -> {
+            activeHeals.put(npc.getNpc(), Pair.of(totem, projectile.getSpawnTick()));
+        });
     }
 
     @Override
     protected void onGameObjectSpawn(GameObjectSpawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GameObject object = event.getGameObject();
         if (object.getId() == REENTRY_PRIMARY_GAME_OBJECT_ID) {
             reentryPrimaryPoolsSpawned.add(object);
@@ -257,6 +280,10 @@ public class WaveDataTracker extends DataTracker {
 
     @Override
     protected void onGameObjectDespawn(GameObjectDespawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GameObject object = event.getGameObject();
         if (object.getId() == REENTRY_PRIMARY_GAME_OBJECT_ID) {
             reentryPrimaryPoolsDespawned.add(object);
@@ -265,6 +292,10 @@ public class WaveDataTracker extends DataTracker {
 
     @Override
     protected void onGroundObjectSpawn(GroundObjectSpawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GroundObject object = event.getGroundObject();
         if (object.getId() == REENTRY_SECONDARY_GROUND_OBJECT_ID) {
             reentrySecondaryPoolsSpawned.add(object);
@@ -273,6 +304,10 @@ public class WaveDataTracker extends DataTracker {
 
     @Override
     protected void onGroundObjectDespawn(GroundObjectDespawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GroundObject object = event.getGroundObject();
         if (object.getId() == REENTRY_SECONDARY_GROUND_OBJECT_ID) {
             reentrySecondaryPoolsDespawned.add(object);
@@ -281,6 +316,10 @@ public class WaveDataTracker extends DataTracker {
 
     @Override
     protected void onGraphicsObjectCreation(GraphicsObjectCreated event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GraphicsObject object = event.getGraphicsObject();
         if (SOL_DUST_GRAPHIC_OBJECT_IDS.contains(object.getId())) {
             solDustGraphics.add(getWorldLocation(object));
@@ -290,71 +329,27 @@ public class WaveDataTracker extends DataTracker {
                 || SOL_LASER_SHOT_GRAPHIC_OBJECT_IDS.contains(object.getId())) {
             // Scans and shots should never happen on the same tick but if it somehow occurs,
             // prioritize a shot, which has a higher ID.
-            if (solLaserGraphic == null || object.getId() > solLaserGraphic.getId()) {
-                solLaserGraphic = object;
-            }
+            solLaserGraphicId = Math.max(solLaserGraphicId, object.getId());
         }
     }
 
-    @Override
-    protected void onMessage(ChatMessage event) {
-        String stripped = Text.removeTags(event.getMessage());
-
-        if (stripped.equals(waveStartMessage)) {
-            startWave(0);
-            return;
-        }
-        if (stripped.equals(bossStartMessage)) {
-            startWave(-1);
-            return;
-        }
-
-        if (getStage() == Stage.COLOSSEUM_WAVE_12) {
-            EquipmentSlot grappleSlot = GRAPPLE_MESSAGES.get(stripped);
-            if (grappleSlot != null) {
-                pendingGrappleTarget = grappleSlot;
-                pendingGrappleTick = getTick();
-                return;
-            }
-
-            if (pendingGrappleTarget != null) {
-                if (stripped.equals(GRAPPLE_DEFEND_MESSAGE)) {
-                    dispatchGrapple(SolGrappleEvent.Outcome.DEFEND);
-                    return;
-                }
-                if (stripped.equals(GRAPPLE_PARRY_MESSAGE)) {
-                    dispatchGrapple(SolGrappleEvent.Outcome.PARRY);
-                    return;
-                }
-            }
+    private void onGrappleAnnounced(EquipmentSlot slot) {
+        pendingGrappleTarget = slot;
+        pendingGrappleTick = getTick();
+        cancelGrappleTimeout();
+        // If no defend/parry message arrives within 4 ticks, the grapple hit.
+        grappleTimeout = getScheduler().schedule(5, () -> dispatchGrapple(SolGrappleEvent.Outcome.HIT));
+    }
 
-            Matcher matcher = ColosseumChallenge.COLOSSEUM_END_REGEX.matcher(stripped);
-            if (matcher.find()) {
-                try {
-                    var ticks = Tick.fromTimeString(matcher.group(1));
-                    if (ticks.isPresent()) {
-                        int challengeTicks = ticks.get().getLeft();
-                        int bossTicks = challengeTicks - ticksOnEntry;
-                        finish(true, bossTicks, ticks.get().getRight());
-                    } else {
-                        finish(true);
-                    }
-                } catch (Exception e) {
-                    log.warn("Could not parse timestamp from colosseum end message: {}", stripped);
-                    finish(true);
-                }
-            }
+    private void onColosseumEnd(ChatClassifier.Match match) {
+        var ticks = match.duration(1);
+        if (ticks.isPresent()) {
+            int challengeTicks = ticks.get().getLeft();
+            int bossTicks = challengeTicks - ticksOnEntry;
+            finish(true, bossTicks, ticks.get().getRight());
         } else {
-            Matcher matcher = waveEndRegex.matcher(stripped);
-            if (matcher.find()) {
-                try {
-                    String inGameTime = matcher.group(1);
-                    finish(inGameTime);
-                } catch (Exception e) {
-                    log.warn("Could not parse timestamp from wave end message: {}", stripped);
-                    finish(true);
-                }
-            }
+            log.warn("Could not parse timestamp from colosseum end message: {}", match.getMessage());
+            finish(true);
         }
     }
 
@@ -368,6 +363,14 @@ public class WaveDataTracker extends DataTracker {
         dispatchEvent(new SolGrappleEvent(getTick(), coords, pendingGrappleTick, pendingGrappleTarget, outcome));
         pendingGrappleTarget = null;
         pendingGrappleTick = -1;
+        cancelGrappleTimeout();
+    }
+
+    private void cancelGrappleTimeout() {
+        if (grappleTimeout != null) {
+            grappleTimeout.cancel();
+            grappleTimeout = null;
+        }
     }
 
     private void startWave(int tickOffset) {
@@ -380,6 +383,10 @@ public class WaveDataTracker extends DataTracker {
     }
 
     private void collectExistingReentryPools() {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         Tile[][][] tiles = client.getTopLevelWorldView().getScene().getTiles();
         if (tiles.length == 0 || tiles[0].length == 0) {
             return;
@@ -434,76 +441,35 @@ public class WaveDataTracker extends DataTracker {
     }
 
     private void handleSolEvents() {
-        // If a grapple was announced and no defend/parry message arrived within 4 ticks, it was a hit.
-        if (pendingGrappleTarget != null && getTick() - pendingGrappleTick > 4) {
-            dispatchGrapple(SolGrappleEvent.Outcome.HIT);
-        }
-
-        NPC sol = getTrackedNpcs().stream()
-                .filter(trackedNpc ->
-                        ColosseumNpc.isSolHeredit(trackedNpc.getNpc().getId()))
-                .findFirst()
-                .map(TrackedNpc::getNpc)
-                .orElse(null);
         if (sol == null) {
             return;
         }
 
         if (!solDustGraphics.isEmpty()) {
-            SolDustEvent.Pattern pattern;
-            SolDustEvent.Direction direction = null;
-
+            // Sol can move while the tick's dust is appearing, so the dust is only resolved against its position
+            // once the tick is over.
             WorldPoint solLoc = getWorldLocation(sol);
             int solSize = sol.getWorldArea().getWidth();
-            WorldArea solArea = new WorldArea(solLoc.getX(), solLoc.getY(), solSize, solSize, solLoc.getPlane());
-
-            // Pattern can be identified by counting how many dusts are 2 tiles away from Sol.
-            List<WorldPoint> twoAway = solDustGraphics.stream()
-                    .filter(point -> solArea.distanceTo2D(point) == 2)
-                    .collect(Collectors.toList());
-
-            switch (twoAway.size()) {
-                case 0:
-                    // Safe ring 2 tiles away => shield 1.
-                    pattern = SolDustEvent.Pattern.SHIELD_1;
-                    break;
-                case 2:
-                    // Two trident prongs => trident 1.
-                    pattern = SolDustEvent.Pattern.TRIDENT_1;
-                    break;
-                case 3:
-                    // Three trident prongs => trident 2.
-                    pattern = SolDustEvent.Pattern.TRIDENT_2;
-                    break;
-                default:
-                    // Safe ring 3 tiles away, everything else is dust => shield 2.
-                    pattern = SolDustEvent.Pattern.SHIELD_2;
-                    break;
+            if (solDustTemplates == null || solDustTemplates.getSolSize() != solSize) {
+                solDustTemplates = new SolDustTemplates(solSize);
             }
 
-            if (pattern == SolDustEvent.Pattern.TRIDENT_1 || pattern == SolDustEvent.Pattern.TRIDENT_2) {
-                WorldPoint dust = twoAway.get(0);
-
-                if (dust.getX() < solLoc.getX()) {
-                    direction = SolDustEvent.Direction.WEST;
-                } else if (dust.getX() >= solLoc.getX() + solSize) {
-                    direction = SolDustEvent.Direction.EAST;
-                } else if (dust.getY() >= solLoc.getY() + solSize) {
-                    direction = SolDustEvent.Direction.NORTH;
-                } else {
-                    direction = SolDustEvent.Direction.SOUTH;
-                }
+            long ring = 0;
+            for (WorldPoint dust : solDustGraphics) {
+                ring |= solDustTemplates.tileMask(dust.getX() - solLoc.getX(), dust.getY() - solLoc.getY());
             }
 
-            dispatchEvent(new SolDustEvent(getTick(), getWorldLocation(sol), pattern, direction));
+            SolDustEvent.Pattern pattern = solDustTemplates.pattern(ring);
+            SolDustEvent.Direction direction = solDustTemplates.direction(ring);
+            dispatchEvent(new SolDustEvent(getTick(), solLoc, pattern, direction));
         }
 
         if (!solPools.isEmpty()) {
             dispatchEvent(new SolPoolsEvent(getTick(), solPools));
         }
 
-        if (solLaserGraphic != null) {
-            SolLasersEvent.Phase phase = SOL_LASER_SCAN_GRAPHIC_OBJECT_IDS.contains(solLaserGraphic.getId())
+        if (solLaserGraphicId != -1) {
+            SolLasersEvent.Phase phase = SOL_LASER_SCAN_GRAPHIC_OBJECT_IDS.contains(solLaserGraphicId)
                     ? SolLasersEvent.Phase.SCAN
                     : SolLasersEvent.Phase.SHOT;
             dispatchEvent(new SolLasersEvent(getTick(), phase));
@@ -26,11 +26,10 @@ package io.blert.challenges.inferno;
 import io.blert.core.*;
 import io.blert.events.ChallengeEndEvent;
 import io.blert.events.ChallengeStartEvent;
-import io.blert.util.DeferredTask;
 import io.blert.util.Location;
 import io.blert.util.Tick;
+import io.blert.util.TickScheduler;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -39,12 +38,9 @@ import net.runelite.api.Client;
 import net.runelite.api.GameState;
 import net.runelite.api.NPC;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.NpcSpawned;
 import net.runelite.client.callback.ClientThread;
-import net.runelite.client.util.Text;
-import org.apache.commons.lang3.tuple.Pair;
 
 @Slf4j
 public class InfernoChallenge extends RecordableChallenge {
@@ -54,7 +50,9 @@ public class InfernoChallenge extends RecordableChallenge {
     private static final int MOR_UL_REK_SOUTHEAST_REGION_ID = 10063;
     private static final int MOR_UL_REK_NORTHEAST_REGION_ID = 10064;
 
-    private static final String WAVE_1_START_MESSAGE = "Wave: 1";
+    private static final String WAVE_START_PREFIX = "Wave: ";
+    private static final Pattern WAVE_START_REGEX = Pattern.compile("^Wave: (\\d+)$");
+    static final String INFERNO_END_LITERAL = "Duration: ";
     static final Pattern INFERNO_END_REGEX = Pattern.compile("Duration: (" + Tick.TIME_STRING_REGEX + ")");
     // The inferno timer begins 6 seconds (10 ticks) before the first wave.
     private static final int WAVE_1_TIME_OFFSET_TICKS = 10;
@@ -63,7 +61,12 @@ public class InfernoChallenge extends RecordableChallenge {
     private int challengeStartTick;
     private int reportedChallengeTicks;
 
-    private @Nullable DeferredTask deferredTask = null;
+    private @Nullable TickScheduler.Handle pendingFinish = null;
+
+    /**
+     * Checkpoint of an interrupted run which is resumed once the game confirms that the run is still in progress.
+     */
+    private @Nullable ChallengeCheckpoint pendingResume = null;
 
     private boolean hasLogged;
 
@@ -78,6 +81,30 @@ public class InfernoChallenge extends RecordableChallenge {
         this.challengeStartTick = -1;
         this.reportedChallengeTicks = -1;
         this.hasLogged = false;
+
+        getChatClassifier().onPrefix(WAVE_START_PREFIX, WAVE_START_REGEX, match -> {
+            if (getState().isInactive()) {
+                return;
+            }
+
+            int startedWave = Integer.parseInt(match.group(1));
+            if (pendingResume != null) {
+                resolveResume(startedWave);
+            }
+            if (startedWave == 1) {
+                challengeStartTick = client.getTickCount() - WAVE_1_TIME_OFFSET_TICKS;
+            }
+        });
+        getChatClassifier().onContains(INFERNO_END_LITERAL, INFERNO_END_REGEX, match -> {
+            if (!getState().isInactive()) {
+                reportedChallengeTicks = match.ticks(1);
+                if (pendingFinish != null) {
+                    pendingFinish.cancel();
+                }
+                pendingFinish = getScheduler()
+                        .defer(3, TickScheduler.Priority.WITHIN_TICK, () -> finishInferno(ChallengeState.COMPLETE));
+            }
+        });
     }
 
     @Nullable
@@ -124,11 +151,11 @@ public class InfernoChallenge extends RecordableChallenge {
 
     @Override
     protected void onTick() {
-        if (deferredTask != null) {
-            deferredTask.tick();
-        } else {
-            // The deferred task is used for state changes, so only check state
-            // manually if it's not pending.
+        // The scheduled finish is a state change, so only check state
+        // manually if it's not pending.
+        boolean finishPending = pendingFinish != null;
+        getScheduler().run(TickScheduler.Priority.WITHIN_TICK);
+        if (!finishPending) {
             updateChallengeState();
         }
 
@@ -159,29 +186,6 @@ public class InfernoChallenge extends RecordableChallenge {
         super.onGameStateChanged(event);
     }
 
-    @Override
-    public void onChatMessage(ChatMessage event) {
-        if (!getState().isInactive()) {
-            String stripped = Text.removeTags(event.getMessage());
-            if (stripped.equals(WAVE_1_START_MESSAGE)) {
-                challengeStartTick = client.getTickCount() - WAVE_1_TIME_OFFSET_TICKS;
-            } else {
-                Matcher matcher = INFERNO_END_REGEX.matcher(stripped);
-                if (matcher.find()) {
-                    try {
-                        reportedChallengeTicks = Tick.fromTimeString(matcher.group(1))
-                                .map(Pair::getLeft)
-                                .orElse(-1);
-                    } catch (Exception e) {
-                        reportedChallengeTicks = -1;
-                    }
-                    deferredTask = new DeferredTask(() -> finishInferno(ChallengeState.COMPLETE), 3);
-                }
-            }
-        }
-        super.onChatMessage(event);
-    }
-
     @Override
     public void onNpcSpawned(NpcSpawned event) {
         NPC npc = event.getNpc();
@@ -244,27 +248,82 @@ public class InfernoChallenge extends RecordableChallenge {
         reportedChallengeTicks = -1;
 
         // TODO(frolv): What happens if someone turns on their plugin mid-challenge?
-        Stage stage = Stage.INFERNO_WAVE_1;
+        ChallengeCheckpoint checkpoint = takeCheckpoint();
+        if (checkpoint != null) {
+            // The client restarted mid-run. Logging back in restarts the interrupted wave, but the run may also have
+            // ended in the meantime, so the checkpoint is only resumed once the wave start message confirms it.
+            log.info("Found Inferno checkpoint at {}; waiting for wave start", checkpoint.getStage());
+            pendingResume = checkpoint;
+            wave = checkpointWave(checkpoint) - 1;
+            challengeStartTick = client.getTickCount() - checkpoint.getChallengeTicks();
+            hasLogged = true;
+        } else {
+            clearCheckpoint();
+            dispatchChallengeStart(Stage.INFERNO_WAVE_1, null);
+        }
 
-        List<String> usernames = getParty().stream().map(Raider::getUsername).collect(Collectors.toList());
-        dispatchEvent(new ChallengeStartEvent(getChallenge(), ChallengeMode.NO_MODE, stage, usernames, false));
+        prepareNextWave();
+    }
 
+    private void resolveResume(int startedWave) {
+        ChallengeCheckpoint checkpoint = pendingResume;
+        pendingResume = null;
+
+        if (startedWave == checkpointWave(checkpoint)) {
+            log.info("Resuming Inferno challenge from {}", checkpoint.getStage());
+            dispatchChallengeStart(checkpoint.getStage(), checkpoint.getChallengeId());
+            saveCheckpoint(checkpoint.getStage(), recordedDurationTicks());
+            return;
+        }
+
+        // The interrupted run ended while the client was down, and this is a different one.
+        log.info("Discarding stale Inferno checkpoint at {}; wave {} started", checkpoint.getStage(), startedWave);
+        clearCheckpoint();
+        clearWaveDataTracker();
+        wave = startedWave - 1;
+        challengeStartTick = -1;
+        hasLogged = startedWave != 1;
+        dispatchChallengeStart(WaveDataTracker.waveToStage(startedWave), null);
         prepareNextWave();
     }
 
+    private static int checkpointWave(ChallengeCheckpoint checkpoint) {
+        return checkpoint.getStage().getId() - Stage.INFERNO_WAVE_1.getId() + 1;
+    }
+
+    private void dispatchChallengeStart(Stage stage, @Nullable String resumeChallengeId) {
+        List<String> usernames = getParty().stream().map(Raider::getUsername).collect(Collectors.toList());
+        dispatchEvent(new ChallengeStartEvent(
+                getChallenge(),
+                ChallengeMode.NO_MODE,
+                stage,
+                usernames,
+                false,
+                getCaptureProfile(),
+                resumeChallengeId));
+    }
+
     private void finishInferno(ChallengeState state) {
         log.info("Finishing Inferno challenge with state: {}", state);
         int reported = reportedChallengeTicks;
+        boolean started = pendingResume == null;
         cleanup();
-        dispatchEvent(new ChallengeEndEvent(reported, reported));
+        clearCheckpoint();
+        if (started) {
+            dispatchEvent(new ChallengeEndEvent(reported, reported));
+        }
         setState(state);
     }
 
     private void prepareNextWave() {
         clearWaveDataTracker();
+        compactSession();
 
         wave++;
         waveDataTracker = new WaveDataTracker(this, client, wave);
+        if (pendingResume == null) {
+            saveCheckpoint(waveDataTracker.getStage(), recordedDurationTicks());
+        }
 
         if (westPillar != null) {
             waveDataTracker.addTrackedNpc(westPillar);
@@ -290,7 +349,11 @@ public class InfernoChallenge extends RecordableChallenge {
     }
 
     private void reset() {
-        deferredTask = null;
+        if (pendingFinish != null) {
+            pendingFinish.cancel();
+            pendingFinish = null;
+        }
+        pendingResume = null;
         wave = 0;
         challengeStartTick = -1;
         reportedChallengeTicks = -1;
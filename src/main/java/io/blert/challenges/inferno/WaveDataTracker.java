@@ -27,17 +27,14 @@ import io.blert.core.*;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.inferno.InfernoWaveStartEvent;
 import java.util.Optional;
-import java.util.regex.Matcher;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
 import net.runelite.api.NPC;
 import net.runelite.api.events.AnimationChanged;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.NpcDespawned;
 import net.runelite.api.events.NpcSpawned;
-import net.runelite.client.util.Text;
 
 @Slf4j
 public class WaveDataTracker extends DataTracker {
@@ -56,6 +53,12 @@ public class WaveDataTracker extends DataTracker {
         super(challenge, client, waveToStage(wave));
         this.wave = wave;
         this.waveStartMessage = String.format("Wave: %d", wave);
+
+        ChatClassifier chat = getChatClassifier();
+        chat.onMessage(waveStartMessage, match -> start());
+        chat.onMessage(waveEndMessage, match -> finish(true));
+        chat.onContains(
+                InfernoChallenge.INFERNO_END_LITERAL, InfernoChallenge.INFERNO_END_REGEX, match -> finish(true));
     }
 
     @Override
@@ -135,19 +138,4 @@ public class WaveDataTracker extends DataTracker {
                 .ifPresent(npcAttack -> dispatchEvent(new NpcAttackEvent(
                         getStage(), getTick(), getWorldLocation(trackedNpc), npcAttack, trackedNpc)));
     }
-
-    @Override
-    protected void onMessage(ChatMessage event) {
-        String stripped = Text.removeTags(event.getMessage());
-        if (stripped.equals(waveStartMessage)) {
-            start();
-        } else if (stripped.equals(waveEndMessage)) {
-            finish(true);
-        } else {
-            Matcher matcher = InfernoChallenge.INFERNO_END_REGEX.matcher(stripped);
-            if (matcher.find()) {
-                finish(true);
-            }
-        }
-    }
 }
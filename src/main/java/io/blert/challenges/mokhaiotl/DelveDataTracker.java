@@ -31,7 +31,6 @@ import io.blert.util.Location;
 import io.blert.util.Tick;
 import java.util.*;
 import java.util.function.BiFunction;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -39,7 +38,6 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
-import net.runelite.client.util.Text;
 
 @Slf4j
 public class DelveDataTracker extends DataTracker {
@@ -77,7 +75,6 @@ public class DelveDataTracker extends DataTracker {
         SHIELD_END,
     }
 
-    private final Pattern delveEndRegex;
     private final int delve;
 
     private BasicTrackedNpc mokhaiotl = null;
@@ -85,13 +82,15 @@ public class DelveDataTracker extends DataTracker {
     private int hitpointsBeforeShield;
     private int unidentifiedAttackTick;
     private int lastRacecarTick;
-    private final Map<Projectile, Orb> activeOrbs = new HashMap<>();
-    private final Set<GameObject> activeRocksAndSplats = new HashSet<>();
-    private final List<GameObject> rocksAndSplatsSpawnedThisTick = new ArrayList<>();
-    private final List<GameObject> rocksAndSplatsDespawnedThisTick = new ArrayList<>();
-    private final Set<WorldPoint> shockwaveLocationsThisTick = new HashSet<>();
-    private final Queue<Hitsplat> healsThisTick = new LinkedList<>();
-    private final Queue<TrackedNpc> larvaeLeakedThisTick = new LinkedList<>();
+    private final Map<ProjectileTracker.TrackedProjectile, Orb> activeOrbs = new HashMap<>();
+    // Delve arenas are 24x26 tiles; allow some slack for the deeper delves, which are laid out in other regions.
+    private final StageGrid<GameObject> activeRocks = StageGrid.forScene(32, 32);
+    private final StageGrid<GameObject> activeSplats = StageGrid.forScene(32, 32);
+    private final List<GameObject> rocksAndSplatsSpawnedThisTick = getTickArena().list();
+    private final List<GameObject> rocksAndSplatsDespawnedThisTick = getTickArena().list();
+    private final Set<WorldPoint> shockwaveLocationsThisTick = getTickArena().set();
+    private final Queue<Hitsplat> healsThisTick = getTickArena().queue();
+    private final Queue<TrackedNpc> larvaeLeakedThisTick = getTickArena().queue();
 
     public static Stage delveToStage(int delve) {
         if (delve > 8) {
@@ -103,22 +102,36 @@ public class DelveDataTracker extends DataTracker {
     public DelveDataTracker(RecordableChallenge challenge, Client client, int delve) {
         super(challenge, client, delveToStage(delve));
         this.delve = delve;
-        if (delve > 8) {
-            this.delveEndRegex =
-                    Pattern.compile("Delve level: 8\\+ \\(" + delve + "\\) duration: (" + Tick.TIME_STRING_REGEX + ")");
-        } else {
-            this.delveEndRegex =
-                    Pattern.compile("Delve level: " + delve + " duration: (" + Tick.TIME_STRING_REGEX + ")");
-        }
+        String delveEndLiteral =
+                delve > 8 ? "Delve level: 8+ (" + delve + ") duration: " : "Delve level: " + delve + " duration: ";
+        Pattern delveEndRegex = Pattern.compile(Pattern.quote(delveEndLiteral) + "(" + Tick.TIME_STRING_REGEX + ")");
+        getChatClassifier().onContains(delveEndLiteral, delveEndRegex, match -> finish(match.group(1)));
         this.unidentifiedAttackTick = -1;
         this.lastRacecarTick = -1;
         this.phaseChange = PhaseChange.NONE;
+
+        ProjectileTracker projectiles = getProjectileTracker();
+        projectiles.onSpawn(
+                Orb.MELEE_PROJECTILE_ID, p -> onAttackProjectile(p, MokhaiotlAttackStyleEvent.Style.MELEE));
+        projectiles.onSpawn(
+                new int[] {Orb.RANGED_PROJECTILE_ID, MOKHAIOTL_RANGED_BALL_PROJECTILE_ID},
+                p -> onAttackProjectile(p, MokhaiotlAttackStyleEvent.Style.RANGED));
+        projectiles.onSpawn(
+                new int[] {Orb.MAGE_PROJECTILE_ID, MOKHAIOTL_MAGE_BALL_PROJECTILE_ID},
+                p -> onAttackProjectile(p, MokhaiotlAttackStyleEvent.Style.MAGE));
+        int[] orbIds = {Orb.MELEE_PROJECTILE_ID, Orb.RANGED_PROJECTILE_ID, Orb.MAGE_PROJECTILE_ID};
+        projectiles.onSpawn(orbIds, this::onOrbSpawned);
+        projectiles.onLand(orbIds, this::onOrbLanded);
     }
 
     protected void start() {
         super.start();
         log.info("Starting delve {}", delve);
 
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         // The client doesn't receive `GameObjectSpawned` events for acid already present
         // when entering the delve, so we have to manually grab our initial set.
         Tile[][][] tiles = client.getTopLevelWorldView().getScene().getTiles();
@@ -135,13 +148,13 @@ public class DelveDataTracker extends DataTracker {
                     }
                     for (GameObject gameObject : tile.getGameObjects()) {
                         if (gameObject != null && gameObject.getId() == ACID_BLOOD_GAME_OBJECT_ID) {
-                            activeRocksAndSplats.add(gameObject);
+                            activeSplats.put(gameObject.getLocalLocation(), gameObject);
                             rocksAndSplatsSpawnedThisTick.add(gameObject);
                         }
                     }
                 }
             }
-            log.debug("Found {} splats on delve start", activeRocksAndSplats.size());
+            log.debug("Found {} splats on delve start", activeSplats.size());
         } catch (Exception e) {
             log.warn("Error while initializing splats on delve start", e);
         }
@@ -151,8 +164,6 @@ public class DelveDataTracker extends DataTracker {
     protected void onTick() {
         final int tick = getTick();
 
-        checkForNewOrbs(tick);
-
         if (phaseChange == PhaseChange.SHIELD_START) {
             hitpointsBeforeShield = mokhaiotl.getHitpoints().getCurrent();
             mokhaiotl.setHitpoints(new Hitpoints(SHIELD_HITPOINTS));
@@ -160,7 +171,9 @@ public class DelveDataTracker extends DataTracker {
             mokhaiotl.setHitpoints(new Hitpoints(hitpointsBeforeShield, HITPOINTS_BY_DELVE[Math.min(delve, 8)]));
         }
 
-        if (!rocksAndSplatsSpawnedThisTick.isEmpty() || !rocksAndSplatsDespawnedThisTick.isEmpty()) {
+        boolean hasObjectChanges =
+                !rocksAndSplatsSpawnedThisTick.isEmpty() || !rocksAndSplatsDespawnedThisTick.isEmpty();
+        if (hasObjectChanges) {
             BiFunction<List<GameObject>, Integer, List<WorldPoint>> toWorldPoints = (objects, id) -> objects.stream()
                     .filter(o -> o.getId() == id)
                     .map(this::getWorldLocation)
@@ -190,33 +203,15 @@ public class DelveDataTracker extends DataTracker {
                     || lastRacecarTick >= tick - 12;
             NpcAttack attack = isSlam ? NpcAttack.MOKHAIOTL_SLAM : NpcAttack.MOKHAIOTL_SHOCKWAVE;
             dispatchEvent(new NpcAttackEvent(getStage(), tick, getWorldLocation(mokhaiotl), attack, mokhaiotl));
-            dispatchEvent(new MokhaiotlShockwaveEvent(getStage(), tick, new ArrayList<>(shockwaveLocationsThisTick)));
+            if (capturesAreaEffects()) {
+                dispatchEvent(
+                        new MokhaiotlShockwaveEvent(getStage(), tick, new ArrayList<>(shockwaveLocationsThisTick)));
+            }
         }
 
-        rocksAndSplatsSpawnedThisTick.clear();
-        rocksAndSplatsDespawnedThisTick.clear();
-        shockwaveLocationsThisTick.clear();
-        healsThisTick.clear();
-        larvaeLeakedThisTick.clear();
         phaseChange = PhaseChange.NONE;
     }
 
-    @Override
-    protected void onMessage(ChatMessage event) {
-        String stripped = Text.removeTags(event.getMessage());
-        Matcher matcher = delveEndRegex.matcher(stripped);
-
-        if (matcher.find()) {
-            try {
-                String inGameTime = matcher.group(1);
-                finish(inGameTime);
-            } catch (Exception e) {
-                log.warn("Could not parse timestamp from delve end message: {}", stripped);
-                finish(true);
-            }
-        }
-    }
-
     @Override
     protected Optional<? extends TrackedNpc> onNpcSpawn(NpcSpawned event) {
         NPC npc = event.getNpc();
@@ -343,56 +338,60 @@ public class DelveDataTracker extends DataTracker {
         dispatchEvent(new NpcAttackEvent(getStage(), tick, location, attack, mokhaiotl));
     }
 
-    @Override
-    protected void onProjectile(ProjectileMoved event) {
-        Projectile projectile = event.getProjectile();
-        int elapsed = projectile.getEndCycle() - projectile.getStartCycle() - projectile.getRemainingCycles();
+    private void onAttackProjectile(
+            ProjectileTracker.TrackedProjectile projectile, MokhaiotlAttackStyleEvent.Style style) {
+        if (!projectile.isSeenAtLaunch() || mokhaiotl == null || mokhaiotl.getNpc() == null) {
+            return;
+        }
 
-        MokhaiotlAttackStyleEvent.Style style;
+        boolean fromMokhaiotl = mokhaiotl.getNpc().getWorldArea().contains(projectile.getSourcePoint());
+        if (fromMokhaiotl && unidentifiedAttackTick != -1) {
+            dispatchEvent(new MokhaiotlAttackStyleEvent(getStage(), getTick(), style, unidentifiedAttackTick));
+            unidentifiedAttackTick = -1;
+        }
+    }
 
-        switch (projectile.getId()) {
-            case Orb.MELEE_PROJECTILE_ID:
-                style = MokhaiotlAttackStyleEvent.Style.MELEE;
-                break;
-            case Orb.RANGED_PROJECTILE_ID:
-            case MOKHAIOTL_RANGED_BALL_PROJECTILE_ID:
-                style = MokhaiotlAttackStyleEvent.Style.RANGED;
-                break;
-            case Orb.MAGE_PROJECTILE_ID:
-            case MOKHAIOTL_MAGE_BALL_PROJECTILE_ID:
-                style = MokhaiotlAttackStyleEvent.Style.MAGE;
-                break;
-            default:
-                return;
+    private void onOrbSpawned(ProjectileTracker.TrackedProjectile projectile) {
+        if (mokhaiotl == null || mokhaiotl.getNpc() == null) {
+            return;
         }
 
-        if (elapsed == 0 && mokhaiotl != null && mokhaiotl.getNpc() != null) {
-            boolean fromMokhaiotl = mokhaiotl.getNpc().getWorldArea().contains(projectile.getSourcePoint());
+        boolean fromMokhaiotl = mokhaiotl.getNpc().getWorldArea().contains(projectile.getSourcePoint());
+        Orb.Source source = fromMokhaiotl ? Orb.Source.MOKHAIOTL : Orb.Source.BALL;
+        activeOrbs.put(projectile, new Orb(projectile, source));
+    }
 
-            if (fromMokhaiotl && unidentifiedAttackTick != -1) {
-                dispatchEvent(new MokhaiotlAttackStyleEvent(getStage(), getTick(), style, unidentifiedAttackTick));
-                unidentifiedAttackTick = -1;
-            }
-        } else if (projectile.getRemainingCycles() <= 3) {
-            Orb orb = activeOrbs.get(projectile);
-            if (orb != null && orb.isActive()) {
-                orb.setLanded(getTick());
-                WorldPoint sourcePoint = Location.getWorldLocation(client, projectile.getSourcePoint());
-                dispatchEvent(new MokhaiotlOrbEvent(getStage(), orb.getLandedTick(), orb, sourcePoint));
-            }
+    private void onOrbLanded(ProjectileTracker.TrackedProjectile projectile) {
+        Orb orb = activeOrbs.remove(projectile);
+        if (orb != null && orb.isActive()) {
+            orb.setLanded(getTick());
+            dispatchEvent(new MokhaiotlOrbEvent(getStage(), orb.getLandedTick(), orb, projectile.getOrigin()));
         }
     }
 
     @Override
     protected void onGameObjectSpawn(GameObjectSpawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GameObject object = event.getGameObject();
         switch (object.getId()) {
             case ACID_BLOOD_GAME_OBJECT_ID:
-            case ROCK_GAME_OBJECT_ID:
-                if (activeRocksAndSplats.add(object)) {
-                    rocksAndSplatsSpawnedThisTick.add(object);
+            case ROCK_GAME_OBJECT_ID: {
+                GameObject previous = rocksOrSplats(object).put(object.getLocalLocation(), object);
+                if (previous == object) {
+                    break;
+                }
+                rocksAndSplatsSpawnedThisTick.add(object);
+
+                // Each tile holds a single rock or splat. If another one is still on the tile, it is replaced and
+                // reported as despawned now, as its own despawn will no longer match the tile.
+                if (previous != null) {
+                    rocksAndSplatsDespawnedThisTick.add(previous);
                 }
                 break;
+            }
             default:
                 break;
         }
@@ -404,7 +403,9 @@ public class DelveDataTracker extends DataTracker {
         switch (object.getId()) {
             case ACID_BLOOD_GAME_OBJECT_ID:
             case ROCK_GAME_OBJECT_ID:
-                if (activeRocksAndSplats.remove(object)) {
+                // Despawns are always applied so that the grids do not go stale while area effects are dropped. Only
+                // reporting them depends on the capture profile.
+                if (rocksOrSplats(object).remove(object.getLocalLocation(), object) && capturesAreaEffects()) {
                     rocksAndSplatsDespawnedThisTick.add(object);
                 }
                 break;
@@ -413,6 +414,10 @@ public class DelveDataTracker extends DataTracker {
         }
     }
 
+    private StageGrid<GameObject> rocksOrSplats(GameObject object) {
+        return object.getId() == ROCK_GAME_OBJECT_ID ? activeRocks : activeSplats;
+    }
+
     @Override
     protected void onGraphicsObjectCreation(GraphicsObjectCreated event) {
         GraphicsObject object = event.getGraphicsObject();
@@ -439,23 +444,4 @@ public class DelveDataTracker extends DataTracker {
                 })
                 .orElse(false);
     }
-
-    void checkForNewOrbs(int tick) {
-        if (mokhaiotl == null) {
-            return;
-        }
-
-        for (Projectile projectile : client.getProjectiles()) {
-            if (!Orb.isOrb(projectile.getId())) {
-                continue;
-            }
-
-            if (!activeOrbs.containsKey(projectile)) {
-                boolean fromMokhaiotl = mokhaiotl.getNpc().getWorldArea().contains(projectile.getSourcePoint());
-
-                Orb.Source source = fromMokhaiotl ? Orb.Source.MOKHAIOTL : Orb.Source.BALL;
-                activeOrbs.put(projectile, new Orb(projectile, source, tick));
-            }
-        }
-    }
 }
@@ -29,20 +29,17 @@ import io.blert.events.ChallengeStartEvent;
 import io.blert.util.Location;
 import io.blert.util.Tick;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Client;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.client.callback.ClientThread;
-import net.runelite.client.util.Text;
-import org.apache.commons.lang3.tuple.Pair;
 
 @Slf4j
 public class MokhaiotlChallenge extends RecordableChallenge {
+    private static final String MOKHAIOTL_END_LITERAL = "Delve level 1 - 8 duration: ";
     private static final Pattern MOKHAIOTL_END_REGEX =
             Pattern.compile("Delve level 1 - 8 duration: (" + Tick.TIME_STRING_REGEX + ")");
 
@@ -57,6 +54,12 @@ public class MokhaiotlChallenge extends RecordableChallenge {
         delve = 0;
         recordedChallengeTicks = 0;
         reportedChallengeTicks = -1;
+
+        getChatClassifier().onContains(MOKHAIOTL_END_LITERAL, MOKHAIOTL_END_REGEX, match -> {
+            if (!getState().isInactive()) {
+                reportedChallengeTicks = match.ticks(1);
+            }
+        });
     }
 
     @Nullable
@@ -107,23 +110,6 @@ public class MokhaiotlChallenge extends RecordableChallenge {
         return delveDataTracker != null ? delveDataTracker.getStage() : null;
     }
 
-    @Override
-    public void onChatMessage(ChatMessage event) {
-        if (!getState().isInactive()) {
-            Matcher matcher = MokhaiotlChallenge.MOKHAIOTL_END_REGEX.matcher(Text.removeTags(event.getMessage()));
-            if (matcher.find()) {
-                try {
-                    reportedChallengeTicks = Tick.fromTimeString(matcher.group(1))
-                            .map(Pair::getLeft)
-                            .orElse(-1);
-                } catch (Exception e) {
-                    reportedChallengeTicks = -1;
-                }
-            }
-        }
-        super.onChatMessage(event);
-    }
-
     void updateChallengeState() {
         WorldPoint playerLocation =
                 Location.getWorldLocation(client, client.getLocalPlayer().getWorldLocation());
@@ -152,7 +138,8 @@ public class MokhaiotlChallenge extends RecordableChallenge {
         Stage stage = Stage.MOKHAIOTL_DELVE_1;
 
         List<String> usernames = getParty().stream().map(Raider::getUsername).collect(Collectors.toList());
-        dispatchEvent(new ChallengeStartEvent(getChallenge(), ChallengeMode.NO_MODE, stage, usernames, false));
+        dispatchEvent(new ChallengeStartEvent(
+                getChallenge(), ChallengeMode.NO_MODE, stage, usernames, false, getCaptureProfile()));
 
         // Immediately start delve 1.
         prepareNextDelve();
@@ -170,6 +157,7 @@ public class MokhaiotlChallenge extends RecordableChallenge {
 
     void prepareNextDelve() {
         clearDelveDataTracker();
+        compactSession();
 
         delve++;
         if (delve > 8) {
@@ -23,8 +23,8 @@
 
 package io.blert.challenges.mokhaiotl;
 
+import io.blert.core.ProjectileTracker;
 import lombok.Getter;
-import net.runelite.api.Projectile;
 
 @Getter
 public class Orb {
@@ -63,18 +63,18 @@ public class Orb {
         }
     }
 
-    private final Projectile projectile;
+    private final ProjectileTracker.TrackedProjectile projectile;
     private final Source source;
     private final int spawnTick;
     private int landedTick;
 
-    public Orb(Projectile projectile, Source source, int spawnTick) {
+    public Orb(ProjectileTracker.TrackedProjectile projectile, Source source) {
         if (!isOrb(projectile.getId())) {
             throw new IllegalArgumentException("Invalid projectile ID for Orb: " + projectile.getId());
         }
         this.projectile = projectile;
         this.source = source;
-        this.spawnTick = spawnTick;
+        this.spawnTick = projectile.getSpawnTick();
         this.landedTick = -1;
     }
 
@@ -34,12 +34,11 @@ import io.blert.core.*;
 import io.blert.events.ChallengeEndEvent;
 import io.blert.events.ChallengeStartEvent;
 import io.blert.events.StageUpdateEvent;
-import io.blert.util.DeferredTask;
 import io.blert.util.Tick;
+import io.blert.util.TickScheduler;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.BiConsumer;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -55,7 +54,6 @@ import net.runelite.api.events.NpcSpawned;
 import net.runelite.api.events.VarbitChanged;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.util.Text;
-import org.apache.commons.lang3.tuple.Pair;
 
 @Slf4j
 public class TheatreChallenge extends RecordableChallenge {
@@ -66,14 +64,18 @@ public class TheatreChallenge extends RecordableChallenge {
     private static final int TOB_VARBIT_IN_PARTY = 1;
     private static final int TOB_VARBIT_RAID_STARTED = 2;
 
+    private static final String RAID_ENTRY_1P_PREFIX = "You enter the Theatre of Blood (";
     private static final Pattern RAID_ENTRY_REGEX_1P =
-            Pattern.compile("You enter the Theatre of Blood \\((\\w+) Mode\\)\\.\\.\\.");
+            Pattern.compile("^You enter the Theatre of Blood \\((\\w+) Mode\\)\\.\\.\\.$");
+    private static final String RAID_ENTRY_3P_LITERAL = " has entered the Theatre of Blood (";
     private static final Pattern RAID_ENTRY_REGEX_3P = Pattern.compile(
-            "(.+) has entered the Theatre of Blood \\((\\w+) Mode\\). Step inside to join (her|him|them)\\.\\.\\.");
+            "^(.+) has entered the Theatre of Blood \\((\\w+) Mode\\). Step inside to join (her|him|them)\\.\\.\\.$");
+    private static final String RAID_COMPLETION_CHALLENGE_LITERAL = "Theatre of Blood completion time: ";
     private static final Pattern RAID_COMPLETION_CHALLENGE_REGEX =
-            Pattern.compile("^.+Theatre of Blood completion time: (" + Tick.TIME_STRING_REGEX + ").*");
+            Pattern.compile("^.+Theatre of Blood completion time: (" + Tick.TIME_STRING_REGEX + ").*$");
+    private static final String RAID_COMPLETION_OVERALL_PREFIX = "Theatre of Blood total completion time: ";
     private static final Pattern RAID_COMPLETION_OVERALL_REGEX =
-            Pattern.compile("Theatre of Blood total completion time: (" + Tick.TIME_STRING_REGEX + ").*");
+            Pattern.compile("^Theatre of Blood total completion time: (" + Tick.TIME_STRING_REGEX + ").*$");
 
     private Location location = Location.ELSEWHERE;
     private boolean locationChangedThisTick = false;
@@ -85,10 +87,44 @@ public class TheatreChallenge extends RecordableChallenge {
 
     private int reportedChallengeTime = -1;
 
-    private @Nullable DeferredTask deferredTask = null;
+    private @Nullable TickScheduler.Handle pendingStateChange = null;
 
     public TheatreChallenge(Client client, ClientThread clientThread) {
         super(Challenge.TOB, client, clientThread);
+
+        ChatClassifier chat = getChatClassifier();
+        chat.onPrefix(ChatMessageType.GAMEMESSAGE, RAID_ENTRY_1P_PREFIX, RAID_ENTRY_REGEX_1P, match -> {
+            // Listen for a chat message indicating the start of a raid, and queue the start action immediately
+            // instead of waiting to enter.
+            if (getState().isInactive()) {
+                log.debug("Raid started via 1p chat message (mode: {})", match.group(1));
+                queueRaidStart(
+                        ChallengeMode.parseTob(match.group(1)).orElse(ChallengeMode.NO_MODE), getParty().isEmpty());
+            }
+        });
+        chat.onContains(ChatMessageType.GAMEMESSAGE, RAID_ENTRY_3P_LITERAL, RAID_ENTRY_REGEX_3P, match -> {
+            if (getState().isInactive()) {
+                log.debug(
+                        "Raid started via 3p chat message (leader: {} mode: {})", match.group(1), match.group(2));
+                queueRaidStart(
+                        ChallengeMode.parseTob(match.group(2)).orElse(ChallengeMode.NO_MODE), getParty().isEmpty());
+            }
+        });
+        chat.onContains(
+                ChatMessageType.GAMEMESSAGE,
+                RAID_COMPLETION_CHALLENGE_LITERAL,
+                RAID_COMPLETION_CHALLENGE_REGEX,
+                match -> {
+                    if (!getState().isInactive()) {
+                        reportedChallengeTime = match.ticks(1);
+                    }
+                });
+        chat.onPrefix(
+                ChatMessageType.GAMEMESSAGE, RAID_COMPLETION_OVERALL_PREFIX, RAID_COMPLETION_OVERALL_REGEX, match -> {
+                    if (!getState().isInactive()) {
+                        queueRaidEnd(ChallengeState.COMPLETE, match.ticks(1));
+                    }
+                });
     }
 
     @Nullable
@@ -123,9 +159,7 @@ public class TheatreChallenge extends RecordableChallenge {
             initializePartyFromLobby();
         }
 
-        if (deferredTask != null) {
-            deferredTask.tick();
-        }
+        getScheduler().run(TickScheduler.Priority.WITHIN_TICK);
 
         if (getState().isInactive() && location.inRaid()) {
             queueRaidStart(ChallengeMode.NO_MODE, true);
@@ -208,19 +242,17 @@ public class TheatreChallenge extends RecordableChallenge {
             // (Some players may take longer to load in, thanks Jagex!) Therefore, wait a few ticks before starting.
             // This value is arbitrary and may need to be adjusted.
             final int TICKS_TO_DELAY_ORB_CHECK = 5;
-            deferredTask = new DeferredTask(
-                    () -> {
-                        initializePartyFromOrbs();
-                        startRaid();
-                    },
-                    TICKS_TO_DELAY_ORB_CHECK);
+            queueStateChange(TICKS_TO_DELAY_ORB_CHECK, () -> {
+                initializePartyFromOrbs();
+                startRaid();
+            });
         } else {
-            deferredTask = new DeferredTask(this::startRaid, 1);
+            queueStateChange(1, this::startRaid);
         }
     }
 
     private void startRaid() {
-        deferredTask = null;
+        pendingStateChange = null;
 
         updateLocation();
         setState(location.inRaid() ? ChallengeState.ACTIVE : ChallengeState.STARTING);
@@ -237,7 +269,8 @@ public class TheatreChallenge extends RecordableChallenge {
             stage = this.roomDataTracker.getStage();
         }
 
-        dispatchEvent(new ChallengeStartEvent(getChallenge(), getChallengeMode(), stage, names, spectator));
+        dispatchEvent(new ChallengeStartEvent(
+                getChallenge(), getChallengeMode(), stage, names, spectator, getCaptureProfile()));
 
         // Dispatch any events that were queued before the raid started.
         dispatchPendingEvents();
@@ -254,13 +287,26 @@ public class TheatreChallenge extends RecordableChallenge {
             resetMode();
             clearPendingEvents();
             resetParty();
-            deferredTask = null;
+            cancelStateChange();
             log.info("Raid ended before it started");
             return;
         }
 
         setState(ChallengeState.ENDING);
-        deferredTask = new DeferredTask(() -> endRaid(state, overallTime), 3);
+        queueStateChange(3, () -> endRaid(state, overallTime));
+    }
+
+    private void queueStateChange(int ticks, Runnable change) {
+        cancelStateChange();
+        // State changes run once the party has been read from the lobby, but before the location checks below.
+        pendingStateChange = getScheduler().defer(ticks, TickScheduler.Priority.WITHIN_TICK, change);
+    }
+
+    private void cancelStateChange() {
+        if (pendingStateChange != null) {
+            pendingStateChange.cancel();
+            pendingStateChange = null;
+        }
     }
 
     private void endRaid(ChallengeState state, int overallTime) {
@@ -367,52 +413,12 @@ public class TheatreChallenge extends RecordableChallenge {
 
     @Override
     public void onChatMessage(ChatMessage message) {
-        updateLocation();
-
-        if (message.getType() == ChatMessageType.GAMEMESSAGE) {
-            String stripped = Text.removeTags(message.getMessage());
-
-            if (getState().isInactive()) {
-                // Listen for a chat message indicating the start of a raid, and queue the start action immediately
-                // instead of waiting to enter.
-                Matcher matcher = RAID_ENTRY_REGEX_1P.matcher(stripped);
-                if (matcher.matches()) {
-                    log.debug("Raid started via 1p chat message (mode: {})", matcher.group(1));
-                    queueRaidStart(
-                            ChallengeMode.parseTob(matcher.group(1)).orElse(ChallengeMode.NO_MODE),
-                            getParty().isEmpty());
-                    super.onChatMessage(message);
-                    return;
-                }
-
-                matcher = RAID_ENTRY_REGEX_3P.matcher(stripped);
-                if (matcher.matches()) {
-                    log.debug(
-                            "Raid started via 3p chat message (leader: {} mode: {})",
-                            matcher.group(1),
-                            matcher.group(2));
-                    queueRaidStart(
-                            ChallengeMode.parseTob(matcher.group(2)).orElse(ChallengeMode.NO_MODE),
-                            getParty().isEmpty());
-                }
-                super.onChatMessage(message);
-                return;
-            }
-
-            Matcher matcher = RAID_COMPLETION_CHALLENGE_REGEX.matcher(stripped);
-            if (matcher.matches()) {
-                reportedChallengeTime =
-                        Tick.fromTimeString(matcher.group(1)).map(Pair::getLeft).orElse(-1);
-            }
-
-            matcher = RAID_COMPLETION_OVERALL_REGEX.matcher(stripped);
-            if (matcher.matches()) {
-                int overallTime =
-                        Tick.fromTimeString(matcher.group(1)).map(Pair::getLeft).orElse(-1);
-                queueRaidEnd(ChallengeState.COMPLETE, overallTime);
-            }
+        // Player chatter never moves the raid along, so only game messages need the location brought up to date.
+        if (!ChatClassifier.isGameMessage(message.getType())) {
+            return;
         }
 
+        updateLocation();
         super.onChatMessage(message);
     }
 
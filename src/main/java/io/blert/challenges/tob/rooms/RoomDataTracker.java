@@ -30,6 +30,7 @@ import io.blert.challenges.tob.TobNpc;
 import io.blert.core.ChallengeState;
 import io.blert.core.DataTracker;
 import io.blert.core.Hitpoints;
+import io.blert.core.PartyState;
 import io.blert.core.Raider;
 import io.blert.events.ChallengeUpdateEvent;
 import io.blert.events.Event;
@@ -38,13 +39,11 @@ import io.blert.events.PlayerDeathEvent;
 import io.blert.util.Tick;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.api.events.ChatMessage;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.HitsplatApplied;
 import net.runelite.api.events.VarbitChanged;
@@ -59,8 +58,6 @@ public abstract class RoomDataTracker extends DataTracker implements EventHandle
     @Getter
     private final Room room;
 
-    private final Pattern waveEndRegex;
-
     private final boolean startOnEntry;
     private boolean shouldUpdateHitpoints;
     private int healTick = -1;
@@ -69,9 +66,12 @@ public abstract class RoomDataTracker extends DataTracker implements EventHandle
         super(theatreChallenge, client, room.toStage());
         this.theatreChallenge = theatreChallenge;
         this.room = room;
-        this.waveEndRegex = Pattern.compile("Wave '" + room.waveName() + "' \\(\\w+ Mode\\) " + "complete!Duration: ("
-                + Tick.TIME_STRING_REGEX + ")");
         this.startOnEntry = startOnEntry;
+
+        String waveEndLiteral = "Wave '" + room.waveName() + "' (";
+        Pattern waveEndRegex = Pattern.compile(Pattern.quote(waveEndLiteral) + "\\w+ Mode\\) complete!Duration: ("
+                + Tick.TIME_STRING_REGEX + ")");
+        getChatClassifier().onContains(waveEndLiteral, waveEndRegex, match -> finish(match.group(1)));
     }
 
     protected RoomDataTracker(TheatreChallenge theatreChallenge, Client client, Room room) {
@@ -193,21 +193,6 @@ public abstract class RoomDataTracker extends DataTracker implements EventHandle
         }
     }
 
-    @Override
-    protected final void onMessage(ChatMessage chatMessage) {
-        String stripped = Text.removeTags(chatMessage.getMessage());
-        Matcher matcher = waveEndRegex.matcher(stripped);
-        if (matcher.find()) {
-            try {
-                String inGameTime = matcher.group(1);
-                finish(inGameTime);
-            } catch (IndexOutOfBoundsException e) {
-                log.warn("Could not parse timestamp from wave end message: {}", stripped);
-                finish(true);
-            }
-        }
-    }
-
     @Override
     protected void onHitsplat(HitsplatApplied event) {
         if (event.getActor() instanceof NPC && event.getHitsplat().getHitsplatType() == HitsplatID.HEAL) {
@@ -237,12 +222,13 @@ public abstract class RoomDataTracker extends DataTracker implements EventHandle
     private void checkForDeaths() {
         final int tick = getTick();
 
-        getChallenge().getParty().forEach(raider -> {
-            if (!raider.isActive() && raider.isAlive()) {
+        final PartyState party = getChallenge().getPartyState();
+        for (int slot = 0; slot < party.size(); slot++) {
+            if (!party.isActive(slot) && !party.isDead(slot)) {
                 // Disconnecting during a ToB room is considered a death.
-                raider.setDead(tick);
+                party.getRaider(slot).setDead(tick);
             }
-        });
+        }
 
         // Check party orb health for dead players to catch any deaths that occurred before the client joined as a
         // spectator or while the client was disconnected.
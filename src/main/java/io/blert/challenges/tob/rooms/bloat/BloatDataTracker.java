@@ -36,9 +36,11 @@ import io.blert.events.tob.BloatDownEvent;
 import io.blert.events.tob.BloatHandsEvent;
 import io.blert.events.tob.BloatUpEvent;
 import io.blert.util.Location;
+import io.blert.util.TickScheduler;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
@@ -72,10 +74,10 @@ public class BloatDataTracker extends RoomDataTracker {
     private int currentDownTick;
     private int lastDownTick;
     private int lastUpTick;
-    private int nextUpTick;
+    private @Nullable TickScheduler.Handle pendingUp;
 
-    private final List<WorldPoint> fallingHands = new ArrayList<>(16);
-    private final List<WorldPoint> splatHands = new ArrayList<>(16);
+    private final List<WorldPoint> fallingHands = getTickArena().list(16);
+    private final List<WorldPoint> splatHands = getTickArena().list(16);
 
     public BloatDataTracker(TheatreChallenge manager, Client client) {
         super(manager, client, Room.BLOAT, true);
@@ -83,7 +85,7 @@ public class BloatDataTracker extends RoomDataTracker {
         currentDown = 0;
         lastDownTick = -1;
         lastUpTick = -1;
-        nextUpTick = -1;
+        pendingUp = null;
         bloat = null;
     }
 
@@ -120,9 +122,7 @@ public class BloatDataTracker extends RoomDataTracker {
                 currentDownTick--;
             }
 
-            if (tick == nextUpTick) {
-                handleBloatUp(tick);
-            } else if (currentDownTick == BLOAT_STOMP_TICK && bloat != null) {
+            if (currentDownTick == BLOAT_STOMP_TICK && bloat != null) {
                 WorldPoint point = getWorldLocation(bloat);
                 dispatchEvent(new NpcAttackEvent(getStage(), tick, point, NpcAttack.TOB_BLOAT_STOMP, bloat));
             }
@@ -130,11 +130,9 @@ public class BloatDataTracker extends RoomDataTracker {
 
         if (!fallingHands.isEmpty()) {
             dispatchEvent(BloatHandsEvent.drop(tick, new ArrayList<>(fallingHands)));
-            fallingHands.clear();
         }
         if (!splatHands.isEmpty()) {
             dispatchEvent(BloatHandsEvent.splat(tick, new ArrayList<>(splatHands)));
-            splatHands.clear();
         }
     }
 
@@ -180,6 +178,10 @@ public class BloatDataTracker extends RoomDataTracker {
 
     @Override
     protected void onGraphicsObjectCreation(GraphicsObjectCreated event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GraphicsObject object = event.getGraphicsObject();
         if (object.getId() >= BLOAT_HANDS_GRAPHICS_START_ID && object.getId() <= BLOAT_HANDS_GRAPHICS_END_ID) {
             WorldPoint point = Location.getWorldLocation(client, WorldPoint.fromLocal(client, object.getLocation()));
@@ -195,7 +197,9 @@ public class BloatDataTracker extends RoomDataTracker {
         currentDown++;
         state = State.DOWN;
         lastDownTick = tick;
-        nextUpTick = tick + BLOAT_DOWN_CYCLE_TICKS + 1;
+        cancelPendingUp();
+        // Bloat always stands up once its down cycle elapses, even if the animation change is not observed.
+        pendingUp = getScheduler().schedule(BLOAT_DOWN_CYCLE_TICKS + 1, () -> handleBloatUp(getTick()));
         log.debug("Bloat down {} tick {}", currentDown, lastDownTick);
 
         dispatchEvent(new BloatDownEvent(tick, getWorldLocation(bloat), currentDown, tick - lastUpTick));
@@ -203,10 +207,17 @@ public class BloatDataTracker extends RoomDataTracker {
 
     private void handleBloatUp(int tick) {
         lastUpTick = tick;
-        nextUpTick = -1;
+        cancelPendingUp();
         state = State.WALKING;
         log.debug("Bloat up {} tick {}", currentDown, lastUpTick);
 
         dispatchEvent(new BloatUpEvent(tick));
     }
+
+    private void cancelPendingUp() {
+        if (pendingUp != null) {
+            pendingUp.cancel();
+            pendingUp = null;
+        }
+    }
 }
@@ -32,6 +32,7 @@ import io.blert.challenges.tob.rooms.RoomDataTracker;
 import io.blert.core.BasicTrackedNpc;
 import io.blert.core.Hitpoints;
 import io.blert.core.NpcAttack;
+import io.blert.core.StageGrid;
 import io.blert.core.TrackedNpc;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.tob.MaidenBloodSplatsEvent;
@@ -57,7 +58,8 @@ public class MaidenDataTracker extends RoomDataTracker {
     private @Nullable HpVarbitTrackedNpc maiden;
     private @Nullable NpcAttack attackThisTick = null;
 
-    private final Set<GameObject> bloodTrails = new HashSet<>();
+    // Maiden's room spans 29x25 tiles.
+    private final StageGrid<GameObject> bloodTrails = StageGrid.forScene(29, 25);
     private final Map<Integer, MaidenCrab> crabs = new HashMap<>();
 
     public MaidenDataTracker(TheatreChallenge manager, Client client) {
@@ -75,25 +77,25 @@ public class MaidenDataTracker extends RoomDataTracker {
     protected void onTick() {
         super.onTick();
 
-        List<WorldPoint> bloodSplats = new ArrayList<>();
+        final int tick = getTick();
+
+        if (capturesAreaEffects()) {
+            List<WorldPoint> bloodSplats = new ArrayList<>();
 
-        // Search for active blood splats thrown by Maiden, and report them if they exist.
-        for (GraphicsObject object : client.getTopLevelWorldView().getGraphicsObjects()) {
-            WorldPoint point = WorldPoint.fromLocalInstance(client, object.getLocation());
-            if (Location.fromWorldPoint(point).inMaiden() && object.getId() == MAIDEN_BLOODSPLAT_GRAPHIC_ID) {
-                bloodSplats.add(point);
+            // Search for active blood splats thrown by Maiden, and report them if they exist.
+            for (GraphicsObject object : client.getTopLevelWorldView().getGraphicsObjects()) {
+                WorldPoint point = WorldPoint.fromLocalInstance(client, object.getLocation());
+                if (Location.fromWorldPoint(point).inMaiden() && object.getId() == MAIDEN_BLOODSPLAT_GRAPHIC_ID) {
+                    bloodSplats.add(point);
+                }
             }
-        }
 
-        // Add any blood trails left by blood spawns to the list. In the future, this may be a separate event.
-        for (GameObject trail : bloodTrails) {
-            bloodSplats.add(getWorldLocation(trail));
-        }
+            // Add any blood trails left by blood spawns to the list. In the future, this may be a separate event.
+            bloodTrails.forEach(trail -> bloodSplats.add(getWorldLocation(trail)));
 
-        final int tick = getTick();
-
-        if (!bloodSplats.isEmpty()) {
-            dispatchEvent(new MaidenBloodSplatsEvent(tick, bloodSplats));
+            if (!bloodSplats.isEmpty()) {
+                dispatchEvent(new MaidenBloodSplatsEvent(tick, bloodSplats));
+            }
         }
 
         if (maiden == null) {
@@ -125,8 +127,12 @@ public class MaidenDataTracker extends RoomDataTracker {
 
     @Override
     protected void onGameObjectSpawn(GameObjectSpawned spawned) {
-        // The blood trails left by blood spawns are game objects with stable hash codes, so store them in a set when
-        // they spawn and remove them on de-spawn. The `onTick` handler will dispatch events with the active set of
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
+        // The blood trails left by blood spawns are game objects, so store them by tile when they spawn and remove
+        // them on de-spawn. The `onTick` handler will dispatch events with the active set of
         // blood trails.
         GameObject object = spawned.getGameObject();
         if (object.getId() != MAIDEN_BLOOD_TRAIL_OBJECT_ID) {
@@ -134,15 +140,16 @@ public class MaidenDataTracker extends RoomDataTracker {
         }
 
         if (Location.fromWorldPoint(getWorldLocation(object)).inMaiden()) {
-            bloodTrails.add(object);
+            bloodTrails.put(object.getLocalLocation(), object);
         }
     }
 
     @Override
     protected void onGameObjectDespawn(GameObjectDespawned despawned) {
+        // Trails are removed even while area effects are dropped, so none are left behind once they resume.
         GameObject object = despawned.getGameObject();
         if (object.getId() == MAIDEN_BLOOD_TRAIL_OBJECT_ID) {
-            bloodTrails.remove(object);
+            bloodTrails.remove(object.getLocalLocation(), object);
         }
     }
 
@@ -34,6 +34,12 @@ import net.runelite.api.coords.WorldPoint;
 
 @Slf4j
 public class Nylo extends TrackedNpc {
+    /**
+     * Offsets {@code {dx, dy}} from the southwest tile of a dead big to each tile on which one of its splits may spawn.
+     * See {@link #isPossibleParentOf}.
+     */
+    static final int[][] SPLIT_TILE_OFFSETS = {{-1, 0}, {0, 0}, {1, 0}, {0, 1}, {1, 1}, {2, 1}};
+
     @AllArgsConstructor
     @Getter
     public static class Properties extends TrackedNpc.Properties {
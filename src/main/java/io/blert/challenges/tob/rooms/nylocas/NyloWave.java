@@ -23,8 +23,8 @@
 
 package io.blert.challenges.tob.rooms.nylocas;
 
-import com.google.common.collect.ImmutableMap;
 import io.blert.challenges.tob.TobNpc;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.OptionalInt;
@@ -33,7 +33,7 @@ import net.runelite.api.coords.WorldPoint;
 /**
  * Identifies Nylocas waves by their unique spawn composition.
  * <p>
- * Each wave's lane spawns are encoded as a 6-character string with positions:
+ * Each wave's lane spawns are described as a 6-character string with positions:
  * east0, east1, south0, south1, west0, west1.
  * <p>
  * Characters represent NPC type:
@@ -44,43 +44,82 @@ import net.runelite.api.coords.WorldPoint;
  *   _   = empty slot
  * </pre>
  * <p>
+ * At runtime, a spawn is packed into an 18-bit signature holding a 3-bit code per lane slot (0 for an empty slot,
+ * 1-6 for {@code iItThH}), which indexes directly into a table of candidate waves built from the strings above.
+ * <p>
  * Three wave pairs are ambiguous (identical composition at spawn time because aggro
  * status is not yet assigned): 17/19, 26/27, 28/31. These are disambiguated using
  * sequential context when available, or skipped if joining mid-fight.
  */
 class NyloWave {
     private static final char EMPTY = '_';
+    private static final String CODES = EMPTY + "iItThH";
+
+    private static final int LANE_SLOTS = 6;
+    private static final int BITS_PER_SLOT = 3;
+    private static final int SLOT_MASK = (1 << BITS_PER_SLOT) - 1;
+    private static final int SIGNATURE_COUNT = 1 << (LANE_SLOTS * BITS_PER_SLOT);
+
+    private static final String[] WAVE_SPAWNS = {
+        "_i_ht_", // 1
+        "t_i__h", // 2
+        "_h_ti_", // 3
+        "i_H__t", // 4
+        "_h_iT_", // 5
+        "I_t__h", // 6
+        "_iTh__", // 7
+        "t_i_H_", // 8
+        "_h__T_", // 9
+        "Tttttt", // 10
+        "hhhhH_", // 11
+        "iiI_ii", // 12
+        "I_itht", // 13
+        "T_thih", // 14
+        "thH_ti", // 15
+        "h_i__t", // 16
+        "H_H_H_", // 17
+        "T_T_T_", // 18
+        "H_H_H_", // 19
+        "I_H_I_", // 20
+        "ttiihh", // 21
+        "H_htI_", // 22
+        "H_T_th", // 23
+        "I_H_T_", // 24
+        "H_T_I_", // 25
+        "H_I_H_", // 26
+        "H_I_H_", // 27
+        "thhiti", // 28
+        "thI_ti", // 29
+        "H_hiT_", // 30
+        "thhiti", // 31
+    };
+
+    /**
+     * Direct lookup table from packed spawn signature to one plus the index of its candidates in
+     * {@link #WAVE_CANDIDATES}, or 0 if the signature is not a known wave. Bytes keep the table at 256 KiB.
+     */
+    private static final byte[] CANDIDATES_BY_SIGNATURE = new byte[SIGNATURE_COUNT];
+
+    /** Candidate waves for each distinct spawn signature, in ascending order. */
+    private static final int[][] WAVE_CANDIDATES;
 
-    private static final ImmutableMap<String, int[]> WAVE_CANDIDATES = new ImmutableMap.Builder<String, int[]>()
-            .put("_i_ht_", new int[] {1})
-            .put("t_i__h", new int[] {2})
-            .put("_h_ti_", new int[] {3})
-            .put("i_H__t", new int[] {4})
-            .put("_h_iT_", new int[] {5})
-            .put("I_t__h", new int[] {6})
-            .put("_iTh__", new int[] {7})
-            .put("t_i_H_", new int[] {8})
-            .put("_h__T_", new int[] {9})
-            .put("Tttttt", new int[] {10})
-            .put("hhhhH_", new int[] {11})
-            .put("iiI_ii", new int[] {12})
-            .put("I_itht", new int[] {13})
-            .put("T_thih", new int[] {14})
-            .put("thH_ti", new int[] {15})
-            .put("h_i__t", new int[] {16})
-            .put("H_H_H_", new int[] {17, 19})
-            .put("T_T_T_", new int[] {18})
-            .put("I_H_I_", new int[] {20})
-            .put("ttiihh", new int[] {21})
-            .put("H_htI_", new int[] {22})
-            .put("H_T_th", new int[] {23})
-            .put("I_H_T_", new int[] {24})
-            .put("H_T_I_", new int[] {25})
-            .put("H_I_H_", new int[] {26, 27})
-            .put("thhiti", new int[] {28, 31})
-            .put("thI_ti", new int[] {29})
-            .put("H_hiT_", new int[] {30})
-            .build();
+    static {
+        List<int[]> candidates = new ArrayList<>();
+        for (int i = 0; i < WAVE_SPAWNS.length; i++) {
+            int signature = signatureOf(WAVE_SPAWNS[i]);
+            int index = CANDIDATES_BY_SIGNATURE[signature];
+            if (index == 0) {
+                candidates.add(new int[] {i + 1});
+                CANDIDATES_BY_SIGNATURE[signature] = (byte) candidates.size();
+            } else {
+                int[] waves = candidates.get(index - 1);
+                waves = Arrays.copyOf(waves, waves.length + 1);
+                waves[waves.length - 1] = i + 1;
+                candidates.set(index - 1, waves);
+            }
+        }
+        WAVE_CANDIDATES = candidates.toArray(new int[0][]);
+    }
 
     /**
      * Identifies a wave by its lane spawn composition.
@@ -90,12 +129,23 @@ class NyloWave {
      * @return The wave number, or empty if unknown or ambiguous without context.
      */
     static OptionalInt identifyWave(List<Nylo> spawns, int currentWave) {
-        String key = encodeSpawn(spawns);
-        int[] candidates = WAVE_CANDIDATES.get(key);
+        return identifyWave(encodeSpawn(spawns), currentWave);
+    }
 
-        if (candidates == null) {
+    /**
+     * Identifies a wave by its packed spawn signature.
+     *
+     * @param signature   Signature of all lane spawns for a single tick.
+     * @param currentWave The last identified wave number (0 if none yet).
+     * @return The wave number, or empty if unknown or ambiguous without context.
+     */
+    static OptionalInt identifyWave(int signature, int currentWave) {
+        int index = CANDIDATES_BY_SIGNATURE[signature & (SIGNATURE_COUNT - 1)];
+        if (index == 0) {
             return OptionalInt.empty();
         }
+
+        int[] candidates = WAVE_CANDIDATES[index - 1];
         if (candidates.length == 1) {
             return OptionalInt.of(candidates[0]);
         }
@@ -104,42 +154,70 @@ class NyloWave {
         if (currentWave == 0) {
             return OptionalInt.empty();
         }
-        return Arrays.stream(candidates).filter(wave -> wave > currentWave).findFirst();
+        for (int wave : candidates) {
+            if (wave > currentWave) {
+                return OptionalInt.of(wave);
+            }
+        }
+        return OptionalInt.empty();
     }
 
     /**
-     * Encodes a Nylo NPC to a character.
+     * Encodes a Nylo NPC to its 3-bit slot code.
      *
      * @param npcId NPC ID at spawn time.
-     * @return Character encoding the NPC's style and size.
+     * @return Code encoding the NPC's style and size, or 0 if it is not a lane nylo.
      */
-    static char encodeNylo(int npcId) {
-        if (TobNpc.isNylocasIschyrosSmall(npcId)) return 'i';
-        if (TobNpc.isNylocasIschyrosBig(npcId)) return 'I';
-        if (TobNpc.isNylocasToxobolosSmall(npcId)) return 't';
-        if (TobNpc.isNylocasToxobolosBig(npcId)) return 'T';
-        if (TobNpc.isNylocasHagiosSmall(npcId)) return 'h';
-        if (TobNpc.isNylocasHagiosBig(npcId)) return 'H';
-        return EMPTY;
+    static int encodeNylo(int npcId) {
+        if (TobNpc.isNylocasIschyrosSmall(npcId)) return 1;
+        if (TobNpc.isNylocasIschyrosBig(npcId)) return 2;
+        if (TobNpc.isNylocasToxobolosSmall(npcId)) return 3;
+        if (TobNpc.isNylocasToxobolosBig(npcId)) return 4;
+        if (TobNpc.isNylocasHagiosSmall(npcId)) return 5;
+        if (TobNpc.isNylocasHagiosBig(npcId)) return 6;
+        return 0;
     }
 
     /**
-     * Encodes a wave spawn from a list of lane-spawned nylos into a key string.
+     * Encodes a wave spawn from a list of lane-spawned nylos into a packed signature.
      *
      * @param spawns All lane spawns for a single tick.
-     * @return 6-character wave key.
+     * @return 18-bit wave signature.
      */
-    static String encodeSpawn(List<Nylo> spawns) {
-        char[] key = {EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY};
+    static int encodeSpawn(List<Nylo> spawns) {
+        int signature = 0;
 
         for (Nylo nylo : spawns) {
             int index = laneIndex(nylo);
-            if (index >= 0 && index < key.length) {
-                key[index] = encodeNylo(nylo.getNpc().getId());
+            if (index >= 0 && index < LANE_SLOTS) {
+                int shift = index * BITS_PER_SLOT;
+                signature = (signature & ~(SLOT_MASK << shift)) | (encodeNylo(nylo.getNpc().getId()) << shift);
             }
         }
 
-        return new String(key);
+        return signature;
+    }
+
+    /**
+     * Packs a 6-character wave spawn string into its signature.
+     *
+     * @param spawn Wave spawn string, using the characters described in the class documentation.
+     * @return 18-bit wave signature.
+     */
+    static int signatureOf(String spawn) {
+        if (spawn.length() != LANE_SLOTS) {
+            throw new IllegalArgumentException("Invalid wave spawn: " + spawn);
+        }
+
+        int signature = 0;
+        for (int i = 0; i < LANE_SLOTS; i++) {
+            int code = CODES.indexOf(spawn.charAt(i));
+            if (code < 0) {
+                throw new IllegalArgumentException("Invalid wave spawn: " + spawn);
+            }
+            signature |= code << (i * BITS_PER_SLOT);
+        }
+        return signature;
     }
 
     private static int laneIndex(Nylo nylo) {
@@ -36,11 +36,14 @@ import io.blert.events.NpcAttackEvent;
 import io.blert.events.tob.NyloBossSpawnEvent;
 import io.blert.events.tob.NyloCleanupEndEvent;
 import io.blert.events.tob.NyloWaveEvent;
+import io.blert.util.TickArena;
+import io.blert.util.TickScheduler;
 import java.util.*;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
 import net.runelite.api.Client;
+import net.runelite.api.Constants;
 import net.runelite.api.NPC;
 import net.runelite.api.NullNpcID;
 import net.runelite.api.coords.WorldPoint;
@@ -63,13 +66,21 @@ public class NylocasDataTracker extends RoomDataTracker {
     private static final int NYLO_BOSS_MELEE_ANIMATION = 8004;
 
     private int currentWave;
-    private int nextWaveSpawnCheckTick;
+    private @Nullable TickScheduler.Handle stallCheck;
     private int bossSpawnTick;
 
     private final Map<Integer, Nylo> nylosInRoom = new HashMap<>();
     private @Nullable NyloBoss nyloBoss = null;
-    private final List<Nylo> bigDeathsThisTick = new ArrayList<>();
-    private final List<Nylo> laneSpawnsThisTick = new ArrayList<>();
+    private final List<Nylo> spawnsThisTick = getTickArena().list();
+    private final List<Nylo> laneSpawnsThisTick = getTickArena().list();
+
+    /**
+     * Bigs which died this tick, bucketed by each tile on which one of their splits could spawn, so that a split only
+     * has to be compared against the bigs that died around it. Tiles are indexed by their coordinates within a region;
+     * tiles a region apart share a bucket, but candidates are checked by {@link Nylo#isPossibleParentOf}.
+     */
+    private final TickArena.IndexedListMap<Nylo> bigDeathsBySplitTile =
+            getTickArena().indexedListMap(Constants.REGION_SIZE * Constants.REGION_SIZE);
 
     private static final ImmutableSet<Integer> NYLOCAS_PILLAR_NPC_IDS =
             ImmutableSet.of(NullNpcID.NULL_10790, NullNpcID.NULL_8358, NullNpcID.NULL_10811);
@@ -77,7 +88,7 @@ public class NylocasDataTracker extends RoomDataTracker {
     public NylocasDataTracker(TheatreChallenge manager, Client client) {
         super(manager, client, Room.NYLOCAS);
         currentWave = 0;
-        nextWaveSpawnCheckTick = -1;
+        stallCheck = null;
         bossSpawnTick = -1;
     }
 
@@ -110,28 +121,15 @@ public class NylocasDataTracker extends RoomDataTracker {
             if (wave.isPresent()) {
                 handleWaveSpawn(tick, wave.getAsInt());
             }
-            laneSpawnsThisTick.clear();
         }
 
-        if (currentWave < LAST_NYLO_WAVE && tick == nextWaveSpawnCheckTick) {
-            // The spawn event handler runs before the on tick handler, so if `nextWaveSpawnCheckTick` is ever reached,
-            // it means that the next wave did not spawn when expected, i.e. a stall occurred.
-            nextWaveSpawnCheckTick += WAVE_TICK_CYCLE;
-
-            // A stall only happens when the room is at the nylo cap; avoid
-            // emitting phantom stall events if under it.
-            if (roomNyloCount() >= waveCap()) {
-                log.debug("Stalled wave {} ({}/{})", currentWave, roomNyloCount(), waveCap());
-                dispatchEvent(NyloWaveEvent.stall(tick, currentWave, roomNyloCount(), waveCap()));
-            }
+        for (Nylo nylo : spawnsThisTick) {
+            nylo.setWave(currentWave);
         }
 
-        nylosInRoom.values().stream()
-                .filter(nylo -> nylo.getSpawnTick() == tick)
-                .forEach(nylo -> nylo.setWave(currentWave));
-
-        assignParentsToSplits();
-        bigDeathsThisTick.clear();
+        if (!bigDeathsBySplitTile.isEmpty()) {
+            assignParentsToSplits();
+        }
     }
 
     @Override
@@ -222,7 +220,10 @@ public class NylocasDataTracker extends RoomDataTracker {
 
         nylo.recordDeath(tick, getWorldLocation(npc));
         if (nylo.isBig()) {
-            bigDeathsThisTick.add(nylo);
+            WorldPoint deathPoint = nylo.getDeathPoint();
+            for (int[] offset : Nylo.SPLIT_TILE_OFFSETS) {
+                bigDeathsBySplitTile.add(tileKey(deathPoint.getX() + offset[0], deathPoint.getY() + offset[1]), nylo);
+            }
         } else {
             // Only check to see if the room is empty when a small dies.
             checkCleanupComplete();
@@ -285,6 +286,7 @@ public class NylocasDataTracker extends RoomDataTracker {
                 0,
                 tobNpc.get().getBaseHitpoints(theatreChallenge.getScale()));
         nylosInRoom.put(npc.hashCode(), nylo);
+        spawnsThisTick.add(nylo);
 
         if (nylo.getSpawnType().isLaneSpawn()) {
             laneSpawnsThisTick.add(nylo);
@@ -297,9 +299,9 @@ public class NylocasDataTracker extends RoomDataTracker {
         currentWave = wave;
         if (currentWave < LAST_NYLO_WAVE) {
             if (isPrinceWave()) {
-                nextWaveSpawnCheckTick = tick + 4 * WAVE_TICK_CYCLE;
+                scheduleStallCheck(4 * WAVE_TICK_CYCLE);
             } else {
-                nextWaveSpawnCheckTick = tick + NATURAL_STALLS[currentWave];
+                scheduleStallCheck(NATURAL_STALLS[currentWave]);
             }
         }
 
@@ -312,6 +314,32 @@ public class NylocasDataTracker extends RoomDataTracker {
         }
     }
 
+    private void scheduleStallCheck(int ticks) {
+        if (stallCheck != null) {
+            stallCheck.cancel();
+        }
+        // Wave spawns are identified within `onTick`, so the check must run after it.
+        stallCheck = getScheduler().schedule(ticks, TickScheduler.Priority.AFTER_TICK, this::checkForStall);
+    }
+
+    private void checkForStall() {
+        stallCheck = null;
+        if (currentWave >= LAST_NYLO_WAVE) {
+            return;
+        }
+
+        // A new wave reschedules the check, so if it is ever reached, the next wave did not spawn when expected, i.e.
+        // a stall occurred.
+        scheduleStallCheck(WAVE_TICK_CYCLE);
+
+        // A stall only happens when the room is at the nylo cap; avoid
+        // emitting phantom stall events if under it.
+        if (roomNyloCount() >= waveCap()) {
+            log.debug("Stalled wave {} ({}/{})", currentWave, roomNyloCount(), waveCap());
+            dispatchEvent(NyloWaveEvent.stall(getTick(), currentWave, roomNyloCount(), waveCap()));
+        }
+    }
+
     private void handleBossSpawn(NPC npc) {
         final int tick = getTick();
 
@@ -323,30 +351,40 @@ public class NylocasDataTracker extends RoomDataTracker {
     }
 
     private void assignParentsToSplits() {
-        final int tick = getTick();
-
         // Determine whether the nylo is a split, and if so, if it has an
         // unambiguous parent. If no parent can be identified, leave the nylo as
         // an UNKNOWN type.
-        nylosInRoom.values().stream()
-                .filter(nylo -> nylo.getSpawnTick() == tick && !nylo.isLaneSpawn())
-                .forEach(nylo -> {
-                    Nylo parent = null;
-                    int possibleParents = 0;
-                    for (Nylo big : bigDeathsThisTick) {
-                        if (big.isPossibleParentOf(nylo)) {
-                            parent = big;
-                            possibleParents++;
-                        }
-                    }
-
-                    if (possibleParents == 1) {
-                        nylo.setSpawnType(SpawnType.SPLIT);
-                        nylo.setParent(parent);
-                    } else if (possibleParents > 1) {
-                        nylo.setSpawnType(SpawnType.SPLIT);
-                    }
-                });
+        for (Nylo nylo : spawnsThisTick) {
+            if (nylo.isLaneSpawn()) {
+                continue;
+            }
+
+            WorldPoint spawnPoint = nylo.getSpawnPoint();
+            List<Nylo> bigs = bigDeathsBySplitTile.get(tileKey(spawnPoint.getX(), spawnPoint.getY()));
+            if (bigs == null) {
+                continue;
+            }
+
+            Nylo parent = null;
+            int possibleParents = 0;
+            for (Nylo big : bigs) {
+                if (big.isPossibleParentOf(nylo)) {
+                    parent = big;
+                    possibleParents++;
+                }
+            }
+
+            if (possibleParents == 1) {
+                nylo.setSpawnType(SpawnType.SPLIT);
+                nylo.setParent(parent);
+            } else if (possibleParents > 1) {
+                nylo.setSpawnType(SpawnType.SPLIT);
+            }
+        }
+    }
+
+    private static int tileKey(int x, int y) {
+        return (y & (Constants.REGION_SIZE - 1)) * Constants.REGION_SIZE + (x & (Constants.REGION_SIZE - 1));
     }
 
     private void checkCleanupComplete() {
@@ -33,7 +33,8 @@ import io.blert.core.*;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.tob.SoteMazeEvent;
 import io.blert.events.tob.SoteMazePathEvent;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -67,7 +68,8 @@ public class SotetsegDataTracker extends RoomDataTracker {
     boolean isUnder = false;
     private String chosenPlayer = null;
     private int invulnerableUntilTick = -1;
-    private final Set<GroundObject> activeMazeTiles = new HashSet<>();
+    // Sotetseg's room spans 17x30 tiles.
+    private final StageGrid<GroundObject> activeMazeTiles = StageGrid.forScene(17, 30);
 
     public SotetsegDataTracker(TheatreChallenge manager, Client client) {
         super(manager, client, Room.SOTETSEG);
@@ -125,9 +127,9 @@ public class SotetsegDataTracker extends RoomDataTracker {
 
         if (inMaze) {
             Location playerLocation = Location.fromWorldPoint(getWorldLocation(client.getLocalPlayer()));
-            if (playerLocation.inSotetsegOverworld() && !activeMazeTiles.isEmpty()) {
-                var activeTilePoints =
-                        activeMazeTiles.stream().map(this::getWorldLocation).collect(Collectors.toList());
+            if (playerLocation.inSotetsegOverworld() && !activeMazeTiles.isEmpty() && capturesAreaEffects()) {
+                List<WorldPoint> activeTilePoints = new ArrayList<>(activeMazeTiles.size());
+                activeMazeTiles.forEach(tile -> activeTilePoints.add(getWorldLocation(tile)));
                 dispatchEvent(SoteMazePathEvent.overworldTiles(tick, maze, activeTilePoints));
             }
 
@@ -278,14 +280,22 @@ public class SotetsegDataTracker extends RoomDataTracker {
     @Override
     protected void onGroundObjectSpawn(GroundObjectSpawned event) {
         GroundObject groundObject = event.getGroundObject();
-        if (groundObject.getId() == MAZE_ACTIVE_TILE_GROUND_OBJECT) {
-            Location playerLocation = Location.fromWorldPoint(getWorldLocation(client.getLocalPlayer()));
-            if (playerLocation.inSotetsegUnderworld()) {
+        if (groundObject.getId() != MAZE_ACTIVE_TILE_GROUND_OBJECT) {
+            return;
+        }
+
+        Location playerLocation = Location.fromWorldPoint(getWorldLocation(client.getLocalPlayer()));
+        if (playerLocation.inSotetsegUnderworld()) {
+            if (capturesAreaEffects()) {
                 mazeTracker.addUnderworldPoint(getWorldLocation(groundObject));
-            } else {
+            }
+        } else {
+            // Active tiles are tracked regardless of the capture profile, as they are used to identify the chosen
+            // player. Only the path itself is an area effect.
+            if (capturesAreaEffects()) {
                 mazeTracker.addPotentialOverworldPoint(getWorldLocation(groundObject));
-                activeMazeTiles.add(groundObject);
             }
+            activeMazeTiles.put(groundObject.getLocalLocation(), groundObject);
         }
     }
 
@@ -293,12 +303,14 @@ public class SotetsegDataTracker extends RoomDataTracker {
     protected void onGroundObjectDespawn(GroundObjectDespawned event) {
         GroundObject groundObject = event.getGroundObject();
         if (groundObject.getId() == MAZE_ACTIVE_TILE_GROUND_OBJECT) {
-            activeMazeTiles.remove(groundObject);
+            activeMazeTiles.remove(groundObject.getLocalLocation(), groundObject);
         }
     }
 
     @Override
     protected void onGraphicsObjectCreation(GraphicsObjectCreated event) {
+        // Ragged tiles are removed from the maze even while area effects are dropped, so that they are not reported
+        // as part of the path once capture resumes.
         GraphicsObject graphicsObject = event.getGraphicsObject();
         if (graphicsObject.getId() == MAZE_RAG_GRAPHICS_OBJECT) {
             WorldPoint point = WorldPoint.fromLocalInstance(client, graphicsObject.getLocation());
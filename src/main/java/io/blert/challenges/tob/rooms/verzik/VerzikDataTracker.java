@@ -35,6 +35,7 @@ import io.blert.events.EventType;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.PlayerAttackEvent;
 import io.blert.events.tob.*;
+import io.blert.util.TickArena;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -106,7 +107,7 @@ public class VerzikDataTracker extends RoomDataTracker {
     // Map of tornado NPC index to the tornado, as indexes are stable across spawns.
     private final Map<Integer, BasicTrackedNpc> tornadoes = new HashMap<>();
     private final Map<Player, Number> tornadoHealTicks = new HashMap<>();
-    private final Map<Actor, List<Hitsplat>> hitsplatsThisTick = new HashMap<>();
+    private final TickArena.ListMap<Actor, Hitsplat> hitsplatsThisTick = getTickArena().listMap();
     private final List<Player> p2BounceChances = new ArrayList<>();
     private int p2LastBounce;
 
@@ -201,6 +202,10 @@ public class VerzikDataTracker extends RoomDataTracker {
         this.p2LastBounce = -1;
         this.enraged = false;
         this.activeSpecial = null;
+
+        ProjectileTracker projectiles = getProjectileTracker();
+        projectiles.onSpawn(P3_RANGE_PROJECTILE, p -> onP3Projectile(p, VerzikAttackStyleEvent.Style.RANGE));
+        projectiles.onSpawn(P3_MAGE_PROJECTILE, p -> onP3Projectile(p, VerzikAttackStyleEvent.Style.MAGE));
     }
 
     @Override
@@ -284,7 +289,7 @@ public class VerzikDataTracker extends RoomDataTracker {
 
             activeSpecial = null;
             yellowPools.clear();
-        } else if (activeSpecial == VerzikSpecial.YELLOWS) {
+        } else if (activeSpecial == VerzikSpecial.YELLOWS && capturesAreaEffects()) {
             HashSet<WorldPoint> currentYellows = new HashSet<>(yellowPools.size());
             client.getTopLevelWorldView().getGraphicsObjects().forEach(g -> {
                 if (g.getId() == VERZIK_YELLOW_OBJECT_ID) {
@@ -304,8 +309,6 @@ public class VerzikDataTracker extends RoomDataTracker {
                 sendHealEvent(tick, player);
             }
         });
-
-        hitsplatsThisTick.clear();
     }
 
     @Override
@@ -495,37 +498,24 @@ public class VerzikDataTracker extends RoomDataTracker {
 
     @Override
     protected void onProjectile(ProjectileMoved event) {
+        // P2 attacks are identified from every projectile moving on Verzik's attack tick, not only those launched on
+        // it, so they are checked here rather than through the projectile tracker's spawn handlers.
         final int tick = getTick();
-        Projectile projectile = event.getProjectile();
-
         if (phase == VerzikPhase.P2 && tick == nextVerzikAttackTick && nextVerzikAttack == null) {
             if (tick != redCrabsTick) {
-                nextVerzikAttack = p2AttackTracker.checkProjectile(projectile);
+                nextVerzikAttack = p2AttackTracker.checkProjectile(event.getProjectile());
             }
         }
+    }
 
-        if (phase == VerzikPhase.P3) {
-            int totalCycles = projectile.getEndCycle() - projectile.getStartCycle();
-            if (projectile.getRemainingCycles() != totalCycles) {
-                return;
-            }
-
-            VerzikAttackStyleEvent.Style style;
-            switch (event.getProjectile().getId()) {
-                case P3_RANGE_PROJECTILE:
-                    style = VerzikAttackStyleEvent.Style.RANGE;
-                    break;
-                case P3_MAGE_PROJECTILE:
-                    style = VerzikAttackStyleEvent.Style.MAGE;
-                    break;
-                default:
-                    return;
-            }
+    private void onP3Projectile(ProjectileTracker.TrackedProjectile projectile, VerzikAttackStyleEvent.Style style) {
+        if (phase != VerzikPhase.P3 || !projectile.isSeenAtLaunch()) {
+            return;
+        }
 
-            if (unidentifiedVerzikAttackTick != -1) {
-                dispatchEvent(new VerzikAttackStyleEvent(tick, style, unidentifiedVerzikAttackTick));
-                unidentifiedVerzikAttackTick = -1;
-            }
+        if (unidentifiedVerzikAttackTick != -1) {
+            dispatchEvent(new VerzikAttackStyleEvent(getTick(), style, unidentifiedVerzikAttackTick));
+            unidentifiedVerzikAttackTick = -1;
         }
     }
 
@@ -601,9 +591,7 @@ public class VerzikDataTracker extends RoomDataTracker {
             }
         } else if (phase == VerzikPhase.P3) {
             // Hitsplats are tracked for P3 healing.
-            hitsplatsThisTick
-                    .computeIfAbsent(event.getActor(), k -> new ArrayList<>())
-                    .add(event.getHitsplat());
+            hitsplatsThisTick.add(event.getActor(), event.getHitsplat());
         }
     }
 
@@ -31,6 +31,8 @@ import io.blert.challenges.tob.rooms.RoomDataTracker;
 import io.blert.core.ChallengeMode;
 import io.blert.core.Hitpoints;
 import io.blert.core.NpcAttack;
+import io.blert.core.ProjectileTracker;
+import io.blert.core.StageGrid;
 import io.blert.core.TrackedNpc;
 import io.blert.events.NpcAttackEvent;
 import io.blert.events.tob.XarpusExhumedEvent;
@@ -61,16 +63,18 @@ public class XarpusDataTracker extends RoomDataTracker {
     private @Nullable HpVarbitTrackedNpc xarpus = null;
 
     private int exhumedHealAmount;
-    private final Map<GroundObject, Exhumed> exhumeds = new HashMap<>();
-    private final Map<WorldPoint, ActiveSplat> splatsByTarget = new HashMap<>();
+    // Xarpus's room spans 17x17 tiles.
+    private final StageGrid<Exhumed> exhumeds = StageGrid.forScene(17, 17);
+    private final StageGrid<ActiveSplat> splatsByTarget = StageGrid.forScene(17, 17);
     private int nextTurnTick = -1;
 
     private static class Exhumed {
+        final GroundObject groundObject;
         final int spawnTick;
         final List<Integer> healTicks = new ArrayList<>();
-        final Set<Projectile> projectiles = new HashSet<>();
 
-        Exhumed(int spawnTick) {
+        Exhumed(GroundObject groundObject, int spawnTick) {
+            this.groundObject = groundObject;
             this.spawnTick = spawnTick;
         }
     }
@@ -95,6 +99,8 @@ public class XarpusDataTracker extends RoomDataTracker {
 
     public XarpusDataTracker(TheatreChallenge manager, Client client) {
         super(manager, client, Room.XARPUS);
+        onAreaEffectProjectileSpawn(EXHUMED_PROJECTILE_ID, this::onExhumedProjectile);
+        onAreaEffectProjectileSpawn(SPLAT_PROJECTILE_ID, this::onSplatProjectile);
     }
 
     @Override
@@ -202,11 +208,15 @@ public class XarpusDataTracker extends RoomDataTracker {
 
     @Override
     protected void onGroundObjectSpawn(GroundObjectSpawned event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         GroundObject groundObject = event.getGroundObject();
         int id = groundObject.getId();
 
         if (id == EXHUMED_GROUND_OBJECT_ID) {
-            exhumeds.put(groundObject, new Exhumed(getTick()));
+            exhumeds.put(groundObject.getLocalLocation(), new Exhumed(groundObject, getTick()));
             return;
         }
 
@@ -214,11 +224,11 @@ public class XarpusDataTracker extends RoomDataTracker {
             // If a splat's ground object spawns without it having been previously recorded, it indicates that
             // the has client missed the projectile that spawned it (perhaps by joining late).
             // Record the splat as existing, but without a known source.
-            WorldPoint splatWorld = getWorldLocation(groundObject);
-            if (!splatsByTarget.containsKey(splatWorld)) {
+            LocalPoint splatLocal = groundObject.getLocalLocation();
+            if (splatsByTarget.get(splatLocal) == null) {
+                WorldPoint splatWorld = getWorldLocation(groundObject);
                 log.warn("Splat ground object spawned at {} without a projectile", splatWorld);
-                LocalPoint splatLocal = groundObject.getLocalLocation();
-                splatsByTarget.put(getWorldLocation(groundObject), new ActiveSplat(splatLocal));
+                splatsByTarget.put(splatLocal, new ActiveSplat(splatLocal));
                 dispatchEvent(new XarpusSplatEvent(getTick(), splatWorld, XarpusSplatEvent.Source.UNKNOWN, null));
             }
         }
@@ -232,8 +242,14 @@ public class XarpusDataTracker extends RoomDataTracker {
             return;
         }
 
-        Exhumed exhumed = exhumeds.remove(groundObject);
-        if (exhumed != null) {
+        // Exhumeds are removed even while area effects are dropped, so that none are left behind once they resume.
+        LocalPoint local = groundObject.getLocalLocation();
+        Exhumed exhumed = exhumeds.get(local);
+        if (exhumed != null && exhumed.groundObject == groundObject) {
+            exhumeds.remove(local);
+            if (!capturesAreaEffects()) {
+                return;
+            }
             dispatchEvent(new XarpusExhumedEvent(
                     getTick(),
                     getWorldLocation(groundObject),
@@ -245,6 +261,10 @@ public class XarpusDataTracker extends RoomDataTracker {
 
     @Override
     protected void onGraphicsObjectCreation(GraphicsObjectCreated event) {
+        if (!capturesAreaEffects()) {
+            return;
+        }
+
         if (event.getGraphicsObject().getId() == SPLAT_GRAPHICS_OBJECT_ID) {
             try {
                 recordAndSendSplat(event.getGraphicsObject().getLocation());
@@ -254,49 +274,38 @@ public class XarpusDataTracker extends RoomDataTracker {
         }
     }
 
-    @Override
-    protected void onProjectile(ProjectileMoved event) {
-        Projectile projectile = event.getProjectile();
-
-        if (projectile.getId() == EXHUMED_PROJECTILE_ID) {
-            if (phase != XarpusPhase.P1) {
-                return;
-            }
-
-            exhumeds.entrySet().stream()
-                    .filter(entry -> {
-                        LocalPoint location = entry.getKey().getLocalLocation();
-                        return location.getX() == projectile.getX1() && location.getY() == projectile.getY1();
-                    })
-                    .findFirst()
-                    .ifPresent(entry -> {
-                        Exhumed exhumed = entry.getValue();
-                        if (!exhumed.projectiles.contains(projectile)) {
-                            exhumed.healTicks.add(getTick());
-                            exhumed.projectiles.add(projectile);
-                        }
-                    });
+    private void onExhumedProjectile(ProjectileTracker.TrackedProjectile tracked) {
+        if (phase != XarpusPhase.P1) {
+            return;
+        }
 
+        Projectile projectile = tracked.getProjectile();
+        Exhumed exhumed = exhumeds.get(
+                projectile.getX1() >> Perspective.LOCAL_COORD_BITS, projectile.getY1() >> Perspective.LOCAL_COORD_BITS);
+        if (exhumed == null) {
             return;
         }
 
-        if (projectile.getId() == SPLAT_PROJECTILE_ID) {
-            // The splat projectile is spawned at its target location.
-            WorldPoint target = Location.getWorldLocation(client, WorldPoint.fromLocal(client, event.getPosition()));
-            splatsByTarget.compute(target, (point, splat) -> {
-                if (splat == null) {
-                    splat = new ActiveSplat(projectile);
-                } else if (!splat.hasLanded()) {
-                    splat.projectiles.add(projectile);
-                }
-                return splat;
-            });
+        LocalPoint location = exhumed.groundObject.getLocalLocation();
+        if (location.getX() == projectile.getX1() && location.getY() == projectile.getY1()) {
+            exhumed.healTicks.add(tracked.getSpawnTick());
+        }
+    }
+
+    private void onSplatProjectile(ProjectileTracker.TrackedProjectile tracked) {
+        // The splat projectile is spawned at its target location.
+        LocalPoint target = tracked.getTargetPosition();
+        ActiveSplat splat = splatsByTarget.get(target);
+        if (splat == null) {
+            splatsByTarget.put(target, new ActiveSplat(tracked.getProjectile()));
+        } else if (!splat.hasLanded()) {
+            splat.projectiles.add(tracked.getProjectile());
         }
     }
 
     void recordAndSendSplat(LocalPoint splatLocal) throws IllegalStateException {
         WorldPoint splatWorld = Location.getWorldLocation(client, WorldPoint.fromLocal(client, splatLocal));
-        ActiveSplat splat = splatsByTarget.get(splatWorld);
+        ActiveSplat splat = splatsByTarget.get(splatLocal);
 
         XarpusSplatEvent.Source source = XarpusSplatEvent.Source.UNKNOWN;
         WorldPoint bounceFrom = null;
@@ -319,21 +328,19 @@ public class XarpusDataTracker extends RoomDataTracker {
             } else {
                 // if the splat did not come from Xarpus, try to find a previously landed splat
                 // matching its starting coordinates.
-                Optional<Map.Entry<WorldPoint, ActiveSplat>> bouncedFrom = splatsByTarget.entrySet().stream()
-                        .filter((entry) -> {
-                            LocalPoint l = entry.getValue().landedLocal;
-                            return l != null && l.getX() == firstLanded.getX1() && l.getY() == firstLanded.getY1();
-                        })
-                        .findFirst();
-                if (bouncedFrom.isPresent()) {
+                ActiveSplat bouncedFrom = splatsByTarget.get(
+                        firstLanded.getX1() >> Perspective.LOCAL_COORD_BITS,
+                        firstLanded.getY1() >> Perspective.LOCAL_COORD_BITS);
+                LocalPoint l = bouncedFrom != null ? bouncedFrom.landedLocal : null;
+                if (l != null && l.getX() == firstLanded.getX1() && l.getY() == firstLanded.getY1()) {
                     source = XarpusSplatEvent.Source.BOUNCE;
-                    bounceFrom = bouncedFrom.get().getKey();
+                    bounceFrom = Location.getWorldLocation(client, WorldPoint.fromLocal(client, l));
                 }
             }
             splat.landedLocal = splatLocal;
         } else {
             log.warn("Splat at {} without projectiles", splatWorld);
-            splatsByTarget.put(splatWorld, new ActiveSplat(splatLocal));
+            splatsByTarget.put(splatLocal, new ActiveSplat(splatLocal));
         }
 
         dispatchEvent(new XarpusSplatEvent(getTick(), splatWorld, source, bounceFrom));
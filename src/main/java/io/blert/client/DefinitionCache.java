@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.client;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.blert.core.AttackRegistry;
+import io.blert.core.SpellRegistry;
+import io.blert.json.AttackDefinition;
+import io.blert.json.ServerMessage;
+import io.blert.json.SpellDefinition;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local copy of the most recent attack and spell definition sets received from the server.
+ * <p>
+ * Each set is identified by a server-assigned version, which is advertised in the handshake headers. If the cached
+ * set is current the server sends nothing for it; otherwise it may send only the definitions which changed. Sets are
+ * persisted as they are updated and loaded at startup, so reconnecting does not transfer and re-parse definitions
+ * the client already has.
+ */
+@Slf4j
+public class DefinitionCache {
+    public static final String ATTACK_DEFINITIONS_HEADER = "Blert-Attack-Definitions";
+    public static final String SPELL_DEFINITIONS_HEADER = "Blert-Spell-Definitions";
+
+    private static final String ATTACKS_FILE = "attacks.json";
+    private static final String SPELLS_FILE = "spells.json";
+
+    /**
+     * A definition set as written to disk.
+     */
+    private static class CachedSet<T> {
+        String version;
+        List<T> definitions;
+    }
+
+    private static final Type ATTACK_SET_TYPE = new TypeToken<CachedSet<AttackDefinition>>() {}.getType();
+    private static final Type SPELL_SET_TYPE = new TypeToken<CachedSet<SpellDefinition>>() {}.getType();
+
+    private final Path directory;
+    private final Gson gson;
+    private final AttackRegistry attackRegistry;
+    private final SpellRegistry spellRegistry;
+    private final Executor executor;
+
+    private final Map<Integer, AttackDefinition> attacks = new LinkedHashMap<>();
+    private final Map<Integer, SpellDefinition> spells = new LinkedHashMap<>();
+    private @Nullable String attackVersion = null;
+    private @Nullable String spellVersion = null;
+
+    // Whether each set has been received from the server during this session, making the one on disk outdated.
+    private boolean attacksFromServer = false;
+    private boolean spellsFromServer = false;
+
+    public DefinitionCache(
+            Path directory,
+            Gson gson,
+            AttackRegistry attackRegistry,
+            SpellRegistry spellRegistry,
+            Executor executor) {
+        this.directory = directory;
+        this.gson = gson;
+        this.attackRegistry = attackRegistry;
+        this.spellRegistry = spellRegistry;
+        this.executor = executor;
+    }
+
+    /**
+     * Loads the definition sets persisted by a previous session into the registries, replacing their bundled
+     * defaults. A set which has already been received from the server is left as it is.
+     */
+    public synchronized void load() {
+        CachedSet<AttackDefinition> attackSet = attacksFromServer ? null : read(ATTACKS_FILE, ATTACK_SET_TYPE);
+        if (attackSet != null) {
+            attackSet.definitions.forEach(def -> attacks.put(def.protoId, def));
+            attackRegistry.updateFromServer(toCoreAttacks(attacks.values()));
+            attackVersion = attackSet.version;
+        }
+
+        CachedSet<SpellDefinition> spellSet = spellsFromServer ? null : read(SPELLS_FILE, SPELL_SET_TYPE);
+        if (spellSet != null) {
+            spellSet.definitions.forEach(def -> spells.put(def.id, def));
+            spellRegistry.updateFromServer(toCoreSpells(spells.values()));
+            spellVersion = spellSet.version;
+        }
+    }
+
+    /**
+     * Returns the headers advertising the versions of the cached definition sets.
+     */
+    public synchronized Map<String, String> handshakeHeaders() {
+        Map<String, String> headers = new HashMap<>();
+        if (attackVersion != null) {
+            headers.put(ATTACK_DEFINITIONS_HEADER, attackVersion);
+        }
+        if (spellVersion != null) {
+            headers.put(SPELL_DEFINITIONS_HEADER, spellVersion);
+        }
+        return headers;
+    }
+
+    /**
+     * Applies an attack definitions message from the server to the cache and the attack registry.
+     *
+     * @param message The message.
+     */
+    public synchronized void applyAttackDefinitions(ServerMessage message) {
+        List<AttackDefinition> changed = message.attackDefinitions != null ? message.attackDefinitions : List.of();
+        List<Integer> removed = message.removedDefinitionIds != null ? message.removedDefinitionIds : List.of();
+        attacksFromServer = true;
+
+        if (message.definitionDiff) {
+            if (changed.isEmpty() && removed.isEmpty() && Objects.equals(message.definitionVersion, attackVersion)) {
+                return;
+            }
+            removed.forEach(attacks::remove);
+            changed.forEach(def -> attacks.put(def.protoId, def));
+            attackRegistry.applyUpdate(toCoreAttacks(changed), removed);
+        } else {
+            attacks.clear();
+            changed.forEach(def -> attacks.put(def.protoId, def));
+            attackRegistry.updateFromServer(toCoreAttacks(attacks.values()));
+        }
+
+        attackVersion = message.definitionVersion;
+        persist(ATTACKS_FILE, attackVersion, attacks.values());
+    }
+
+    /**
+     * Applies a spell definitions message from the server to the cache and the spell registry.
+     *
+     * @param message The message.
+     */
+    public synchronized void applySpellDefinitions(ServerMessage message) {
+        List<SpellDefinition> changed = message.spellDefinitions != null ? message.spellDefinitions : List.of();
+        List<Integer> removed = message.removedDefinitionIds != null ? message.removedDefinitionIds : List.of();
+        spellsFromServer = true;
+
+        if (message.definitionDiff) {
+            if (changed.isEmpty() && removed.isEmpty() && Objects.equals(message.definitionVersion, spellVersion)) {
+                return;
+            }
+            removed.forEach(spells::remove);
+            changed.forEach(def -> spells.put(def.id, def));
+            spellRegistry.applyUpdate(toCoreSpells(changed), removed);
+        } else {
+            spells.clear();
+            changed.forEach(def -> spells.put(def.id, def));
+            spellRegistry.updateFromServer(toCoreSpells(spells.values()));
+        }
+
+        spellVersion = message.definitionVersion;
+        persist(SPELLS_FILE, spellVersion, spells.values());
+    }
+
+    private static List<io.blert.core.AttackDefinition> toCoreAttacks(Collection<AttackDefinition> definitions) {
+        return definitions.stream().map(AttackDefinition::toCore).collect(Collectors.toList());
+    }
+
+    private static List<io.blert.core.SpellDefinition> toCoreSpells(Collection<SpellDefinition> definitions) {
+        return definitions.stream().map(SpellDefinition::toCore).collect(Collectors.toList());
+    }
+
+    private @Nullable <T> CachedSet<T> read(String name, Type type) {
+        Path file = directory.resolve(name);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            CachedSet<T> set = gson.fromJson(reader, type);
+            if (set == null || set.version == null || set.definitions == null) {
+                log.warn("Ignoring incomplete definition cache {}", file);
+                return null;
+            }
+            return set;
+        } catch (Exception e) {
+            log.warn("Failed to read definition cache {}", file, e);
+            return null;
+        }
+    }
+
+    private <T> void persist(String name, @Nullable String version, Collection<T> definitions) {
+        if (version == null) {
+            // Without a version the set cannot be advertised, so there is no point keeping it.
+            executor.execute(() -> delete(name));
+            return;
+        }
+
+        CachedSet<T> set = new CachedSet<>();
+        set.version = version;
+        set.definitions = new ArrayList<>(definitions);
+        String json = gson.toJson(set);
+        executor.execute(() -> write(name, json));
+    }
+
+    private void write(String name, String json) {
+        Path file = directory.resolve(name);
+        Path temporary = directory.resolve(name + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(temporary, json, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write definition cache {}", file, e);
+        }
+    }
+
+    private void delete(String name) {
+        try {
+            Files.deleteIfExists(directory.resolve(name));
+        } catch (IOException e) {
+            log.warn("Failed to delete definition cache {}", name, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.client;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.blert.json.AttackDefinition;
+import io.blert.json.PastChallenge;
+import io.blert.json.ServerMessage;
+import io.blert.json.SpellDefinition;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for messages received from the server.
+ * <p>
+ * A message's type is found by scanning its top-level fields without decoding any of their values, after which it is
+ * handed to a parser for that type. Definition sets and challenge history, which make up the bulk of inbound traffic,
+ * are decoded element by element directly into the lists they are consumed from, and fields which their handlers do
+ * not use are skipped rather than materialized. Other messages are small and are decoded in full.
+ */
+class ServerMessageReader {
+    static final int UNKNOWN_TYPE = -1;
+
+    private final Gson gson;
+    private final TypeAdapter<AttackDefinition> attackAdapter;
+    private final TypeAdapter<SpellDefinition> spellAdapter;
+    private final TypeAdapter<PastChallenge> pastChallengeAdapter;
+
+    ServerMessageReader(Gson gson) {
+        this.gson = gson;
+        this.attackAdapter = gson.getAdapter(AttackDefinition.class);
+        this.spellAdapter = gson.getAdapter(SpellDefinition.class);
+        this.pastChallengeAdapter = gson.getAdapter(PastChallenge.class);
+    }
+
+    /**
+     * Finds the type of a message without decoding the rest of it.
+     *
+     * @param text The message JSON.
+     * @return The value of the message's {@code type} field, or {@link #UNKNOWN_TYPE} if it has none.
+     * @throws IOException If the message is not a JSON object.
+     */
+    static int peekType(String text) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(text))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("type") && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt();
+                }
+                reader.skipValue();
+            }
+            return UNKNOWN_TYPE;
+        }
+    }
+
+    /**
+     * Parses a message of a known type.
+     *
+     * @param text The message JSON.
+     * @param type The message's type, as returned by {@link #peekType(String)}.
+     * @return The parsed message. Depending on the type, fields not used by its handler may be left unset.
+     * @throws IOException If the message is malformed.
+     */
+    ServerMessage read(String text, int type) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(text))) {
+            switch (type) {
+                case ServerMessage.TYPE_ATTACK_DEFINITIONS:
+                case ServerMessage.TYPE_SPELL_DEFINITIONS:
+                    return readDefinitions(reader, type);
+                case ServerMessage.TYPE_HISTORY_RESPONSE:
+                    return readHistory(reader);
+                default:
+                    return gson.fromJson(reader, ServerMessage.class);
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed server message", e);
+        }
+    }
+
+    private ServerMessage readDefinitions(JsonReader reader, int type) throws IOException {
+        ServerMessage message = new ServerMessage();
+        message.type = type;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "attackDefinitions":
+                    message.attackDefinitions = readList(reader, attackAdapter);
+                    break;
+                case "spellDefinitions":
+                    message.spellDefinitions = readList(reader, spellAdapter);
+                    break;
+                case "removedDefinitionIds":
+                    message.removedDefinitionIds = readIntList(reader);
+                    break;
+                case "definitionVersion":
+                    message.definitionVersion = readNullableString(reader);
+                    break;
+                case "definitionDiff":
+                    message.definitionDiff = reader.nextBoolean();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return message;
+    }
+
+    private ServerMessage readHistory(JsonReader reader) throws IOException {
+        ServerMessage message = new ServerMessage();
+        message.type = ServerMessage.TYPE_HISTORY_RESPONSE;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("recentRecordings")) {
+                message.recentRecordings = readList(reader, pastChallengeAdapter);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return message;
+    }
+
+    private static <T> List<T> readList(JsonReader reader, TypeAdapter<T> adapter) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        List<T> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(adapter.read(reader));
+        }
+        reader.endArray();
+        return values;
+    }
+
+    private static List<Integer> readIntList(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        List<Integer> values = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextInt());
+        }
+        reader.endArray();
+        return values;
+    }
+
+    private static String readNullableString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -28,9 +28,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import lombok.NonNull;
 import lombok.Setter;
@@ -75,6 +77,12 @@ public class WebSocketClient extends WebSocketListener {
     @Setter
     private @Nullable Consumer<DisconnectReason> disconnectCallback = null;
 
+    /**
+     * Supplies additional headers to send with each connection handshake.
+     */
+    @Setter
+    private Supplier<Map<String, String>> handshakeHeaders = Map::of;
+
     public WebSocketClient(
             @NonNull String hostname, @NonNull String apiKey, @NonNull String runeliteVersion, OkHttpClient client) {
         this.apiKey = apiKey.getBytes(StandardCharsets.UTF_8);
@@ -123,6 +131,8 @@ public class WebSocketClient extends WebSocketListener {
                 .header("Blert-Jar-Hash", BuildProperties.jarHash())
                 .header("Blert-Runelite-Version", runeliteVersion);
 
+        handshakeHeaders.get().forEach(request::header);
+
         for (String header : BuildProperties.customHeaders()) {
             String[] parts = header.split("=", 2);
             if (parts.length == 2) {
@@ -35,6 +35,9 @@ import io.blert.json.*;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -93,10 +96,26 @@ public class WebSocketEventHandler implements EventHandler {
                     newRequestId, request, challenge, remainingRetries - 1, queuedEvents, pendingEndEvent);
         }
 
+        /**
+         * Queues an event until the challenge ID is known. Only stage and challenge updates are queued, and the
+         * attempt's retries bound how long it is held, so the queue is never truncated.
+         */
+        void queue(int clientTick, Event event) {
+            queuedEvents.add(new QueuedEvent(clientTick, event));
+        }
+
         boolean canRetry() {
             return remainingRetries > 0;
         }
 
+        /**
+         * Returns true if events are being streamed under a client-generated provisional ID
+         * while this attempt is outstanding, rather than queued until the server responds.
+         */
+        boolean isOptimistic() {
+            return request.provisionalChallengeId != null;
+        }
+
         /**
          * Returns the timeout duration for this attempt, using linear backoff.
          * Initial attempt: 5s, then 10s, 15s for subsequent retries.
@@ -121,6 +140,12 @@ public class WebSocketEventHandler implements EventHandler {
     private final BlertPlugin plugin;
     private final WebSocketClient webSocketClient;
     private final EventBuffer eventBuffer;
+    private final SymbolTable symbolTable = new SymbolTable();
+
+    // Guards the symbol table and the order of outgoing event streams. Events are sent from both the client thread and
+    // the inbound thread (which replays events queued during a challenge start), and a stream's symbol definitions must
+    // go out before it, without another batch claiming or resetting them in between.
+    private final Object sendLock = new Object();
     private final Client runeliteClient;
     private final ClientThread runeliteThread;
 
@@ -130,14 +155,35 @@ public class WebSocketEventHandler implements EventHandler {
     private int nextRequestId = 1;
     private int lastRequestId = -1;
     private final Timer requestTimeout = new Timer();
+
+    // Inbound messages are parsed and handled on a dedicated thread so that large payloads never hold up the socket's
+    // reader thread, which also answers heartbeat pings.
+    private final ServerMessageReader messageReader;
+    private final ExecutorService inboundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "blert-inbound");
+        thread.setDaemon(true);
+        return thread;
+    });
     private volatile Status status = Status.IDLE;
 
+    // Set once the handler is shut down. A retiring handler must not apply messages which were already queued.
+    private volatile boolean closed = false;
+
     private Challenge currentChallenge = null;
     private @Nullable String challengeId = null;
     private @Nullable ChallengeStartAttempt currentStartAttempt = null;
     private Instant serverShutdownTime = null;
     private boolean apiKeyUsernameMismatch = false;
 
+    // Whether the connected server accepts client-generated provisional challenge IDs.
+    private boolean provisionalIdsSupported = false;
+
+    // Whether the connected server accepts symbol table handles in place of usernames and NPC IDs.
+    private boolean symbolTableSupported = false;
+
+    // Whether the connected server accepts locally computed stage summaries alongside stage updates.
+    private boolean stageSummariesSupported = false;
+
     // Set when the server asks this client to drain (reconnect to a different instance).
     // While set, new challenges are refused and a reconnect is performed once idle.
     private volatile boolean reconnectWhenIdle = false;
@@ -161,7 +207,8 @@ public class WebSocketEventHandler implements EventHandler {
         this.plugin = plugin;
         this.webSocketClient = webSocketClient;
         this.webSocketClient.setTextMessageCallback(this::handleJsonMessage);
-        this.webSocketClient.setDisconnectCallback(this::handleDisconnect);
+        this.messageReader = new ServerMessageReader(plugin.getGson());
+        this.webSocketClient.setDisconnectCallback(this::onDisconnect);
         this.eventBuffer = new EventBuffer();
         this.runeliteClient = client;
         this.runeliteThread = runeliteThread;
@@ -174,7 +221,9 @@ public class WebSocketEventHandler implements EventHandler {
             case CHALLENGE_START:
                 // Starting a new challenge. Discard any buffered events and abandon any
                 // pending start attempt.
+                plugin.getSidePanel().setStageSummary(null);
                 eventBuffer.flushEventsUpTo(clientTick);
+                eventBuffer.setBounded(((ChallengeStartEvent) event).getChallenge().isLongSession());
                 if (currentStartAttempt != null) {
                     log.warn("Abandoning previous challenge start attempt due to new challenge");
                     abandonChallengeStart();
@@ -192,44 +241,58 @@ public class WebSocketEventHandler implements EventHandler {
 
                 // Flush any pending events, then indicate that the challenge has ended.
                 if (eventBuffer.hasEvents()) {
-                    sendEvents(eventBuffer.flushEventsUpTo(clientTick));
+                    flushEvents(clientTick);
                 }
                 endChallenge((ChallengeEndEvent) event);
                 break;
 
             case CHALLENGE_UPDATE:
                 // Queue if waiting for challenge start response.
-                if (currentStartAttempt != null) {
-                    currentStartAttempt.queuedEvents.add(new QueuedEvent(clientTick, event));
+                if (isQueueingUpdates()) {
+                    currentStartAttempt.queue(clientTick, event);
                     break;
                 }
                 updateChallenge((ChallengeUpdateEvent) event, null);
                 break;
 
             case STAGE_UPDATE:
+                stageSummary((StageUpdateEvent) event).ifPresent(plugin.getSidePanel()::setStageSummary);
+
                 // Queue if waiting for challenge start response.
-                if (currentStartAttempt != null) {
-                    currentStartAttempt.queuedEvents.add(new QueuedEvent(clientTick, event));
+                if (isQueueingUpdates()) {
+                    currentStartAttempt.queue(clientTick, event);
                     break;
                 }
 
                 // Flush any pending events prior to updating the stage.
                 if (eventBuffer.hasEvents()) {
-                    sendEvents(eventBuffer.flushEventsUpTo(clientTick));
+                    flushEvents(clientTick);
                 }
                 updateChallenge(null, (StageUpdateEvent) event);
+
+                // Once a stage has ended, its events have been sent, so long-session challenges can release the handles
+                // of its NPCs instead of accumulating them over every stage.
+                StageUpdateEvent.Status status = ((StageUpdateEvent) event).getStatus();
+                boolean stageEnded =
+                        status == StageUpdateEvent.Status.COMPLETED || status == StageUpdateEvent.Status.WIPED;
+                if (stageEnded && currentChallenge != null && currentChallenge.isLongSession()) {
+                    synchronized (sendLock) {
+                        symbolTable.evictNpcs();
+                    }
+                }
                 break;
 
             default:
                 // Forward other events to the event buffer to be serialized and sent to the server.
                 eventBuffer.handleEvent(clientTick, event);
 
-                // Only send events if we have an active challenge ID.
-                // During CHALLENGE_STARTING, events are buffered until the ID is received.
-                if (status == Status.CHALLENGE_ACTIVE && currentStartAttempt == null) {
+                // Only send events if we have a challenge ID the server will accept. During
+                // CHALLENGE_STARTING, events are buffered until the ID is received unless they
+                // are being streamed under a provisional ID.
+                if (canStreamEvents()) {
                     if (currentTick != clientTick) {
                         // Events are collected and sent in a single batch at the end of a tick.
-                        sendEvents(eventBuffer.flushEventsUpTo(clientTick));
+                        flushEvents(clientTick);
                     }
                 }
 
@@ -272,7 +335,24 @@ public class WebSocketEventHandler implements EventHandler {
         challengeStartRequest.mode = event.getMode().getId();
         challengeStartRequest.party = new ArrayList<>(event.getParty());
         challengeStartRequest.spectator = event.isSpectator();
+        challengeStartRequest.captureProfile = event.getCaptureProfile().getId();
         event.getStage().map(Stage::getId).ifPresent(s -> challengeStartRequest.stage = s);
+        challengeStartRequest.resumeChallengeId = event.getResumeChallengeId();
+
+        // If the server supports it, stream events immediately under a provisional ID which the
+        // server binds to the real challenge once it processes the start request.
+        if (provisionalIdsSupported) {
+            challengeStartRequest.provisionalChallengeId = UUID.randomUUID().toString();
+            challengeId = challengeStartRequest.provisionalChallengeId;
+            eventBuffer.rebindChallengeId(challengeId);
+        }
+
+        synchronized (sendLock) {
+            symbolTable.reset();
+            if (symbolTableSupported) {
+                symbolTable.definePlayers(challengeStartRequest.party);
+            }
+        }
 
         // Create a new attempt to track the challenge start request and queued events.
         currentStartAttempt = new ChallengeStartAttempt(getRequestId(), challengeStartRequest, event.getChallenge());
@@ -331,11 +411,29 @@ public class WebSocketEventHandler implements EventHandler {
      * Abandons any pending challenge start attempt, clearing state and returning to IDLE.
      */
     private void abandonChallengeStart() {
+        if (currentStartAttempt != null && currentStartAttempt.isOptimistic()) {
+            challengeId = null;
+            eventBuffer.setChallengeId(null);
+        }
         currentStartAttempt = null;
         currentChallenge = null;
         setStatus(Status.IDLE);
     }
 
+    /**
+     * Returns true if challenge and stage updates must be held until the start response arrives.
+     */
+    private boolean isQueueingUpdates() {
+        return currentStartAttempt != null && !currentStartAttempt.isOptimistic();
+    }
+
+    private boolean canStreamEvents() {
+        if (currentStartAttempt != null) {
+            return currentStartAttempt.isOptimistic();
+        }
+        return status == Status.CHALLENGE_ACTIVE;
+    }
+
     void endChallenge(ChallengeEndEvent event) {
         if (challengeId == null) {
             log.warn("Attempted to end challenge without an active challenge ID");
@@ -396,6 +494,9 @@ public class WebSocketEventHandler implements EventHandler {
             stageUpdate.recordedTicks = stage.getTick();
             stageUpdate.gameTicksPrecise = stage.isGameTicksPrecise();
             stage.getInGameTicks().ifPresent(t -> stageUpdate.gameServerTicks = t);
+            if (stageSummariesSupported) {
+                stageSummary(stage).ifPresent(summary -> stageUpdate.summary = summary);
+            }
             challengeUpdate.stageUpdate = stageUpdate;
         }
 
@@ -449,20 +550,54 @@ public class WebSocketEventHandler implements EventHandler {
     }
 
     private void handleJsonMessage(String messageText) {
+        int type;
+        try {
+            type = ServerMessageReader.peekType(messageText);
+        } catch (Exception e) {
+            log.error("Failed to parse JSON message", e);
+            return;
+        }
+
+        if (type == ServerMessage.TYPE_PING) {
+            // Pings carry no payload, so answer them immediately rather than behind any queued messages.
+            sendPong();
+            log.debug("Received heartbeat ping from server; responding with pong");
+            return;
+        }
+
+        try {
+            inboundExecutor.execute(() -> parseAndHandleMessage(messageText, type));
+        } catch (RejectedExecutionException e) {
+            log.debug("Dropping server message received after shutdown: type={}", type);
+        }
+    }
+
+    private void parseAndHandleMessage(String messageText, int type) {
+        if (closed) {
+            return;
+        }
+
         ServerMessage serverMessage;
         try {
-            serverMessage = plugin.getGson().fromJson(messageText, ServerMessage.class);
+            serverMessage = messageReader.read(messageText, type);
         } catch (Exception e) {
             log.error("Failed to parse JSON message", e);
             return;
         }
 
-        switch (serverMessage.type) {
-            case ServerMessage.TYPE_PING:
-                sendPong();
-                log.debug("Received heartbeat ping from server; responding with pong");
-                break;
+        if (closed) {
+            return;
+        }
 
+        try {
+            handleServerMessage(serverMessage);
+        } catch (Exception e) {
+            log.error("Failed to handle server message: type={}", type, e);
+        }
+    }
+
+    private void handleServerMessage(ServerMessage serverMessage) {
+        switch (serverMessage.type) {
             case ServerMessage.TYPE_ERROR:
                 handleServerError(serverMessage);
                 break;
@@ -472,6 +607,11 @@ public class WebSocketEventHandler implements EventHandler {
                 plugin.getSidePanel().setShutdownTime(null);
 
                 if (serverMessage.user != null) {
+                    provisionalIdsSupported =
+                            (serverMessage.features & ServerMessage.FEATURE_PROVISIONAL_CHALLENGE_IDS) != 0;
+                    symbolTableSupported = (serverMessage.features & ServerMessage.FEATURE_SYMBOL_TABLE) != 0;
+                    stageSummariesSupported =
+                            (serverMessage.features & ServerMessage.FEATURE_STAGE_SUMMARIES) != 0;
                     plugin.getSidePanel()
                             .updateConnectionState(BlertPluginPanel.ConnectionState.CONNECTED, serverMessage.user.name);
                     sendRaidHistoryRequest();
@@ -535,31 +675,23 @@ public class WebSocketEventHandler implements EventHandler {
                 break;
 
             case ServerMessage.TYPE_ATTACK_DEFINITIONS:
-                if (serverMessage.attackDefinitions != null) {
-                    plugin.getAttackRegistry()
-                            .updateFromServer(serverMessage.attackDefinitions.stream()
-                                    .map(io.blert.json.AttackDefinition::toCore)
-                                    .collect(Collectors.toList()));
-                }
+                plugin.getDefinitionCache().applyAttackDefinitions(serverMessage);
                 break;
 
             case ServerMessage.TYPE_SPELL_DEFINITIONS:
-                if (serverMessage.spellDefinitions != null) {
-                    plugin.getSpellRegistry()
-                            .updateFromServer(serverMessage.spellDefinitions.stream()
-                                    .map(io.blert.json.SpellDefinition::toCore)
-                                    .collect(Collectors.toList()));
-                }
+                plugin.getDefinitionCache().applySpellDefinitions(serverMessage);
                 break;
 
             case ServerMessage.TYPE_CHALLENGE_STATE_CONFIRMATION:
                 handleChallengeStateConfirmation(serverMessage);
                 break;
 
+            case ServerMessage.TYPE_PING:
             case ServerMessage.TYPE_PONG:
             case ServerMessage.TYPE_HISTORY_REQUEST:
             case ServerMessage.TYPE_EVENT_STREAM:
             case ServerMessage.TYPE_GAME_STATE:
+            case ServerMessage.TYPE_SYMBOL_DEFINITIONS:
                 log.warn("Received unexpected message from server: type={}", serverMessage.type);
                 break;
 
@@ -643,19 +775,26 @@ public class WebSocketEventHandler implements EventHandler {
         }
 
         challengeId = serverMessage.activeChallengeId;
-
-        // Stamp all buffered events with the challenge ID.
-        eventBuffer.setChallengeId(challengeId);
+        plugin.getCheckpointStore().setChallengeId(challengeId);
 
         // Capture and clear the start attempt before processing queued events.
         ChallengeStartAttempt attempt = currentStartAttempt;
         currentStartAttempt = null;
 
+        if (attempt != null && attempt.isOptimistic()) {
+            // Events already streamed or buffered under the provisional ID remain valid, as the
+            // server has bound it to the canonical ID. Only new events need the canonical ID.
+            eventBuffer.rebindChallengeId(challengeId);
+        } else {
+            // Stamp all buffered events with the challenge ID.
+            eventBuffer.setChallengeId(challengeId);
+        }
+
         setStatus(Status.CHALLENGE_ACTIVE);
 
         // Flush any buffered events (now that they have the challenge ID).
         if (eventBuffer.hasEvents()) {
-            sendEvents(eventBuffer.flushEventsUpTo(currentTick));
+            flushEvents(currentTick);
         }
 
         // Process any queued STAGE_UPDATE and CHALLENGE_UPDATE events.
@@ -678,7 +817,7 @@ public class WebSocketEventHandler implements EventHandler {
             if (attempt.pendingEndEvent != null) {
                 log.debug("Processing queued challenge end event");
                 if (eventBuffer.hasEvents()) {
-                    sendEvents(eventBuffer.flushEventsUpTo(currentTick));
+                    flushEvents(currentTick);
                 }
                 endChallenge(attempt.pendingEndEvent);
             }
@@ -751,7 +890,23 @@ public class WebSocketEventHandler implements EventHandler {
         }
     }
 
+    /**
+     * Queues a disconnect behind any messages still being handled, so that a message which was received before the
+     * socket closed can't be applied after the disconnect resets the handler's state.
+     */
+    private void onDisconnect(WebSocketClient.DisconnectReason reason) {
+        try {
+            inboundExecutor.execute(() -> handleDisconnect(reason));
+        } catch (RejectedExecutionException e) {
+            log.debug("Ignoring disconnect received after shutdown: reason={}", reason);
+        }
+    }
+
     private void handleDisconnect(WebSocketClient.DisconnectReason reason) {
+        if (closed) {
+            return;
+        }
+
         resetChallenge();
 
         BlertPluginPanel.ConnectionState connectionState;
@@ -776,6 +931,19 @@ public class WebSocketEventHandler implements EventHandler {
         plugin.getSidePanel().setRecentRecordings(null);
     }
 
+    /**
+     * Flushes buffered events up to and including the given tick and sends them to the server. Flushing and sending
+     * happen under a single lock so that batches flushed on different threads reach the server in order.
+     */
+    private void flushEvents(int tick) {
+        synchronized (sendLock) {
+            sendEvents(eventBuffer.flushEventsUpTo(tick));
+        }
+    }
+
+    /**
+     * Sends a batch of events. Must be called while holding {@code sendLock}.
+     */
     private void sendEvents(List<io.blert.json.Event> events) {
         if (!webSocketClient.isOpen() || events.isEmpty()) {
             return;
@@ -796,7 +964,7 @@ public class WebSocketEventHandler implements EventHandler {
 
             if (!event.challengeId.equals(message.activeChallengeId)) {
                 if (!message.challengeEvents.isEmpty()) {
-                    webSocketClient.sendTextMessage(plugin.getGson().toJson(message));
+                    sendEventStream(message);
                 }
 
                 message = new ServerMessage();
@@ -807,11 +975,14 @@ public class WebSocketEventHandler implements EventHandler {
 
             // Clear the challengeId from individual events since it's set at the message level.
             event.challengeId = null;
+            if (symbolTableSupported) {
+                symbolTable.encode(event);
+            }
             message.challengeEvents.add(event);
         }
 
         if (!message.challengeEvents.isEmpty()) {
-            webSocketClient.sendTextMessage(plugin.getGson().toJson(message));
+            sendEventStream(message);
         }
 
         if (ignoredEvents > 0) {
@@ -819,6 +990,25 @@ public class WebSocketEventHandler implements EventHandler {
         }
     }
 
+    /**
+     * Sends an event stream message, preceded by definitions for any symbols its events introduce. Must be called
+     * while holding {@code sendLock}.
+     */
+    private void sendEventStream(ServerMessage message) {
+        if (symbolTableSupported) {
+            var definitions = symbolTable.drainDefinitions();
+            if (!definitions.isEmpty()) {
+                ServerMessage dictionary = new ServerMessage();
+                dictionary.type = ServerMessage.TYPE_SYMBOL_DEFINITIONS;
+                dictionary.activeChallengeId = message.activeChallengeId;
+                dictionary.symbols = definitions;
+                webSocketClient.sendTextMessage(plugin.getGson().toJson(dictionary));
+            }
+        }
+
+        webSocketClient.sendTextMessage(plugin.getGson().toJson(message));
+    }
+
     private void sendPong() {
         ServerMessage message = new ServerMessage();
         message.type = ServerMessage.TYPE_PONG;
@@ -838,6 +1028,9 @@ public class WebSocketEventHandler implements EventHandler {
         challengeId = null;
         currentStartAttempt = null;
         eventBuffer.setChallengeId(null);
+        synchronized (sendLock) {
+            symbolTable.reset();
+        }
         setStatus(Status.IDLE);
     }
 
@@ -847,13 +1040,36 @@ public class WebSocketEventHandler implements EventHandler {
         plugin.getSidePanel().setRecentRecordings(null);
     }
 
+    /**
+     * Returns the number of ticks of events which are buffered and have not yet been sent.
+     */
+    public int getBufferedTicks() {
+        return eventBuffer.bufferedTicks();
+    }
+
+    /**
+     * Returns the number of NPCs which currently hold a handle in the symbol table.
+     */
+    public int getSymbolNpcCount() {
+        return symbolTable.npcCount();
+    }
+
+    /**
+     * Stops the handler. Server messages which are still queued are discarded rather than applied, as a newer handler
+     * may already own the plugin's connection state.
+     */
     public void shutdown() {
+        closed = true;
         requestTimeout.cancel();
+        inboundExecutor.shutdownNow();
     }
 
     private void setStatus(Status status) {
         this.status = status;
-        plugin.getSidePanel().updateChallengeStatus(status, currentChallenge, challengeId);
+
+        // A provisional ID is unknown to the website until the server binds it, so don't link it.
+        String linkableId = currentStartAttempt != null && currentStartAttempt.isOptimistic() ? null : challengeId;
+        plugin.getSidePanel().updateChallengeStatus(status, currentChallenge, linkableId);
         if (reconnectWhenIdle) {
             reconnectIfIdle(false);
         }
@@ -960,6 +1176,7 @@ public class WebSocketEventHandler implements EventHandler {
                     self.challengeId = message.activeChallengeId;
                     self.eventBuffer.setChallengeId(self.challengeId);
                     self.setStatus(Status.CHALLENGE_ACTIVE);
+                    plugin.getCheckpointStore().setChallengeId(self.challengeId);
                     log.debug("Confirmed challenge state; rejoining challenge {}", self.challengeId);
                 }
             }
@@ -976,6 +1193,17 @@ public class WebSocketEventHandler implements EventHandler {
         return id;
     }
 
+    /**
+     * Returns the locally aggregated summary for a stage update which finishes its stage.
+     */
+    private Optional<StageSummary> stageSummary(StageUpdateEvent event) {
+        if (event.getStatus() != StageUpdateEvent.Status.COMPLETED
+                && event.getStatus() != StageUpdateEvent.Status.WIPED) {
+            return Optional.empty();
+        }
+        return event.getStage().map(plugin.getStageAnalytics()::getSummary);
+    }
+
     private static int translateStageStatus(StageUpdateEvent.Status status) {
         switch (status) {
             case ENTERED:
@@ -135,6 +135,7 @@ public class WebSocketManager {
         String runeliteVersion =
                 String.format("runelite-%s%s", RuneLiteProperties.getVersion(), developerMode ? "-dev" : "");
         wsClient = new WebSocketClient(DEFAULT_SERVER_HOST, config.apiKey(), runeliteVersion, httpClient);
+        wsClient.setHandshakeHeaders(plugin.getDefinitionCache()::handshakeHeaders);
         WebSocketEventHandler newEventHandler =
                 new WebSocketEventHandler(plugin, wsClient, runeliteClient, runeLiteClientThread, this::reconnect);
 
@@ -26,6 +26,8 @@ package io.blert.core;
 import com.google.gson.Gson;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import lombok.AllArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +40,8 @@ public class AttackRegistry {
 
     @AllArgsConstructor
     private static class State {
+        private volatile Map<Integer, AttackDefinition> byProtoId;
+
         private volatile Map<Integer, List<AttackDefinition>> byAnimationId;
 
         private volatile Set<Integer> continuousAnimationIds;
@@ -51,7 +55,14 @@ public class AttackRegistry {
     @Setter
     private Gson gson;
 
-    private volatile State state = new State(Map.of(), Set.of(), List.of());
+    private volatile State state = new State(Map.of(), Map.of(), Set.of(), List.of());
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /**
+     * Whether definitions have been received from the server, which supersede the bundled defaults.
+     */
+    private boolean populatedFromServer = false;
 
     /**
      * The UNKNOWN attack definition.
@@ -74,22 +85,71 @@ public class AttackRegistry {
     }
 
     /**
-     * Loads bundled attack definitions from the JAR resources.
+     * Loads bundled attack definitions on the given executor.
+     *
+     * @param executor Executor on which to load the definitions.
+     * @return Future which completes once the registry is ready.
+     */
+    public CompletableFuture<Void> loadDefaultsAsync(Executor executor) {
+        executor.execute(this::loadDefaults);
+        return ready;
+    }
+
+    /**
+     * Loads bundled attack definitions from the JAR resources, preferring the precompiled definition index and falling
+     * back to parsing the JSON if the index is not present.
      */
     public void loadDefaults() {
-        InputStream inputStream = getClass().getResourceAsStream(BUNDLED_ATTACKS_RESOURCE);
-        if (inputStream == null) {
-            log.warn("Bundled attacks.json not found; initializing empty attack registry");
-            return;
+        try (InputStream index = getClass().getResourceAsStream(DefinitionIndex.RESOURCE)) {
+            if (index != null) {
+                List<AttackDefinition> definitions = DefinitionIndex.readAttacks(index);
+                applyDefaults(definitions);
+                log.info("Loaded {} bundled attack definitions from index", definitions.size());
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read definition index; falling back to attacks.json", e);
         }
 
-        try {
+        try (InputStream inputStream = getClass().getResourceAsStream(BUNDLED_ATTACKS_RESOURCE)) {
+            if (inputStream == null) {
+                log.warn("Bundled attacks.json not found; initializing empty attack registry");
+                return;
+            }
+
             List<AttackDefinition> definitions = AttackDefinition.loadFromJson(gson, inputStream);
-            updateDefinitions(definitions);
+            applyDefaults(definitions);
             log.info("Loaded {} bundled attack definitions", definitions.size());
         } catch (Exception e) {
             log.error("Failed to load bundled attack definitions", e);
+        } finally {
+            ready.complete(null);
+        }
+    }
+
+    /**
+     * Installs the bundled definitions, unless definitions from the server have already been applied. Loading the
+     * defaults can finish after the server's definitions arrive, which must not be replaced by older ones.
+     */
+    private synchronized void applyDefaults(List<AttackDefinition> definitions) {
+        if (populatedFromServer) {
+            log.debug("Attack registry was populated from the server; skipping bundled definitions");
+            ready.complete(null);
+            return;
         }
+        updateDefinitions(definitions);
+    }
+
+    /**
+     * Returns a future which completes once the registry has been populated, either from the bundled defaults or from
+     * the server. Until then, lookups find no attacks.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
     }
 
     /**
@@ -97,17 +157,39 @@ public class AttackRegistry {
      *
      * @param definitions The new definitions.
      */
-    public void updateFromServer(List<AttackDefinition> definitions) {
+    public synchronized void updateFromServer(List<AttackDefinition> definitions) {
+        populatedFromServer = true;
         updateDefinitions(definitions);
         log.info("Updated attack registry with {} definitions from server", definitions.size());
     }
 
+    /**
+     * Applies a partial update from the server on top of the current definitions.
+     *
+     * @param changed         Definitions which were added or changed, replacing any with the same proto ID.
+     * @param removedProtoIds Proto IDs of definitions which were removed.
+     */
+    public synchronized void applyUpdate(List<AttackDefinition> changed, Collection<Integer> removedProtoIds) {
+        populatedFromServer = true;
+        Map<Integer, AttackDefinition> merged = new LinkedHashMap<>(state.byProtoId);
+        removedProtoIds.forEach(merged::remove);
+        changed.forEach(def -> merged.put(def.getProtoId(), def));
+        updateDefinitions(new ArrayList<>(merged.values()));
+        log.info(
+                "Updated attack registry with {} changed and {} removed definitions from server",
+                changed.size(),
+                removedProtoIds.size());
+    }
+
     private void updateDefinitions(List<AttackDefinition> definitions) {
+        Map<Integer, AttackDefinition> newByProtoId = new LinkedHashMap<>();
         Map<Integer, List<AttackDefinition>> newByAnimationId = new HashMap<>();
         Set<Integer> newContinuousAnimationIds = new HashSet<>();
         List<AttackDefinition> newSuppressableAttacks = new ArrayList<>();
 
         for (AttackDefinition def : definitions) {
+            newByProtoId.put(def.getProtoId(), def);
+
             for (int animationId : def.getAnimationIds()) {
                 newByAnimationId
                         .computeIfAbsent(animationId, k -> new ArrayList<>())
@@ -132,7 +214,8 @@ public class AttackRegistry {
             }
         }
 
-        this.state = new State(newByAnimationId, newContinuousAnimationIds, newSuppressableAttacks);
+        this.state = new State(newByProtoId, newByAnimationId, newContinuousAnimationIds, newSuppressableAttacks);
+        ready.complete(null);
     }
 
     /**
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import lombok.Getter;
+
+/**
+ * Controls how much derived data is captured during a recording. Lower profiles skip the more expensive inference
+ * passes entirely, trading detail for per-tick cost.
+ */
+public enum CaptureProfile {
+    /**
+     * Core player, NPC, attack and stage data only.
+     */
+    MINIMAL(0, "Minimal"),
+
+    /**
+     * Adds equipment inference for other players, spell detection and projectile-based attack disambiguation.
+     */
+    STANDARD(1, "Standard"),
+
+    /**
+     * Everything, including room-specific area effect events.
+     */
+    FULL(2, "Full"),
+    ;
+
+    @Getter
+    private final int id;
+
+    private final String displayName;
+
+    CaptureProfile(int id, String displayName) {
+        this.id = id;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Whether equipment of players other than the local player is inferred from their appearance.
+     */
+    public boolean infersEquipment() {
+        return this != MINIMAL;
+    }
+
+    public boolean detectsSpells() {
+        return this != MINIMAL;
+    }
+
+    /**
+     * Whether in-flight projectiles are inspected to distinguish attacks sharing an animation.
+     */
+    public boolean disambiguatesProjectiles() {
+        return this != MINIMAL;
+    }
+
+    /**
+     * Whether room-specific area effects (blood splats, pools, falling objects, etc.) are recorded.
+     */
+    public boolean capturesAreaEffects() {
+        return this == FULL;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -55,4 +55,12 @@ public enum Challenge {
         }
         return null;
     }
+
+    /**
+     * Returns whether the challenge can run for an unbounded number of stages in a single session, requiring its
+     * per-stage state to be released as it advances rather than held until the challenge ends.
+     */
+    public boolean isLongSession() {
+        return this == INFERNO || this == MOKHAIOTL;
+    }
 }
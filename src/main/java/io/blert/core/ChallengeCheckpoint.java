@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2024 Alexei Frolov
+ * Copyright (c) 2026 Alexei Frolov
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy of
  * this software and associated documentation files (the “Software”), to deal in
@@ -21,50 +21,41 @@
  * OTHER DEALINGS IN THE SOFTWARE.
  */
 
-package io.blert.util;
+package io.blert.core;
 
-import lombok.NonNull;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 /**
- * Delays execution of a task by a specified number of ticks.
- * <p>
- * Progression towards execution is made by calling the {@link DeferredTask#tick()} method,
- * typically from some {@code onTick} handler.
+ * A snapshot of an in-progress challenge, taken at a stage boundary, from which recording can resume if the client
+ * restarts partway through the challenge.
  */
-public class DeferredTask {
-    private final @NonNull Runnable task;
-    private int ticks;
-
-    public DeferredTask(@NonNull Runnable task, int ticks) {
-        this.task = task;
-        this.ticks = ticks;
-    }
+@Getter
+@AllArgsConstructor
+public class ChallengeCheckpoint {
+    private final Challenge challenge;
 
     /**
-     * Decrements the number of ticks remaining before the task is executed.
+     * The stage in progress when the checkpoint was taken.
      */
-    public void tick() {
-        ticks = Math.max(-1, ticks - 1);
+    private final Stage stage;
+
+    private final List<String> party;
 
-        if (ticks == 0) {
-            task.run();
-            ticks = -1;
-        }
-    }
+    /**
+     * Challenge ticks recorded prior to the checkpointed stage.
+     */
+    private final int challengeTicks;
 
     /**
-     * Cancels the task, preventing it from being executed.
+     * Server ID of the recorded challenge, if one had been assigned.
      */
-    public void cancel() {
-        ticks = -1;
-    }
+    private final @Nullable String challengeId;
 
     /**
-     * Resets the number of ticks remaining before the task is executed.
-     *
-     * @param ticks Updated number of ticks.
+     * Epoch time at which the checkpoint was taken, in milliseconds.
      */
-    public void reset(int ticks) {
-        this.ticks = Math.max(-1, ticks);
-    }
+    private final long savedAt;
 }
@@ -48,6 +48,15 @@ public enum ChallengeMode {
         this.id = id;
     }
 
+    public static ChallengeMode fromId(int id) {
+        for (ChallengeMode mode : values()) {
+            if (mode.getId() == id) {
+                return mode;
+            }
+        }
+        return NO_MODE;
+    }
+
     public static Optional<ChallengeMode> parseTob(String string) {
         switch (string.toLowerCase()) {
             case "entry":
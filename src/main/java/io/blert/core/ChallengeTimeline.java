@@ -0,0 +1,664 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import io.blert.events.*;
+import java.util.*;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A columnar, append-only record of the actions taken during the current challenge, supporting tick-range queries
+ * filtered by player or NPC.
+ * <p>
+ * Each tracked event type is stored as parallel primitive columns (tick, party slot, ID, target room ID and packed
+ * coordinates), sorted by tick within each stage. Range queries binary search the columns, and per-player and per-NPC
+ * queries binary search a row index for that player or NPC, so a query costs O(log n) plus the size of its result.
+ * The original event objects are not retained. An event recorded after a later tick in its stage is indexed at that
+ * later tick, so a range must extend to it for the event to be included.
+ * <p>
+ * Ticks are stage-relative, so every query is scoped to a stage. If a stage is played more than once, queries refer
+ * to its most recent occurrence.
+ * <p>
+ * Each column holds at most {@link #MAX_ROWS} rows. Once a column is full, the oldest stage occurrences are evicted
+ * from the timeline to make room; if the current stage alone fills the column, further events of that type are
+ * dropped.
+ */
+public class ChallengeTimeline {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int NO_SLOT = -1;
+
+    static final int MAX_ROWS = 1 << 16;
+
+    private static final EnumSet<EventType> TRACKED_TYPES = EnumSet.of(
+            EventType.PLAYER_ATTACK,
+            EventType.PLAYER_SPELL,
+            EventType.PLAYER_DEATH,
+            EventType.NPC_SPAWN,
+            EventType.NPC_DEATH,
+            EventType.NPC_ATTACK);
+
+    /**
+     * The rows matching a timeline query, copied out of the timeline in tick order.
+     * <p>
+     * The meaning of each row's ID and target depend on its event type:
+     * <ul>
+     *   <li>{@code PLAYER_ATTACK}: the attack's protocol ID and the target NPC's room ID.</li>
+     *   <li>{@code PLAYER_SPELL}: the spell ID and the target NPC's room ID.</li>
+     *   <li>{@code NPC_ATTACK}: the NPC attack ID and the attacking NPC's room ID. The slot is that of the
+     *   attack's target.</li>
+     *   <li>{@code NPC_SPAWN}, {@code NPC_DEATH}: the NPC ID and the NPC's room ID.</li>
+     * </ul>
+     * Rows without an associated party member have a slot of -1.
+     */
+    public static final class Rows {
+        private final int size;
+        private final int[] ticks;
+        private final int[] slots;
+        private final int[] ids;
+        private final long[] targetRoomIds;
+        private final int[] coords;
+
+        private Rows(int capacity) {
+            this(new int[capacity], new int[capacity], new int[capacity], new long[capacity], new int[capacity]);
+        }
+
+        /**
+         * Wraps existing column data. All columns must have the same length.
+         */
+        public Rows(int[] ticks, int[] slots, int[] ids, long[] targetRoomIds, int[] coords) {
+            this.ticks = ticks;
+            this.slots = slots;
+            this.ids = ids;
+            this.targetRoomIds = targetRoomIds;
+            this.coords = coords;
+            this.size = ticks.length;
+        }
+
+        private Rows(Rows rows, int size) {
+            this.ticks = rows.ticks;
+            this.slots = rows.slots;
+            this.ids = rows.ids;
+            this.targetRoomIds = rows.targetRoomIds;
+            this.coords = rows.coords;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        public int getTick(int row) {
+            return ticks[checkRow(row)];
+        }
+
+        public int getSlot(int row) {
+            return slots[checkRow(row)];
+        }
+
+        public int getId(int row) {
+            return ids[checkRow(row)];
+        }
+
+        public long getTargetRoomId(int row) {
+            return targetRoomIds[checkRow(row)];
+        }
+
+        public int getX(int row) {
+            return coords[checkRow(row)] >>> 16;
+        }
+
+        public int getY(int row) {
+            return coords[checkRow(row)] & 0xffff;
+        }
+
+        /**
+         * Returns the packed coordinates of a row, with the X coordinate in the high 16 bits.
+         */
+        public int getCoords(int row) {
+            return coords[checkRow(row)];
+        }
+
+        private int checkRow(int row) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of range");
+            }
+            return row;
+        }
+    }
+
+    private static final Rows NO_ROWS = new Rows(0);
+
+    /**
+     * All of the rows recorded during a single occurrence of a stage.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class StageRecord {
+        private final Stage stage;
+        private final Map<EventType, Rows> rows;
+    }
+
+    /**
+     * A growable list of row indices into a column.
+     */
+    private static final class RowIndex {
+        private int[] rows = new int[16];
+        private int size = 0;
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        /**
+         * Removes all indexed rows before {@code row}, renumbering the rest to match a column from which those rows
+         * have been removed.
+         *
+         * @return The number of rows remaining in the index.
+         */
+        int dropBefore(int row) {
+            int from = 0;
+            while (from < size && rows[from] < row) {
+                from++;
+            }
+            size -= from;
+            for (int i = 0; i < size; i++) {
+                rows[i] = rows[i + from] - row;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Row indices keyed by NPC room ID, held in an open-addressed table so that appending a row does not box its key.
+     * Room IDs of tracked NPCs are never zero, which marks an empty slot.
+     */
+    private static final class NpcRowIndex {
+        private long[] roomIds = new long[16];
+        private RowIndex[] indices = new RowIndex[16];
+        private int size = 0;
+
+        @Nullable
+        RowIndex get(long roomId) {
+            int slot = slotFor(roomIds, roomId);
+            return roomIds[slot] == roomId ? indices[slot] : null;
+        }
+
+        void add(long roomId, int row) {
+            int slot = slotFor(roomIds, roomId);
+            if (roomIds[slot] != roomId) {
+                if ((size + 1) * 4 > roomIds.length * 3) {
+                    rehash(roomIds.length * 2, 0);
+                    slot = slotFor(roomIds, roomId);
+                }
+                roomIds[slot] = roomId;
+                indices[slot] = new RowIndex();
+                size++;
+            }
+            indices[slot].add(row);
+        }
+
+        /**
+         * Removes all indexed rows before {@code row}, dropping NPCs which are left without any rows.
+         */
+        void dropBefore(int row) {
+            rehash(roomIds.length, row);
+        }
+
+        private void rehash(int capacity, int dropBefore) {
+            long[] oldRoomIds = roomIds;
+            RowIndex[] oldIndices = indices;
+            roomIds = new long[capacity];
+            indices = new RowIndex[capacity];
+            size = 0;
+
+            for (int i = 0; i < oldRoomIds.length; i++) {
+                if (oldRoomIds[i] == 0 || (dropBefore > 0 && oldIndices[i].dropBefore(dropBefore) == 0)) {
+                    continue;
+                }
+                int slot = slotFor(roomIds, oldRoomIds[i]);
+                roomIds[slot] = oldRoomIds[i];
+                indices[slot] = oldIndices[i];
+                size++;
+            }
+        }
+
+        /**
+         * Returns the slot holding {@code roomId}, or the empty slot at which it would be inserted.
+         */
+        private static int slotFor(long[] roomIds, long roomId) {
+            int mask = roomIds.length - 1;
+            int slot = (int) ((roomId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (roomIds[slot] != 0 && roomIds[slot] != roomId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    private static final class Column {
+        private int size = 0;
+
+        // Sort key of each row: (segment << 32) | tick. Rows recorded late are keyed by the latest tick already
+        // recorded in their segment so that keys remain non-decreasing.
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private int[] ticks = new int[INITIAL_CAPACITY];
+        private int[] slots = new int[INITIAL_CAPACITY];
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private long[] targetRoomIds = new long[INITIAL_CAPACITY];
+        private int[] coords = new int[INITIAL_CAPACITY];
+
+        private final RowIndex[] rowsBySlot = new RowIndex[PartyState.MAX_SIZE];
+        private final NpcRowIndex rowsByNpc = new NpcRowIndex();
+
+        Column() {
+            for (int i = 0; i < rowsBySlot.length; i++) {
+                rowsBySlot[i] = new RowIndex();
+            }
+        }
+
+        void append(int segment, int tick, int slot, int id, long targetRoomId, int packedCoords) {
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                ticks = Arrays.copyOf(ticks, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                targetRoomIds = Arrays.copyOf(targetRoomIds, capacity);
+                coords = Arrays.copyOf(coords, capacity);
+            }
+
+            long key = key(segment, tick);
+            if (size > 0 && keys[size - 1] > key) {
+                key = keys[size - 1];
+            }
+
+            int row = size++;
+            keys[row] = key;
+            ticks[row] = tick;
+            slots[row] = slot;
+            ids[row] = id;
+            targetRoomIds[row] = targetRoomId;
+            coords[row] = packedCoords;
+
+            if (slot != NO_SLOT) {
+                rowsBySlot[slot].add(row);
+            }
+            if (targetRoomId != 0) {
+                rowsByNpc.add(targetRoomId, row);
+            }
+        }
+
+        void dropBefore(long key) {
+            int count = lowerBound(key);
+            if (count == 0) {
+                return;
+            }
+
+            size -= count;
+            System.arraycopy(keys, count, keys, 0, size);
+            System.arraycopy(ticks, count, ticks, 0, size);
+            System.arraycopy(slots, count, slots, 0, size);
+            System.arraycopy(ids, count, ids, 0, size);
+            System.arraycopy(targetRoomIds, count, targetRoomIds, 0, size);
+            System.arraycopy(coords, count, coords, 0, size);
+
+            for (RowIndex index : rowsBySlot) {
+                index.dropBefore(count);
+            }
+            rowsByNpc.dropBefore(count);
+        }
+
+        Rows copyRange(int from, int to, int fromTick, int toTick) {
+            Rows rows = new Rows(to - from);
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                count = copyRow(rows, count, row, fromTick, toTick);
+            }
+            return new Rows(rows, count);
+        }
+
+        Rows copyIndexed(RowIndex index, long fromKey, long toKey, int fromTick, int toTick) {
+            int from = lowerBound(index, fromKey);
+            int to = lowerBound(index, toKey);
+            Rows rows = new Rows(to - from);
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                count = copyRow(rows, count, index.rows[i], fromTick, toTick);
+            }
+            return new Rows(rows, count);
+        }
+
+        private int copyRow(Rows rows, int count, int row, int fromTick, int toTick) {
+            if (ticks[row] < fromTick || ticks[row] > toTick) {
+                return count;
+            }
+            rows.ticks[count] = ticks[row];
+            rows.slots[count] = slots[row];
+            rows.ids[count] = ids[row];
+            rows.targetRoomIds[count] = targetRoomIds[row];
+            rows.coords[count] = coords[row];
+            return count + 1;
+        }
+
+        int lowerBound(long key) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private int lowerBound(RowIndex index, long key) {
+            int lo = 0;
+            int hi = index.size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[index.rows[mid]] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    private final PartyState party;
+    private final Map<EventType, Column> columns = new EnumMap<>(EventType.class);
+    private final Map<Stage, Integer> latestSegments = new EnumMap<>(Stage.class);
+    private final List<Stage> segmentStages = new ArrayList<>();
+
+    private int firstSegment = 0;
+    private int segment = -1;
+    private @Nullable Stage segmentStage = null;
+    private boolean segmentStarted = false;
+    private int droppedRows = 0;
+
+    public ChallengeTimeline(PartyState party) {
+        this.party = party;
+    }
+
+    /**
+     * Returns whether events of a type are recorded into the timeline.
+     */
+    public static boolean isTracked(EventType type) {
+        return TRACKED_TYPES.contains(type);
+    }
+
+    /**
+     * Records an event into the timeline. Events of untracked types are ignored.
+     *
+     * @param event The event.
+     */
+    public synchronized void record(Event event) {
+        Stage stage = event.getStage().orElse(null);
+        if (stage == null) {
+            return;
+        }
+
+        if (event.getType() == EventType.STAGE_UPDATE) {
+            if (((StageUpdateEvent) event).getStatus() == StageUpdateEvent.Status.STARTED) {
+                // A stage may be repeated, in which case its ticks restart from zero.
+                if (stage != segmentStage || segmentStarted) {
+                    startSegment(stage);
+                }
+                segmentStarted = true;
+            }
+            return;
+        }
+
+        if (!TRACKED_TYPES.contains(event.getType())) {
+            return;
+        }
+
+        if (stage != segmentStage) {
+            startSegment(stage);
+        }
+
+        int slot = NO_SLOT;
+        int id = 0;
+        long targetRoomId = 0;
+
+        switch (event.getType()) {
+            case PLAYER_ATTACK: {
+                PlayerAttackEvent attack = (PlayerAttackEvent) event;
+                slot = party.getSlot(attack.getUsername());
+                id = attack.getAttack().getProtoId();
+                targetRoomId = attack.getTargetRoomId();
+                break;
+            }
+            case PLAYER_SPELL: {
+                PlayerSpellEvent spell = (PlayerSpellEvent) event;
+                slot = party.getSlot(spell.getUsername());
+                id = spell.getSpell().getId();
+                targetRoomId = spell.getTargetNpcRoomId();
+                break;
+            }
+            case PLAYER_DEATH:
+                slot = party.getSlot(((PlayerDeathEvent) event).getUsername());
+                break;
+            case NPC_ATTACK: {
+                NpcAttackEvent attack = (NpcAttackEvent) event;
+                slot = party.getSlot(attack.getTarget());
+                id = attack.getAttack().getId();
+                targetRoomId = attack.getRoomId();
+                break;
+            }
+            case NPC_SPAWN:
+            case NPC_DEATH: {
+                NpcEvent npc = (NpcEvent) event;
+                id = npc.getNpcId();
+                targetRoomId = npc.getRoomId();
+                break;
+            }
+            default:
+                break;
+        }
+
+        Column column = columns.computeIfAbsent(event.getType(), t -> new Column());
+        while (column.size >= MAX_ROWS && firstSegment < segment) {
+            evictOldestSegment();
+        }
+        if (column.size >= MAX_ROWS) {
+            droppedRows++;
+            return;
+        }
+
+        int packedCoords = (event.getXCoord() & 0xffff) << 16 | (event.getYCoord() & 0xffff);
+        column.append(segment, event.getTick(), slot, id, targetRoomId, packedCoords);
+    }
+
+    /**
+     * Evicts the oldest stage occurrences from the timeline until no column holds more than {@code maxRows} rows.
+     * The current stage is never evicted.
+     *
+     * @param maxRows Maximum number of rows to retain in each column.
+     */
+    public synchronized void compact(int maxRows) {
+        while (firstSegment < segment && exceeds(maxRows)) {
+            evictOldestSegment();
+        }
+    }
+
+    /**
+     * Returns all recorded events of a type within a tick range of a stage.
+     *
+     * @param type     The event type.
+     * @param stage    The stage.
+     * @param fromTick First tick of the range, inclusive.
+     * @param toTick   Last tick of the range, inclusive.
+     * @return Matching rows, in tick order.
+     */
+    public synchronized Rows between(EventType type, Stage stage, int fromTick, int toTick) {
+        Column column = columns.get(type);
+        Integer stageSegment = latestSegments.get(stage);
+        if (column == null || stageSegment == null || fromTick > toTick) {
+            return NO_ROWS;
+        }
+
+        int from = column.lowerBound(key(stageSegment, fromTick));
+        int to = column.lowerBound(key(stageSegment, toTick) + 1);
+        return column.copyRange(from, to, fromTick, toTick);
+    }
+
+    /**
+     * Returns the recorded events of a type associated with a party member within a tick range of a stage.
+     *
+     * @param type     The event type.
+     * @param stage    The stage.
+     * @param fromTick First tick of the range, inclusive.
+     * @param toTick   Last tick of the range, inclusive.
+     * @param username The party member.
+     * @return Matching rows, in tick order.
+     */
+    public synchronized Rows forPlayer(EventType type, Stage stage, int fromTick, int toTick, String username) {
+        Column column = columns.get(type);
+        Integer stageSegment = latestSegments.get(stage);
+        int slot = party.getSlot(username);
+        if (column == null || stageSegment == null || slot == NO_SLOT || fromTick > toTick) {
+            return NO_ROWS;
+        }
+
+        return column.copyIndexed(
+                column.rowsBySlot[slot],
+                key(stageSegment, fromTick),
+                key(stageSegment, toTick) + 1,
+                fromTick,
+                toTick);
+    }
+
+    /**
+     * Returns the recorded events of a type associated with an NPC within a tick range of a stage.
+     *
+     * @param type     The event type.
+     * @param stage    The stage.
+     * @param fromTick First tick of the range, inclusive.
+     * @param toTick   Last tick of the range, inclusive.
+     * @param roomId   Room ID of the NPC.
+     * @return Matching rows, in tick order.
+     */
+    public synchronized Rows forNpc(EventType type, Stage stage, int fromTick, int toTick, long roomId) {
+        Column column = columns.get(type);
+        Integer stageSegment = latestSegments.get(stage);
+        RowIndex index = column != null ? column.rowsByNpc.get(roomId) : null;
+        if (index == null || stageSegment == null || fromTick > toTick) {
+            return NO_ROWS;
+        }
+
+        return column.copyIndexed(
+                index, key(stageSegment, fromTick), key(stageSegment, toTick) + 1, fromTick, toTick);
+    }
+
+    /**
+     * Copies every retained stage occurrence out of the timeline, in the order they were played.
+     */
+    public synchronized List<StageRecord> export() {
+        List<StageRecord> records = new ArrayList<>(segmentStages.size());
+        for (int i = 0; i < segmentStages.size(); i++) {
+            int s = firstSegment + i;
+            Map<EventType, Rows> rows = new EnumMap<>(EventType.class);
+            for (Map.Entry<EventType, Column> entry : columns.entrySet()) {
+                Column column = entry.getValue();
+                int from = column.lowerBound(key(s, 0));
+                int to = column.lowerBound(key(s + 1, 0));
+                if (from < to) {
+                    rows.put(entry.getKey(), column.copyRange(from, to, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                }
+            }
+            records.add(new StageRecord(segmentStages.get(i), rows));
+        }
+        return records;
+    }
+
+    /**
+     * Returns the number of stage occurrences evicted from the front of the timeline since it was last cleared.
+     */
+    public synchronized int getEvictedStages() {
+        return firstSegment;
+    }
+
+    /**
+     * Returns the number of events dropped since the timeline was last cleared because the current stage alone
+     * filled their column.
+     */
+    public synchronized int getDroppedRows() {
+        return droppedRows;
+    }
+
+    public synchronized void clear() {
+        columns.clear();
+        latestSegments.clear();
+        segmentStages.clear();
+        firstSegment = 0;
+        segment = -1;
+        segmentStage = null;
+        segmentStarted = false;
+        droppedRows = 0;
+    }
+
+    private void startSegment(Stage stage) {
+        segment++;
+        segmentStage = stage;
+        segmentStarted = false;
+        latestSegments.put(stage, segment);
+        segmentStages.add(stage);
+    }
+
+    private boolean exceeds(int maxRows) {
+        for (Column column : columns.values()) {
+            if (column.size > maxRows) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictOldestSegment() {
+        long end = key(firstSegment + 1, 0);
+        for (Column column : columns.values()) {
+            column.dropBefore(end);
+        }
+        latestSegments.remove(segmentStages.remove(0), firstSegment);
+        firstSegment++;
+    }
+
+    private static long key(int segment, int tick) {
+        return ((long) segment << 32) | (tick & 0xFFFFFFFFL);
+    }
+}
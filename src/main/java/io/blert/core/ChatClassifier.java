@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import io.blert.util.Tick;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import net.runelite.api.ChatMessageType;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Matches chat messages against a set of rules registered up front, handing parsed results to each rule's handler.
+ * <p>
+ * Rules are filtered by message type and by a literal string before any regular expression is run, so the common case
+ * of a message which is of no interest costs a hash lookup and a few string comparisons. Messages sent by players
+ * (public, private, clan chat, etc.) are never of interest and can be discarded before classification via
+ * {@link #isGameMessage(ChatMessageType)}.
+ */
+public class ChatClassifier {
+    private static final Set<ChatMessageType> PLAYER_MESSAGE_TYPES = EnumSet.of(
+            ChatMessageType.PUBLICCHAT,
+            ChatMessageType.PRIVATECHAT,
+            ChatMessageType.PRIVATECHATOUT,
+            ChatMessageType.MODCHAT,
+            ChatMessageType.MODPRIVATECHAT,
+            ChatMessageType.FRIENDSCHAT,
+            ChatMessageType.CLAN_CHAT,
+            ChatMessageType.CLAN_GUEST_CHAT,
+            ChatMessageType.CLAN_GIM_CHAT,
+            ChatMessageType.AUTOTYPER,
+            ChatMessageType.MODAUTOTYPER);
+
+    /**
+     * A chat message which matched a rule.
+     */
+    public static final class Match {
+        @Getter
+        private final ChatMessageType type;
+
+        /**
+         * The message with formatting tags removed.
+         */
+        @Getter
+        private final String message;
+
+        private final @Nullable Matcher matcher;
+
+        private Match(ChatMessageType type, String message, @Nullable Matcher matcher) {
+            this.type = type;
+            this.message = message;
+            this.matcher = matcher;
+        }
+
+        /**
+         * Returns a group captured by the rule's pattern.
+         *
+         * @param group Index of the group.
+         * @return The captured text, or an empty string if the group did not participate in the match.
+         */
+        public String group(int group) {
+            if (matcher == null) {
+                throw new IllegalStateException("Rule for \"" + message + "\" has no pattern");
+            }
+            String value = matcher.group(group);
+            return value != null ? value : "";
+        }
+
+        /**
+         * Parses a time string captured by the rule's pattern into ticks.
+         *
+         * @param group Index of the group containing a {@link Tick#TIME_STRING_REGEX} time.
+         * @return Pair of the number of ticks and whether the time was precise, or empty if the group could not be
+         * parsed.
+         */
+        public Optional<Pair<Integer, Boolean>> duration(int group) {
+            try {
+                return Tick.fromTimeString(group(group));
+            } catch (Exception e) {
+                return Optional.empty();
+            }
+        }
+
+        /**
+         * Returns the number of ticks in a time string captured by the rule's pattern, or -1 if it cannot be parsed.
+         */
+        public int ticks(int group) {
+            return duration(group).map(Pair::getLeft).orElse(-1);
+        }
+    }
+
+    private static final class Rule {
+        private final @Nullable Set<ChatMessageType> types;
+        private final String literal;
+        private final boolean prefix;
+        private final @Nullable Pattern pattern;
+        private final Consumer<Match> handler;
+
+        private Rule(
+                @Nullable Set<ChatMessageType> types,
+                String literal,
+                boolean prefix,
+                @Nullable Pattern pattern,
+                Consumer<Match> handler) {
+            this.types = types;
+            this.literal = literal;
+            this.prefix = prefix;
+            this.pattern = pattern;
+            this.handler = handler;
+        }
+
+        private boolean accepts(ChatMessageType type) {
+            return types == null || types.contains(type);
+        }
+    }
+
+    private final Map<String, List<Rule>> exactRules = new HashMap<>();
+    private final List<Rule> patternRules = new ArrayList<>();
+
+    /**
+     * Returns whether a message of the given type can originate from the game rather than from another player.
+     */
+    public static boolean isGameMessage(ChatMessageType type) {
+        return !PLAYER_MESSAGE_TYPES.contains(type);
+    }
+
+    /**
+     * Registers a handler for a message which exactly equals {@code message}.
+     */
+    public void onMessage(@NonNull String message, @NonNull Consumer<Match> handler) {
+        addExact(null, message, handler);
+    }
+
+    /**
+     * Registers a handler for a message of a specific type which exactly equals {@code message}.
+     */
+    public void onMessage(@NonNull ChatMessageType type, @NonNull String message, @NonNull Consumer<Match> handler) {
+        addExact(EnumSet.of(type), message, handler);
+    }
+
+    /**
+     * Registers a handler for messages which start with {@code prefix} and contain a match for {@code pattern}.
+     */
+    public void onPrefix(@NonNull String prefix, @NonNull Pattern pattern, @NonNull Consumer<Match> handler) {
+        patternRules.add(new Rule(null, prefix, true, pattern, handler));
+    }
+
+    /**
+     * Registers a handler for messages of a specific type which start with {@code prefix} and contain a match for
+     * {@code pattern}.
+     */
+    public void onPrefix(
+            @NonNull ChatMessageType type,
+            @NonNull String prefix,
+            @NonNull Pattern pattern,
+            @NonNull Consumer<Match> handler) {
+        patternRules.add(new Rule(EnumSet.of(type), prefix, true, pattern, handler));
+    }
+
+    /**
+     * Registers a handler for messages which contain {@code literal} and a match for {@code pattern}. The literal
+     * should be a fixed part of the pattern.
+     */
+    public void onContains(@NonNull String literal, @NonNull Pattern pattern, @NonNull Consumer<Match> handler) {
+        patternRules.add(new Rule(null, literal, false, pattern, handler));
+    }
+
+    /**
+     * Registers a handler for messages of a specific type which contain {@code literal} and a match for
+     * {@code pattern}.
+     */
+    public void onContains(
+            @NonNull ChatMessageType type,
+            @NonNull String literal,
+            @NonNull Pattern pattern,
+            @NonNull Consumer<Match> handler) {
+        patternRules.add(new Rule(EnumSet.of(type), literal, false, pattern, handler));
+    }
+
+    /**
+     * Runs the handler of every rule matching a message. Exact message rules are checked before pattern rules; within
+     * each, handlers run in the order they were registered.
+     *
+     * @param type    Type of the message.
+     * @param message The message with formatting tags removed.
+     * @return True if any rule matched.
+     */
+    public boolean classify(ChatMessageType type, String message) {
+        boolean matched = false;
+
+        List<Rule> exact = exactRules.get(message);
+        if (exact != null) {
+            for (Rule rule : exact) {
+                if (rule.accepts(type)) {
+                    rule.handler.accept(new Match(type, message, null));
+                    matched = true;
+                }
+            }
+        }
+
+        for (Rule rule : patternRules) {
+            if (!rule.accepts(type)) {
+                continue;
+            }
+            if (rule.prefix ? !message.startsWith(rule.literal) : !message.contains(rule.literal)) {
+                continue;
+            }
+
+            Matcher matcher = rule.pattern.matcher(message);
+            if (matcher.find()) {
+                rule.handler.accept(new Match(type, message, matcher));
+                matched = true;
+            }
+        }
+
+        return matched;
+    }
+
+    private void addExact(@Nullable Set<ChatMessageType> types, String message, Consumer<Match> handler) {
+        exactRules
+                .computeIfAbsent(message, m -> new ArrayList<>(1))
+                .add(new Rule(types, message, false, null, handler));
+    }
+}
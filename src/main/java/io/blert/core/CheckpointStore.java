@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a checkpoint of the active challenge in a small local file so that its recording can resume if the client
+ * restarts partway through.
+ * <p>
+ * Each account has its own checkpoint file, so that clients logged into different accounts do not overwrite one
+ * another's checkpoints. No checkpoints are written until an account has been {@link #load loaded}.
+ * <p>
+ * Checkpoints are immutable snapshots encoded on the calling thread and written on the provided executor. Each is
+ * written to a uniquely named temporary file which then atomically replaces the previous checkpoint, so a crash while
+ * writing leaves the last complete checkpoint in place.
+ */
+@Slf4j
+public class CheckpointStore {
+    /**
+     * Checkpoints older than this are assumed to belong to an abandoned challenge and are not restored.
+     */
+    static final long MAX_AGE_MILLIS = 15 * 60 * 1000;
+
+    private static final int MAGIC = 0x424c4350;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+    private final Executor executor;
+
+    private @Nullable Path file = null;
+    private @Nullable ChallengeCheckpoint restorable = null;
+    private @Nullable String challengeId = null;
+
+    public CheckpointStore(Path directory, Executor executor) {
+        this.directory = directory;
+        this.executor = executor;
+    }
+
+    /**
+     * Switches to the checkpoint file of the given account and reads the checkpoint left behind by a previous session
+     * on that account, if any, making it available to {@link #take}.
+     *
+     * @param accountHash Hash of the logged in account.
+     */
+    public synchronized void load(long accountHash) {
+        file = fileFor(directory, accountHash);
+        restorable = null;
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try {
+            restorable = decode(Files.readAllBytes(file));
+            log.debug("Loaded checkpoint of {} at {}", restorable.getChallenge(), restorable.getStage());
+        } catch (IOException e) {
+            log.warn("Discarding unreadable challenge checkpoint {}", file, e);
+        }
+    }
+
+    /**
+     * Sets the server ID of the challenge being recorded, to be included in subsequent checkpoints.
+     *
+     * @param challengeId The challenge ID.
+     */
+    public synchronized void setChallengeId(@Nullable String challengeId) {
+        this.challengeId = challengeId;
+    }
+
+    /**
+     * Checkpoints an in-progress challenge, replacing any previous checkpoint.
+     *
+     * @param challenge      The challenge.
+     * @param stage          The stage in progress.
+     * @param party          Usernames of the challenge party.
+     * @param challengeTicks Challenge ticks recorded prior to the stage.
+     */
+    public void save(Challenge challenge, Stage stage, List<String> party, int challengeTicks) {
+        ChallengeCheckpoint checkpoint;
+        Path target;
+        synchronized (this) {
+            checkpoint = new ChallengeCheckpoint(
+                    challenge, stage, List.copyOf(party), challengeTicks, challengeId, System.currentTimeMillis());
+            restorable = null;
+            target = file;
+        }
+
+        if (target == null) {
+            log.debug("Not checkpointing {} before an account is loaded", challenge);
+            return;
+        }
+
+        byte[] encoded = encode(checkpoint);
+        executor.execute(() -> write(target, encoded));
+    }
+
+    /**
+     * Returns the checkpoint loaded from a previous session if it can be used to resume the given challenge. The
+     * checkpoint is consumed either way.
+     *
+     * @param challenge The challenge being started.
+     * @param party     Usernames of the challenge party.
+     * @return The checkpoint to resume from, or null if the challenge should start afresh.
+     */
+    public @Nullable ChallengeCheckpoint take(Challenge challenge, List<String> party) {
+        return take(challenge, party, System.currentTimeMillis());
+    }
+
+    synchronized @Nullable ChallengeCheckpoint take(Challenge challenge, List<String> party, long now) {
+        ChallengeCheckpoint checkpoint = restorable;
+        restorable = null;
+
+        if (checkpoint == null
+                || checkpoint.getChallenge() != challenge
+                || now - checkpoint.getSavedAt() > MAX_AGE_MILLIS
+                || !sameParty(checkpoint.getParty(), party)) {
+            return null;
+        }
+
+        challengeId = checkpoint.getChallengeId();
+        return checkpoint;
+    }
+
+    /**
+     * Discards the current checkpoint once its challenge has ended or a new challenge begins.
+     */
+    public void clear() {
+        Path target;
+        synchronized (this) {
+            restorable = null;
+            challengeId = null;
+            target = file;
+        }
+        if (target != null) {
+            executor.execute(() -> delete(target));
+        }
+    }
+
+    static Path fileFor(Path directory, long accountHash) {
+        return directory.resolve("checkpoint-" + Long.toHexString(accountHash) + ".bin");
+    }
+
+    static byte[] encode(ChallengeCheckpoint checkpoint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeByte(checkpoint.getChallenge().getId());
+            out.writeShort(checkpoint.getStage().getId());
+            out.writeInt(checkpoint.getChallengeTicks());
+            out.writeLong(checkpoint.getSavedAt());
+            out.writeUTF(checkpoint.getChallengeId() != null ? checkpoint.getChallengeId() : "");
+            out.writeByte(checkpoint.getParty().size());
+            for (String username : checkpoint.getParty()) {
+                out.writeUTF(username);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        long checksum = crc.getValue();
+        bytes.write((int) (checksum >>> 24));
+        bytes.write((int) (checksum >>> 16));
+        bytes.write((int) (checksum >>> 8));
+        bytes.write((int) checksum);
+        return bytes.toByteArray();
+    }
+
+    static ChallengeCheckpoint decode(byte[] data) throws IOException {
+        if (data.length < Integer.BYTES * 2) {
+            throw new IOException("Truncated challenge checkpoint");
+        }
+
+        int length = data.length - Integer.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        DataInputStream checksum = new DataInputStream(new ByteArrayInputStream(data, length, Integer.BYTES));
+        if ((int) crc.getValue() != checksum.readInt()) {
+            throw new IOException("Challenge checkpoint checksum mismatch");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, length));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a challenge checkpoint");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported challenge checkpoint version " + version);
+        }
+
+        Challenge challenge = Challenge.fromId(in.readUnsignedByte());
+        Stage stage = Stage.fromId(in.readUnsignedShort());
+        if (challenge == null || stage == null) {
+            throw new IOException("Challenge checkpoint refers to an unknown challenge or stage");
+        }
+
+        int challengeTicks = in.readInt();
+        long savedAt = in.readLong();
+        String challengeId = in.readUTF();
+
+        int partySize = in.readUnsignedByte();
+        List<String> party = new ArrayList<>(partySize);
+        for (int i = 0; i < partySize; i++) {
+            party.add(in.readUTF());
+        }
+
+        return new ChallengeCheckpoint(
+                challenge, stage, party, challengeTicks, challengeId.isEmpty() ? null : challengeId, savedAt);
+    }
+
+    private static boolean sameParty(List<String> a, List<String> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).equalsIgnoreCase(b.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void write(Path target, byte[] encoded) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            Files.write(temporary, encoded);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write challenge checkpoint {}", target, e);
+            if (temporary != null) {
+                delete(temporary);
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete challenge checkpoint {}", file, e);
+        }
+    }
+}
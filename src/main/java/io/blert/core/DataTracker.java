@@ -26,8 +26,11 @@ package io.blert.core;
 import io.blert.events.*;
 import io.blert.util.Location;
 import io.blert.util.Tick;
+import io.blert.util.TickArena;
+import io.blert.util.TickScheduler;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import javax.annotation.Nullable;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -38,9 +41,12 @@ import net.runelite.api.*;
 import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.events.*;
 import net.runelite.client.callback.ClientThread;
+import net.runelite.client.util.Text;
 
 @Slf4j
 public abstract class DataTracker implements RuneliteEventHandler {
+    private static final int COALESCED_NPC_UPDATE_INTERVAL = 4;
+
     protected enum State {
         NOT_STARTED,
         IN_PROGRESS,
@@ -69,12 +75,38 @@ public abstract class DataTracker implements RuneliteEventHandler {
     @Getter(AccessLevel.PROTECTED)
     private final TrackedNpcCollection trackedNpcs = new TrackedNpcCollection();
 
+    /**
+     * Runs tracker-level tasks around {@link #onTick()}, keyed by the stage tick. Pending tasks are discarded when the
+     * tracker finishes.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final TickScheduler scheduler = new TickScheduler(this::getTick);
+
+    /**
+     * Scratch buffers for data collected during a tick, cleared once the tick has been processed.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final TickArena tickArena = new TickArena();
+
+    /**
+     * Tracker-level chat rules, registered by implementations on construction.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final ChatClassifier chatClassifier = new ChatClassifier();
+
+    /**
+     * Tracker-level projectile handlers, registered by implementations on construction.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final ProjectileTracker projectileTracker;
+
     public DataTracker(RecordableChallenge challenge, Client client, Stage stage) {
         this.challenge = challenge;
         this.client = client;
         this.clientThread = challenge.getClientThread();
         this.state = State.NOT_STARTED;
         this.stage = stage;
+        this.projectileTracker = new ProjectileTracker(client);
     }
 
     public boolean notStarted() {
@@ -110,27 +142,87 @@ public abstract class DataTracker implements RuneliteEventHandler {
             return;
         }
 
+        final long startNanos = System.nanoTime();
+
         updatePlayers();
 
-        challenge.getParty().forEach(this::checkForPlayerActions);
+        final PartyState party = challenge.getPartyState();
+        for (int slot = 0; slot < party.size(); slot++) {
+            checkForPlayerActions(party.getRaider(slot));
+        }
 
         // Run implementation-specific behavior.
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
         try {
             onTick();
         } catch (Exception e) {
             log.error("Error during onTick for stage {}", stage, e);
         }
+        scheduler.run(TickScheduler.Priority.AFTER_TICK);
 
         // Send out an update for every tracked NPC and commit player death events.
         // This must be done after `onTick` to ensure any implementation-specific changes are complete.
-        for (Raider raider : challenge.getParty()) {
-            if (raider.getDeathTick() == getTick()) {
+        for (int slot = 0; slot < party.size(); slot++) {
+            if (party.getDeathTick(slot) == getTick()) {
+                Raider raider = party.getRaider(slot);
                 Player player = raider.getPlayer();
                 WorldPoint location = player != null ? getWorldLocation(player) : null;
                 dispatchEvent(new PlayerDeathEvent(getStage(), getTick(), location, raider.getUsername()));
             }
         }
-        trackedNpcs.forEach(this::sendNpcUpdate);
+        TickWatchdog watchdog = challenge.getWatchdog();
+        if (watchdog.isAtLeast(TickWatchdog.Level.COALESCE_NPC_UPDATES)) {
+            trackedNpcs.forEach(trackedNpc -> {
+                if (isCoalescedUpdateDue(trackedNpc)) {
+                    sendNpcUpdate(trackedNpc);
+                }
+            });
+        } else {
+            trackedNpcs.forEach(this::sendNpcUpdate);
+        }
+
+        tickArena.reset();
+        projectileTracker.expire(client.getGameCycle());
+
+        if (watchdog.record(System.nanoTime() - startNanos)) {
+            log.debug("Tick time budget exceeded for stage {}; capture level is now {}", stage, watchdog.getLevel());
+            dispatchEvent(new CaptureDegradationEvent(getStage(), getTick(), watchdog.getLevel()));
+        }
+    }
+
+    /**
+     * Under load, NPC updates are only sent on spawn, on a property change, or every
+     * {@link #COALESCED_NPC_UPDATE_INTERVAL} ticks.
+     */
+    private boolean isCoalescedUpdateDue(TrackedNpc trackedNpc) {
+        int ticksAlive = getTick() - trackedNpc.getSpawnTick();
+        return ticksAlive == 0 || trackedNpc.hasUpdatedProperties() || ticksAlive % COALESCED_NPC_UPDATE_INTERVAL == 0;
+    }
+
+    /**
+     * Whether room-specific area effect events should be collected and dispatched under the active capture profile.
+     * Implementations should skip the work of gathering such effects entirely when this returns false.
+     */
+    protected boolean capturesAreaEffects() {
+        return challenge.getCaptureProfile().capturesAreaEffects()
+                && !challenge.getWatchdog().isAtLeast(TickWatchdog.Level.DROP_AREA_EFFECTS);
+    }
+
+    /**
+     * Registers a spawn handler for a projectile which only feeds area effect events. Under capture profiles which do
+     * not record area effects, the handler is never registered and the projectile is not followed at all. Otherwise,
+     * it is skipped while area effects are shed by the watchdog.
+     */
+    protected void onAreaEffectProjectileSpawn(
+            int projectileId, Consumer<ProjectileTracker.TrackedProjectile> handler) {
+        if (!challenge.getCaptureProfile().capturesAreaEffects()) {
+            return;
+        }
+        projectileTracker.onSpawn(projectileId, projectile -> {
+            if (capturesAreaEffects()) {
+                handler.accept(projectile);
+            }
+        });
     }
 
     /**
@@ -206,20 +298,14 @@ public abstract class DataTracker implements RuneliteEventHandler {
 
     /**
      * Implementation-specific equivalent of the {@code onProjectileMoved} Runelite event handler.
-     * Should be overriden by implementations which require special handling.
+     * Should be overriden by implementations which require special handling. Implementations which only care about
+     * when projectiles spawn or land should register handlers with the {@link #getProjectileTracker() projectile
+     * tracker} instead.
      *
      * @param event The event.
      */
     protected void onProjectile(ProjectileMoved event) {}
 
-    /**
-     * Implementation-specific equivalent of the {@code onChatMessage} Runelite event handler.
-     * Should be overriden by implementations which require special animation tracking.
-     *
-     * @param event The event.
-     */
-    protected void onMessage(ChatMessage event) {}
-
     /**
      * Implementation-specific equivalent of the {@code onHitsplatApplied} Runelite event handler.
      * Should be overriden by implementations which require special hitsplat tracking.
@@ -358,7 +444,7 @@ public abstract class DataTracker implements RuneliteEventHandler {
         setState(State.IN_PROGRESS);
 
         client.getTopLevelWorldView().players().forEach(player -> {
-            Raider raider = challenge.getRaider(player.getName());
+            Raider raider = challenge.getRaider(player);
             if (raider != null) {
                 raider.setPlayer(player);
                 raider.resetForNewRoom();
@@ -366,6 +452,13 @@ public abstract class DataTracker implements RuneliteEventHandler {
         });
 
         dispatchEvent(new StageUpdateEvent(getStage(), 0, StageUpdateEvent.Status.STARTED));
+
+        // The watchdog persists across stages, so a capture level reduced during an earlier stage still applies.
+        // Restate it so that the new stage's data is marked as degraded from its first tick.
+        TickWatchdog.Level captureLevel = challenge.getWatchdog().getLevel();
+        if (captureLevel != TickWatchdog.Level.NONE) {
+            dispatchEvent(new CaptureDegradationEvent(getStage(), 0, captureLevel));
+        }
     }
 
     /**
@@ -411,6 +504,9 @@ public abstract class DataTracker implements RuneliteEventHandler {
                 return;
         }
 
+        scheduler.clear();
+        projectileTracker.clear();
+
         final int lastRecordedRoomTick = getTick();
         boolean accurate;
 
@@ -439,7 +535,7 @@ public abstract class DataTracker implements RuneliteEventHandler {
 
         boolean spectator =
                 !challenge.playerIsInChallenge(client.getLocalPlayer().getName());
-        boolean isWipe = challenge.getParty().stream().allMatch(Raider::isDead);
+        boolean isWipe = challenge.getPartyState().isWiped();
 
         if (spectator && !completion && !isWipe) {
             log.info("Spectator left challenge at stage {}", stage);
@@ -465,16 +561,16 @@ public abstract class DataTracker implements RuneliteEventHandler {
     private void updatePlayers() {
         int tick = getTick();
 
-        client.getTopLevelWorldView().players().forEach(player -> {
-            Raider raider = challenge.getRaider(player.getName());
+        for (Player player : client.getTopLevelWorldView().players()) {
+            Raider raider = challenge.getRaider(player);
             if (raider == null || raider.isDead() && raider.getDeathTick() < tick) {
-                return;
+                continue;
             }
 
-            raider.updateState(client, player, tick);
+            raider.updateState(client, player, tick, challenge.getCaptureProfile());
 
             dispatchEvent(PlayerUpdateEvent.fromRaider(getStage(), tick, getWorldLocation(player), client, raider));
-        });
+        }
     }
 
     private void checkForPlayerActions(@NonNull Raider raider) {
@@ -488,7 +584,12 @@ public abstract class DataTracker implements RuneliteEventHandler {
         }
 
         checkForPlayerAttack(raider, player);
-        checkForPlayerSpell(raider, player);
+
+        boolean skipSpells = !raider.isLocalPlayer()
+                && challenge.getWatchdog().isAtLeast(TickWatchdog.Level.SKIP_SECONDARY_SPELLS);
+        if (challenge.getCaptureProfile().detectsSpells() && !skipSpells) {
+            checkForPlayerSpell(raider, player);
+        }
     }
 
     private void checkForPlayerSpell(@NonNull Raider raider, @NonNull Player player) {
@@ -584,6 +685,11 @@ public abstract class DataTracker implements RuneliteEventHandler {
             return;
         }
 
+        if (!challenge.getAttackRegistry().isReady()) {
+            // Definitions are still loading; don't put the raider on cooldown for an attack which can't be identified.
+            return;
+        }
+
         final int tick = getTick();
         Optional<NPC> target = raider.getTarget();
         boolean isNewAnimation = raider.getAnimationTick() == tick;
@@ -624,7 +730,7 @@ public abstract class DataTracker implements RuneliteEventHandler {
                 }
 
                 AttackDefinition finalAttack = attack;
-                if (attack.hasProjectile()) {
+                if (attack.hasProjectile() && challenge.getCaptureProfile().disambiguatesProjectiles()) {
                     finalAttack = adjustForProjectile(registry, attack, player, weaponId);
                 }
 
@@ -770,7 +876,7 @@ public abstract class DataTracker implements RuneliteEventHandler {
 
         Actor actor = event.getActor();
         if (actor instanceof Player) {
-            Raider raider = challenge.getRaider(actor.getName());
+            Raider raider = challenge.getRaider((Player) actor);
             if (raider != null) {
                 int animationId = actor.getAnimation();
                 boolean isContinuous = challenge.getAttackRegistry().isContinuousAnimation(animationId);
@@ -784,14 +890,26 @@ public abstract class DataTracker implements RuneliteEventHandler {
     @Override
     public final void onProjectileMoved(ProjectileMoved event) {
         if (!terminating()) {
+            projectileTracker.onProjectileMoved(event, getTick());
             onProjectile(event);
         }
     }
 
     @Override
     public final void onChatMessage(ChatMessage event) {
-        if (state == State.IN_PROGRESS || event.getType() == ChatMessageType.GAMEMESSAGE) {
-            onMessage(event);
+        onChatMessage(event.getType(), Text.removeTags(event.getMessage()));
+    }
+
+    /**
+     * Classifies a chat message against the tracker's chat rules. Game messages are always classified so that they
+     * can start the tracker, while other message types are only classified once it is in progress.
+     *
+     * @param type    Type of the message.
+     * @param message The message with formatting tags removed.
+     */
+    final void onChatMessage(ChatMessageType type, String message) {
+        if (state == State.IN_PROGRESS || type == ChatMessageType.GAMEMESSAGE) {
+            chatClassifier.classify(type, message);
         }
     }
 
@@ -866,7 +984,7 @@ public abstract class DataTracker implements RuneliteEventHandler {
         }
 
         if (event.getActor() instanceof Player) {
-            Raider raider = challenge.getRaider(event.getActor().getName());
+            Raider raider = challenge.getRaider((Player) event.getActor());
             if (raider != null) {
                 raider.setDead(getTick());
             }
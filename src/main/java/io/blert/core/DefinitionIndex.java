@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader for the binary definition index compiled from the bundled {@code attacks.json} and {@code spells.json} by the
+ * {@code generateDefinitionIndex} Gradle task. The index mirrors the JSON schema field for field, so decoded entries go
+ * through the same {@code toCore()} conversion as definitions parsed from JSON.
+ * <p>
+ * Layout (big-endian): magic, version, then an attack section and a spell section, each prefixed with its length in
+ * bytes so that a reader interested in only one of them can skip the other. Lists are prefixed with their size, or -1
+ * if absent; optional values are prefixed with a presence byte. Strings are UTF-8 prefixed with their length.
+ */
+final class DefinitionIndex {
+    static final String RESOURCE = "/definitions.bin";
+
+    static final int MAGIC = 0x424c4449; // "BLDI"
+    static final int VERSION = 1;
+
+    private DefinitionIndex() {}
+
+    /**
+     * Reads the attack definitions from an index.
+     *
+     * @param stream Stream positioned at the start of the index.
+     * @return The decoded definitions.
+     * @throws IOException If the index is malformed or of an unsupported version.
+     */
+    static List<AttackDefinition> readAttacks(InputStream stream) throws IOException {
+        ByteBuffer in = open(stream);
+        try {
+            in.getInt();
+
+            int count = in.getInt();
+            List<AttackDefinition> definitions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                definitions.add(readAttack(in).toCore());
+            }
+            return definitions;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated definition index", e);
+        }
+    }
+
+    /**
+     * Reads the spell definitions from an index.
+     *
+     * @param stream Stream positioned at the start of the index.
+     * @return The decoded definitions.
+     * @throws IOException If the index is malformed or of an unsupported version.
+     */
+    static List<SpellDefinition> readSpells(InputStream stream) throws IOException {
+        ByteBuffer in = open(stream);
+        try {
+            int attackSectionLength = in.getInt();
+            in.position(in.position() + attackSectionLength);
+            in.getInt();
+
+            int count = in.getInt();
+            List<SpellDefinition> definitions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                definitions.add(readSpell(in).toCore());
+            }
+            return definitions;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated definition index", e);
+        }
+    }
+
+    private static ByteBuffer open(InputStream stream) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(stream.readAllBytes());
+        if (in.remaining() < Integer.BYTES + Short.BYTES || in.getInt() != MAGIC) {
+            throw new IOException("Not a definition index");
+        }
+        int version = in.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported definition index version " + version);
+        }
+        return in;
+    }
+
+    private static io.blert.json.AttackDefinition readAttack(ByteBuffer in) {
+        io.blert.json.AttackDefinition def = new io.blert.json.AttackDefinition();
+        def.protoId = in.getInt();
+        def.name = readString(in);
+        def.weaponIds = readIntList(in);
+        def.animationIds = readIntList(in);
+        def.cooldown = in.getInt();
+        def.projectile = readFlag(in) ? readProjectile(in) : null;
+
+        int projectiles = in.getInt();
+        if (projectiles >= 0) {
+            def.weaponProjectiles = new ArrayList<>(projectiles);
+            for (int i = 0; i < projectiles; i++) {
+                def.weaponProjectiles.add(readProjectile(in));
+            }
+        }
+
+        def.continuousAnimation = readFlag(in);
+        def.animationFrameMin = readFlag(in) ? in.getInt() : null;
+        def.animationFrameMax = readFlag(in) ? in.getInt() : null;
+        def.category = readFlag(in) ? readString(in) : null;
+        return def;
+    }
+
+    private static io.blert.json.AttackDefinition.Projectile readProjectile(ByteBuffer in) {
+        io.blert.json.AttackDefinition.Projectile projectile = new io.blert.json.AttackDefinition.Projectile();
+        projectile.id = in.getInt();
+        projectile.startCycleOffset = in.getInt();
+        projectile.weaponId = readFlag(in) ? in.getInt() : null;
+        return projectile;
+    }
+
+    private static io.blert.json.SpellDefinition readSpell(ByteBuffer in) {
+        io.blert.json.SpellDefinition def = new io.blert.json.SpellDefinition();
+        def.id = in.getInt();
+        def.name = readString(in);
+        def.animationIds = readIntList(in);
+        def.graphics = readGraphics(in);
+        def.targetGraphics = readGraphics(in);
+        def.stallTicks = in.getInt();
+        return def;
+    }
+
+    private static List<io.blert.json.SpellDefinition.Graphic> readGraphics(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+
+        List<io.blert.json.SpellDefinition.Graphic> graphics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            io.blert.json.SpellDefinition.Graphic graphic = new io.blert.json.SpellDefinition.Graphic();
+            graphic.id = in.getInt();
+            graphic.durationTicks = in.getInt();
+            graphic.maxFrame = in.getInt();
+            graphics.add(graphic);
+        }
+        return graphics;
+    }
+
+    private static List<Integer> readIntList(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+
+        List<Integer> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.getInt());
+        }
+        return values;
+    }
+
+    private static boolean readFlag(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.runelite.api.Player;
+import net.runelite.client.util.Text;
+
+/**
+ * Dense storage for the members of a challenge party.
+ * <p>
+ * Raiders occupy fixed slots, and the raider state read every tick (animation, cooldown, death and status flags) is
+ * held in parallel primitive arrays indexed by slot. Visible players are mapped to slots by their player index rather
+ * than by hashing their names, so per-tick party processing is a plain indexed loop.
+ */
+public class PartyState {
+    public static final int MAX_SIZE = 5;
+
+    static final int FLAG_ACTIVE = 1;
+    static final int FLAG_DEAD = 1 << 1;
+    static final int FLAG_INVULNERABLE = 1 << 2;
+
+    private static final int NO_PLAYER_INDEX = -1;
+
+    private final Raider[] raiders;
+    private final String[] usernames;
+    private final int[] playerIndices;
+
+    final int[] animationIds;
+    final int[] animationTicks;
+    final int[] offCooldownTicks;
+    final int[] deathTicks;
+    final int[] flags;
+
+    private int size = 0;
+
+    private final List<Raider> members = new AbstractList<>() {
+        @Override
+        public Raider get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Party slot " + index + " out of range");
+            }
+            return raiders[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    public PartyState() {
+        this(MAX_SIZE);
+    }
+
+    PartyState(int capacity) {
+        raiders = new Raider[capacity];
+        usernames = new String[capacity];
+        playerIndices = new int[capacity];
+        animationIds = new int[capacity];
+        animationTicks = new int[capacity];
+        offCooldownTicks = new int[capacity];
+        deathTicks = new int[capacity];
+        flags = new int[capacity];
+        Arrays.fill(playerIndices, NO_PLAYER_INDEX);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a read-only, live view of the raiders in the party, in slot order.
+     */
+    public List<Raider> members() {
+        return members;
+    }
+
+    /**
+     * Returns the standardized usernames of the party members, in slot order.
+     */
+    public List<String> usernames() {
+        return new ArrayList<>(Arrays.asList(usernames).subList(0, size));
+    }
+
+    public Raider getRaider(int slot) {
+        return members.get(slot);
+    }
+
+    /**
+     * Adds a raider to the next free slot in the party, moving its current state into the party's storage.
+     *
+     * @param raider The raider to add.
+     * @return True if the raider was added, false if the party is full or already contains the raider.
+     */
+    public boolean add(Raider raider) {
+        String username = Text.standardize(raider.getUsername());
+        if (size == raiders.length || slotOf(username) != -1) {
+            return false;
+        }
+
+        int slot = size++;
+        raiders[slot] = raider;
+        usernames[slot] = username;
+
+        Player player = raider.getPlayer();
+        playerIndices[slot] = player != null ? player.getId() : NO_PLAYER_INDEX;
+
+        raider.attach(this, slot);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(raiders, null);
+        Arrays.fill(usernames, null);
+        Arrays.fill(playerIndices, NO_PLAYER_INDEX);
+        Arrays.fill(animationIds, 0);
+        Arrays.fill(animationTicks, 0);
+        Arrays.fill(offCooldownTicks, 0);
+        Arrays.fill(deathTicks, 0);
+        Arrays.fill(flags, 0);
+        size = 0;
+    }
+
+    /**
+     * Returns the slot of the raider with the given standardized username, or -1 if they are not in the party.
+     */
+    int slotOf(String standardizedUsername) {
+        for (int slot = 0; slot < size; slot++) {
+            if (usernames[slot].equals(standardizedUsername)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot of the raider with the given username, or -1 if they are not in the party.
+     */
+    public int getSlot(@Nullable String username) {
+        return username != null ? slotOf(Text.standardize(username)) : -1;
+    }
+
+    public @Nullable Raider getRaider(@Nullable String username) {
+        if (username == null) {
+            return null;
+        }
+        int slot = slotOf(Text.standardize(username));
+        return slot != -1 ? raiders[slot] : null;
+    }
+
+    /**
+     * Looks up the raider corresponding to a visible player. Players are matched by their player index, falling back
+     * to a username lookup (which rebinds the slot's index) the first time a player is seen or if their index changes.
+     *
+     * @param player The player.
+     * @return The player's raider, or null if they are not in the party.
+     */
+    public @Nullable Raider getRaider(Player player) {
+        final int index = player.getId();
+        for (int slot = 0; slot < size; slot++) {
+            if (playerIndices[slot] == index && raiders[slot].getPlayer() == player) {
+                return raiders[slot];
+            }
+        }
+
+        String username = player.getName();
+        if (username == null) {
+            return null;
+        }
+
+        int slot = slotOf(Text.standardize(username));
+        if (slot == -1) {
+            return null;
+        }
+
+        playerIndices[slot] = index;
+        return raiders[slot];
+    }
+
+    public int getDeathTick(int slot) {
+        return deathTicks[slot];
+    }
+
+    public boolean isActive(int slot) {
+        return (flags[slot] & FLAG_ACTIVE) != 0;
+    }
+
+    public boolean isDead(int slot) {
+        return (flags[slot] & FLAG_DEAD) != 0;
+    }
+
+    public int livingCount() {
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if ((flags[slot] & FLAG_DEAD) == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if every member of the party is dead. An empty party is considered wiped.
+     */
+    public boolean isWiped() {
+        for (int slot = 0; slot < size; slot++) {
+            if ((flags[slot] & FLAG_DEAD) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
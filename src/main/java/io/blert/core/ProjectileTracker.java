@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import io.blert.util.Location;
+import java.util.*;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import net.runelite.api.Actor;
+import net.runelite.api.Client;
+import net.runelite.api.Projectile;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ProjectileMoved;
+
+/**
+ * Follows the lifecycle of projectiles of interest, notifying handlers registered by projectile ID when each one
+ * spawns and lands.
+ * <p>
+ * {@code ProjectileMoved} fires every client cycle for every live projectile. A projectile whose ID has no handlers
+ * costs a single array lookup; for the rest, derived properties such as the origin, target tile and landing tick are
+ * computed once, when the projectile is first seen.
+ */
+public class ProjectileTracker {
+    /**
+     * Number of client cycles in a game tick.
+     */
+    public static final int CYCLES_PER_TICK = 30;
+
+    /**
+     * A projectile is considered to have landed on the first cycle with at most this many cycles remaining, as
+     * {@code ProjectileMoved} is not guaranteed to fire on its final cycle.
+     */
+    public static final int LANDING_CYCLES = 3;
+
+    /**
+     * A projectile being followed by the tracker, with properties computed when it was first seen.
+     */
+    @Getter
+    public static final class TrackedProjectile {
+        private final Projectile projectile;
+        private final int id;
+
+        /**
+         * The instance-unaware point from which the projectile was launched.
+         */
+        private final WorldPoint sourcePoint;
+
+        /**
+         * The instance-aware point from which the projectile was launched, if it could be resolved.
+         */
+        private final @Nullable WorldPoint origin;
+
+        /**
+         * The local position the projectile was headed for when first seen.
+         */
+        private final LocalPoint targetPosition;
+
+        /**
+         * The instance-aware tile the projectile was headed for when first seen, if it could be resolved.
+         */
+        private final @Nullable WorldPoint target;
+
+        private final @Nullable Actor targetActor;
+        private final int spawnTick;
+        private final int landingTick;
+
+        /**
+         * Whether the projectile was first seen on the cycle it was launched. Projectiles already in flight when the
+         * tracker started (e.g. on joining late) are still reported, but may have missed their launch.
+         */
+        private final boolean seenAtLaunch;
+
+        private boolean landed;
+
+        private TrackedProjectile(
+                Projectile projectile,
+                WorldPoint sourcePoint,
+                @Nullable WorldPoint origin,
+                LocalPoint targetPosition,
+                @Nullable WorldPoint target,
+                int spawnTick,
+                int landingTick,
+                boolean seenAtLaunch) {
+            this.projectile = projectile;
+            this.id = projectile.getId();
+            this.sourcePoint = sourcePoint;
+            this.origin = origin;
+            this.targetPosition = targetPosition;
+            this.target = target;
+            this.targetActor = projectile.getTargetActor();
+            this.spawnTick = spawnTick;
+            this.landingTick = landingTick;
+            this.seenAtLaunch = seenAtLaunch;
+        }
+    }
+
+    private static final class Handlers {
+        private final List<Consumer<TrackedProjectile>> spawn = new ArrayList<>(1);
+        private final List<Consumer<TrackedProjectile>> land = new ArrayList<>(1);
+    }
+
+    private final Client client;
+    /**
+     * Handlers indexed by projectile ID, sized to the largest registered ID.
+     */
+    private Handlers[] handlersById = new Handlers[0];
+
+    private final Map<Projectile, TrackedProjectile> live = new IdentityHashMap<>();
+
+    public ProjectileTracker(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Registers a handler invoked once for each projectile with the given ID, when it is first seen.
+     */
+    public void onSpawn(int projectileId, @NonNull Consumer<TrackedProjectile> handler) {
+        handlersFor(projectileId).spawn.add(handler);
+    }
+
+    /**
+     * Registers a handler for several projectile IDs at once. See {@link #onSpawn(int, Consumer)}.
+     */
+    public void onSpawn(int[] projectileIds, @NonNull Consumer<TrackedProjectile> handler) {
+        for (int id : projectileIds) {
+            onSpawn(id, handler);
+        }
+    }
+
+    /**
+     * Registers a handler invoked once for each projectile with the given ID, when it lands.
+     */
+    public void onLand(int projectileId, @NonNull Consumer<TrackedProjectile> handler) {
+        handlersFor(projectileId).land.add(handler);
+    }
+
+    /**
+     * Registers a handler for several projectile IDs at once. See {@link #onLand(int, Consumer)}.
+     */
+    public void onLand(int[] projectileIds, @NonNull Consumer<TrackedProjectile> handler) {
+        for (int id : projectileIds) {
+            onLand(id, handler);
+        }
+    }
+
+    /**
+     * Returns the tracked state of a live projectile, if its ID has registered handlers and it has been seen.
+     */
+    public @Nullable TrackedProjectile get(Projectile projectile) {
+        return live.get(projectile);
+    }
+
+    /**
+     * Processes a {@code ProjectileMoved} event, running spawn and land handlers as appropriate.
+     *
+     * @param event The event.
+     * @param tick  Current stage tick.
+     */
+    public void onProjectileMoved(ProjectileMoved event, int tick) {
+        Projectile projectile = event.getProjectile();
+        int id = projectile.getId();
+        Handlers handlers = id >= 0 && id < handlersById.length ? handlersById[id] : null;
+        if (handlers == null) {
+            return;
+        }
+
+        TrackedProjectile tracked = live.get(projectile);
+        if (tracked == null) {
+            int remaining = projectile.getRemainingCycles();
+            int elapsed = projectile.getEndCycle() - projectile.getStartCycle() - remaining;
+            WorldPoint sourcePoint = projectile.getSourcePoint();
+            WorldPoint origin = sourcePoint != null ? Location.getWorldLocation(client, sourcePoint) : null;
+            LocalPoint position = event.getPosition();
+            WorldPoint target = Location.getWorldLocation(client, WorldPoint.fromLocal(client, position));
+            int landingTick = tick + (Math.max(remaining, 0) + CYCLES_PER_TICK - 1) / CYCLES_PER_TICK;
+
+            tracked = new TrackedProjectile(
+                    projectile, sourcePoint, origin, position, target, tick, landingTick, elapsed == 0);
+            live.put(projectile, tracked);
+            for (Consumer<TrackedProjectile> handler : handlers.spawn) {
+                handler.accept(tracked);
+            }
+        }
+
+        if (!tracked.landed && projectile.getRemainingCycles() <= LANDING_CYCLES) {
+            tracked.landed = true;
+            for (Consumer<TrackedProjectile> handler : handlers.land) {
+                handler.accept(tracked);
+            }
+        }
+    }
+
+    /**
+     * Stops following projectiles whose flight has ended.
+     *
+     * @param gameCycle Current client game cycle.
+     */
+    public void expire(int gameCycle) {
+        live.values().removeIf(tracked -> tracked.projectile.getEndCycle() < gameCycle);
+    }
+
+    /**
+     * Stops following all live projectiles. Registered handlers are kept.
+     */
+    public void clear() {
+        live.clear();
+    }
+
+    private Handlers handlersFor(int projectileId) {
+        if (projectileId < 0) {
+            throw new IllegalArgumentException("Invalid projectile ID " + projectileId);
+        }
+        if (projectileId >= handlersById.length) {
+            handlersById = Arrays.copyOf(handlersById, projectileId + 1);
+        }
+        if (handlersById[projectileId] == null) {
+            handlersById[projectileId] = new Handlers();
+        }
+        return handlersById[projectileId];
+    }
+}
@@ -31,6 +31,7 @@ import lombok.NonNull;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.*;
+import net.runelite.api.kit.KitType;
 import net.runelite.client.game.ItemVariationMapping;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -45,6 +46,10 @@ public class Raider {
             .addAll(ItemVariationMapping.getVariations(ItemVariationMapping.map(ItemID.DIZANAS_MAX_CAPE)))
             .build();
 
+    private static final EquipmentSlot[] EQUIPMENT_SLOTS = EquipmentSlot.values();
+    private static final int NO_ITEM = -1;
+    private static final long EMPTY_SLOT = -1L;
+
     // Whether the player is using a continuous animation weapon such as a toxic blowpipe.
     private enum BlowpipeState {
         NOT_PIPING,
@@ -62,46 +67,39 @@ public class Raider {
     @Getter
     private final boolean localPlayer;
 
-    @Getter
-    @Setter
-    private boolean active;
+    // Hot per-tick state is held in the party's storage. Until the raider joins a party, it is backed by a private
+    // single-slot state.
+    private PartyState state = new PartyState(1);
+    private int slot = 0;
 
     private int lastUpdateTick = Integer.MIN_VALUE;
 
     @Getter
     private boolean snapshot;
 
-    @Getter
-    private boolean dead;
-
-    @Getter
-    private int deathTick;
-
-    @Setter
-    private boolean invulnerable;
-
     private BlowpipeState blowpiping = BlowpipeState.NOT_PIPING;
 
-    private Item[] equipment = new Item[EquipmentSlot.values().length];
-    private Item[] pendingEquipment = null;
+    private final Item[] equipment = new Item[EQUIPMENT_SLOTS.length];
 
-    @Getter
-    private final List<ItemDelta> equipmentChangesThisTick = new ArrayList<>();
+    // Packed (ID, quantity) contents of each equipment slot, mirroring `equipment`. Used to diff the local player's
+    // equipment container without allocating.
+    private final long[] packedEquipment = new long[EQUIPMENT_SLOTS.length];
+    private final long[] packedScratch = new long[EQUIPMENT_SLOTS.length];
 
-    @Getter
-    private int animationId;
+    // Item IDs from the player's composition for each visible slot, as last applied and as last reported by a
+    // composition change. Pending IDs are challenge-level and survive room resets.
+    private final int[] visibleItemIds = new int[EQUIPMENT_SLOTS.length];
+    private final int[] pendingVisibleItemIds = new int[EQUIPMENT_SLOTS.length];
+    private boolean hasPendingVisibleItems = false;
 
     @Getter
-    private int animationTick;
+    private final List<ItemDelta> equipmentChangesThisTick = new ArrayList<>();
 
     private final Map<Integer, ActorSpotAnim> graphicsIds = new HashMap<>();
 
     @Getter
     private @Nullable AttackDefinition lastAttack;
 
-    @Getter
-    private int offCooldownTick;
-
     /**
      * Map of spell ID to the "off cooldown" tick for that spell.
      * Unlike attacks, these are not real cooldowns, just a minimum interval to
@@ -117,8 +115,9 @@ public class Raider {
     public Raider(@NonNull String username, boolean localPlayer) {
         this.username = username;
         this.localPlayer = localPlayer;
-        this.active = true;
+        state.flags[slot] = PartyState.FLAG_ACTIVE;
         this.overheadPrayer = null;
+        clearEquipment();
     }
 
     public Raider(@NonNull Player player, boolean localPlayer) {
@@ -126,24 +125,81 @@ public class Raider {
         this.player = player;
     }
 
+    /**
+     * Moves this raider's per-tick state into a slot of a party's storage.
+     */
+    void attach(PartyState state, int slot) {
+        state.animationIds[slot] = this.state.animationIds[this.slot];
+        state.animationTicks[slot] = this.state.animationTicks[this.slot];
+        state.offCooldownTicks[slot] = this.state.offCooldownTicks[this.slot];
+        state.deathTicks[slot] = this.state.deathTicks[this.slot];
+        state.flags[slot] = this.state.flags[this.slot];
+        this.state = state;
+        this.slot = slot;
+    }
+
+    private boolean hasFlag(int flag) {
+        return (state.flags[slot] & flag) != 0;
+    }
+
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            state.flags[slot] |= flag;
+        } else {
+            state.flags[slot] &= ~flag;
+        }
+    }
+
+    public boolean isActive() {
+        return hasFlag(PartyState.FLAG_ACTIVE);
+    }
+
+    public void setActive(boolean active) {
+        setFlag(PartyState.FLAG_ACTIVE, active);
+    }
+
+    public boolean isDead() {
+        return hasFlag(PartyState.FLAG_DEAD);
+    }
+
     public boolean isAlive() {
-        return !dead;
+        return !isDead();
+    }
+
+    public int getDeathTick() {
+        return state.deathTicks[slot];
+    }
+
+    public void setInvulnerable(boolean invulnerable) {
+        setFlag(PartyState.FLAG_INVULNERABLE, invulnerable);
     }
 
     public void setDead(int tick) {
-        if (!invulnerable) {
-            this.dead = true;
-            this.deathTick = tick;
+        if (!hasFlag(PartyState.FLAG_INVULNERABLE)) {
+            setFlag(PartyState.FLAG_DEAD, true);
+            state.deathTicks[slot] = tick;
         }
     }
 
     public void setAlive() {
-        this.dead = false;
-        this.deathTick = -1;
+        setFlag(PartyState.FLAG_DEAD, false);
+        state.deathTicks[slot] = -1;
+    }
+
+    public int getAnimationId() {
+        return state.animationIds[slot];
+    }
+
+    public int getAnimationTick() {
+        return state.animationTicks[slot];
+    }
+
+    public int getOffCooldownTick() {
+        return state.offCooldownTicks[slot];
     }
 
     public boolean isOffCooldownOn(int tick) {
-        return offCooldownTick <= tick;
+        return state.offCooldownTicks[slot] <= tick;
     }
 
     /**
@@ -152,18 +208,17 @@ public class Raider {
     public void resetForNewRoom() {
         lastUpdateTick = Integer.MIN_VALUE;
         snapshot = true;
-        dead = false;
-        deathTick = -1;
-        invulnerable = false;
+        setFlag(PartyState.FLAG_DEAD | PartyState.FLAG_INVULNERABLE, false);
+        state.deathTicks[slot] = -1;
         blowpiping = BlowpipeState.NOT_PIPING;
-        equipment = new Item[EquipmentSlot.values().length];
+        clearEquipment();
         // Don't reset pending equipment as it challenge-level.
         equipmentChangesThisTick.clear();
-        animationId = -1;
-        animationTick = 0;
+        state.animationIds[slot] = -1;
+        state.animationTicks[slot] = 0;
         graphicsIds.clear();
         lastAttack = null;
-        offCooldownTick = 0;
+        state.offCooldownTicks[slot] = 0;
         activeSpells.clear();
         activeStall = null;
         overheadPrayer = null;
@@ -206,7 +261,7 @@ public class Raider {
         return actor instanceof NPC ? Optional.of((NPC) actor) : Optional.empty();
     }
 
-    public void updateState(Client client, Player player, int tick) {
+    public void updateState(Client client, Player player, int tick, CaptureProfile captureProfile) {
         this.player = player;
 
         if (blowpiping == BlowpipeState.STOPPED_PIPING) {
@@ -220,7 +275,7 @@ public class Raider {
             graphicsIds.put(spotAnim.getId(), spotAnim);
         }
 
-        updateEquipment(client, tick);
+        updateEquipment(client, tick, captureProfile);
 
         Item newWeapon = equipment[EquipmentSlot.WEAPON.ordinal()];
 
@@ -236,7 +291,7 @@ public class Raider {
 
             if (isContinuing) {
                 blowpiping = BlowpipeState.PIPING;
-            } else if (animationTick != tick) {
+            } else if (getAnimationTick() != tick) {
                 blowpiping = BlowpipeState.STOPPED_PIPING;
             }
         }
@@ -247,7 +302,7 @@ public class Raider {
     public void recordAttack(int tick, @NonNull AttackDefinition attack, boolean ignoreCooldown) {
         lastAttack = attack;
         if (!ignoreCooldown) {
-            offCooldownTick = tick + attack.getCooldown();
+            state.offCooldownTicks[slot] = tick + attack.getCooldown();
         }
 
         if (attack.isContinuousAnimation()) {
@@ -272,7 +327,8 @@ public class Raider {
      */
     public @Nullable SpellDefinition tryRecordSpell(
             int tick, @NonNull SpellDefinition spell, @Nullable Integer matchedGraphicId) {
-        boolean viaAnimation = matchedGraphicId == null && spell.hasAnimation(animationId) && animationTick == tick;
+        boolean viaAnimation =
+                matchedGraphicId == null && spell.hasAnimation(getAnimationId()) && getAnimationTick() == tick;
 
         // A new animation is a reliable indicator for a new spell, so ignore the graphic cooldown.
         if (!viaAnimation) {
@@ -298,8 +354,8 @@ public class Raider {
 
         if (spell.isStall()) {
             activeStall = Pair.of(tick, spell);
-            animationId = -1;
-            animationTick = tick;
+            state.animationIds[slot] = -1;
+            state.animationTicks[slot] = tick;
         }
 
         activeSpells.put(spell.getId(), tick + spell.getCooldown(matchedGraphicId));
@@ -307,9 +363,16 @@ public class Raider {
         return spell;
     }
 
+    /**
+     * Returns the number of spells whose repeat interval is currently tracked.
+     */
+    int activeSpellCount() {
+        return activeSpells.size();
+    }
+
     public void setAnimation(int tick, int animationId, boolean isContinuousAnimation) {
-        animationTick = tick;
-        this.animationId = animationId;
+        state.animationTicks[slot] = tick;
+        state.animationIds[slot] = animationId;
 
         if (isContinuousAnimation) {
             blowpiping = BlowpipeState.PIPING;
@@ -318,41 +381,63 @@ public class Raider {
         }
     }
 
-    public void snapshotEquipmentChanges(Client client, PlayerComposition composition) {
-        pendingEquipment = snapshotFromComposition(client, composition);
+    /**
+     * Records the visible equipment from a player's updated composition, to be applied on the next update.
+     */
+    public void snapshotEquipmentChanges(PlayerComposition composition) {
+        readVisibleItemIds(composition, pendingVisibleItemIds);
+        hasPendingVisibleItems = true;
     }
 
-    private Item[] snapshotFromComposition(Client client, PlayerComposition composition) {
-        Item[] gearSnapshot = new Item[EquipmentSlot.values().length];
-        Arrays.stream(EquipmentSlot.values())
-                .filter(slot -> slot.getKitType() != null)
-                .forEach(slot -> {
-                    int id = composition.getEquipmentId(slot.getKitType());
-                    if (id != -1) {
-                        var comp = client.getItemDefinition(id);
-                        gearSnapshot[slot.ordinal()] = new Item(comp.getId(), 1);
-                    } else {
-                        gearSnapshot[slot.ordinal()] = null;
-                    }
-                });
-        return gearSnapshot;
+    private static void readVisibleItemIds(PlayerComposition composition, int[] itemIds) {
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            KitType kitType = slot.getKitType();
+            itemIds[slot.ordinal()] = kitType != null ? composition.getEquipmentId(kitType) : NO_ITEM;
+        }
     }
 
-    private void updateEquipment(Client client, int tick) {
+    private static long packItem(int id, int quantity) {
+        return ((long) id << 32) | (quantity & 0xFFFFFFFFL);
+    }
+
+    private static int packedId(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int packedQuantity(long packed) {
+        return (int) packed;
+    }
+
+    private void clearEquipment() {
+        Arrays.fill(equipment, null);
+        Arrays.fill(packedEquipment, EMPTY_SLOT);
+        Arrays.fill(visibleItemIds, NO_ITEM);
+    }
+
+    private boolean isEquipmentEmpty() {
+        for (Item item : equipment) {
+            if (item != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateEquipment(Client client, int tick, CaptureProfile captureProfile) {
         equipmentChangesThisTick.clear();
 
         snapshot = lastUpdateTick != tick - 1;
         if (snapshot) {
-            equipment = new Item[EquipmentSlot.values().length];
+            clearEquipment();
         }
 
         if (localPlayer) {
             updateEquipmentFromLocalPlayer(client);
-        } else {
+        } else if (captureProfile.infersEquipment()) {
             updateEquipmentFromVisibleItems(client);
         }
 
-        pendingEquipment = null;
+        hasPendingVisibleItems = false;
     }
 
     private void updateEquipmentFromLocalPlayer(Client client) {
@@ -362,76 +447,93 @@ public class Raider {
             return;
         }
 
-        for (EquipmentSlot slot : EquipmentSlot.values()) {
-            net.runelite.api.Item item;
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            final int index = slot.ordinal();
 
             if (slot == EquipmentSlot.QUIVER) {
-                if (!hasQuiver(client)) {
-                    continue;
-                }
+                // Quiver ammo is only read while a quiver is available; otherwise, the slot is left as it was.
                 final int quiverAmmoId = client.getVarpValue(VarPlayer.DIZANAS_QUIVER_ITEM_ID);
-                if (quiverAmmoId <= 0) {
-                    continue;
+                if (quiverAmmoId > 0 && hasQuiver(client)) {
+                    packedScratch[index] =
+                            packItem(quiverAmmoId, client.getVarpValue(VarPlayer.DIZANAS_QUIVER_ITEM_COUNT));
+                } else {
+                    packedScratch[index] = packedEquipment[index];
                 }
-                item = new net.runelite.api.Item(
-                        quiverAmmoId, client.getVarpValue(VarPlayer.DIZANAS_QUIVER_ITEM_COUNT));
             } else {
-                item = equippedItems.getItem(slot.getInventorySlotIndex());
+                net.runelite.api.Item item = equippedItems.getItem(slot.getInventorySlotIndex());
+                packedScratch[index] = item != null ? packItem(item.getId(), item.getQuantity()) : EMPTY_SLOT;
             }
+        }
 
-            Item previous = this.equipment[slot.ordinal()];
+        if (Arrays.equals(packedScratch, packedEquipment)) {
+            return;
+        }
 
-            if (item != null) {
-                if (previous == null || previous.getId() != item.getId()) {
-                    equipmentChangesThisTick.add(new ItemDelta(item.getId(), item.getQuantity(), slot.ordinal(), true));
+        for (int slot = 0; slot < EQUIPMENT_SLOTS.length; slot++) {
+            long current = packedScratch[slot];
+            long previous = packedEquipment[slot];
+            if (current == previous) {
+                continue;
+            }
+
+            if (current != EMPTY_SLOT) {
+                int id = packedId(current);
+                int quantity = packedQuantity(current);
+                if (previous == EMPTY_SLOT || packedId(previous) != id) {
+                    equipmentChangesThisTick.add(new ItemDelta(id, quantity, slot, true));
                 } else {
-                    int delta = item.getQuantity() - previous.getQuantity();
-                    if (delta != 0) {
-                        equipmentChangesThisTick.add(
-                                new ItemDelta(item.getId(), Math.abs(delta), slot.ordinal(), delta > 0));
-                    }
+                    int delta = quantity - packedQuantity(previous);
+                    equipmentChangesThisTick.add(new ItemDelta(id, Math.abs(delta), slot, delta > 0));
                 }
-                equipment[slot.ordinal()] = new Item(item.getId(), item.getQuantity());
-            } else if (previous != null) {
+                equipment[slot] = new Item(id, quantity);
+            } else {
                 equipmentChangesThisTick.add(
-                        new ItemDelta(previous.getId(), previous.getQuantity(), slot.ordinal(), false));
-                equipment[slot.ordinal()] = null;
+                        new ItemDelta(packedId(previous), packedQuantity(previous), slot, false));
+                equipment[slot] = null;
             }
+
+            packedEquipment[slot] = current;
         }
     }
 
     private void updateEquipmentFromVisibleItems(Client client) {
-        Item[] items;
-        if (pendingEquipment != null) {
-            items = pendingEquipment;
-        } else {
+        if (!hasPendingVisibleItems) {
             // Fall back to reading the composition iff no equipment events
             // have been received and the current equipment is uninitialized.
-            if (Arrays.stream(equipment).allMatch(Objects::isNull)) {
-                items = snapshotFromComposition(
-                        client, Objects.requireNonNull(player).getPlayerComposition());
-            } else {
+            if (!isEquipmentEmpty()) {
                 return;
             }
+            readVisibleItemIds(Objects.requireNonNull(player).getPlayerComposition(), pendingVisibleItemIds);
         }
 
-        Arrays.stream(EquipmentSlot.values())
-                .filter(slot -> slot.getKitType() != null)
-                .forEach(slot -> {
-                    Item previous = equipment[slot.ordinal()];
-                    Item current = items[slot.ordinal()];
-
-                    if (current != null) {
-                        if (previous == null || previous.getId() != current.getId()) {
-                            equipmentChangesThisTick.add(new ItemDelta(current.getId(), 1, slot.ordinal(), true));
-                            equipment[slot.ordinal()] = current;
-                        }
-                    } else if (previous != null) {
-                        equipmentChangesThisTick.add(
-                                new ItemDelta(previous.getId(), previous.getQuantity(), slot.ordinal(), false));
-                        equipment[slot.ordinal()] = null;
-                    }
-                });
+        // The visible item IDs fingerprint the player's appearance. If they are unchanged, there is nothing to diff.
+        if (Arrays.equals(pendingVisibleItemIds, visibleItemIds)) {
+            return;
+        }
+
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            final int index = slot.ordinal();
+            final int visibleId = pendingVisibleItemIds[index];
+            if (slot.getKitType() == null || visibleId == visibleItemIds[index]) {
+                continue;
+            }
+            visibleItemIds[index] = visibleId;
+
+            Item previous = equipment[index];
+            if (visibleId != NO_ITEM) {
+                int id = client.getItemDefinition(visibleId).getId();
+                if (previous == null || previous.getId() != id) {
+                    equipmentChangesThisTick.add(new ItemDelta(id, 1, index, true));
+                    equipment[index] = new Item(id, 1);
+                    packedEquipment[index] = packItem(id, 1);
+                }
+            } else if (previous != null) {
+                equipmentChangesThisTick.add(
+                        new ItemDelta(previous.getId(), previous.getQuantity(), index, false));
+                equipment[index] = null;
+                packedEquipment[index] = EMPTY_SLOT;
+            }
+        }
     }
 
     private void clearActiveStall() {
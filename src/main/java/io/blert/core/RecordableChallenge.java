@@ -24,6 +24,7 @@
 package io.blert.core;
 
 import io.blert.events.*;
+import io.blert.util.TickScheduler;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import javax.annotation.Nullable;
@@ -32,6 +33,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.Player;
 import net.runelite.api.coords.WorldPoint;
@@ -41,6 +43,11 @@ import net.runelite.client.util.Text;
 
 @Slf4j
 public abstract class RecordableChallenge implements RuneliteEventHandler {
+    /**
+     * Rows per event type retained in the timeline of a long-session challenge once a stage completes.
+     */
+    private static final int LONG_SESSION_TIMELINE_ROWS = ChallengeTimeline.MAX_ROWS / 2;
+
     @Getter
     private final Challenge challenge;
 
@@ -58,6 +65,29 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     @Getter
     private SpellRegistry spellRegistry;
 
+    @Getter
+    private CaptureProfile captureProfile = CaptureProfile.FULL;
+
+    private @Nullable CheckpointStore checkpointStore = null;
+
+    /**
+     * Tracks time spent by data trackers each tick, shared across stages.
+     */
+    @Getter
+    private final TickWatchdog watchdog = new TickWatchdog();
+
+    /**
+     * Runs challenge-level tasks around {@link #onTick()}, keyed by the client's tick count.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final TickScheduler scheduler;
+
+    /**
+     * Challenge-level chat rules. Messages are classified against these before being passed to the active tracker.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    private final ChatClassifier chatClassifier = new ChatClassifier();
+
     private final List<EventHandler> eventHandlers = new ArrayList<>();
     List<Event> pendingEvents = new ArrayList<>();
 
@@ -87,13 +117,21 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     /**
      * Players in the challenge party.
      */
-    private final Map<String, Raider> party = new LinkedHashMap<>();
+    @Getter
+    private final PartyState partyState = new PartyState();
+
+    /**
+     * Queryable record of the actions taken during the current challenge.
+     */
+    @Getter
+    private final ChallengeTimeline timeline = new ChallengeTimeline(partyState);
 
     protected RecordableChallenge(Challenge challenge, Client client, ClientThread clientThread) {
         this.challenge = challenge;
         this.challengeMode = ChallengeMode.NO_MODE;
         this.client = client;
         this.clientThread = clientThread;
+        this.scheduler = new TickScheduler(client::getTickCount);
     }
 
     /**
@@ -126,23 +164,27 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     }
 
     public int getScale() {
-        return inChallenge() ? party.size() : 0;
+        return inChallenge() ? partyState.size() : 0;
     }
 
     public int getLivingRaiderCount() {
-        return (int) party.values().stream().filter(Raider::isAlive).count();
+        return partyState.livingCount();
     }
 
     public Collection<Raider> getParty() {
-        return party.values();
+        return partyState.members();
     }
 
     public boolean playerIsInChallenge(@Nullable String username) {
-        return username != null && party.containsKey(Text.standardize(username));
+        return partyState.getRaider(username) != null;
     }
 
     public @Nullable Raider getRaider(@Nullable String username) {
-        return username != null ? party.get(Text.standardize(username)) : null;
+        return partyState.getRaider(username);
+    }
+
+    public @Nullable Raider getRaider(Player player) {
+        return partyState.getRaider(player);
     }
 
     /**
@@ -188,16 +230,64 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     }
 
     protected void addRaider(Raider raider) {
-        party.put(Text.standardize(raider.getUsername()), raider);
+        if (!partyState.add(raider)) {
+            log.warn("Unable to add {} to party of {}", raider.getUsername(), partyState.size());
+        }
+    }
+
+    /**
+     * Releases state retained from completed stages of a long-session challenge. Called as the challenge advances to
+     * its next stage, after the previous stage's tracker has been terminated.
+     */
+    protected void compactSession() {
+        if (!challenge.isLongSession()) {
+            return;
+        }
+
+        timeline.compact(LONG_SESSION_TIMELINE_ROWS);
+    }
+
+    /**
+     * Checkpoints the challenge at the start of a stage so that recording can resume from it after a restart.
+     *
+     * @param stage          The stage being started.
+     * @param challengeTicks Challenge ticks recorded prior to the stage.
+     */
+    protected void saveCheckpoint(Stage stage, int challengeTicks) {
+        if (checkpointStore != null) {
+            checkpointStore.save(challenge, stage, partyState.usernames(), challengeTicks);
+        }
+    }
+
+    /**
+     * Returns a checkpoint left by an interrupted session of this challenge with the current party, if any.
+     */
+    protected @Nullable ChallengeCheckpoint takeCheckpoint() {
+        return checkpointStore != null ? checkpointStore.take(challenge, partyState.usernames()) : null;
+    }
+
+    protected void clearCheckpoint() {
+        if (checkpointStore != null) {
+            checkpointStore.clear();
+        }
     }
 
     protected void resetParty() {
-        party.clear();
+        partyState.clear();
     }
 
-    public void initialize(EventHandler handler, AttackRegistry attackRegistry, SpellRegistry spellRegistry) {
+    public void initialize(
+            EventHandler handler,
+            AttackRegistry attackRegistry,
+            SpellRegistry spellRegistry,
+            CaptureProfile captureProfile,
+            int tickBudgetMillis,
+            @Nullable CheckpointStore checkpointStore) {
         this.attackRegistry = attackRegistry;
         this.spellRegistry = spellRegistry;
+        this.captureProfile = captureProfile;
+        this.checkpointStore = checkpointStore;
+        watchdog.setBudgetMillis(tickBudgetMillis);
         onInitialize();
         addEventHandler(handler);
     }
@@ -209,10 +299,13 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
         }
 
         onTerminate();
+        scheduler.clear();
+        watchdog.reset();
 
         state = ChallengeState.INACTIVE;
         eventHandlers.clear();
-        party.clear();
+        partyState.clear();
+        timeline.clear();
     }
 
     public void addEventHandler(EventHandler handler) {
@@ -224,7 +317,9 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     }
 
     public void tick() {
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
         onTick();
+        scheduler.run(TickScheduler.Priority.AFTER_TICK);
     }
 
     public boolean inChallenge() {
@@ -253,6 +348,11 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
             }
         }
 
+        if (event.getType() == EventType.CHALLENGE_START) {
+            timeline.clear();
+        }
+        timeline.record(event);
+
         for (EventHandler eventHandler : eventHandlers) {
             eventHandler.handleEvent(client.getTickCount(), event);
         }
@@ -268,7 +368,7 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
     }
 
     private Status currentStatus() {
-        return new Status(challenge, challengeMode, getStage(), new ArrayList<>(party.keySet()));
+        return new Status(challenge, challengeMode, getStage(), partyState.usernames());
     }
 
     /**
@@ -314,9 +414,9 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
         // Bypass the data tracker for equipment snapshots to catch changes
         // occurring between stages.
         Player player = event.getPlayer();
-        Raider raider = getRaider(player.getName());
-        if (raider != null) {
-            raider.snapshotEquipmentChanges(client, player.getPlayerComposition());
+        Raider raider = getRaider(player);
+        if (raider != null && (raider.isLocalPlayer() || captureProfile.infersEquipment())) {
+            raider.snapshotEquipmentChanges(player.getPlayerComposition());
         }
 
         DataTracker tracker = getActiveTracker();
@@ -343,9 +443,17 @@ public abstract class RecordableChallenge implements RuneliteEventHandler {
 
     @Override
     public void onChatMessage(ChatMessage event) {
+        ChatMessageType type = event.getType();
+        if (!ChatClassifier.isGameMessage(type)) {
+            return;
+        }
+
+        String message = Text.removeTags(event.getMessage());
+        chatClassifier.classify(type, message);
+
         DataTracker tracker = getActiveTracker();
         if (tracker != null) {
-            tracker.onChatMessage(event);
+            tracker.onChatMessage(type, message);
         }
     }
 
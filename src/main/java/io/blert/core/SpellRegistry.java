@@ -26,9 +26,13 @@ package io.blert.core;
 import com.google.gson.Gson;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import javax.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Setter;
@@ -40,6 +44,7 @@ public class SpellRegistry {
 
     @AllArgsConstructor
     private static class State {
+        private final Map<Integer, SpellDefinition> byId;
         private final Map<Integer, SpellDefinition> byAnimationId;
         private final Map<Integer, SpellDefinition> byGraphicId;
         private final Map<Integer, List<SpellDefinition>> targetedByAnimationId;
@@ -48,25 +53,81 @@ public class SpellRegistry {
     @Setter
     private Gson gson;
 
-    private volatile State state = new State(Map.of(), Map.of(), Map.of());
+    private volatile State state = new State(Map.of(), Map.of(), Map.of(), Map.of());
+
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /**
+     * Whether definitions have been received from the server, which supersede the bundled defaults.
+     */
+    private boolean populatedFromServer = false;
+
+    /**
+     * Loads default spell definitions on the given executor.
+     *
+     * @param executor Executor on which to load the definitions.
+     * @return Future which completes once the registry is ready.
+     */
+    public CompletableFuture<Void> loadDefaultsAsync(Executor executor) {
+        executor.execute(this::loadDefaults);
+        return ready;
+    }
 
     /**
-     * Loads default spell definitions from the bundled JSON resource.
+     * Loads default spell definitions from the precompiled definition index, or from the bundled JSON resource if the
+     * index is not present.
      */
     public void loadDefaults() {
-        InputStream stream = getClass().getResourceAsStream(BUNDLED_SPELLS_RESOURCE);
-        if (stream == null) {
-            log.warn("Bundled spells.json not found; initializing empty spell registry");
-            return;
+        try (InputStream index = getClass().getResourceAsStream(DefinitionIndex.RESOURCE)) {
+            if (index != null) {
+                List<SpellDefinition> loaded = DefinitionIndex.readSpells(index);
+                applyDefaults(loaded);
+                log.info("Loaded {} bundled spell definitions from index", loaded.size());
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read definition index; falling back to spells.json", e);
         }
 
-        try {
+        try (InputStream stream = getClass().getResourceAsStream(BUNDLED_SPELLS_RESOURCE)) {
+            if (stream == null) {
+                log.warn("Bundled spells.json not found; initializing empty spell registry");
+                return;
+            }
+
             List<SpellDefinition> loaded = SpellDefinition.loadFromJson(gson, stream);
-            updateDefinitions(loaded);
+            applyDefaults(loaded);
             log.info("Loaded {} bundled spell definitions", loaded.size());
         } catch (Exception e) {
             log.error("Failed to load bundled spell definitions", e);
+        } finally {
+            ready.complete(null);
+        }
+    }
+
+    /**
+     * Installs the bundled definitions, unless definitions from the server have already been applied. Loading the
+     * defaults can finish after the server's definitions arrive, which must not be replaced by older ones.
+     */
+    private synchronized void applyDefaults(List<SpellDefinition> definitions) {
+        if (populatedFromServer) {
+            log.debug("Spell registry was populated from the server; skipping bundled definitions");
+            ready.complete(null);
+            return;
         }
+        updateDefinitions(definitions);
+    }
+
+    /**
+     * Returns a future which completes once the registry has been populated, either from the bundled defaults or from
+     * the server. Until then, no spells are found.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
     }
 
     /**
@@ -75,20 +136,41 @@ public class SpellRegistry {
      *
      * @param definitions The new definitions.
      */
-    public void updateFromServer(List<SpellDefinition> definitions) {
+    public synchronized void updateFromServer(List<SpellDefinition> definitions) {
+        populatedFromServer = true;
         updateDefinitions(definitions);
         log.info("Updated spell registry with {} definitions from server", definitions.size());
     }
 
+    /**
+     * Applies a partial update from the server on top of the current definitions.
+     *
+     * @param changed    Definitions which were added or changed, replacing any with the same ID.
+     * @param removedIds IDs of definitions which were removed.
+     */
+    public synchronized void applyUpdate(List<SpellDefinition> changed, Collection<Integer> removedIds) {
+        populatedFromServer = true;
+        Map<Integer, SpellDefinition> merged = new LinkedHashMap<>(state.byId);
+        removedIds.forEach(merged::remove);
+        changed.forEach(spell -> merged.put(spell.getId(), spell));
+        updateDefinitions(new ArrayList<>(merged.values()));
+        log.info(
+                "Updated spell registry with {} changed and {} removed definitions from server",
+                changed.size(),
+                removedIds.size());
+    }
+
     /**
      * Replaces all spell definitions with the provided list.
      */
     public void updateDefinitions(List<SpellDefinition> newDefinitions) {
+        Map<Integer, SpellDefinition> newById = new LinkedHashMap<>();
         Map<Integer, SpellDefinition> newByAnimation = new HashMap<>();
         Map<Integer, SpellDefinition> newByGraphic = new HashMap<>();
         Map<Integer, List<SpellDefinition>> newTargetedByAnimation = new HashMap<>();
 
         for (SpellDefinition spell : newDefinitions) {
+            newById.put(spell.getId(), spell);
             for (int animId : spell.getAnimationIds()) {
                 if (spell.isTargeted()) {
                     newTargetedByAnimation
@@ -103,7 +185,8 @@ public class SpellRegistry {
             }
         }
 
-        this.state = new State(newByAnimation, newByGraphic, newTargetedByAnimation);
+        this.state = new State(newById, newByAnimation, newByGraphic, newTargetedByAnimation);
+        ready.complete(null);
     }
 
     /**
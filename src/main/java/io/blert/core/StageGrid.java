@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.coords.LocalPoint;
+
+/**
+ * A map of tiles to values over a fixed rectangular area, backed by a flat array.
+ * <p>
+ * Tile lookups, insertions and removals index directly into the array rather than hashing a point or object, making
+ * the grid suitable for room objects which spawn and despawn in bulk. An occupancy bitset allows iterating over only
+ * the occupied tiles. Each tile holds at most one value.
+ * <p>
+ * Most trackers key grids by scene coordinates via {@link #forScene(int, int)}. As a room's location in the scene
+ * depends on its instance, such a grid is positioned around the first tile placed on it, and is sized so that it holds
+ * every other tile of an arena of the given size containing that tile.
+ * <p>
+ * Tiles outside the grid are ignored by every operation.
+ *
+ * @param <T> Type of value stored on each tile.
+ */
+@Slf4j
+public class StageGrid<T> {
+    @FunctionalInterface
+    public interface TileConsumer<T> {
+        void accept(int x, int y, T value);
+    }
+
+    @Getter
+    private int baseX;
+
+    @Getter
+    private int baseY;
+
+    @Getter
+    private final int width;
+
+    @Getter
+    private final int height;
+
+    /**
+     * Whether the grid is repositioned around the first tile placed on it while empty.
+     */
+    private final boolean floating;
+
+    private @Nullable Object[] tiles;
+    private final long[] occupied;
+    private int size;
+
+    /**
+     * Creates a grid keyed by scene coordinates which holds every tile of an arena of the given size, wherever the
+     * arena lies in the scene. The grid is centred on the first tile placed on it while empty, so it spans twice the
+     * arena's size less one tile in each dimension.
+     *
+     * @param arenaWidth  Width of the arena, in tiles.
+     * @param arenaHeight Height of the arena, in tiles.
+     */
+    public static <T> StageGrid<T> forScene(int arenaWidth, int arenaHeight) {
+        return new StageGrid<>(0, 0, 2 * arenaWidth - 1, 2 * arenaHeight - 1, true);
+    }
+
+    /**
+     * Creates a grid covering the given area.
+     *
+     * @param baseX  X coordinate of the southwest tile.
+     * @param baseY  Y coordinate of the southwest tile.
+     * @param width  Width of the area, in tiles.
+     * @param height Height of the area, in tiles.
+     */
+    public StageGrid(int baseX, int baseY, int width, int height) {
+        this(baseX, baseY, width, height, false);
+    }
+
+    private StageGrid(int baseX, int baseY, int width, int height, boolean floating) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid grid size: " + width + "x" + height);
+        }
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.width = width;
+        this.height = height;
+        this.floating = floating;
+        this.occupied = new long[(width * height + Long.SIZE - 1) / Long.SIZE];
+        this.size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether the given tile lies within the grid.
+     */
+    public boolean contains(int x, int y) {
+        int dx = x - baseX;
+        int dy = y - baseY;
+        return dx >= 0 && dy >= 0 && dx < width && dy < height;
+    }
+
+    /**
+     * Returns the value on a tile, or {@code null} if the tile is empty or outside the grid.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T get(int x, int y) {
+        if (tiles == null || !contains(x, y)) {
+            return null;
+        }
+        return (T) tiles[index(x, y)];
+    }
+
+    /**
+     * Returns the value on the scene tile containing {@code point}. Only meaningful for {@link #forScene(int, int)}
+     * grids.
+     */
+    public @Nullable T get(@Nullable LocalPoint point) {
+        return point != null ? get(point.getSceneX(), point.getSceneY()) : null;
+    }
+
+    /**
+     * Places a value on a tile, replacing any existing value. Tiles outside the grid are ignored.
+     *
+     * @return The previous value on the tile, or {@code null} if it was empty or outside the grid.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T put(int x, int y, @NonNull T value) {
+        if (floating && size == 0) {
+            baseX = x - (width - 1) / 2;
+            baseY = y - (height - 1) / 2;
+        }
+        if (!contains(x, y)) {
+            log.debug("Ignoring tile ({}, {}) outside the grid at ({}, {})", x, y, baseX, baseY);
+            return null;
+        }
+        if (tiles == null) {
+            // Allocated on first use, as many trackers never see the objects they track.
+            tiles = new Object[width * height];
+        }
+
+        int index = index(x, y);
+        T previous = (T) tiles[index];
+        tiles[index] = value;
+        if (previous == null) {
+            occupied[index / Long.SIZE] |= 1L << index;
+            size++;
+        }
+        return previous;
+    }
+
+    /**
+     * Places a value on the scene tile containing {@code point}. Only meaningful for {@link #forScene(int, int)} grids.
+     */
+    public @Nullable T put(@NonNull LocalPoint point, @NonNull T value) {
+        return put(point.getSceneX(), point.getSceneY(), value);
+    }
+
+    /**
+     * Clears a tile. Tiles outside the grid are ignored.
+     *
+     * @return The value which was on the tile, or {@code null} if it was empty or outside the grid.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T remove(int x, int y) {
+        if (!contains(x, y)) {
+            log.debug("Ignoring tile ({}, {}) outside the grid at ({}, {})", x, y, baseX, baseY);
+            return null;
+        }
+        if (tiles == null) {
+            return null;
+        }
+
+        int index = index(x, y);
+        T previous = (T) tiles[index];
+        if (previous != null) {
+            tiles[index] = null;
+            occupied[index / Long.SIZE] &= ~(1L << index);
+            size--;
+        }
+        return previous;
+    }
+
+    /**
+     * Clears a tile only if it holds {@code value}.
+     *
+     * @return True if the value was removed.
+     */
+    public boolean remove(int x, int y, T value) {
+        if (value == null || !Objects.equals(get(x, y), value)) {
+            return false;
+        }
+        remove(x, y);
+        return true;
+    }
+
+    /**
+     * Clears the scene tile containing {@code point}. Only meaningful for {@link #forScene(int, int)} grids.
+     */
+    public @Nullable T remove(@Nullable LocalPoint point) {
+        return point != null ? remove(point.getSceneX(), point.getSceneY()) : null;
+    }
+
+    /**
+     * Clears the scene tile containing {@code point} only if it holds {@code value}. Only meaningful for
+     * {@link #forScene(int, int)} grids.
+     *
+     * @return True if the value was removed.
+     */
+    public boolean remove(@Nullable LocalPoint point, T value) {
+        return point != null && remove(point.getSceneX(), point.getSceneY(), value);
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(tiles, null);
+        Arrays.fill(occupied, 0);
+        size = 0;
+    }
+
+    /**
+     * Invokes {@code consumer} with each occupied tile and its value, in row-major order from the southwest corner.
+     * The grid must not be modified during iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachTile(TileConsumer<? super T> consumer) {
+        for (int word = 0; word < occupied.length && tiles != null; word++) {
+            long bits = occupied[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                consumer.accept(baseX + index % width, baseY + index / width, (T) tiles[index]);
+            }
+        }
+    }
+
+    /**
+     * Invokes {@code consumer} with the value on each occupied tile. The grid must not be modified during iteration.
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        forEachTile((x, y, value) -> consumer.accept(value));
+    }
+
+    /**
+     * Returns the first value, in iteration order, matching {@code predicate}.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable T find(Predicate<? super T> predicate) {
+        for (int word = 0; word < occupied.length && tiles != null; word++) {
+            long bits = occupied[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                T value = (T) tiles[index];
+                if (predicate.test(value)) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int index(int x, int y) {
+        return (y - baseY) * width + (x - baseX);
+    }
+}
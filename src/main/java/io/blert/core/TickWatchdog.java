@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import lombok.Getter;
+
+/**
+ * Measures the time trackers spend on the client thread each tick against a budget, and sheds optional tracking work
+ * when it is consistently exceeded.
+ * <p>
+ * Work is shed one {@link Level} at a time, in declaration order, after {@link #ESCALATE_AFTER_TICKS} consecutive
+ * ticks over budget. Levels are restored one at a time once tick times stay under half the budget for
+ * {@link #RECOVER_AFTER_TICKS} consecutive ticks. Each level includes all the degradations before it.
+ */
+public class TickWatchdog {
+    public enum Level {
+        /**
+         * All tracking is performed.
+         */
+        NONE(0),
+
+        /**
+         * Spell detection is skipped for players other than the local player.
+         */
+        SKIP_SECONDARY_SPELLS(1),
+
+        /**
+         * NPC updates are only sent when an NPC spawns, its properties change, or on a fixed interval.
+         */
+        COALESCE_NPC_UPDATES(2),
+
+        /**
+         * Optional area effect events are no longer collected.
+         */
+        DROP_AREA_EFFECTS(3),
+        ;
+
+        @Getter
+        private final int id;
+
+        Level(int id) {
+            this.id = id;
+        }
+    }
+
+    static final int ESCALATE_AFTER_TICKS = 3;
+    static final int RECOVER_AFTER_TICKS = 25;
+
+    private static final Level[] LEVELS = Level.values();
+
+    private long budgetNanos = 0;
+
+    @Getter
+    private Level level = Level.NONE;
+
+    private int overBudgetTicks = 0;
+    private int underBudgetTicks = 0;
+
+    /**
+     * Sets the per-tick budget. A budget of zero disables the watchdog.
+     *
+     * @param budgetMillis Time in milliseconds trackers may spend on a single tick.
+     */
+    public void setBudgetMillis(int budgetMillis) {
+        this.budgetNanos = Math.max(budgetMillis, 0) * 1_000_000L;
+        if (budgetNanos == 0) {
+            reset();
+        }
+    }
+
+    /**
+     * Records the time spent on a tick, adjusting the degradation level if necessary.
+     *
+     * @param elapsedNanos Time spent processing the tick.
+     * @return True if the degradation level changed.
+     */
+    public boolean record(long elapsedNanos) {
+        if (budgetNanos == 0) {
+            return false;
+        }
+
+        if (elapsedNanos > budgetNanos) {
+            underBudgetTicks = 0;
+            if (++overBudgetTicks >= ESCALATE_AFTER_TICKS && level.ordinal() < LEVELS.length - 1) {
+                overBudgetTicks = 0;
+                level = LEVELS[level.ordinal() + 1];
+                return true;
+            }
+        } else {
+            overBudgetTicks = 0;
+            if (elapsedNanos < budgetNanos / 2) {
+                if (++underBudgetTicks >= RECOVER_AFTER_TICKS && level != Level.NONE) {
+                    underBudgetTicks = 0;
+                    level = LEVELS[level.ordinal() - 1];
+                    return true;
+                }
+            } else {
+                underBudgetTicks = 0;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isAtLeast(Level level) {
+        return this.level.compareTo(level) >= 0;
+    }
+
+    public void reset() {
+        level = Level.NONE;
+        overBudgetTicks = 0;
+        underBudgetTicks = 0;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.events;
+
+import io.blert.core.Stage;
+import io.blert.core.TickWatchdog;
+import lombok.Getter;
+
+/**
+ * Marks the tick from which tracking runs at a different {@link TickWatchdog.Level}, so that data recorded while
+ * degraded can be identified as partial.
+ */
+@Getter
+public class CaptureDegradationEvent extends Event {
+    private final TickWatchdog.Level level;
+
+    public CaptureDegradationEvent(Stage stage, int tick, TickWatchdog.Level level) {
+        super(EventType.CAPTURE_DEGRADATION, stage, tick, null);
+        this.level = level;
+    }
+
+    @Override
+    protected String eventDataString() {
+        return "level=" + level;
+    }
+}
@@ -23,6 +23,7 @@
 
 package io.blert.events;
 
+import io.blert.core.CaptureProfile;
 import io.blert.core.Challenge;
 import io.blert.core.ChallengeMode;
 import io.blert.core.Stage;
@@ -36,14 +37,38 @@ public class ChallengeStartEvent extends Event {
     private final ChallengeMode mode;
     private final List<String> party;
     private final boolean isSpectator;
+    private final CaptureProfile captureProfile;
+
+    /**
+     * ID of a previously recorded challenge which this one continues after the client was restarted, if any.
+     */
+    private final @Nullable String resumeChallengeId;
+
+    public ChallengeStartEvent(
+            Challenge challenge,
+            ChallengeMode mode,
+            @Nullable Stage stage,
+            List<String> party,
+            boolean isSpectator,
+            CaptureProfile captureProfile) {
+        this(challenge, mode, stage, party, isSpectator, captureProfile, null);
+    }
 
     public ChallengeStartEvent(
-            Challenge challenge, ChallengeMode mode, @Nullable Stage stage, List<String> party, boolean isSpectator) {
+            Challenge challenge,
+            ChallengeMode mode,
+            @Nullable Stage stage,
+            List<String> party,
+            boolean isSpectator,
+            CaptureProfile captureProfile,
+            @Nullable String resumeChallengeId) {
         super(EventType.CHALLENGE_START, stage, 0, null);
         this.challenge = challenge;
         this.mode = mode;
         this.party = party;
         this.isSpectator = isSpectator;
+        this.captureProfile = captureProfile;
+        this.resumeChallengeId = resumeChallengeId;
     }
 
     @Override
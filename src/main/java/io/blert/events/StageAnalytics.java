@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.events;
+
+import io.blert.core.PartyState;
+import io.blert.core.Stage;
+import io.blert.json.StageSummary;
+import java.util.*;
+import javax.annotation.Nullable;
+
+/**
+ * An event handler which incrementally aggregates per-player statistics for the current stage of a challenge:
+ * attacks by type, ticks spent off cooldown, spells cast, stalls and deaths.
+ * <p>
+ * Counters are primitive arrays indexed by party slot and by attack protocol ID or spell ID, so recording an event
+ * is a single increment. A summary is produced when a stage is completed or wiped, and remains available until the
+ * next challenge starts.
+ */
+public class StageAnalytics implements EventHandler {
+    private static final int INITIAL_ID_CAPACITY = 64;
+
+    private final String[] usernames = new String[PartyState.MAX_SIZE];
+    private int partySize = 0;
+
+    private final int[][] attacksByType = new int[PartyState.MAX_SIZE][INITIAL_ID_CAPACITY];
+    private final int[][] spellsById = new int[PartyState.MAX_SIZE][INITIAL_ID_CAPACITY];
+    private final int[] attacks = new int[PartyState.MAX_SIZE];
+    private final int[] ticksOffCooldown = new int[PartyState.MAX_SIZE];
+    private final int[] stalls = new int[PartyState.MAX_SIZE];
+    private final int[] deaths = new int[PartyState.MAX_SIZE];
+
+    private final Map<Stage, StageSummary> summaries = new EnumMap<>(Stage.class);
+
+    @Override
+    public synchronized void handleEvent(int clientTick, Event event) {
+        switch (event.getType()) {
+            case CHALLENGE_START:
+                summaries.clear();
+                setParty(((ChallengeStartEvent) event).getParty());
+                break;
+
+            case CHALLENGE_UPDATE: {
+                List<String> party = ((ChallengeUpdateEvent) event).getParty();
+                if (party != null) {
+                    setParty(party);
+                }
+                break;
+            }
+
+            case STAGE_UPDATE: {
+                StageUpdateEvent stageUpdate = (StageUpdateEvent) event;
+                switch (stageUpdate.getStatus()) {
+                    case STARTED:
+                        resetCounters();
+                        break;
+                    case COMPLETED:
+                    case WIPED:
+                        stageUpdate.getStage().ifPresent(stage -> summaries.put(stage, summarize(stage, event)));
+                        break;
+                    default:
+                        break;
+                }
+                break;
+            }
+
+            case PLAYER_UPDATE: {
+                PlayerUpdateEvent update = (PlayerUpdateEvent) event;
+                int slot = slotOf(update.getUsername());
+                if (slot != -1 && update.getOffCooldownTick() <= update.getTick()) {
+                    ticksOffCooldown[slot]++;
+                }
+                break;
+            }
+
+            case PLAYER_ATTACK: {
+                PlayerAttackEvent attack = (PlayerAttackEvent) event;
+                int slot = slotOf(attack.getUsername());
+                if (slot != -1) {
+                    attacks[slot]++;
+                    increment(attacksByType, slot, attack.getAttack().getProtoId());
+                }
+                break;
+            }
+
+            case PLAYER_SPELL: {
+                PlayerSpellEvent spell = (PlayerSpellEvent) event;
+                int slot = slotOf(spell.getUsername());
+                if (slot != -1) {
+                    increment(spellsById, slot, spell.getSpell().getId());
+                    if (spell.getSpell().isStall()) {
+                        stalls[slot]++;
+                    }
+                }
+                break;
+            }
+
+            case PLAYER_DEATH: {
+                int slot = slotOf(((PlayerDeathEvent) event).getUsername());
+                if (slot != -1) {
+                    deaths[slot]++;
+                }
+                break;
+            }
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns the summary of the most recent completion or wipe of a stage in the current challenge.
+     *
+     * @param stage The stage.
+     * @return The stage's summary, or null if it has not finished.
+     */
+    public synchronized @Nullable StageSummary getSummary(Stage stage) {
+        return summaries.get(stage);
+    }
+
+    private void setParty(List<String> party) {
+        partySize = Math.min(party.size(), usernames.length);
+        for (int i = 0; i < usernames.length; i++) {
+            usernames[i] = i < partySize ? party.get(i) : null;
+        }
+        resetCounters();
+    }
+
+    private int slotOf(String username) {
+        for (int slot = 0; slot < partySize; slot++) {
+            if (usernames[slot].equalsIgnoreCase(username)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private static void increment(int[][] counters, int slot, int id) {
+        if (id < 0) {
+            return;
+        }
+        if (id >= counters[slot].length) {
+            counters[slot] = Arrays.copyOf(counters[slot], Math.max(id + 1, counters[slot].length * 2));
+        }
+        counters[slot][id]++;
+    }
+
+    private void resetCounters() {
+        for (int slot = 0; slot < usernames.length; slot++) {
+            Arrays.fill(attacksByType[slot], 0);
+            Arrays.fill(spellsById[slot], 0);
+        }
+        Arrays.fill(attacks, 0);
+        Arrays.fill(ticksOffCooldown, 0);
+        Arrays.fill(stalls, 0);
+        Arrays.fill(deaths, 0);
+    }
+
+    private StageSummary summarize(Stage stage, Event event) {
+        StageSummary summary = new StageSummary();
+        summary.stage = stage.getId();
+        summary.ticks = event.getTick();
+        summary.players = new ArrayList<>(partySize);
+
+        for (int slot = 0; slot < partySize; slot++) {
+            StageSummary.Player player = new StageSummary.Player();
+            player.username = usernames[slot];
+            player.attacks = attacks[slot];
+            player.attacksByType = nonZeroCounts(attacksByType[slot]);
+            player.ticksOffCooldown = ticksOffCooldown[slot];
+            player.spells = nonZeroCounts(spellsById[slot]);
+            player.stalls = stalls[slot];
+            player.deaths = deaths[slot];
+            summary.players.add(player);
+        }
+
+        return summary;
+    }
+
+    private static Map<Integer, Integer> nonZeroCounts(int[] counters) {
+        Map<Integer, Integer> counts = new TreeMap<>();
+        for (int id = 0; id < counters.length; id++) {
+            if (counters[id] != 0) {
+                counts.put(id, counters[id]);
+            }
+        }
+        return counts;
+    }
+}
@@ -31,4 +31,17 @@ public class ChallengeStartRequest {
     public Integer stage;
     public List<String> party;
     public boolean spectator;
+    public int captureProfile;
+
+    /**
+     * Client-generated ID under which events are streamed before the server responds.
+     * The server binds it to the canonical challenge ID it returns.
+     */
+    public String provisionalChallengeId;
+
+    /**
+     * ID of a challenge interrupted by a client restart which this request continues from {@link #stage}. A server
+     * which cannot resume the challenge starts a new one from that stage instead.
+     */
+    public String resumeChallengeId;
 }
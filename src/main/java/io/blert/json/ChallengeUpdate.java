@@ -42,5 +42,6 @@ public class ChallengeUpdate {
         public int recordedTicks;
         public Integer gameServerTicks;
         public boolean gameTicksPrecise;
+        public StageSummary summary;
     }
 }
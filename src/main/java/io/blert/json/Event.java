@@ -43,6 +43,7 @@ public class Event {
     public Npc npc;
     public NpcAttack npcAttack;
     public Spell playerSpell;
+    public Integer captureDegradation;
 
     // ToB event-specific fields
     public List<Coords> maidenBloodSplats;
@@ -86,6 +87,8 @@ public class Event {
         public static final int DATA_SOURCE_SECONDARY = 1;
 
         public String name;
+        // Symbol table handle sent in place of the name once announced.
+        public Integer symbol;
         public int offCooldownTick;
         public Integer hitpoints;
         public Integer prayer;
@@ -107,8 +110,10 @@ public class Event {
     }
 
     public static class Npc {
-        public int id;
-        public long roomId;
+        // Omitted when the NPC is referenced by a symbol table handle.
+        public Integer id;
+        public Long roomId;
+        public Integer symbol;
         public Integer hitpoints;
         public Long activePrayers;
 
@@ -146,12 +151,14 @@ public class Event {
     public static class Spell {
         public int type;
         public String targetPlayer;
+        public Integer targetPlayerSymbol;
         public Npc targetNpc;
     }
 
     public static class NpcAttack {
         public int attack;
         public String target;
+        public Integer targetSymbol;
     }
 
     public static class BloatDown {
@@ -34,18 +34,35 @@ import lombok.extern.slf4j.Slf4j;
  * <p>
  * Events posted to `HandleEvent` are stored, without any output being produced.
  * Users must call a flush method to consume the events.
+ * <p>
+ * The buffer is unbounded by default. Long-session challenges can {@link #setBounded bound} it to
+ * {@link #MAX_BUFFERED_TICKS} ticks, after which the oldest unconsumed ticks are discarded. Stage and challenge updates
+ * never pass through the buffer, so bounding it cannot lose them.
  */
 @Slf4j
 public class EventBuffer implements EventHandler {
-    private final Map<Integer, List<Event>> eventsByTick = new HashMap<>();
-    private int earliestTickStored = 0;
+    public static final int MAX_BUFFERED_TICKS = 500;
+
+    private final NavigableMap<Integer, List<Event>> eventsByTick = new TreeMap<>();
+    private boolean bounded = false;
+    private int droppedTicks = 0;
 
     private @Nullable String challengeId = null;
 
     @Override
     public synchronized void handleEvent(int clientTick, io.blert.events.Event event) {
-        eventsByTick.putIfAbsent(clientTick, new ArrayList<>());
-        eventsByTick.get(clientTick).add(JsonEventTranslator.toJson(event, challengeId));
+        List<Event> events = eventsByTick.get(clientTick);
+        if (events == null) {
+            if (bounded && eventsByTick.size() >= MAX_BUFFERED_TICKS) {
+                eventsByTick.pollFirstEntry();
+                if (droppedTicks++ == 0) {
+                    log.warn("Event buffer is full; discarding events from the oldest buffered ticks");
+                }
+            }
+            events = new ArrayList<>();
+            eventsByTick.put(clientTick, events);
+        }
+        events.add(JsonEventTranslator.toJson(event, challengeId));
     }
 
     /**
@@ -72,19 +89,47 @@ public class EventBuffer implements EventHandler {
         });
     }
 
-    public boolean hasEvents() {
+    /**
+     * Switches the challenge ID applied to subsequently received events without touching
+     * any events already stored. Used when a provisional challenge ID is bound to its
+     * canonical ID; buffered events remain valid under the provisional ID.
+     *
+     * @param challengeId The challenge ID to apply to new events.
+     */
+    public synchronized void rebindChallengeId(@Nullable String challengeId) {
+        this.challengeId = challengeId;
+    }
+
+    /**
+     * Sets whether the buffer discards its oldest ticks once it holds {@link #MAX_BUFFERED_TICKS} of them.
+     *
+     * @param bounded True to bound the buffer, false to hold every event until it is flushed.
+     */
+    public synchronized void setBounded(boolean bounded) {
+        this.bounded = bounded;
+    }
+
+    public synchronized boolean hasEvents() {
         return !eventsByTick.isEmpty();
     }
 
-    public List<Event> flushEventsUpTo(int tick) {
+    /**
+     * Returns the number of ticks for which events are buffered.
+     */
+    public synchronized int bufferedTicks() {
+        return eventsByTick.size();
+    }
+
+    public synchronized List<Event> flushEventsUpTo(int tick) {
+        Map<Integer, List<Event>> flushed = eventsByTick.headMap(tick, true);
         List<Event> events = new ArrayList<>();
-        for (int i = earliestTickStored; i <= tick; i++) {
-            if (eventsByTick.containsKey(i)) {
-                events.addAll(eventsByTick.get(i));
-                eventsByTick.remove(i);
-            }
+        flushed.values().forEach(events::addAll);
+        flushed.clear();
+
+        if (droppedTicks > 0) {
+            log.warn("Discarded events from {} ticks which were never flushed", droppedTicks);
+            droppedTicks = 0;
         }
-        earliestTickStored = tick;
         return events;
     }
 }
@@ -490,6 +490,12 @@ public class JsonEventTranslator {
                 break;
             }
 
+            case CAPTURE_DEGRADATION: {
+                CaptureDegradationEvent captureDegradationEvent = (CaptureDegradationEvent) event;
+                json.captureDegradation = captureDegradationEvent.getLevel().getId();
+                break;
+            }
+
             case INFERNO_WAVE_START: {
                 InfernoWaveStartEvent infernoWaveStartEvent = (InfernoWaveStartEvent) event;
                 json.infernoWaveStart = new Event.InfernoWaveStart();
@@ -45,6 +45,12 @@ public class ServerMessage {
     public static final int TYPE_GAME_STATE_REQUEST = 18;
     public static final int TYPE_ATTACK_DEFINITIONS = 19;
     public static final int TYPE_SPELL_DEFINITIONS = 20;
+    public static final int TYPE_SYMBOL_DEFINITIONS = 21;
+
+    // Feature bits advertised by the server in its connection response.
+    public static final int FEATURE_PROVISIONAL_CHALLENGE_IDS = 1 << 0;
+    public static final int FEATURE_SYMBOL_TABLE = 1 << 1;
+    public static final int FEATURE_STAGE_SUMMARIES = 1 << 2;
 
     public int type;
     public User user;
@@ -61,5 +67,14 @@ public class ServerMessage {
     public ChallengeUpdate challengeUpdate;
     public List<AttackDefinition> attackDefinitions;
     public List<SpellDefinition> spellDefinitions;
+
+    // Version of the complete definition set after applying an attack or spell definitions message. If
+    // `definitionDiff` is set, the message only contains definitions added or changed since the version the client
+    // advertised, along with the IDs of any which were removed.
+    public String definitionVersion;
+    public boolean definitionDiff;
+    public List<Integer> removedDefinitionIds;
+    public List<Symbol> symbols;
     public Integer requestId;
+    public int features;
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.json;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Per-challenge dictionary which replaces repeated player usernames and NPC identifiers in outgoing
+ * events with small integer handles.
+ * <p>
+ * A handle is assigned to each distinct symbol the first time it is seen. Newly assigned handles
+ * are collected until {@link #drainDefinitions()} is called, and must be announced to the server
+ * before any event which references them is sent.
+ */
+public class SymbolTable {
+    private static class NpcSymbol {
+        final int handle;
+        final int npcId;
+
+        NpcSymbol(int handle, int npcId) {
+            this.handle = handle;
+            this.npcId = npcId;
+        }
+    }
+
+    private final Map<String, Integer> players = new HashMap<>();
+    private final Map<Long, NpcSymbol> npcs = new HashMap<>();
+    private final List<Symbol> pendingDefinitions = new ArrayList<>();
+    private int nextHandle = 0;
+
+    /**
+     * Clears all assigned handles, starting a new dictionary for the next challenge.
+     */
+    public synchronized void reset() {
+        players.clear();
+        npcs.clear();
+        pendingDefinitions.clear();
+        nextHandle = 0;
+    }
+
+    /**
+     * Forgets the handles assigned to NPCs while keeping those of players. An evicted NPC is assigned a new handle if
+     * it is referenced again. Long-session challenges evict between stages so that the table does not grow with the
+     * number of stages played.
+     */
+    public synchronized void evictNpcs() {
+        npcs.clear();
+    }
+
+    /**
+     * Assigns handles to the members of a challenge party up front, in party order.
+     *
+     * @param party Usernames of the party members.
+     */
+    public synchronized void definePlayers(Collection<String> party) {
+        party.forEach(this::playerHandle);
+    }
+
+    /**
+     * Rewrites an event in place, replacing player usernames and NPC identifiers with handles.
+     *
+     * @param event The event to encode.
+     */
+    public synchronized void encode(Event event) {
+        if (event.player != null && event.player.name != null) {
+            event.player.symbol = playerHandle(event.player.name);
+            event.player.name = null;
+        }
+
+        encodeNpc(event.npc);
+
+        if (event.playerAttack != null) {
+            encodeNpc(event.playerAttack.target);
+        }
+
+        if (event.playerSpell != null) {
+            if (event.playerSpell.targetPlayer != null) {
+                event.playerSpell.targetPlayerSymbol = playerHandle(event.playerSpell.targetPlayer);
+                event.playerSpell.targetPlayer = null;
+            }
+            encodeNpc(event.playerSpell.targetNpc);
+        }
+
+        if (event.npcAttack != null && event.npcAttack.target != null) {
+            event.npcAttack.targetSymbol = playerHandle(event.npcAttack.target);
+            event.npcAttack.target = null;
+        }
+
+        if (event.colosseumTotemHeal != null) {
+            encodeNpc(event.colosseumTotemHeal.source);
+            encodeNpc(event.colosseumTotemHeal.target);
+        }
+    }
+
+    /**
+     * Returns the number of NPCs which currently hold a handle.
+     */
+    public synchronized int npcCount() {
+        return npcs.size();
+    }
+
+    /**
+     * Returns the definitions of all handles assigned since the last call.
+     */
+    public synchronized List<Symbol> drainDefinitions() {
+        if (pendingDefinitions.isEmpty()) {
+            return List.of();
+        }
+
+        List<Symbol> definitions = new ArrayList<>(pendingDefinitions);
+        pendingDefinitions.clear();
+        return definitions;
+    }
+
+    private int playerHandle(String username) {
+        Integer handle = players.get(username);
+        if (handle != null) {
+            return handle;
+        }
+
+        Symbol symbol = new Symbol();
+        symbol.handle = nextHandle++;
+        symbol.player = username;
+        players.put(username, symbol.handle);
+        pendingDefinitions.add(symbol);
+        return symbol.handle;
+    }
+
+    private void encodeNpc(@Nullable Event.Npc npc) {
+        if (npc == null || npc.id == null || npc.roomId == null) {
+            return;
+        }
+
+        // NPCs can transform in place, so a changed ID under the same room ID gets a fresh handle.
+        NpcSymbol existing = npcs.get(npc.roomId);
+        if (existing == null || existing.npcId != npc.id) {
+            Symbol symbol = new Symbol();
+            symbol.handle = nextHandle++;
+            symbol.npcId = npc.id;
+            symbol.roomId = npc.roomId;
+            existing = new NpcSymbol(symbol.handle, npc.id);
+            npcs.put(npc.roomId, existing);
+            pendingDefinitions.add(symbol);
+        }
+
+        npc.symbol = existing.handle;
+        npc.id = null;
+        npc.roomId = null;
+    }
+}
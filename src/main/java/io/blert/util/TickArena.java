@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.util;
+
+import java.util.*;
+import javax.annotation.Nullable;
+
+/**
+ * Scratch collections for data gathered over the course of a single tick.
+ * <p>
+ * Buffers are obtained from the arena once, typically as fields of the object which uses them, and are all cleared
+ * together by {@link #reset()} after the tick has been processed. Clearing retains each buffer's backing storage, so
+ * in steady state a tick reuses the previous tick's capacity rather than allocating fresh collections.
+ */
+public class TickArena {
+    /**
+     * A map of keys to lists of values, stored in an open-addressed table which is kept across ticks. Value lists are
+     * returned to a pool on reset and handed out again to keys added in later ticks, so once the table has grown to
+     * a tick's peak size, adding to it no longer allocates. Keys must not be null.
+     */
+    public static final class ListMap<K, V> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private Object[] keys = new Object[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private int size = 0;
+        private final ArrayDeque<List<V>> pool = new ArrayDeque<>();
+
+        public void add(K key, V value) {
+            int slot = slotOf(key);
+            if (keys[slot] == null) {
+                if ((size + 1) * 2 > keys.length) {
+                    grow();
+                    slot = slotOf(key);
+                }
+                keys[slot] = key;
+                values[slot] = pool.isEmpty() ? new ArrayList<>() : pool.pop();
+                size++;
+            }
+            valuesAt(slot).add(value);
+        }
+
+        public @Nullable List<V> get(K key) {
+            int slot = slotOf(key);
+            return keys[slot] != null ? valuesAt(slot) : null;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int slotOf(Object key) {
+            int mask = keys.length - 1;
+            int hash = key.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            Object[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new Object[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = slotOf(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<V> valuesAt(int slot) {
+            return (List<V>) values[slot];
+        }
+
+        private void clear() {
+            if (size == 0) {
+                return;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    List<V> list = valuesAt(i);
+                    list.clear();
+                    pool.push(list);
+                    keys[i] = null;
+                    values[i] = null;
+                }
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * A map of indices in a fixed range to lists of values, backed by an array indexed directly by key rather than a
+     * hashed table. Each index keeps its value list across ticks, and only the indices added to during a tick are
+     * visited on reset.
+     */
+    public static final class IndexedListMap<V> {
+        private final int size;
+        private @Nullable Object[] values = null;
+        private final IntBuffer used = new IntBuffer(16);
+
+        private IndexedListMap(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Adds a value to the list at an index.
+         *
+         * @throws IndexOutOfBoundsException If the index is outside the map's range.
+         */
+        public void add(int index, V value) {
+            Objects.checkIndex(index, size);
+            if (values == null) {
+                // Allocated on first use, as many trackers never add to their maps.
+                values = new Object[size];
+            }
+
+            List<V> list = listAt(index);
+            if (list == null) {
+                list = new ArrayList<>();
+                values[index] = list;
+            }
+            if (list.isEmpty()) {
+                used.add(index);
+            }
+            list.add(value);
+        }
+
+        /**
+         * Returns the values added at an index this tick, or {@code null} if there are none or the index is out of
+         * range.
+         */
+        public @Nullable List<V> get(int index) {
+            if (values == null || index < 0 || index >= size) {
+                return null;
+            }
+            List<V> list = listAt(index);
+            return list != null && !list.isEmpty() ? list : null;
+        }
+
+        public boolean isEmpty() {
+            return used.isEmpty();
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable List<V> listAt(int index) {
+            return (List<V>) values[index];
+        }
+
+        private void clear() {
+            for (int i = 0; i < used.size(); i++) {
+                listAt(used.get(i)).clear();
+            }
+            used.clear();
+        }
+    }
+
+    /**
+     * A growable list of {@code int} values which does not box its elements.
+     */
+    public static final class IntBuffer {
+        private int[] elements;
+        private int size = 0;
+
+        private IntBuffer(int initialCapacity) {
+            elements = new int[initialCapacity];
+        }
+
+        public void add(int value) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(8, size * 2));
+            }
+            elements[size++] = value;
+        }
+
+        public int get(int index) {
+            Objects.checkIndex(index, size);
+            return elements[index];
+        }
+
+        public boolean contains(int value) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * A growable list of {@code long} values which does not box its elements.
+     */
+    public static final class LongBuffer {
+        private long[] elements;
+        private int size = 0;
+
+        private LongBuffer(int initialCapacity) {
+            elements = new long[initialCapacity];
+        }
+
+        public void add(long value) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(8, size * 2));
+            }
+            elements[size++] = value;
+        }
+
+        public long get(int index) {
+            Objects.checkIndex(index, size);
+            return elements[index];
+        }
+
+        public boolean contains(long value) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+
+    private final List<Collection<?>> buffers = new ArrayList<>();
+    private final List<ListMap<?, ?>> listMaps = new ArrayList<>();
+    private final List<IndexedListMap<?>> indexedListMaps = new ArrayList<>();
+    private final List<IntBuffer> intBuffers = new ArrayList<>();
+    private final List<LongBuffer> longBuffers = new ArrayList<>();
+
+    public <T> List<T> list() {
+        return register(new ArrayList<>());
+    }
+
+    public <T> List<T> list(int initialCapacity) {
+        return register(new ArrayList<>(initialCapacity));
+    }
+
+    public <T> Set<T> set() {
+        return register(new HashSet<>());
+    }
+
+    public <T> Queue<T> queue() {
+        return register(new ArrayDeque<>());
+    }
+
+    public <K, V> ListMap<K, V> listMap() {
+        ListMap<K, V> listMap = new ListMap<>();
+        listMaps.add(listMap);
+        return listMap;
+    }
+
+    /**
+     * Returns a map of lists keyed by indices in {@code [0, size)}.
+     */
+    public <V> IndexedListMap<V> indexedListMap(int size) {
+        IndexedListMap<V> listMap = new IndexedListMap<>(size);
+        indexedListMaps.add(listMap);
+        return listMap;
+    }
+
+    public IntBuffer intBuffer() {
+        return intBuffer(16);
+    }
+
+    public IntBuffer intBuffer(int initialCapacity) {
+        IntBuffer buffer = new IntBuffer(initialCapacity);
+        intBuffers.add(buffer);
+        return buffer;
+    }
+
+    public LongBuffer longBuffer() {
+        return longBuffer(16);
+    }
+
+    public LongBuffer longBuffer(int initialCapacity) {
+        LongBuffer buffer = new LongBuffer(initialCapacity);
+        longBuffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * Clears every buffer owned by the arena.
+     */
+    public void reset() {
+        for (Collection<?> buffer : buffers) {
+            buffer.clear();
+        }
+        for (ListMap<?, ?> listMap : listMaps) {
+            listMap.clear();
+        }
+        for (IndexedListMap<?> listMap : indexedListMaps) {
+            listMap.clear();
+        }
+        for (IntBuffer buffer : intBuffers) {
+            buffer.clear();
+        }
+        for (LongBuffer buffer : longBuffers) {
+            buffer.clear();
+        }
+    }
+
+    private <C extends Collection<?>> C register(C buffer) {
+        buffers.add(buffer);
+        return buffer;
+    }
+}
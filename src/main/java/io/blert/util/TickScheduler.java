@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntSupplier;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs tasks at future game ticks.
+ * <p>
+ * Tasks are kept in a hashed timing wheel indexed by the tick on which they are due, so scheduling, cancelling and
+ * advancing the scheduler by a tick are constant-time operations regardless of how many tasks are pending. Each
+ * {@link Priority} has its own wheel, allowing the owner to run tasks immediately before or after its own per-tick
+ * logic by calling {@link #run(Priority)} at the appropriate points.
+ * <p>
+ * The current tick is read from the clock supplied at construction, typically {@link net.runelite.api.Client}'s tick
+ * count or a tracker's stage tick.
+ */
+@Slf4j
+public class TickScheduler {
+    /**
+     * When a task runs relative to its owner's {@code onTick} handler.
+     */
+    public enum Priority {
+        BEFORE_TICK,
+        AFTER_TICK,
+
+        /**
+         * Run by the owner from within its tick handler, at whichever point it chooses. An owner which schedules tasks
+         * at this priority must run it on every tick.
+         */
+        WITHIN_TICK,
+    }
+
+    /**
+     * A scheduled task, which can be used to cancel it before it runs.
+     */
+    public static final class Handle {
+        private final Wheel wheel;
+        private final Runnable task;
+        private int tick;
+        private boolean pending = true;
+        private boolean queued;
+        private Handle prev;
+        private Handle next;
+
+        private Handle(Wheel wheel, Runnable task, int tick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.tick = tick;
+        }
+
+        /**
+         * Returns the tick on which the task is due to run.
+         */
+        public int getTick() {
+            return tick;
+        }
+
+        /**
+         * Returns whether the task has yet to run or be cancelled.
+         */
+        public boolean isPending() {
+            return pending;
+        }
+
+        /**
+         * Cancels the task, preventing it from being run.
+         *
+         * @return True if the task was pending, false if it had already run or been cancelled.
+         */
+        public boolean cancel() {
+            if (!pending) {
+                return false;
+            }
+            pending = false;
+            if (queued) {
+                wheel.unlink(this);
+            }
+            return true;
+        }
+    }
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int NO_TICK = Integer.MIN_VALUE;
+
+    private final IntSupplier clock;
+    private final Wheel[] wheels;
+
+    public TickScheduler(@NonNull IntSupplier clock) {
+        this.clock = clock;
+        this.wheels = new Wheel[Priority.values().length];
+        for (int i = 0; i < wheels.length; i++) {
+            wheels[i] = new Wheel();
+        }
+    }
+
+    /**
+     * Schedules a task to run before the owner's tick handler.
+     *
+     * @see #schedule(int, Priority, Runnable)
+     */
+    public Handle schedule(int ticks, @NonNull Runnable task) {
+        return schedule(ticks, Priority.BEFORE_TICK, task);
+    }
+
+    /**
+     * Schedules a task to run {@code ticks} ticks from the current tick. A delay of 0 runs the task on the current
+     * tick if its priority has not yet been run for it, and on the following tick otherwise.
+     *
+     * @param ticks    Number of ticks to wait before running the task.
+     * @param priority When the task runs relative to its owner's tick handler.
+     * @param task     The task to run.
+     * @return Handle to the scheduled task.
+     */
+    public Handle schedule(int ticks, @NonNull Priority priority, @NonNull Runnable task) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Cannot schedule a task in the past: " + ticks);
+        }
+
+        Wheel wheel = wheels[priority.ordinal()];
+        int tick = clock.getAsInt() + ticks;
+        if (wheel.lastTick != NO_TICK && tick <= wheel.lastTick) {
+            tick = wheel.lastTick + 1;
+        }
+
+        Handle handle = new Handle(wheel, task, tick);
+        wheel.link(handle);
+        return handle;
+    }
+
+    /**
+     * Schedules a task to run on the {@code ticks}-th run of its priority from now, counting the next run as the first.
+     * <p>
+     * Unlike {@link #schedule(int, Priority, Runnable)}, the delay does not depend on whether the current tick's run
+     * has already happened. A task deferred from an event handler before the tick's run therefore runs on the same
+     * tick as one deferred from the previous tick's handler, which is what state changes keyed off chat messages and
+     * game events expect.
+     *
+     * @param ticks    Number of runs to wait for, including the one on which the task runs. Must be positive.
+     * @param priority The priority whose runs to count.
+     * @param task     The task to run.
+     * @return Handle to the scheduled task.
+     */
+    public Handle defer(int ticks, @NonNull Priority priority, @NonNull Runnable task) {
+        if (ticks < 1) {
+            throw new IllegalArgumentException("Deferred tasks must wait for at least one tick: " + ticks);
+        }
+
+        Wheel wheel = wheels[priority.ordinal()];
+        int lastRun = wheel.lastTick != NO_TICK ? wheel.lastTick : clock.getAsInt() - 1;
+
+        Handle handle = new Handle(wheel, task, lastRun + ticks);
+        wheel.link(handle);
+        return handle;
+    }
+
+    /**
+     * Runs every task of the given priority which is due on or before the current tick, in the order they were
+     * scheduled. Ticks that were skipped since the last run are caught up on.
+     *
+     * @param priority The priority whose tasks to run.
+     */
+    public void run(@NonNull Priority priority) {
+        Wheel wheel = wheels[priority.ordinal()];
+        final int tick = clock.getAsInt();
+        final int lastTick = wheel.lastTick;
+        wheel.lastTick = tick;
+
+        if (wheel.size == 0) {
+            return;
+        }
+
+        List<Handle> due;
+        if (lastTick != NO_TICK && tick > lastTick && tick - lastTick < WHEEL_SIZE) {
+            due = null;
+            for (int t = lastTick + 1; t <= tick; t++) {
+                due = wheel.collect(t & WHEEL_MASK, t, due);
+            }
+        } else {
+            if (lastTick != NO_TICK && tick < lastTick) {
+                // The clock went backwards (e.g. it was reset); keep pending tasks at the same relative offsets.
+                wheel.rebase(tick - lastTick);
+            }
+            due = null;
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                due = wheel.collect(slot, tick, due);
+            }
+            if (due != null) {
+                due.sort(Comparator.comparingInt(Handle::getTick));
+            }
+        }
+
+        if (due == null) {
+            return;
+        }
+
+        for (Handle handle : due) {
+            // An earlier task may have cancelled this one.
+            if (!handle.pending) {
+                continue;
+            }
+            handle.pending = false;
+
+            try {
+                handle.task.run();
+            } catch (Exception e) {
+                log.error("Scheduled task for tick {} failed", handle.tick, e);
+            }
+        }
+    }
+
+    /**
+     * Cancels every pending task.
+     */
+    public void clear() {
+        for (Wheel wheel : wheels) {
+            wheel.clear();
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting to run.
+     */
+    public int size() {
+        int size = 0;
+        for (Wheel wheel : wheels) {
+            size += wheel.size;
+        }
+        return size;
+    }
+
+    private static final class Wheel {
+        private final Handle[] heads = new Handle[WHEEL_SIZE];
+        private final Handle[] tails = new Handle[WHEEL_SIZE];
+        private int lastTick = NO_TICK;
+        private int size;
+
+        private void link(Handle handle) {
+            int slot = handle.tick & WHEEL_MASK;
+            handle.prev = tails[slot];
+            handle.next = null;
+            if (tails[slot] != null) {
+                tails[slot].next = handle;
+            } else {
+                heads[slot] = handle;
+            }
+            tails[slot] = handle;
+            handle.queued = true;
+            size++;
+        }
+
+        private void unlink(Handle handle) {
+            int slot = handle.tick & WHEEL_MASK;
+            if (handle.prev != null) {
+                handle.prev.next = handle.next;
+            } else {
+                heads[slot] = handle.next;
+            }
+            if (handle.next != null) {
+                handle.next.prev = handle.prev;
+            } else {
+                tails[slot] = handle.prev;
+            }
+            handle.prev = null;
+            handle.next = null;
+            handle.queued = false;
+            size--;
+        }
+
+        /**
+         * Unlinks every task in a slot due on or before {@code tick}, appending them to {@code due}.
+         */
+        private List<Handle> collect(int slot, int tick, List<Handle> due) {
+            Handle handle = heads[slot];
+            while (handle != null) {
+                Handle next = handle.next;
+                if (handle.tick <= tick) {
+                    unlink(handle);
+                    if (due == null) {
+                        due = new ArrayList<>();
+                    }
+                    due.add(handle);
+                }
+                handle = next;
+            }
+            return due;
+        }
+
+        private void rebase(int delta) {
+            List<Handle> handles = new ArrayList<>(size);
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                for (Handle handle = heads[slot]; handle != null; handle = handle.next) {
+                    handles.add(handle);
+                }
+            }
+            handles.sort(Comparator.comparingInt(Handle::getTick));
+            clearSlots();
+            for (Handle handle : handles) {
+                handle.tick += delta;
+                link(handle);
+            }
+        }
+
+        private void clear() {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                for (Handle handle = heads[slot]; handle != null; handle = handle.next) {
+                    handle.pending = false;
+                    handle.queued = false;
+                }
+            }
+            clearSlots();
+        }
+
+        private void clearSlots() {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                heads[slot] = null;
+                tails[slot] = null;
+            }
+            size = 0;
+        }
+    }
+}
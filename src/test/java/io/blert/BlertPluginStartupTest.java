@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.client.WebSocketManager;
+import io.blert.replay.ReplayClient;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import net.runelite.api.Client;
+import net.runelite.api.GameState;
+import net.runelite.client.callback.ClientThread;
+import org.junit.Test;
+
+public class BlertPluginStartupTest {
+    /**
+     * A plugin which starts without a client toolbar to add its side panel to.
+     */
+    private static final class HeadlessPlugin extends BlertPlugin {
+        @Override
+        void installSidePanel() {}
+    }
+
+    private static final class RecordingWebSocketManager extends WebSocketManager {
+        private volatile int opens = 0;
+
+        @Override
+        public Future<Boolean> open() {
+            opens++;
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    private static void inject(BlertPlugin plugin, String name, Object value) throws ReflectiveOperationException {
+        Field field = BlertPlugin.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(plugin, value);
+    }
+
+    /**
+     * Returns an executor which holds on to every task given to it, to be run by the test.
+     */
+    private static ScheduledExecutorService recordingExecutor(Queue<Runnable> tasks) {
+        return (ScheduledExecutorService) Proxy.newProxyInstance(
+                ScheduledExecutorService.class.getClassLoader(),
+                new Class<?>[] {ScheduledExecutorService.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("execute")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    synchronized (tasks) {
+                        tasks.add((Runnable) args[0]);
+                    }
+                    return null;
+                });
+    }
+
+    private static Client loggedOutClient() {
+        Client client = new ReplayClient("player").getClient();
+        return (Client) Proxy.newProxyInstance(
+                Client.class.getClassLoader(),
+                new Class<?>[] {Client.class},
+                (proxy, method, args) ->
+                        method.getName().equals("getGameState") ? GameState.LOGIN_SCREEN : method.invoke(client, args));
+    }
+
+    @Test
+    public void startUpLoadsDefinitionsOnExecutor() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        RecordingWebSocketManager websocketManager = new RecordingWebSocketManager();
+        HeadlessPlugin plugin = new HeadlessPlugin();
+        inject(plugin, "gson", new Gson());
+        inject(plugin, "executor", recordingExecutor(tasks));
+        inject(plugin, "websocketManager", websocketManager);
+        inject(plugin, "client", loggedOutClient());
+        inject(plugin, "clientThread", new ClientThread());
+
+        plugin.startUp();
+
+        // Nothing has been loaded on the calling thread, and the connection waits for the definitions.
+        assertFalse(tasks.isEmpty());
+        assertFalse(plugin.getAttackRegistry().isReady());
+        assertFalse(plugin.getSpellRegistry().isReady());
+        assertTrue(plugin.getAttackRegistry().find(13263, 3298).isEmpty());
+        assertEquals(0, websocketManager.opens);
+
+        Thread[] loader = new Thread[1];
+        Thread worker = new Thread(() -> {
+            loader[0] = Thread.currentThread();
+            while (true) {
+                Runnable task;
+                synchronized (tasks) {
+                    task = tasks.poll();
+                }
+                if (task == null) {
+                    return;
+                }
+                task.run();
+            }
+        });
+        worker.start();
+        worker.join();
+
+        assertNotSame(Thread.currentThread(), loader[0]);
+        assertTrue(plugin.getAttackRegistry().ready().isDone());
+        assertTrue(plugin.getSpellRegistry().ready().isDone());
+        assertTrue(plugin.getAttackRegistry().find(13263, 3298).isPresent());
+        assertEquals(1, websocketManager.opens);
+    }
+}
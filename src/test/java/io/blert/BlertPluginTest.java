@@ -23,13 +23,14 @@
 
 package io.blert;
 
+import io.blert.replay.CapturePlugin;
 import java.util.Arrays;
 import net.runelite.client.RuneLite;
 import net.runelite.client.externalplugins.ExternalPluginManager;
 
 public class BlertPluginTest {
     public static void main(String[] args) throws Exception {
-        ExternalPluginManager.loadBuiltin(BlertPlugin.class);
+        ExternalPluginManager.loadBuiltin(BlertPlugin.class, CapturePlugin.class);
         String[] debugArgs = Arrays.copyOf(args, args.length + 1);
         debugArgs[args.length] = "--developer-mode";
         RuneLite.main(debugArgs);
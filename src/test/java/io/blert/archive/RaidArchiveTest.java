@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.archive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.core.Challenge;
+import io.blert.core.ChallengeMode;
+import io.blert.core.ChallengeTimeline;
+import io.blert.core.Stage;
+import io.blert.events.EventType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class RaidArchiveTest {
+    private static ChallengeTimeline.Rows rows(int count, int firstTick) {
+        int[] ticks = new int[count];
+        int[] slots = new int[count];
+        int[] ids = new int[count];
+        long[] targets = new long[count];
+        int[] coords = new int[count];
+        for (int i = 0; i < count; i++) {
+            ticks[i] = firstTick + i * 2;
+            slots[i] = i % 6 - 1;
+            ids[i] = i % 3 == 0 ? 8000 + i % 4 : -1;
+            targets[i] = i % 5 == 0 ? 0 : 1_000_000_000_000L + i % 7;
+            coords[i] = (3000 + i % 11) << 16 | (4000 - i % 13);
+        }
+        return new ChallengeTimeline.Rows(ticks, slots, ids, targets, coords);
+    }
+
+    private static RaidArchive.Header header() {
+        return new RaidArchive.Header(
+                Challenge.TOB,
+                ChallengeMode.TOB_HARD,
+                List.of("first", "Second Player"),
+                1_700_000_000_000L,
+                1234,
+                0,
+                0);
+    }
+
+    private static List<ChallengeTimeline.StageRecord> stages() {
+        Map<EventType, ChallengeTimeline.Rows> maiden = new EnumMap<>(EventType.class);
+        maiden.put(EventType.PLAYER_ATTACK, rows(200, 0));
+        maiden.put(EventType.PLAYER_DEATH, rows(2, 50));
+        Map<EventType, ChallengeTimeline.Rows> bloat = new EnumMap<>(EventType.class);
+        bloat.put(EventType.NPC_ATTACK, rows(40, 10));
+        return List.of(
+                new ChallengeTimeline.StageRecord(Stage.TOB_MAIDEN, maiden),
+                new ChallengeTimeline.StageRecord(Stage.TOB_BLOAT, bloat),
+                new ChallengeTimeline.StageRecord(Stage.TOB_NYLOCAS, new EnumMap<>(EventType.class)));
+    }
+
+    private static void assertRowsEqual(ChallengeTimeline.Rows expected, ChallengeTimeline.Rows actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getTick(row), actual.getTick(row));
+            assertEquals(expected.getSlot(row), actual.getSlot(row));
+            assertEquals(expected.getId(row), actual.getId(row));
+            assertEquals(expected.getTargetRoomId(row), actual.getTargetRoomId(row));
+            assertEquals(expected.getX(row), actual.getX(row));
+            assertEquals(expected.getY(row), actual.getY(row));
+        }
+    }
+
+    @Test
+    public void roundTripsHeaderAndIndex() throws IOException {
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(RaidArchive.encode(header(), stages())));
+
+        assertEquals(Challenge.TOB, archive.getHeader().getChallenge());
+        assertEquals(ChallengeMode.TOB_HARD, archive.getHeader().getMode());
+        assertEquals(List.of("first", "Second Player"), archive.getHeader().getParty());
+        assertEquals(1_700_000_000_000L, archive.getHeader().getStartTime());
+        assertEquals(1234, archive.getHeader().getChallengeTime());
+        assertFalse(archive.getHeader().isTruncated());
+
+        assertEquals(3, archive.getStages().size());
+        assertEquals(Stage.TOB_MAIDEN, archive.getStages().get(0).getStage());
+        assertEquals(0, archive.getStages().get(0).getMinTick());
+        assertEquals(398, archive.getStages().get(0).getMaxTick());
+        assertEquals(1, archive.indexOf(Stage.TOB_BLOAT));
+        assertEquals(-1, archive.indexOf(Stage.TOB_VERZIK));
+    }
+
+    @Test
+    public void roundTripsStageRows() throws IOException {
+        List<ChallengeTimeline.StageRecord> stages = stages();
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(RaidArchive.encode(header(), stages)));
+
+        for (int i = 0; i < stages.size(); i++) {
+            Map<EventType, ChallengeTimeline.Rows> expected = stages.get(i).getRows();
+            Map<EventType, ChallengeTimeline.Rows> actual = archive.readStage(i);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (EventType type : expected.keySet()) {
+                assertRowsEqual(expected.get(type), actual.get(type));
+            }
+        }
+    }
+
+    @Test
+    public void readsTickRanges() throws IOException {
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(RaidArchive.encode(header(), stages())));
+
+        ChallengeTimeline.Rows rows = archive.readRange(0, EventType.PLAYER_ATTACK, 10, 19);
+        assertEquals(5, rows.size());
+        assertEquals(10, rows.getTick(0));
+        assertEquals(18, rows.getTick(4));
+
+        assertTrue(archive.readRange(0, EventType.PLAYER_ATTACK, 1000, 2000).isEmpty());
+        assertTrue(archive.readRange(2, EventType.PLAYER_ATTACK, 0, 100).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEventTypesItDoesNotStore() throws IOException {
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(RaidArchive.encode(header(), stages())));
+        archive.readRange(0, EventType.NPC_UPDATE, 0, 100);
+    }
+
+    @Test
+    public void opensMappedFile() throws IOException {
+        Path file = Files.createTempFile("raid", RaidArchive.FILE_EXTENSION);
+        try {
+            Files.write(file, RaidArchive.encode(header(), stages()));
+            RaidArchive archive = RaidArchive.open(file);
+            assertEquals(3, archive.getStages().size());
+            assertEquals(40, archive.readStage(1).get(EventType.NPC_ATTACK).size());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsInvalidFiles() throws IOException {
+        new RaidArchive(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test
+    public void recordsTimelineTruncation() throws IOException {
+        RaidArchive.Header truncated = new RaidArchive.Header(
+                Challenge.INFERNO, ChallengeMode.NO_MODE, List.of("first"), 1_700_000_000_000L, 90_000, 42, 7);
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(RaidArchive.encode(truncated, stages())));
+
+        assertTrue(archive.getHeader().isTruncated());
+        assertEquals(42, archive.getHeader().getEvictedStages());
+        assertEquals(7, archive.getHeader().getDroppedRows());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsStagesOutsideOfFile() throws IOException {
+        byte[] encoded = RaidArchive.encode(header(), stages());
+        new RaidArchive(ByteBuffer.wrap(Arrays.copyOf(encoded, encoded.length - 1)));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedStageBlocks() throws IOException {
+        byte[] encoded = RaidArchive.encode(header(), stages());
+
+        // The final stage is empty, so its block is the single stream count byte at the end of the file. Claim a
+        // stream which the block doesn't contain.
+        encoded[encoded.length - 1] = 1;
+        RaidArchive archive = new RaidArchive(ByteBuffer.wrap(encoded));
+        archive.readStage(2);
+    }
+}
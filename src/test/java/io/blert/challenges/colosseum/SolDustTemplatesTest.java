@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.challenges.colosseum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.blert.events.colosseum.SolDustEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+public class SolDustTemplatesTest {
+    private static final int SOL_SIZE = 5;
+
+    private final SolDustTemplates templates = new SolDustTemplates(SOL_SIZE);
+
+    @Test
+    public void assignsEachRingTileAUniqueBit() {
+        Set<Long> bits = new HashSet<>();
+        for (int dx = -2; dx < SOL_SIZE + 2; dx++) {
+            for (int dy = -2; dy < SOL_SIZE + 2; dy++) {
+                long bit = templates.tileMask(dx, dy);
+                boolean onRing = dx == -2 || dy == -2 || dx == SOL_SIZE + 1 || dy == SOL_SIZE + 1;
+                if (onRing) {
+                    assertEquals(1, Long.bitCount(bit));
+                    bits.add(bit);
+                } else {
+                    assertEquals(0, bit);
+                }
+            }
+        }
+        assertEquals(4 * (SOL_SIZE + 3), bits.size());
+    }
+
+    @Test
+    public void ignoresTilesOffTheRing() {
+        assertEquals(0, templates.tileMask(0, 0));
+        assertEquals(0, templates.tileMask(-1, 2));
+        assertEquals(0, templates.tileMask(-3, 0));
+        assertEquals(0, templates.tileMask(SOL_SIZE + 2, SOL_SIZE + 2));
+    }
+
+    @Test
+    public void identifiesShields() {
+        assertEquals(SolDustEvent.Pattern.SHIELD_1, templates.pattern(0));
+        assertNull(templates.direction(0));
+
+        long ring = 0;
+        for (int dx = -2; dx < SOL_SIZE + 2; dx++) {
+            ring |= templates.tileMask(dx, -2) | templates.tileMask(dx, SOL_SIZE + 1);
+        }
+        assertEquals(SolDustEvent.Pattern.SHIELD_2, templates.pattern(ring));
+        assertNull(templates.direction(ring));
+    }
+
+    @Test
+    public void identifiesTridentDirections() {
+        long west = templates.tileMask(-2, 1) | templates.tileMask(-2, 3);
+        assertEquals(SolDustEvent.Pattern.TRIDENT_1, templates.pattern(west));
+        assertEquals(SolDustEvent.Direction.WEST, templates.direction(west));
+
+        long east = templates.tileMask(SOL_SIZE + 1, 0) | templates.tileMask(SOL_SIZE + 1, 2)
+                | templates.tileMask(SOL_SIZE + 1, 4);
+        assertEquals(SolDustEvent.Pattern.TRIDENT_2, templates.pattern(east));
+        assertEquals(SolDustEvent.Direction.EAST, templates.direction(east));
+
+        long north = templates.tileMask(1, SOL_SIZE + 1) | templates.tileMask(3, SOL_SIZE + 1);
+        assertEquals(SolDustEvent.Direction.NORTH, templates.direction(north));
+
+        long south = templates.tileMask(0, -2) | templates.tileMask(2, -2) | templates.tileMask(4, -2);
+        assertEquals(SolDustEvent.Direction.SOUTH, templates.direction(south));
+    }
+
+    @Test
+    public void resolvesCornerProngsFromTheOtherProngs() {
+        // A south trident whose westmost prong lands on the ring's southwest corner.
+        long south = templates.tileMask(-2, -2) | templates.tileMask(0, -2);
+        assertEquals(SolDustEvent.Direction.SOUTH, templates.direction(south));
+
+        // A north trident with prongs on both of the ring's northern corners.
+        long north = templates.tileMask(-2, SOL_SIZE + 1) | templates.tileMask(2, SOL_SIZE + 1)
+                | templates.tileMask(SOL_SIZE + 1, SOL_SIZE + 1);
+        assertEquals(SolDustEvent.Pattern.TRIDENT_2, templates.pattern(north));
+        assertEquals(SolDustEvent.Direction.NORTH, templates.direction(north));
+
+        // Corners still count towards the west and east sides when the other prongs lie on them.
+        long west = templates.tileMask(-2, -2) | templates.tileMask(-2, 2);
+        assertEquals(SolDustEvent.Direction.WEST, templates.direction(west));
+
+        long east = templates.tileMask(SOL_SIZE + 1, SOL_SIZE + 1) | templates.tileMask(SOL_SIZE + 1, 1);
+        assertEquals(SolDustEvent.Direction.EAST, templates.direction(east));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOversizedRings() {
+        new SolDustTemplates(14);
+    }
+
+    @Test
+    public void matchesDistanceBasedClassification() {
+        // Every tile within three of Sol, which covers the dust of all of its patterns.
+        List<int[]> tiles = new ArrayList<>();
+        for (int dx = -3; dx < SOL_SIZE + 3; dx++) {
+            for (int dy = -3; dy < SOL_SIZE + 3; dy++) {
+                tiles.add(new int[] {dx, dy});
+            }
+        }
+
+        Random random = new Random(43);
+        for (int trial = 0; trial < 5000; trial++) {
+            // Bias towards sparse sets, where tridents live.
+            double density = trial % 2 == 0 ? 0.03 : random.nextDouble();
+            List<int[]> dust = new ArrayList<>();
+            for (int[] tile : tiles) {
+                if (random.nextDouble() < density) {
+                    dust.add(tile);
+                }
+            }
+            assertMatchesDistanceRules(dust);
+        }
+
+        // Every one- and two-tile set exercises each pair of sides and corners.
+        for (int i = 0; i < tiles.size(); i++) {
+            assertMatchesDistanceRules(List.of(tiles.get(i)));
+            for (int j = i + 1; j < tiles.size(); j++) {
+                assertMatchesDistanceRules(List.of(tiles.get(i), tiles.get(j)));
+            }
+        }
+    }
+
+    /**
+     * Classifies dust with the rules used before ring masks: count the dust exactly two tiles from Sol's footprint,
+     * and take a trident's direction from where its first such tile lies relative to Sol.
+     */
+    private void assertMatchesDistanceRules(List<int[]> dust) {
+        List<int[]> twoAway = new ArrayList<>();
+        long ring = 0;
+        for (int[] tile : dust) {
+            int distanceX = Math.max(0, Math.max(-tile[0], tile[0] - (SOL_SIZE - 1)));
+            int distanceY = Math.max(0, Math.max(-tile[1], tile[1] - (SOL_SIZE - 1)));
+            if (Math.max(distanceX, distanceY) == 2) {
+                twoAway.add(tile);
+            }
+            ring |= templates.tileMask(tile[0], tile[1]);
+        }
+
+        SolDustEvent.Pattern expected;
+        switch (twoAway.size()) {
+            case 0:
+                expected = SolDustEvent.Pattern.SHIELD_1;
+                break;
+            case 2:
+                expected = SolDustEvent.Pattern.TRIDENT_1;
+                break;
+            case 3:
+                expected = SolDustEvent.Pattern.TRIDENT_2;
+                break;
+            default:
+                expected = SolDustEvent.Pattern.SHIELD_2;
+                break;
+        }
+        assertEquals(expected, templates.pattern(ring));
+
+        if (expected != SolDustEvent.Pattern.TRIDENT_1 && expected != SolDustEvent.Pattern.TRIDENT_2) {
+            assertNull(templates.direction(ring));
+            return;
+        }
+
+        // The old rule depended on which tile was seen first. A trident's prongs all fall on one side, so only sets
+        // for which every ordering agrees have a well-defined expected direction.
+        Set<SolDustEvent.Direction> directions = new HashSet<>();
+        for (int[] tile : twoAway) {
+            directions.add(side(tile));
+        }
+        if (directions.size() == 1) {
+            assertEquals(directions.iterator().next(), templates.direction(ring));
+        }
+    }
+
+    private static SolDustEvent.Direction side(int[] tile) {
+        if (tile[0] < 0) {
+            return SolDustEvent.Direction.WEST;
+        }
+        if (tile[0] >= SOL_SIZE) {
+            return SolDustEvent.Direction.EAST;
+        }
+        if (tile[1] >= SOL_SIZE) {
+            return SolDustEvent.Direction.NORTH;
+        }
+        return SolDustEvent.Direction.SOUTH;
+    }
+}
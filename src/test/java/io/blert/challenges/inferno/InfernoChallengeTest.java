@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.challenges.inferno;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.Gson;
+import io.blert.core.Challenge;
+import io.blert.core.CheckpointStore;
+import io.blert.core.Stage;
+import io.blert.events.ChallengeStartEvent;
+import io.blert.events.Event;
+import io.blert.events.EventType;
+import io.blert.replay.ReplayHarness;
+import io.blert.replay.ReplayHarnessTest;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Test;
+
+public class InfernoChallengeTest {
+    private static final String CHECKPOINT_ID = "abc-123";
+    private static final long ACCOUNT_HASH = 0x1234L;
+
+    private final ReplayHarness harness = new ReplayHarness(new Gson());
+
+    /**
+     * Returns a store holding a checkpoint of wave 42 left by a previous session of the local player.
+     */
+    private static CheckpointStore interruptedAtWave42() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+
+        CheckpointStore previous = new CheckpointStore(directory, Runnable::run);
+        previous.load(ACCOUNT_HASH);
+        previous.setChallengeId(CHECKPOINT_ID);
+        previous.save(Challenge.INFERNO, Stage.INFERNO_WAVE_42, List.of("Zezima"), 9000);
+
+        CheckpointStore store = new CheckpointStore(directory, Runnable::run);
+        store.load(ACCOUNT_HASH);
+        return store;
+    }
+
+    private ChallengeStartEvent replayStart(int wave, CheckpointStore store) {
+        ReplayHarness.Result result =
+                harness.replay(ReplayHarnessTest.infernoCapture(wave), InfernoChallenge::new, store);
+
+        List<Event> lifecycle = result.getLifecycleEvents();
+        assertEquals(EventType.CHALLENGE_START, lifecycle.get(0).getType());
+        assertEquals(1, lifecycle.stream().filter(e -> e.getType() == EventType.CHALLENGE_START).count());
+        return (ChallengeStartEvent) lifecycle.get(0);
+    }
+
+    @Test
+    public void checkpointIsResumedWhenItsWaveStarts() throws IOException {
+        ChallengeStartEvent start = replayStart(42, interruptedAtWave42());
+
+        assertEquals(Stage.INFERNO_WAVE_42, start.getStage().orElse(null));
+        assertEquals(CHECKPOINT_ID, start.getResumeChallengeId());
+    }
+
+    @Test
+    public void staleCheckpointIsDiscardedWhenFreshRunStarts() throws IOException {
+        ChallengeStartEvent start = replayStart(1, interruptedAtWave42());
+
+        assertEquals(Stage.INFERNO_WAVE_1, start.getStage().orElse(null));
+        assertNull(start.getResumeChallengeId());
+    }
+}
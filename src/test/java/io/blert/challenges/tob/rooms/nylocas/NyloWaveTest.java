@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.challenges.tob.rooms.nylocas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.OptionalInt;
+import org.junit.Test;
+
+public class NyloWaveTest {
+    @Test
+    public void packsThreeBitsPerSlot() {
+        assertEquals(0, NyloWave.signatureOf("______"));
+        assertEquals(1, NyloWave.signatureOf("i_____"));
+        assertEquals(6 << 15, NyloWave.signatureOf("_____H"));
+        assertEquals(3 | 3 << 3 | 3 << 6 | 3 << 9 | 3 << 12 | 3 << 15, NyloWave.signatureOf("tttttt"));
+    }
+
+    @Test
+    public void identifiesUniqueWaves() {
+        assertEquals(OptionalInt.of(1), NyloWave.identifyWave(NyloWave.signatureOf("_i_ht_"), 0));
+        assertEquals(OptionalInt.of(10), NyloWave.identifyWave(NyloWave.signatureOf("Tttttt"), 9));
+        assertEquals(OptionalInt.of(30), NyloWave.identifyWave(NyloWave.signatureOf("H_hiT_"), 0));
+    }
+
+    @Test
+    public void rejectsUnknownSignatures() {
+        assertFalse(NyloWave.identifyWave(NyloWave.signatureOf("______"), 5).isPresent());
+        assertFalse(NyloWave.identifyWave(NyloWave.signatureOf("iiiiii"), 5).isPresent());
+    }
+
+    @Test
+    public void disambiguatesWithSequentialContext() {
+        int signature = NyloWave.signatureOf("H_H_H_");
+        assertFalse(NyloWave.identifyWave(signature, 0).isPresent());
+        assertEquals(OptionalInt.of(17), NyloWave.identifyWave(signature, 16));
+        assertEquals(OptionalInt.of(19), NyloWave.identifyWave(signature, 18));
+
+        signature = NyloWave.signatureOf("thhiti");
+        assertEquals(OptionalInt.of(28), NyloWave.identifyWave(signature, 27));
+        assertEquals(OptionalInt.of(31), NyloWave.identifyWave(signature, 30));
+        assertFalse(NyloWave.identifyWave(signature, 31).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedSpawns() {
+        NyloWave.signatureOf("ixIT_");
+    }
+}
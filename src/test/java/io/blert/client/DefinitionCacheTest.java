@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.core.AttackRegistry;
+import io.blert.core.SpellRegistry;
+import io.blert.json.AttackDefinition;
+import io.blert.json.ServerMessage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Test;
+
+public class DefinitionCacheTest {
+    private static AttackDefinition attack(int protoId, String name, int weaponId, int animationId) {
+        AttackDefinition attack = new AttackDefinition();
+        attack.protoId = protoId;
+        attack.name = name;
+        attack.weaponIds = List.of(weaponId);
+        attack.animationIds = List.of(animationId);
+        attack.cooldown = 4;
+        attack.category = "MELEE";
+        return attack;
+    }
+
+    private static ServerMessage attackMessage(String version, boolean diff, List<AttackDefinition> definitions) {
+        ServerMessage message = new ServerMessage();
+        message.type = ServerMessage.TYPE_ATTACK_DEFINITIONS;
+        message.definitionVersion = version;
+        message.definitionDiff = diff;
+        message.attackDefinitions = definitions;
+        return message;
+    }
+
+    private static DefinitionCache cache(Path directory, AttackRegistry attacks) {
+        Gson gson = new Gson();
+        attacks.setGson(gson);
+        return new DefinitionCache(directory, gson, attacks, new SpellRegistry(), Runnable::run);
+    }
+
+    @Test
+    public void fullSetIsPersistedAndAdvertised() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+        DefinitionCache first = cache(directory, new AttackRegistry());
+        assertTrue(first.handshakeHeaders().isEmpty());
+
+        first.applyAttackDefinitions(attackMessage("v1", false, List.of(attack(80, "ABYSSAL_BLUDGEON", 13263, 3298))));
+
+        AttackRegistry registry = new AttackRegistry();
+        DefinitionCache second = cache(directory, registry);
+        second.load();
+        assertEquals("v1", second.handshakeHeaders().get(DefinitionCache.ATTACK_DEFINITIONS_HEADER));
+        assertNull(second.handshakeHeaders().get(DefinitionCache.SPELL_DEFINITIONS_HEADER));
+        assertEquals(80, registry.find(13263, 3298).orElseThrow().getProtoId());
+    }
+
+    @Test
+    public void diffIsAppliedOnTopOfCachedSet() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+        AttackRegistry registry = new AttackRegistry();
+        DefinitionCache cache = cache(directory, registry);
+        cache.applyAttackDefinitions(attackMessage(
+                "v1",
+                false,
+                List.of(attack(80, "ABYSSAL_BLUDGEON", 13263, 3298), attack(69, "AGS_SPEC", 11802, 7644))));
+
+        ServerMessage diff = attackMessage("v2", true, List.of(attack(81, "ABYSSAL_DAGGER", 13265, 3297)));
+        diff.removedDefinitionIds = List.of(69);
+        cache.applyAttackDefinitions(diff);
+
+        assertEquals("v2", cache.handshakeHeaders().get(DefinitionCache.ATTACK_DEFINITIONS_HEADER));
+        assertTrue(registry.find(13263, 3298).isPresent());
+        assertTrue(registry.find(13265, 3297).isPresent());
+        assertFalse(registry.find(11802, 7644).isPresent());
+
+        AttackRegistry reloaded = new AttackRegistry();
+        cache(directory, reloaded).load();
+        assertTrue(reloaded.find(13265, 3297).isPresent());
+        assertFalse(reloaded.find(11802, 7644).isPresent());
+    }
+
+    @Test
+    public void loadDoesNotReplaceSetFromServer() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+        DefinitionCache previous = cache(directory, new AttackRegistry());
+        previous.applyAttackDefinitions(
+                attackMessage("v1", false, List.of(attack(80, "ABYSSAL_BLUDGEON", 13263, 3298))));
+
+        // Hold back the write of the server's set so the stale one is still on disk when the cache is loaded.
+        Queue<Runnable> pendingWrites = new ArrayDeque<>();
+        Gson gson = new Gson();
+        AttackRegistry registry = new AttackRegistry();
+        registry.setGson(gson);
+        DefinitionCache cache = new DefinitionCache(directory, gson, registry, new SpellRegistry(), pendingWrites::add);
+
+        cache.applyAttackDefinitions(attackMessage("v2", false, List.of(attack(81, "ABYSSAL_DAGGER", 13265, 3297))));
+        cache.load();
+
+        assertEquals("v2", cache.handshakeHeaders().get(DefinitionCache.ATTACK_DEFINITIONS_HEADER));
+        assertTrue(registry.find(13265, 3297).isPresent());
+        assertFalse(registry.find(13263, 3298).isPresent());
+    }
+
+    @Test
+    public void unversionedSetIsNotCached() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+        DefinitionCache cache = cache(directory, new AttackRegistry());
+        cache.applyAttackDefinitions(attackMessage(null, false, List.of(attack(80, "ABYSSAL_BLUDGEON", 13263, 3298))));
+
+        assertTrue(cache.handshakeHeaders().isEmpty());
+        assertFalse(Files.exists(directory.resolve("attacks.json")));
+    }
+}
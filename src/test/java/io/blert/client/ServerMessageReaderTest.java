@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.json.ServerMessage;
+import java.io.IOException;
+import java.util.List;
+import org.junit.Test;
+
+public class ServerMessageReaderTest {
+    private final ServerMessageReader reader = new ServerMessageReader(new Gson());
+
+    @Test
+    public void peeksTypeAfterOtherFields() throws IOException {
+        String text = "{\"user\":{\"id\":1,\"name\":\"Player One\"},\"features\":3,\"type\":3}";
+        assertEquals(ServerMessage.TYPE_CONNECTION_RESPONSE, ServerMessageReader.peekType(text));
+    }
+
+    @Test
+    public void peeksMissingType() throws IOException {
+        assertEquals(ServerMessageReader.UNKNOWN_TYPE, ServerMessageReader.peekType("{\"requestId\":4}"));
+    }
+
+    @Test
+    public void readsDefinitionsAndSkipsUnrelatedFields() throws IOException {
+        String text = "{\"type\":19,\"user\":{\"name\":\"Player One\"},\"definitionVersion\":\"v2\","
+                + "\"definitionDiff\":true,\"removedDefinitionIds\":[7,9],"
+                + "\"attackDefinitions\":[{\"protoId\":80,\"name\":\"ABYSSAL_BLUDGEON\",\"weaponIds\":[13263],"
+                + "\"animationIds\":[3298],\"cooldown\":4,\"category\":\"MELEE\"}]}";
+
+        ServerMessage message = reader.read(text, ServerMessageReader.peekType(text));
+        assertEquals(ServerMessage.TYPE_ATTACK_DEFINITIONS, message.type);
+        assertEquals("v2", message.definitionVersion);
+        assertTrue(message.definitionDiff);
+        assertEquals(List.of(7, 9), message.removedDefinitionIds);
+        assertEquals(1, message.attackDefinitions.size());
+        assertEquals(80, message.attackDefinitions.get(0).protoId);
+        assertEquals(List.of(3298), message.attackDefinitions.get(0).animationIds);
+        assertNull(message.spellDefinitions);
+        assertNull(message.user);
+    }
+
+    @Test
+    public void readsFullDefinitionSet() throws IOException {
+        String text = "{\"type\":20,\"definitionVersion\":null,"
+                + "\"spellDefinitions\":[{\"id\":1,\"name\":\"SPELLBOOK_SWAP\",\"animationIds\":[6299],"
+                + "\"graphics\":[{\"id\":1062,\"durationTicks\":10,\"maxFrame\":15}],\"stallTicks\":3}]}";
+
+        ServerMessage message = reader.read(text, ServerMessageReader.peekType(text));
+        assertEquals(ServerMessage.TYPE_SPELL_DEFINITIONS, message.type);
+        assertNull(message.definitionVersion);
+        assertFalse(message.definitionDiff);
+        assertEquals(1, message.spellDefinitions.size());
+        assertEquals(1062, message.spellDefinitions.get(0).graphics.get(0).id);
+    }
+
+    @Test
+    public void readsHistoryResponse() throws IOException {
+        String text = "{\"type\":5,\"recentRecordings\":[{\"id\":\"abc-123\",\"status\":1,\"party\":[\"Player One\"],"
+                + "\"challengeTicks\":9000},{\"id\":\"def-456\",\"status\":2}],\"requestId\":12}";
+
+        ServerMessage message = reader.read(text, ServerMessageReader.peekType(text));
+        assertEquals(ServerMessage.TYPE_HISTORY_RESPONSE, message.type);
+        assertEquals(2, message.recentRecordings.size());
+        assertEquals("abc-123", message.recentRecordings.get(0).id);
+        assertEquals(List.of("Player One"), message.recentRecordings.get(0).party);
+        assertEquals(9000, message.recentRecordings.get(0).challengeTicks);
+        assertEquals("def-456", message.recentRecordings.get(1).id);
+    }
+
+    @Test
+    public void readsOtherMessagesInFull() throws IOException {
+        String text = "{\"type\":3,\"user\":{\"id\":1,\"name\":\"Player One\"},\"features\":3}";
+
+        ServerMessage message = reader.read(text, ServerMessageReader.peekType(text));
+        assertEquals(ServerMessage.TYPE_CONNECTION_RESPONSE, message.type);
+        assertEquals("Player One", message.user.name);
+        assertEquals(3, message.features);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsMalformedDefinitions() throws IOException {
+        reader.read("{\"type\":19,\"attackDefinitions\":{\"protoId\":80}}", ServerMessage.TYPE_ATTACK_DEFINITIONS);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.events.EventType;
+import io.blert.events.NpcAttackEvent;
+import io.blert.events.PlayerDeathEvent;
+import io.blert.events.StageUpdateEvent;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import net.runelite.api.NPC;
+import org.junit.Test;
+
+public class ChallengeTimelineTest {
+    private static ChallengeTimeline timeline() {
+        PartyState party = new PartyState();
+        party.add(new Raider("first", true));
+        party.add(new Raider("second", false));
+        return new ChallengeTimeline(party);
+    }
+
+    private static void death(ChallengeTimeline timeline, Stage stage, int tick, String username) {
+        timeline.record(new PlayerDeathEvent(stage, tick, null, username));
+    }
+
+    private static void npcAttack(ChallengeTimeline timeline, Stage stage, int tick, long roomId) {
+        NPC npc = (NPC) Proxy.newProxyInstance(
+                NPC.class.getClassLoader(),
+                new Class<?>[] {NPC.class},
+                (proxy, method, args) -> method.getName().equals("getId") ? 7692 : null);
+        TrackedNpc trackedNpc = new BasicTrackedNpc(npc, roomId, new Hitpoints(10));
+        timeline.record(new NpcAttackEvent(stage, tick, null, NpcAttack.INFERNO_BAT_AUTO, trackedNpc, "first"));
+    }
+
+    private static void start(ChallengeTimeline timeline, Stage stage) {
+        timeline.record(new StageUpdateEvent(stage, 0, StageUpdateEvent.Status.STARTED));
+    }
+
+    @Test
+    public void queriesInclusiveTickRange() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.TOB_MAIDEN);
+        death(timeline, Stage.TOB_MAIDEN, 5, "first");
+        death(timeline, Stage.TOB_MAIDEN, 10, "second");
+        death(timeline, Stage.TOB_MAIDEN, 15, "first");
+
+        ChallengeTimeline.Rows rows = timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 5, 10);
+        assertEquals(2, rows.size());
+        assertEquals(5, rows.getTick(0));
+        assertEquals(0, rows.getSlot(0));
+        assertEquals(10, rows.getTick(1));
+        assertEquals(1, rows.getSlot(1));
+
+        assertTrue(timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 16, 100).isEmpty());
+        assertTrue(timeline.between(EventType.PLAYER_ATTACK, Stage.TOB_MAIDEN, 0, 100).isEmpty());
+    }
+
+    @Test
+    public void filtersByPlayer() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.TOB_MAIDEN);
+        for (int tick = 0; tick < 20; tick++) {
+            death(timeline, Stage.TOB_MAIDEN, tick, tick % 2 == 0 ? "first" : "second");
+        }
+
+        ChallengeTimeline.Rows rows = timeline.forPlayer(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 4, 9, "Second");
+        assertEquals(3, rows.size());
+        assertEquals(5, rows.getTick(0));
+        assertEquals(7, rows.getTick(1));
+        assertEquals(9, rows.getTick(2));
+
+        assertTrue(timeline.forPlayer(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 0, 20, "nobody").isEmpty());
+    }
+
+    @Test
+    public void scopesQueriesToStage() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.TOB_MAIDEN);
+        death(timeline, Stage.TOB_MAIDEN, 3, "first");
+        start(timeline, Stage.TOB_BLOAT);
+        death(timeline, Stage.TOB_BLOAT, 3, "second");
+
+        ChallengeTimeline.Rows maiden = timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 0, 10);
+        assertEquals(1, maiden.size());
+        assertEquals(0, maiden.getSlot(0));
+
+        ChallengeTimeline.Rows bloat = timeline.between(EventType.PLAYER_DEATH, Stage.TOB_BLOAT, 0, 10);
+        assertEquals(1, bloat.size());
+        assertEquals(1, bloat.getSlot(0));
+    }
+
+    @Test
+    public void repeatedStageReplacesPreviousOccurrence() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.MOKHAIOTL_DELVE_8PLUS);
+        death(timeline, Stage.MOKHAIOTL_DELVE_8PLUS, 50, "first");
+        start(timeline, Stage.MOKHAIOTL_DELVE_8PLUS);
+        death(timeline, Stage.MOKHAIOTL_DELVE_8PLUS, 10, "second");
+
+        ChallengeTimeline.Rows rows = timeline.between(EventType.PLAYER_DEATH, Stage.MOKHAIOTL_DELVE_8PLUS, 0, 100);
+        assertEquals(1, rows.size());
+        assertEquals(10, rows.getTick(0));
+    }
+
+    @Test
+    public void lateEventsRemainQueryable() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.TOB_MAIDEN);
+        death(timeline, Stage.TOB_MAIDEN, 10, "first");
+        death(timeline, Stage.TOB_MAIDEN, 8, "second");
+
+        ChallengeTimeline.Rows rows = timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 8, 10);
+        assertEquals(2, rows.size());
+        assertEquals(8, rows.getTick(1));
+
+        assertEquals(1, timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 10, 10).size());
+    }
+
+    @Test
+    public void filtersByNpc() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.INFERNO_WAVE_1);
+        for (int tick = 0; tick < 5; tick++) {
+            for (long roomId = 1; roomId <= 40; roomId++) {
+                npcAttack(timeline, Stage.INFERNO_WAVE_1, tick, roomId);
+            }
+        }
+
+        ChallengeTimeline.Rows rows = timeline.forNpc(EventType.NPC_ATTACK, Stage.INFERNO_WAVE_1, 1, 3, 37);
+        assertEquals(3, rows.size());
+        assertEquals(1, rows.getTick(0));
+        assertEquals(37, rows.getTargetRoomId(0));
+        assertEquals(3, rows.getTick(2));
+
+        assertTrue(timeline.forNpc(EventType.NPC_ATTACK, Stage.INFERNO_WAVE_1, 0, 10, 41).isEmpty());
+    }
+
+    @Test
+    public void compactDropsIndexOfEvictedNpcs() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.INFERNO_WAVE_1);
+        npcAttack(timeline, Stage.INFERNO_WAVE_1, 1, 8);
+        npcAttack(timeline, Stage.INFERNO_WAVE_1, 2, 9);
+        start(timeline, Stage.INFERNO_WAVE_2);
+        npcAttack(timeline, Stage.INFERNO_WAVE_2, 1, 9);
+        npcAttack(timeline, Stage.INFERNO_WAVE_2, 2, 16);
+
+        timeline.compact(2);
+
+        assertTrue(timeline.forNpc(EventType.NPC_ATTACK, Stage.INFERNO_WAVE_1, 0, 10, 8).isEmpty());
+        ChallengeTimeline.Rows rows = timeline.forNpc(EventType.NPC_ATTACK, Stage.INFERNO_WAVE_2, 0, 10, 9);
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.getTick(0));
+        assertEquals(1, timeline.forNpc(EventType.NPC_ATTACK, Stage.INFERNO_WAVE_2, 0, 10, 16).size());
+    }
+
+    @Test
+    public void compactEvictsOldestStages() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.INFERNO_WAVE_1);
+        death(timeline, Stage.INFERNO_WAVE_1, 1, "first");
+        death(timeline, Stage.INFERNO_WAVE_1, 2, "second");
+        death(timeline, Stage.INFERNO_WAVE_1, 3, "first");
+        start(timeline, Stage.INFERNO_WAVE_2);
+        death(timeline, Stage.INFERNO_WAVE_2, 4, "first");
+        death(timeline, Stage.INFERNO_WAVE_2, 5, "second");
+        start(timeline, Stage.INFERNO_WAVE_3);
+        death(timeline, Stage.INFERNO_WAVE_3, 6, "second");
+
+        timeline.compact(3);
+
+        assertTrue(timeline.between(EventType.PLAYER_DEATH, Stage.INFERNO_WAVE_1, 0, 10).isEmpty());
+        ChallengeTimeline.Rows rows = timeline.forPlayer(EventType.PLAYER_DEATH, Stage.INFERNO_WAVE_2, 0, 10, "second");
+        assertEquals(1, rows.size());
+        assertEquals(5, rows.getTick(0));
+        assertEquals(1, timeline.between(EventType.PLAYER_DEATH, Stage.INFERNO_WAVE_3, 0, 10).size());
+
+        List<ChallengeTimeline.StageRecord> stages = timeline.export();
+        assertEquals(2, stages.size());
+        assertEquals(Stage.INFERNO_WAVE_2, stages.get(0).getStage());
+        assertEquals(2, stages.get(0).getRows().get(EventType.PLAYER_DEATH).size());
+        assertEquals(1, timeline.getEvictedStages());
+
+        timeline.clear();
+        assertEquals(0, timeline.getEvictedStages());
+    }
+
+    @Test
+    public void compactRetainsCurrentStage() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.INFERNO_WAVE_1);
+        for (int tick = 0; tick < 10; tick++) {
+            death(timeline, Stage.INFERNO_WAVE_1, tick, "first");
+        }
+
+        timeline.compact(1);
+        assertEquals(10, timeline.between(EventType.PLAYER_DEATH, Stage.INFERNO_WAVE_1, 0, 10).size());
+    }
+
+    @Test
+    public void clearDropsAllRows() {
+        ChallengeTimeline timeline = timeline();
+        start(timeline, Stage.TOB_MAIDEN);
+        death(timeline, Stage.TOB_MAIDEN, 1, "first");
+        timeline.clear();
+
+        assertTrue(timeline.between(EventType.PLAYER_DEATH, Stage.TOB_MAIDEN, 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.util.Tick;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import net.runelite.api.ChatMessageType;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Test;
+
+public class ChatClassifierTest {
+    private static final Pattern DURATION_REGEX = Pattern.compile("Duration: (" + Tick.TIME_STRING_REGEX + ")");
+
+    @Test
+    public void exactMessageMatches() {
+        ChatClassifier classifier = new ChatClassifier();
+        List<String> matched = new ArrayList<>();
+        classifier.onMessage("Wave: 1", match -> matched.add(match.getMessage()));
+
+        assertTrue(classifier.classify(ChatMessageType.GAMEMESSAGE, "Wave: 1"));
+        assertFalse(classifier.classify(ChatMessageType.GAMEMESSAGE, "Wave: 10"));
+        assertEquals(List.of("Wave: 1"), matched);
+    }
+
+    @Test
+    public void typeFiltersRules() {
+        ChatClassifier classifier = new ChatClassifier();
+        List<ChatMessageType> matched = new ArrayList<>();
+        classifier.onMessage(ChatMessageType.GAMEMESSAGE, "Wave: 1", match -> matched.add(match.getType()));
+
+        assertFalse(classifier.classify(ChatMessageType.SPAM, "Wave: 1"));
+        assertTrue(classifier.classify(ChatMessageType.GAMEMESSAGE, "Wave: 1"));
+        assertEquals(List.of(ChatMessageType.GAMEMESSAGE), matched);
+    }
+
+    @Test
+    public void literalGatesPattern() {
+        ChatClassifier classifier = new ChatClassifier();
+        List<Integer> ticks = new ArrayList<>();
+        classifier.onPrefix("Wave completed! ", DURATION_REGEX, match -> ticks.add(match.ticks(1)));
+        classifier.onContains("Duration: ", DURATION_REGEX, match -> ticks.add(match.ticks(1)));
+
+        assertTrue(classifier.classify(ChatMessageType.GAMEMESSAGE, "Wave completed! Duration: 1:00.00"));
+        assertTrue(classifier.classify(ChatMessageType.GAMEMESSAGE, "Challenge complete! Duration: 0:06.00"));
+        assertFalse(classifier.classify(ChatMessageType.GAMEMESSAGE, "Duration: none"));
+        assertEquals(List.of(100, 100, 10), ticks);
+    }
+
+    @Test
+    public void matchParsesDuration() {
+        ChatClassifier classifier = new ChatClassifier();
+        List<Pair<Integer, Boolean>> durations = new ArrayList<>();
+        classifier.onContains(
+                "Duration: ", DURATION_REGEX, match -> durations.add(match.duration(1).orElseThrow()));
+
+        classifier.classify(ChatMessageType.GAMEMESSAGE, "Duration: 2:57.60");
+        classifier.classify(ChatMessageType.GAMEMESSAGE, "Duration: 10:00");
+        assertEquals(List.of(Pair.of(296, true), Pair.of(1000, false)), durations);
+    }
+
+    @Test
+    public void playerMessagesAreNotGameMessages() {
+        assertTrue(ChatClassifier.isGameMessage(ChatMessageType.GAMEMESSAGE));
+        assertTrue(ChatClassifier.isGameMessage(ChatMessageType.SPAM));
+        assertFalse(ChatClassifier.isGameMessage(ChatMessageType.PUBLICCHAT));
+        assertFalse(ChatClassifier.isGameMessage(ChatMessageType.CLAN_CHAT));
+        assertFalse(ChatClassifier.isGameMessage(ChatMessageType.PRIVATECHAT));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+
+public class CheckpointStoreTest {
+    private static ChallengeCheckpoint checkpoint(long savedAt) {
+        return new ChallengeCheckpoint(
+                Challenge.INFERNO, Stage.INFERNO_WAVE_42, List.of("Player One"), 9000, "abc-123", savedAt);
+    }
+
+    private static final long ACCOUNT = 0x1234L;
+    private static final long OTHER_ACCOUNT = 0x5678L;
+
+    private static CheckpointStore store(Path directory, long accountHash) {
+        CheckpointStore store = new CheckpointStore(directory, Runnable::run);
+        store.load(accountHash);
+        return store;
+    }
+
+    private static List<Path> files(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void roundTripsThroughEncoding() throws IOException {
+        ChallengeCheckpoint decoded = CheckpointStore.decode(CheckpointStore.encode(checkpoint(1234L)));
+        assertEquals(Challenge.INFERNO, decoded.getChallenge());
+        assertEquals(Stage.INFERNO_WAVE_42, decoded.getStage());
+        assertEquals(List.of("Player One"), decoded.getParty());
+        assertEquals(9000, decoded.getChallengeTicks());
+        assertEquals("abc-123", decoded.getChallengeId());
+        assertEquals(1234L, decoded.getSavedAt());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsCorruptedCheckpoint() throws IOException {
+        byte[] encoded = CheckpointStore.encode(checkpoint(1234L));
+        encoded[encoded.length / 2] ^= 1;
+        CheckpointStore.decode(encoded);
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedCheckpoint() throws IOException {
+        byte[] encoded = CheckpointStore.encode(checkpoint(1234L));
+        CheckpointStore.decode(Arrays.copyOf(encoded, encoded.length - 6));
+    }
+
+    @Test
+    public void savedCheckpointIsRestoredByNextSession() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+
+        CheckpointStore first = store(directory, ACCOUNT);
+        first.setChallengeId("abc-123");
+        first.save(Challenge.INFERNO, Stage.INFERNO_WAVE_42, List.of("Player One"), 9000);
+
+        // The temporary file is moved into place.
+        assertEquals(1, files(directory).size());
+
+        CheckpointStore second = store(directory, ACCOUNT);
+        ChallengeCheckpoint restored = second.take(Challenge.INFERNO, List.of("player one"));
+        assertNotNull(restored);
+        assertEquals(Stage.INFERNO_WAVE_42, restored.getStage());
+        assertEquals("abc-123", restored.getChallengeId());
+
+        // A checkpoint is only restored once.
+        assertNull(second.take(Challenge.INFERNO, List.of("player one")));
+
+        second.clear();
+        assertTrue(files(directory).isEmpty());
+    }
+
+    @Test
+    public void checkpointsAreKeptPerAccount() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+
+        store(directory, ACCOUNT).save(Challenge.INFERNO, Stage.INFERNO_WAVE_42, List.of("Player One"), 9000);
+        store(directory, OTHER_ACCOUNT).save(Challenge.COLOSSEUM, Stage.COLOSSEUM_WAVE_3, List.of("Player Two"), 500);
+
+        CheckpointStore store = store(directory, ACCOUNT);
+        assertNotNull(store.take(Challenge.INFERNO, List.of("Player One")));
+
+        store.load(OTHER_ACCOUNT);
+        assertNotNull(store.take(Challenge.COLOSSEUM, List.of("Player Two")));
+
+        // Clearing one account's checkpoint leaves the other's in place.
+        store.clear();
+        assertNotNull(store(directory, ACCOUNT).take(Challenge.INFERNO, List.of("Player One")));
+    }
+
+    @Test
+    public void nothingIsWrittenBeforeAnAccountIsLoaded() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+
+        CheckpointStore store = new CheckpointStore(directory, Runnable::run);
+        store.save(Challenge.INFERNO, Stage.INFERNO_WAVE_42, List.of("Player One"), 9000);
+        assertTrue(files(directory).isEmpty());
+    }
+
+    @Test
+    public void mismatchedOrStaleCheckpointIsNotRestored() throws IOException {
+        Path directory = Files.createTempDirectory("blert");
+        long now = System.currentTimeMillis();
+        Files.write(CheckpointStore.fileFor(directory, ACCOUNT), CheckpointStore.encode(checkpoint(now)));
+
+        CheckpointStore store = store(directory, ACCOUNT);
+        assertNull(store.take(Challenge.COLOSSEUM, List.of("Player One"), now));
+
+        store.load(ACCOUNT);
+        assertNull(store.take(Challenge.INFERNO, List.of("Player Two"), now));
+
+        store.load(ACCOUNT);
+        assertNull(store.take(Challenge.INFERNO, List.of("Player One"), now + CheckpointStore.MAX_AGE_MILLIS + 1));
+
+        store.load(ACCOUNT);
+        assertNotNull(store.take(Challenge.INFERNO, List.of("Player One"), now));
+    }
+}
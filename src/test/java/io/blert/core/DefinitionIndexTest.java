@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Test;
+
+public class DefinitionIndexTest {
+    private static final Gson GSON = new Gson();
+
+    private static byte[] resource(String name) throws IOException {
+        try (InputStream stream = DefinitionIndexTest.class.getResourceAsStream(name)) {
+            assertNotNull(name + " is not on the classpath", stream);
+            return stream.readAllBytes();
+        }
+    }
+
+    @Test
+    public void indexMatchesBundledAttacks() throws IOException {
+        List<AttackDefinition> fromJson =
+                AttackDefinition.loadFromJson(GSON, new ByteArrayInputStream(resource("/attacks.json")));
+        List<AttackDefinition> fromIndex =
+                DefinitionIndex.readAttacks(new ByteArrayInputStream(resource(DefinitionIndex.RESOURCE)));
+
+        assertEquals(fromJson.size(), fromIndex.size());
+        for (int i = 0; i < fromJson.size(); i++) {
+            AttackDefinition expected = fromJson.get(i);
+            AttackDefinition actual = fromIndex.get(i);
+            assertEquals(expected.getProtoId(), actual.getProtoId());
+            assertEquals(expected.getName(), actual.getName());
+            assertArrayEquals(expected.getWeaponIds(), actual.getWeaponIds());
+            assertArrayEquals(expected.getAnimationIds(), actual.getAnimationIds());
+            assertEquals(expected.getCooldown(), actual.getCooldown());
+            assertEquals(expected.isContinuousAnimation(), actual.isContinuousAnimation());
+            assertEquals(expected.getAnimationFrameMin(), actual.getAnimationFrameMin());
+            assertEquals(expected.getAnimationFrameMax(), actual.getAnimationFrameMax());
+            assertEquals(expected.getCategory(), actual.getCategory());
+
+            assertEquals(expected.getProjectiles().size(), actual.getProjectiles().size());
+            for (int j = 0; j < expected.getProjectiles().size(); j++) {
+                AttackDefinition.Projectile p = expected.getProjectiles().get(j);
+                AttackDefinition.Projectile q = actual.getProjectiles().get(j);
+                assertEquals(p.getId(), q.getId());
+                assertEquals(p.getStartCycleOffset(), q.getStartCycleOffset());
+                assertEquals(p.getWeaponId(), q.getWeaponId());
+            }
+        }
+    }
+
+    @Test
+    public void indexMatchesBundledSpells() throws IOException {
+        List<SpellDefinition> fromJson =
+                SpellDefinition.loadFromJson(GSON, new ByteArrayInputStream(resource("/spells.json")));
+        List<SpellDefinition> fromIndex =
+                DefinitionIndex.readSpells(new ByteArrayInputStream(resource(DefinitionIndex.RESOURCE)));
+
+        assertEquals(fromJson.size(), fromIndex.size());
+        for (int i = 0; i < fromJson.size(); i++) {
+            SpellDefinition expected = fromJson.get(i);
+            SpellDefinition actual = fromIndex.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getName(), actual.getName());
+            assertArrayEquals(expected.getAnimationIds(), actual.getAnimationIds());
+            assertEquals(expected.getStallTicks(), actual.getStallTicks());
+            assertGraphicsEqual(expected.getGraphics(), actual.getGraphics());
+            assertGraphicsEqual(expected.getTargetGraphics(), actual.getTargetGraphics());
+        }
+    }
+
+    private static void assertGraphicsEqual(
+            List<SpellDefinition.Graphic> expected, List<SpellDefinition.Graphic> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getDurationTicks(), actual.get(i).getDurationTicks());
+            assertEquals(expected.get(i).getMaxFrame(), actual.get(i).getMaxFrame());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownFormat() throws IOException {
+        DefinitionIndex.readAttacks(new ByteArrayInputStream(resource("/attacks.json")));
+    }
+
+    @Test
+    public void registriesLoadOnExecutor() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        AttackRegistry attacks = new AttackRegistry();
+        SpellRegistry spells = new SpellRegistry();
+        attacks.setGson(GSON);
+        spells.setGson(GSON);
+
+        attacks.loadDefaultsAsync(pending::add);
+        spells.loadDefaultsAsync(pending::add);
+        assertFalse(attacks.isReady());
+        assertFalse(spells.isReady());
+        assertEquals(2, pending.size());
+        assertTrue(attacks.find(13263, 3298).isEmpty());
+
+        pending.forEach(Runnable::run);
+        assertTrue(attacks.ready().isDone());
+        assertTrue(spells.ready().isDone());
+        assertEquals(
+                "ABYSSAL_BLUDGEON", attacks.find(13263, 3298).map(AttackDefinition::getName).orElse(null));
+    }
+
+    @Test
+    public void lateDefaultsDoNotReplaceServerDefinitions() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        AttackRegistry attacks = new AttackRegistry();
+        attacks.setGson(GSON);
+        attacks.loadDefaultsAsync(pending::add);
+
+        // The server's definitions arrive before the executor gets to the bundled ones.
+        attacks.updateFromServer(List.of());
+        pending.forEach(Runnable::run);
+
+        assertTrue(attacks.isReady());
+        assertTrue(attacks.find(13263, 3298).isEmpty());
+    }
+}
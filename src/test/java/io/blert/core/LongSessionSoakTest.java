@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.BlertPluginPanel;
+import io.blert.challenges.inferno.InfernoChallenge;
+import io.blert.client.WebSocketClient;
+import io.blert.client.WebSocketEventHandler;
+import io.blert.events.EventHandler;
+import io.blert.events.EventType;
+import io.blert.json.ChallengeUpdate;
+import io.blert.json.EventBuffer;
+import io.blert.json.ServerMessage;
+import io.blert.loadtest.StandInServer;
+import io.blert.loadtest.StubPlugin;
+import io.blert.replay.Capture;
+import io.blert.replay.ReplayHarness;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import net.runelite.api.ChatMessageType;
+import net.runelite.client.callback.ClientThread;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Replays a synthetic two hour Inferno session through a real {@link InfernoChallenge} and a real
+ * {@link WebSocketEventHandler} connected to a stand-in server, and checks that every structure which outlives a
+ * single wave stays within its bound as the challenge compacts itself between waves.
+ */
+public class LongSessionSoakTest {
+    private static final String PLAYER = "Zezima";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private static final int WAVES = 69;
+    private static final int TICKS_PER_WAVE = 160;
+
+    // The connection is lost as the final wave starts, which lasts long enough for the unsent events to reach the
+    // event buffer's bound.
+    private static final int FINAL_WAVE_TICKS = 1_000;
+
+    // Far more NPC attacks than a real session produces, so that the timeline is compacted partway through.
+    private static final int NPCS_PER_WAVE = 8;
+    private static final int BAT_ID = 7692;
+    private static final int BAT_ATTACK_ANIMATION = 7578;
+
+    // Vengeance, Spellbook Swap, Humidify and Hunter Kit.
+    private static final int[] SPELL_ANIMATIONS = {8316, 6299, 6294, 6303};
+    private static final int SPELL_INTERVAL = 4;
+    private static final int[] SPELL_GRAPHICS = {726, 1062};
+
+    // A tile inside the Inferno arena.
+    private static final int INFERNO_X = 2271;
+    private static final int INFERNO_Y = 5340;
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private StandInServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new StandInServer(gson);
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.close();
+        httpClient.dispatcher().executorService().shutdown();
+    }
+
+    private static void await(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for " + description, System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static Capture.Input chat(String message) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_CHAT_MESSAGE;
+        input.messageType = ChatMessageType.GAMEMESSAGE.getType();
+        input.message = message;
+        return input;
+    }
+
+    private static Capture.Input npc(int type, int index) {
+        Capture.Input input = new Capture.Input();
+        input.type = type;
+        input.npc = index;
+        input.id = BAT_ID;
+        input.x = INFERNO_X + index % NPCS_PER_WAVE;
+        input.y = INFERNO_Y + 5;
+        return input;
+    }
+
+    private static Capture.Tick tick(Capture capture, boolean castsSpell) {
+        Capture.Tick tick = new Capture.Tick();
+        tick.tick = 1000 + capture.ticks.size();
+
+        Capture.Input player = new Capture.Input();
+        player.type = Capture.Input.TYPE_PLAYER_STATE;
+        player.player = PLAYER;
+        player.x = INFERNO_X;
+        player.y = INFERNO_Y;
+        player.spotAnims = castsSpell ? SPELL_GRAPHICS : new int[0];
+        tick.inputs.add(player);
+
+        capture.ticks.add(tick);
+        return tick;
+    }
+
+    /**
+     * Builds a session in which every wave spawns a fresh set of NPCs which attack on every tick while the player
+     * casts spells, until the wave is completed and its NPCs despawn.
+     *
+     * @param waves          Number of waves in the session.
+     * @param finalWaveTicks Length of the last wave, in ticks.
+     */
+    private static Capture session(int waves, int finalWaveTicks) {
+        Capture capture = new Capture();
+        capture.challenge = Challenge.INFERNO.getId();
+        capture.localPlayer = PLAYER;
+
+        Capture.Input scene = new Capture.Input();
+        scene.type = Capture.Input.TYPE_SCENE;
+        scene.x = INFERNO_X - 52;
+        scene.y = INFERNO_Y - 52;
+        tick(capture, false).inputs.add(0, scene);
+
+        // The challenge starts on the first tick, before any wave.
+        tick(capture, false);
+
+        for (int wave = 1; wave <= waves; wave++) {
+            int waveTicks = wave == waves ? finalWaveTicks : TICKS_PER_WAVE;
+            int firstNpc = wave * NPCS_PER_WAVE;
+
+            for (int t = 0; t < waveTicks; t++) {
+                boolean castsSpell = t % SPELL_INTERVAL == 1;
+                Capture.Tick tick = tick(capture, castsSpell);
+
+                if (t == 0) {
+                    for (int i = 0; i < NPCS_PER_WAVE; i++) {
+                        tick.inputs.add(npc(Capture.Input.TYPE_NPC_SPAWNED, firstNpc + i));
+                    }
+                    tick.inputs.add(chat("Wave: " + wave));
+                    continue;
+                }
+
+                for (int i = 0; i < NPCS_PER_WAVE; i++) {
+                    Capture.Input attack = npc(Capture.Input.TYPE_ANIMATION_CHANGED, firstNpc + i);
+                    attack.animation = BAT_ATTACK_ANIMATION;
+                    tick.inputs.add(attack);
+                }
+
+                if (castsSpell) {
+                    Capture.Input cast = new Capture.Input();
+                    cast.type = Capture.Input.TYPE_ANIMATION_CHANGED;
+                    cast.player = PLAYER;
+                    cast.animation = SPELL_ANIMATIONS[(t / SPELL_INTERVAL) % SPELL_ANIMATIONS.length];
+                    tick.inputs.add(cast);
+                }
+
+                if (t == waveTicks - 1) {
+                    for (int i = 0; i < NPCS_PER_WAVE; i++) {
+                        tick.inputs.add(npc(Capture.Input.TYPE_NPC_DESPAWNED, firstNpc + i));
+                    }
+                    tick.inputs.add(chat("Wave completed!"));
+                }
+            }
+        }
+
+        return capture;
+    }
+
+    /**
+     * Returns the number of rows of a type retained for every stage but the one currently being recorded.
+     */
+    private static int rowsBeforeCurrentStage(ChallengeTimeline timeline, EventType type) {
+        List<ChallengeTimeline.StageRecord> stages = timeline.export();
+        int rows = 0;
+        for (int i = 0; i < stages.size() - 1; i++) {
+            ChallengeTimeline.Rows stageRows = stages.get(i).getRows().get(type);
+            rows += stageRows != null ? stageRows.size() : 0;
+        }
+        return rows;
+    }
+
+    /**
+     * Largest size observed for each bounded structure over the session.
+     */
+    private static class Peaks {
+        int bufferedTicks;
+        int symbolNpcs;
+        int trackedNpcs;
+        int graphicIds;
+        int activeSpells;
+        int evictedStages;
+        int droppedRows;
+        @Nullable DataTracker tracker;
+    }
+
+    @Test
+    public void boundedStructuresStayFlatOverTwoHourSession() throws Exception {
+        StubPlugin plugin = new StubPlugin(gson, Files.createTempDirectory("blert"));
+        StubPlugin.RecordingPanel panel = plugin.getSidePanel();
+
+        WebSocketClient client = new WebSocketClient(server.url(), PLAYER, "runelite-test", httpClient);
+        WebSocketEventHandler handler = new WebSocketEventHandler(plugin, client, null, new ClientThread(), r -> {});
+        assertTrue(client.open().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        await("connection", () -> panel.getConnectionState() == BlertPluginPanel.ConnectionState.CONNECTED);
+
+        Peaks peaks = new Peaks();
+
+        new ReplayHarness(gson).stream(session(WAVES, FINAL_WAVE_TICKS), InfernoChallenge::new, handler, challenge -> {
+            peaks.bufferedTicks = Math.max(peaks.bufferedTicks, handler.getBufferedTicks());
+            peaks.symbolNpcs = Math.max(peaks.symbolNpcs, handler.getSymbolNpcCount());
+
+            for (Raider raider : challenge.getParty()) {
+                peaks.graphicIds = Math.max(peaks.graphicIds, raider.getGraphicIds().size());
+                peaks.activeSpells = Math.max(peaks.activeSpells, raider.activeSpellCount());
+            }
+
+            ChallengeTimeline timeline = challenge.getTimeline();
+            peaks.evictedStages = timeline.getEvictedStages();
+            peaks.droppedRows = timeline.getDroppedRows();
+
+            DataTracker tracker = challenge.getActiveTracker();
+            if (tracker == null) {
+                return;
+            }
+            peaks.trackedNpcs = Math.max(peaks.trackedNpcs, tracker.getTrackedNpcs().size());
+
+            if (tracker != peaks.tracker) {
+                // The challenge has just advanced to a new wave and compacted the waves before it.
+                peaks.tracker = tracker;
+                int retained = rowsBeforeCurrentStage(timeline, EventType.NPC_ATTACK);
+                assertTrue(
+                        "Retained " + retained + " rows before " + tracker.getStage(),
+                        retained <= ChallengeTimeline.MAX_ROWS / 2);
+
+                if (tracker.getStage() == Stage.INFERNO_WAVE_69) {
+                    server.dropAll();
+                    try {
+                        await("disconnect", () -> panel.getConnectionState()
+                                == BlertPluginPanel.ConnectionState.DISCONNECTED);
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }
+        });
+
+        handler.shutdown();
+
+        assertEquals(EventBuffer.MAX_BUFFERED_TICKS, peaks.bufferedTicks);
+        assertTrue(peaks.symbolNpcs > 0 && peaks.symbolNpcs <= NPCS_PER_WAVE);
+        assertTrue(peaks.trackedNpcs > 0 && peaks.trackedNpcs <= NPCS_PER_WAVE);
+        assertTrue(peaks.graphicIds > 0 && peaks.graphicIds <= SPELL_GRAPHICS.length);
+        assertTrue(peaks.activeSpells > 0 && peaks.activeSpells <= SPELL_ANIMATIONS.length);
+        assertTrue("No waves were compacted", peaks.evictedStages > 0);
+        assertEquals(0, peaks.droppedRows);
+    }
+
+    @Test
+    public void updatesQueuedPastBufferDropsStillArrive() throws Exception {
+        // Without provisional IDs, events are buffered and updates queued until the challenge start response arrives.
+        // Holding the response lets the buffer overflow first.
+        server.setFeatures(ServerMessage.FEATURE_STAGE_SUMMARIES | ServerMessage.FEATURE_SYMBOL_TABLE);
+        server.holdStartResponses();
+
+        List<ChallengeUpdate> received = Collections.synchronizedList(new ArrayList<>());
+        server.setListener((apiKey, message, bytes, receivedNanos) -> {
+            if (message.type == ServerMessage.TYPE_CHALLENGE_UPDATE) {
+                received.add(message.challengeUpdate);
+            }
+        });
+
+        StubPlugin plugin = new StubPlugin(gson, Files.createTempDirectory("blert"));
+        StubPlugin.RecordingPanel panel = plugin.getSidePanel();
+
+        WebSocketClient client = new WebSocketClient(server.url(), PLAYER, "runelite-test", httpClient);
+        WebSocketEventHandler handler = new WebSocketEventHandler(plugin, client, null, new ClientThread(), r -> {});
+        assertTrue(client.open().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        await("connection", () -> panel.getConnectionState() == BlertPluginPanel.ConnectionState.CONNECTED);
+
+        List<Stage> stageUpdates = new ArrayList<>();
+        int[] challengeUpdates = {0};
+        EventHandler recorder = (clientTick, event) -> {
+            if (event.getType() == EventType.STAGE_UPDATE) {
+                stageUpdates.add(event.getStage().orElseThrow());
+            } else if (event.getType() == EventType.CHALLENGE_UPDATE) {
+                challengeUpdates[0]++;
+            }
+            handler.handleEvent(clientTick, event);
+        };
+
+        // Enough waves for the buffer to overflow well before the session ends.
+        int waves = 2 * EventBuffer.MAX_BUFFERED_TICKS / TICKS_PER_WAVE;
+        boolean[] overflowed = {false};
+        new ReplayHarness(gson).stream(session(waves, TICKS_PER_WAVE), InfernoChallenge::new, recorder, challenge -> {
+            if (!overflowed[0] && handler.getBufferedTicks() == EventBuffer.MAX_BUFFERED_TICKS) {
+                overflowed[0] = true;
+                // The Inferno has no modes of its own, but any mode change is reported as a challenge update.
+                challenge.updateMode(ChallengeMode.TOB_REGULAR);
+            }
+        });
+
+        assertTrue("The event buffer never filled", overflowed[0]);
+        assertTrue("Updates were sent before the challenge started", received.isEmpty());
+
+        assertFalse(stageUpdates.isEmpty());
+        server.releaseStartResponses();
+        await("queued updates", () -> received.size() == stageUpdates.size() + challengeUpdates[0]);
+        handler.shutdown();
+
+        List<Integer> receivedStages = new ArrayList<>();
+        int modeUpdates = 0;
+        synchronized (received) {
+            for (ChallengeUpdate update : received) {
+                if (update.stageUpdate != null) {
+                    receivedStages.add(update.stageUpdate.stage);
+                } else if (update.mode == ChallengeMode.TOB_REGULAR.getId()) {
+                    modeUpdates++;
+                }
+            }
+        }
+
+        assertEquals(stageUpdates.stream().map(Stage::getId).collect(Collectors.toList()), receivedStages);
+        assertEquals(1, modeUpdates);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class PartyStateTest {
+    @Test
+    public void assignsSlotsInOrder() {
+        PartyState party = new PartyState();
+        Raider first = new Raider("First", true);
+        Raider second = new Raider("Second Player", false);
+        assertTrue(party.add(first));
+        assertTrue(party.add(second));
+
+        assertEquals(2, party.size());
+        assertSame(first, party.getRaider(0));
+        assertSame(second, party.getRaider(1));
+        assertEquals(List.of("first", "second player"), party.usernames());
+    }
+
+    @Test
+    public void looksUpRaidersByStandardizedName() {
+        PartyState party = new PartyState();
+        Raider raider = new Raider("Some Player", false);
+        party.add(raider);
+
+        assertSame(raider, party.getRaider("some player"));
+        assertSame(raider, party.getRaider("Some Player"));
+        assertNull(party.getRaider("someone else"));
+        assertNull(party.getRaider((String) null));
+    }
+
+    @Test
+    public void rejectsDuplicatesAndOverflow() {
+        PartyState party = new PartyState();
+        for (int i = 0; i < PartyState.MAX_SIZE; i++) {
+            assertTrue(party.add(new Raider("player" + i, i == 0)));
+        }
+        assertFalse(party.add(new Raider("player0", false)));
+        assertFalse(party.add(new Raider("player9", false)));
+        assertEquals(PartyState.MAX_SIZE, party.size());
+    }
+
+    @Test
+    public void carriesRaiderStateIntoSlot() {
+        Raider raider = new Raider("player", false);
+        raider.setAnimation(7, 1234, false);
+        raider.setDead(9);
+
+        PartyState party = new PartyState();
+        party.add(raider);
+
+        assertEquals(1234, raider.getAnimationId());
+        assertEquals(7, raider.getAnimationTick());
+        assertTrue(party.isDead(0));
+        assertEquals(9, party.getDeathTick(0));
+        assertTrue(party.isActive(0));
+    }
+
+    @Test
+    public void tracksDeathsAcrossSlots() {
+        PartyState party = new PartyState();
+        Raider first = new Raider("first", true);
+        Raider second = new Raider("second", false);
+        party.add(first);
+        party.add(second);
+
+        first.setDead(10);
+        assertEquals(1, party.livingCount());
+        assertFalse(party.isWiped());
+
+        second.setInvulnerable(true);
+        second.setDead(11);
+        assertTrue(second.isAlive());
+
+        second.setInvulnerable(false);
+        second.setDead(12);
+        assertTrue(party.isWiped());
+        assertEquals(12, party.getDeathTick(1));
+
+        second.setAlive();
+        assertFalse(party.isDead(1));
+        assertEquals(-1, party.getDeathTick(1));
+    }
+
+    @Test
+    public void clearEmptiesParty() {
+        PartyState party = new PartyState();
+        party.add(new Raider("player", true));
+        party.clear();
+
+        assertTrue(party.isEmpty());
+        assertTrue(party.members().isEmpty());
+        assertNull(party.getRaider("player"));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.replay.ReplayClient;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.Client;
+import net.runelite.api.Projectile;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.ProjectileMoved;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProjectileTrackerTest {
+    private static final int ORB = 2000;
+    private static final int SPLAT = 2001;
+    private static final int UNTRACKED = 2002;
+    private static final int UNTRACKED_LOWER = 1500;
+
+    private static final WorldPoint SOURCE = new WorldPoint(40, 40, 0);
+    private static final WorldPoint TARGET = new WorldPoint(50, 52, 0);
+
+    private Client client;
+    private ProjectileTracker tracker;
+    private final List<ProjectileTracker.TrackedProjectile> spawned = new ArrayList<>();
+    private final List<ProjectileTracker.TrackedProjectile> landed = new ArrayList<>();
+
+    /**
+     * A projectile whose remaining cycles can be advanced between {@code ProjectileMoved} events.
+     */
+    private static final class FakeProjectile implements InvocationHandler {
+        private final int id;
+        private final int startCycle;
+        private final int endCycle;
+        private int remainingCycles;
+        private final Projectile projectile;
+
+        private FakeProjectile(int id, int startCycle, int endCycle) {
+            this.id = id;
+            this.startCycle = startCycle;
+            this.endCycle = endCycle;
+            this.remainingCycles = endCycle - startCycle;
+            this.projectile = (Projectile) Proxy.newProxyInstance(
+                    Projectile.class.getClassLoader(), new Class<?>[] {Projectile.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getId":
+                    return id;
+                case "getStartCycle":
+                    return startCycle;
+                case "getEndCycle":
+                    return endCycle;
+                case "getRemainingCycles":
+                    return remainingCycles;
+                case "getSourcePoint":
+                    return SOURCE;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        }
+    }
+
+    @Before
+    public void setUp() {
+        client = new ReplayClient("player").getClient();
+        tracker = new ProjectileTracker(client);
+        tracker.onSpawn(new int[] {ORB, SPLAT}, spawned::add);
+        tracker.onLand(ORB, landed::add);
+    }
+
+    private void move(FakeProjectile fake, int remainingCycles, int tick) {
+        fake.remainingCycles = remainingCycles;
+        ProjectileMoved event = new ProjectileMoved();
+        event.setProjectile(fake.projectile);
+        event.setPosition(LocalPoint.fromWorld(client, TARGET));
+        tracker.onProjectileMoved(event, tick);
+    }
+
+    @Test
+    public void runsSpawnHandlersOncePerProjectile() {
+        FakeProjectile orb = new FakeProjectile(ORB, 1000, 1060);
+        move(orb, 60, 5);
+        move(orb, 50, 5);
+        move(orb, 30, 6);
+
+        assertEquals(1, spawned.size());
+        ProjectileTracker.TrackedProjectile tracked = spawned.get(0);
+        assertSame(tracked, tracker.get(orb.projectile));
+        assertEquals(ORB, tracked.getId());
+        assertEquals(SOURCE, tracked.getSourcePoint());
+        assertEquals(TARGET, tracked.getTarget());
+        assertEquals(5, tracked.getSpawnTick());
+        assertEquals(7, tracked.getLandingTick());
+        assertTrue(tracked.isSeenAtLaunch());
+    }
+
+    @Test
+    public void flagsProjectilesFirstSeenInFlight() {
+        FakeProjectile orb = new FakeProjectile(ORB, 1000, 1060);
+        move(orb, 40, 5);
+
+        ProjectileTracker.TrackedProjectile tracked = tracker.get(orb.projectile);
+        assertNotNull(tracked);
+        assertFalse(tracked.isSeenAtLaunch());
+        assertEquals(7, tracked.getLandingTick());
+    }
+
+    @Test
+    public void dispatchesHandlersById() {
+        FakeProjectile splat = new FakeProjectile(SPLAT, 1000, 1030);
+        FakeProjectile untracked = new FakeProjectile(UNTRACKED, 1000, 1030);
+        FakeProjectile untrackedLower = new FakeProjectile(UNTRACKED_LOWER, 1000, 1030);
+        move(splat, 30, 1);
+        move(untracked, 30, 1);
+        move(untrackedLower, 30, 1);
+        move(splat, 0, 2);
+        move(untracked, 0, 2);
+        move(untrackedLower, 0, 2);
+
+        assertEquals(1, spawned.size());
+        assertEquals(SPLAT, spawned.get(0).getId());
+        assertNull(tracker.get(untracked.projectile));
+        assertNull(tracker.get(untrackedLower.projectile));
+
+        // Only orbs have a land handler.
+        assertTrue(landed.isEmpty());
+    }
+
+    @Test
+    public void runsLandHandlersOnceWhenProjectileLands() {
+        FakeProjectile orb = new FakeProjectile(ORB, 1000, 1060);
+        move(orb, 60, 5);
+        move(orb, ProjectileTracker.LANDING_CYCLES + 1, 6);
+        assertTrue(landed.isEmpty());
+
+        move(orb, ProjectileTracker.LANDING_CYCLES, 6);
+        move(orb, 0, 7);
+        assertEquals(1, landed.size());
+        assertSame(spawned.get(0), landed.get(0));
+        assertTrue(landed.get(0).isLanded());
+    }
+
+    @Test
+    public void expiresProjectilesWhoseFlightEnded() {
+        FakeProjectile orb = new FakeProjectile(ORB, 1000, 1060);
+        FakeProjectile later = new FakeProjectile(ORB, 1040, 1100);
+        move(orb, 60, 5);
+        move(later, 60, 6);
+
+        tracker.expire(1060);
+        assertNotNull(tracker.get(orb.projectile));
+
+        tracker.expire(1061);
+        assertNull(tracker.get(orb.projectile));
+        assertNotNull(tracker.get(later.projectile));
+    }
+
+    @Test
+    public void clearForgetsLiveProjectilesButKeepsHandlers() {
+        FakeProjectile orb = new FakeProjectile(ORB, 1000, 1060);
+        move(orb, 60, 5);
+        move(orb, 0, 7);
+
+        // A stage reset stops following everything in flight.
+        tracker.clear();
+        assertNull(tracker.get(orb.projectile));
+
+        FakeProjectile next = new FakeProjectile(ORB, 2000, 2030);
+        move(next, 30, 0);
+        move(next, 0, 1);
+        assertEquals(2, spawned.size());
+        assertEquals(2, landed.size());
+        assertEquals(0, spawned.get(1).getSpawnTick());
+    }
+}
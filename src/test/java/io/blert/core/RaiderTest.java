@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.replay.Capture;
+import io.blert.replay.ReplayClient;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.api.Client;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.Player;
+import net.runelite.api.kit.KitType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RaiderTest {
+    private static final String USERNAME = "player";
+
+    private static final int ABYSSAL_WHIP = 4151;
+    private static final int HELM_OF_NEITIZNOT = 10828;
+    private static final int RUNE_ARROW = 892;
+
+    // Contents of the local player's equipment container, by inventory slot index.
+    private final Map<Integer, net.runelite.api.Item> equipped = new HashMap<>();
+    private final int[] visibleItems = new int[KitType.values().length];
+
+    private ReplayClient replayClient;
+    private Client client;
+    private int tick = 0;
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    @Before
+    public void setUp() {
+        replayClient = new ReplayClient(USERNAME);
+        Client replay = replayClient.getClient();
+
+        // The replay client has no item containers, so the equipment container is layered on top of it.
+        ItemContainer container = proxy(
+                ItemContainer.class,
+                (p, method, args) -> method.getName().equals("getItem") ? equipped.get((Integer) args[0]) : null);
+        client = proxy(
+                Client.class,
+                (p, method, args) ->
+                        method.getName().equals("getItemContainer") ? container : method.invoke(replay, args));
+
+        Arrays.fill(visibleItems, -1);
+    }
+
+    private void equip(EquipmentSlot slot, int id, int quantity) {
+        equipped.put(slot.getInventorySlotIndex(), new net.runelite.api.Item(id, quantity));
+    }
+
+    private void unequip(EquipmentSlot slot) {
+        equipped.remove(slot.getInventorySlotIndex());
+    }
+
+    private Player player() {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_PLAYER_STATE;
+        input.player = USERNAME;
+        input.equipment = visibleItems;
+        replayClient.replay(input, null);
+        return replayClient.getClient().getLocalPlayer();
+    }
+
+    private List<ItemDelta> update(Raider raider) {
+        raider.updateState(client, player(), tick++, CaptureProfile.STANDARD);
+        return raider.getEquipmentChangesThisTick();
+    }
+
+    private static void assertDelta(ItemDelta delta, int id, int quantity, EquipmentSlot slot, boolean added) {
+        assertEquals(id, delta.getId());
+        assertEquals(quantity, delta.getQuantity());
+        assertEquals(slot.ordinal(), delta.getSlot());
+        assertEquals(added, delta.isAdded());
+    }
+
+    @Test
+    public void localPlayerEquipAndUnequip() {
+        Raider raider = new Raider(USERNAME, true);
+        equip(EquipmentSlot.HEAD, HELM_OF_NEITIZNOT, 1);
+        equip(EquipmentSlot.WEAPON, ABYSSAL_WHIP, 1);
+
+        List<ItemDelta> changes = update(raider);
+        assertEquals(2, changes.size());
+        assertDelta(changes.get(0), HELM_OF_NEITIZNOT, 1, EquipmentSlot.HEAD, true);
+        assertDelta(changes.get(1), ABYSSAL_WHIP, 1, EquipmentSlot.WEAPON, true);
+        assertEquals(ABYSSAL_WHIP, raider.getEquippedItem(EquipmentSlot.WEAPON).orElseThrow().getId());
+
+        unequip(EquipmentSlot.HEAD);
+        changes = update(raider);
+        assertEquals(1, changes.size());
+        assertDelta(changes.get(0), HELM_OF_NEITIZNOT, 1, EquipmentSlot.HEAD, false);
+        assertFalse(raider.getEquippedItem(EquipmentSlot.HEAD).isPresent());
+        assertTrue(raider.getEquippedItem(EquipmentSlot.WEAPON).isPresent());
+    }
+
+    @Test
+    public void localPlayerStackableQuantityChanges() {
+        Raider raider = new Raider(USERNAME, true);
+        equip(EquipmentSlot.AMMO, RUNE_ARROW, 100);
+        List<ItemDelta> changes = update(raider);
+        assertEquals(1, changes.size());
+        assertDelta(changes.get(0), RUNE_ARROW, 100, EquipmentSlot.AMMO, true);
+
+        equip(EquipmentSlot.AMMO, RUNE_ARROW, 80);
+        changes = update(raider);
+        assertEquals(1, changes.size());
+        assertDelta(changes.get(0), RUNE_ARROW, 20, EquipmentSlot.AMMO, false);
+        assertEquals(80, raider.getEquippedItem(EquipmentSlot.AMMO).orElseThrow().getQuantity());
+
+        equip(EquipmentSlot.AMMO, RUNE_ARROW, 95);
+        changes = update(raider);
+        assertEquals(1, changes.size());
+        assertDelta(changes.get(0), RUNE_ARROW, 15, EquipmentSlot.AMMO, true);
+    }
+
+    @Test
+    public void localPlayerUnchangedTickHasNoDeltas() {
+        Raider raider = new Raider(USERNAME, true);
+        equip(EquipmentSlot.WEAPON, ABYSSAL_WHIP, 1);
+        equip(EquipmentSlot.AMMO, RUNE_ARROW, 100);
+        assertEquals(2, update(raider).size());
+
+        assertTrue(update(raider).isEmpty());
+        assertTrue(update(raider).isEmpty());
+        assertEquals(100, raider.getEquippedItem(EquipmentSlot.AMMO).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void otherPlayerEquipmentFromVisibleItems() {
+        Raider raider = new Raider(USERNAME, false);
+        visibleItems[KitType.WEAPON.ordinal()] = ABYSSAL_WHIP;
+        raider.snapshotEquipmentChanges(player().getPlayerComposition());
+
+        List<ItemDelta> changes = update(raider);
+        assertEquals(1, changes.size());
+        assertDelta(changes.get(0), ABYSSAL_WHIP, 1, EquipmentSlot.WEAPON, true);
+
+        // Neither a tick without a composition change nor one which reports the same items produces any deltas.
+        assertTrue(update(raider).isEmpty());
+        raider.snapshotEquipmentChanges(player().getPlayerComposition());
+        assertTrue(update(raider).isEmpty());
+
+        visibleItems[KitType.WEAPON.ordinal()] = -1;
+        visibleItems[KitType.HEAD.ordinal()] = HELM_OF_NEITIZNOT;
+        raider.snapshotEquipmentChanges(player().getPlayerComposition());
+        changes = update(raider);
+        assertEquals(2, changes.size());
+        assertDelta(changes.get(0), HELM_OF_NEITIZNOT, 1, EquipmentSlot.HEAD, true);
+        assertDelta(changes.get(1), ABYSSAL_WHIP, 1, EquipmentSlot.WEAPON, false);
+        assertFalse(raider.getEquippedItem(EquipmentSlot.WEAPON).isPresent());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class StageGridTest {
+    @Test
+    public void storesValuesByTile() {
+        StageGrid<String> grid = new StageGrid<>(3200, 4400, 10, 5);
+        assertTrue(grid.isEmpty());
+        assertNull(grid.get(3200, 4400));
+
+        assertNull(grid.put(3200, 4400, "a"));
+        assertNull(grid.put(3209, 4404, "b"));
+        assertEquals(2, grid.size());
+        assertEquals("a", grid.get(3200, 4400));
+        assertEquals("b", grid.get(3209, 4404));
+        assertNull(grid.get(3201, 4400));
+
+        assertEquals("a", grid.put(3200, 4400, "c"));
+        assertEquals(2, grid.size());
+        assertEquals("c", grid.get(3200, 4400));
+    }
+
+    @Test
+    public void removesValues() {
+        StageGrid<String> grid = new StageGrid<>(0, 0, 8, 8);
+        grid.put(1, 1, "a");
+        grid.put(2, 2, "b");
+
+        assertEquals("a", grid.remove(1, 1));
+        assertNull(grid.remove(1, 1));
+        assertEquals(1, grid.size());
+
+        assertFalse(grid.remove(2, 2, "c"));
+        assertTrue(grid.remove(2, 2, "b"));
+        assertTrue(grid.isEmpty());
+    }
+
+    @Test
+    public void ignoresLookupsOutsideTheGrid() {
+        StageGrid<String> grid = new StageGrid<>(10, 10, 4, 4);
+        grid.put(10, 10, "a");
+
+        assertFalse(grid.contains(9, 10));
+        assertFalse(grid.contains(14, 10));
+        assertNull(grid.get(9, 10));
+        assertNull(grid.get(10, 14));
+        assertNull(grid.remove(14, 14));
+        assertEquals(1, grid.size());
+    }
+
+    @Test
+    public void ignoresPutsOutsideTheGrid() {
+        StageGrid<String> grid = new StageGrid<>(0, 0, 4, 4);
+        assertNull(grid.put(4, 0, "a"));
+        assertNull(grid.put(0, -1, "b"));
+        assertTrue(grid.isEmpty());
+        assertNull(grid.get(4, 0));
+    }
+
+    @Test
+    public void sceneGridHoldsArenaAroundFirstTile() {
+        StageGrid<String> grid = StageGrid.forScene(10, 8);
+        assertEquals(19, grid.getWidth());
+        assertEquals(15, grid.getHeight());
+
+        // Opposite corners of a 10x8 arena, whichever of them is placed first.
+        grid.put(60, 70, "sw");
+        assertNull(grid.put(69, 77, "ne"));
+        assertEquals("sw", grid.get(60, 70));
+        assertEquals("ne", grid.get(69, 77));
+
+        // Tiles further away than the arena's size are ignored.
+        assertNull(grid.put(70, 70, "outside"));
+        assertEquals(2, grid.size());
+        assertNull(grid.remove(70, 70));
+
+        // An emptied grid is repositioned around the next tile placed on it.
+        grid.clear();
+        grid.put(150, 150, "ne");
+        grid.put(141, 143, "sw");
+        assertEquals("sw", grid.get(141, 143));
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    public void iteratesOccupiedTilesInRowMajorOrder() {
+        StageGrid<String> grid = new StageGrid<>(100, 200, 20, 20);
+        grid.put(119, 219, "d");
+        grid.put(103, 200, "a");
+        grid.put(100, 204, "c");
+        grid.put(115, 200, "b");
+        grid.remove(115, 200);
+        grid.put(110, 203, "b");
+
+        List<String> visited = new ArrayList<>();
+        grid.forEachTile((x, y, value) -> {
+            assertSame(value, grid.get(x, y));
+            visited.add(value);
+        });
+        assertEquals(List.of("a", "b", "c", "d"), visited);
+
+        assertEquals("c", grid.find(value -> value.compareTo("b") > 0));
+        assertNull(grid.find(value -> value.equals("e")));
+    }
+
+    @Test
+    public void clearsAllTiles() {
+        StageGrid<String> grid = new StageGrid<>(0, 0, 100, 100);
+        grid.clear();
+        grid.put(50, 50, "a");
+        grid.put(99, 99, "b");
+        grid.clear();
+
+        assertTrue(grid.isEmpty());
+        assertNull(grid.get(50, 50));
+        grid.forEach(value -> {
+            throw new AssertionError("Unexpected value " + value);
+        });
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TickWatchdogTest {
+    private static final long OVER = 10_000_000L;
+    private static final long UNDER = 1_000_000L;
+
+    private static TickWatchdog watchdog() {
+        TickWatchdog watchdog = new TickWatchdog();
+        watchdog.setBudgetMillis(5);
+        return watchdog;
+    }
+
+    private static int recordTicks(TickWatchdog watchdog, long elapsedNanos, int ticks) {
+        int changes = 0;
+        for (int i = 0; i < ticks; i++) {
+            if (watchdog.record(elapsedNanos)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Test
+    public void staysAtNoneWithinBudget() {
+        TickWatchdog watchdog = watchdog();
+        assertEquals(0, recordTicks(watchdog, UNDER, 100));
+        assertEquals(TickWatchdog.Level.NONE, watchdog.getLevel());
+    }
+
+    @Test
+    public void escalatesOneLevelAtATime() {
+        TickWatchdog watchdog = watchdog();
+        recordTicks(watchdog, OVER, TickWatchdog.ESCALATE_AFTER_TICKS - 1);
+        assertEquals(TickWatchdog.Level.NONE, watchdog.getLevel());
+
+        assertTrue(watchdog.record(OVER));
+        assertEquals(TickWatchdog.Level.SKIP_SECONDARY_SPELLS, watchdog.getLevel());
+
+        recordTicks(watchdog, OVER, TickWatchdog.ESCALATE_AFTER_TICKS);
+        assertEquals(TickWatchdog.Level.COALESCE_NPC_UPDATES, watchdog.getLevel());
+        assertTrue(watchdog.isAtLeast(TickWatchdog.Level.SKIP_SECONDARY_SPELLS));
+        assertFalse(watchdog.isAtLeast(TickWatchdog.Level.DROP_AREA_EFFECTS));
+    }
+
+    @Test
+    public void stopsAtHighestLevel() {
+        TickWatchdog watchdog = watchdog();
+        assertEquals(3, recordTicks(watchdog, OVER, TickWatchdog.ESCALATE_AFTER_TICKS * 10));
+        assertEquals(TickWatchdog.Level.DROP_AREA_EFFECTS, watchdog.getLevel());
+    }
+
+    @Test
+    public void singleSlowTickDoesNotEscalate() {
+        TickWatchdog watchdog = watchdog();
+        for (int i = 0; i < 20; i++) {
+            watchdog.record(OVER);
+            watchdog.record(UNDER);
+        }
+        assertEquals(TickWatchdog.Level.NONE, watchdog.getLevel());
+    }
+
+    @Test
+    public void recoversAfterSustainedHeadroom() {
+        TickWatchdog watchdog = watchdog();
+        recordTicks(watchdog, OVER, TickWatchdog.ESCALATE_AFTER_TICKS * 2);
+        assertEquals(TickWatchdog.Level.COALESCE_NPC_UPDATES, watchdog.getLevel());
+
+        recordTicks(watchdog, UNDER, TickWatchdog.RECOVER_AFTER_TICKS - 1);
+        assertEquals(TickWatchdog.Level.COALESCE_NPC_UPDATES, watchdog.getLevel());
+
+        assertTrue(watchdog.record(UNDER));
+        assertEquals(TickWatchdog.Level.SKIP_SECONDARY_SPELLS, watchdog.getLevel());
+
+        recordTicks(watchdog, UNDER, TickWatchdog.RECOVER_AFTER_TICKS);
+        assertEquals(TickWatchdog.Level.NONE, watchdog.getLevel());
+    }
+
+    @Test
+    public void zeroBudgetDisablesWatchdog() {
+        TickWatchdog watchdog = new TickWatchdog();
+        assertEquals(0, recordTicks(watchdog, Long.MAX_VALUE, 100));
+
+        watchdog = watchdog();
+        recordTicks(watchdog, OVER, TickWatchdog.ESCALATE_AFTER_TICKS);
+        watchdog.setBudgetMillis(0);
+        assertEquals(TickWatchdog.Level.NONE, watchdog.getLevel());
+    }
+}
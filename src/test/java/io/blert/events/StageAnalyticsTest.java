@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import io.blert.core.AttackDefinition;
+import io.blert.core.CaptureProfile;
+import io.blert.core.Challenge;
+import io.blert.core.ChallengeMode;
+import io.blert.core.Raider;
+import io.blert.core.SpellDefinition;
+import io.blert.core.Stage;
+import io.blert.json.StageSummary;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StageAnalyticsTest {
+    private static final AttackDefinition SCYTHE = attack(21, "SCY");
+    private static final AttackDefinition CLAW_SPEC = attack(33, "CLAW_SPEC");
+    private static final SpellDefinition VENGEANCE = new SpellDefinition(
+            2, "Vengeance", new int[0], Collections.emptyList(), Collections.emptyList(), 0);
+    private static final SpellDefinition DEATH_CHARGE = new SpellDefinition(
+            5, "Death Charge", new int[0], Collections.emptyList(), Collections.emptyList(), 3);
+
+    private final Raider first = new Raider("first", true);
+    private final Raider second = new Raider("second", false);
+
+    private StageAnalytics analytics;
+
+    private static AttackDefinition attack(int protoId, String name) {
+        return new AttackDefinition(
+                protoId, name, new int[0], new int[0], 5, null, false, 0, 0, AttackDefinition.Category.MELEE);
+    }
+
+    @Before
+    public void setUp() {
+        analytics = new StageAnalytics();
+        analytics.handleEvent(0, new ChallengeStartEvent(
+                Challenge.TOB,
+                ChallengeMode.TOB_REGULAR,
+                Stage.TOB_MAIDEN,
+                Arrays.asList("first", "second"),
+                false,
+                CaptureProfile.FULL));
+    }
+
+    private void stage(Stage stage, int tick, StageUpdateEvent.Status status) {
+        analytics.handleEvent(tick, new StageUpdateEvent(stage, tick, status));
+    }
+
+    private void attack(Stage stage, int tick, AttackDefinition attack, Raider raider) {
+        analytics.handleEvent(tick, new PlayerAttackEvent(stage, tick, null, attack, null, raider, null, 1));
+    }
+
+    private void update(Stage stage, int tick, Raider raider) {
+        analytics.handleEvent(tick, PlayerUpdateEvent.fromRaider(stage, tick, null, null, raider));
+    }
+
+    private void spell(Stage stage, int tick, SpellDefinition spell, Raider raider) {
+        analytics.handleEvent(tick, PlayerSpellEvent.withNoTarget(stage, tick, null, spell, raider));
+    }
+
+    @Test
+    public void accumulatesCountersPerPlayer() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_MAIDEN, 1, SCYTHE, first);
+        attack(Stage.TOB_MAIDEN, 6, SCYTHE, first);
+        attack(Stage.TOB_MAIDEN, 6, CLAW_SPEC, second);
+        spell(Stage.TOB_MAIDEN, 8, VENGEANCE, first);
+        spell(Stage.TOB_MAIDEN, 9, DEATH_CHARGE, second);
+        analytics.handleEvent(10, new PlayerDeathEvent(Stage.TOB_MAIDEN, 10, null, "Second"));
+        stage(Stage.TOB_MAIDEN, 12, StageUpdateEvent.Status.COMPLETED);
+
+        StageSummary summary = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(summary);
+        assertEquals(Stage.TOB_MAIDEN.getId(), summary.stage);
+        assertEquals(12, summary.ticks);
+        assertEquals(2, summary.players.size());
+
+        StageSummary.Player firstSummary = summary.players.get(0);
+        assertEquals("first", firstSummary.username);
+        assertEquals(2, firstSummary.attacks);
+        assertEquals(Collections.singletonMap(21, 2), firstSummary.attacksByType);
+        assertEquals(Collections.singletonMap(2, 1), firstSummary.spells);
+        assertEquals(0, firstSummary.stalls);
+        assertEquals(0, firstSummary.deaths);
+
+        StageSummary.Player secondSummary = summary.players.get(1);
+        assertEquals("second", secondSummary.username);
+        assertEquals(1, secondSummary.attacks);
+        assertEquals(Collections.singletonMap(33, 1), secondSummary.attacksByType);
+        assertEquals(Collections.singletonMap(5, 1), secondSummary.spells);
+        assertEquals(1, secondSummary.stalls);
+        assertEquals(1, secondSummary.deaths);
+    }
+
+    @Test
+    public void countsTicksOffCooldown() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        for (int tick = 1; tick <= 10; tick++) {
+            update(Stage.TOB_MAIDEN, tick, second);
+            if (tick == 4) {
+                // Off cooldown through tick 4, then on cooldown until the attack's 5 ticks have passed on tick 9.
+                second.recordAttack(tick, SCYTHE, false);
+                attack(Stage.TOB_MAIDEN, tick, SCYTHE, second);
+            }
+        }
+        stage(Stage.TOB_MAIDEN, 10, StageUpdateEvent.Status.COMPLETED);
+
+        StageSummary summary = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(summary);
+        assertEquals(0, summary.players.get(0).ticksOffCooldown);
+        assertEquals(6, summary.players.get(1).ticksOffCooldown);
+    }
+
+    @Test
+    public void ignoresPlayersOutsideTheParty() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_MAIDEN, 1, SCYTHE, new Raider("spectator", false));
+        stage(Stage.TOB_MAIDEN, 5, StageUpdateEvent.Status.COMPLETED);
+
+        StageSummary summary = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(summary);
+        assertEquals(0, summary.players.get(0).attacks);
+        assertEquals(0, summary.players.get(1).attacks);
+    }
+
+    @Test
+    public void resetsCountersWhenStageStarts() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_MAIDEN, 1, SCYTHE, first);
+        stage(Stage.TOB_MAIDEN, 10, StageUpdateEvent.Status.COMPLETED);
+
+        stage(Stage.TOB_BLOAT, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_BLOAT, 3, CLAW_SPEC, first);
+        stage(Stage.TOB_BLOAT, 20, StageUpdateEvent.Status.COMPLETED);
+
+        StageSummary bloat = analytics.getSummary(Stage.TOB_BLOAT);
+        assertNotNull(bloat);
+        assertEquals(1, bloat.players.get(0).attacks);
+        assertEquals(Collections.singletonMap(33, 1), bloat.players.get(0).attacksByType);
+
+        // The earlier stage's summary is unaffected by the reset.
+        StageSummary maiden = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(maiden);
+        assertEquals(Collections.singletonMap(21, 1), maiden.players.get(0).attacksByType);
+    }
+
+    @Test
+    public void emitsSummaryOnlyWhenStageFinishes() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_MAIDEN, 1, SCYTHE, first);
+        assertNull(analytics.getSummary(Stage.TOB_MAIDEN));
+
+        analytics.handleEvent(4, new PlayerDeathEvent(Stage.TOB_MAIDEN, 4, null, "first"));
+        analytics.handleEvent(4, new PlayerDeathEvent(Stage.TOB_MAIDEN, 4, null, "second"));
+        stage(Stage.TOB_MAIDEN, 4, StageUpdateEvent.Status.WIPED);
+
+        StageSummary summary = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(summary);
+        assertEquals(4, summary.ticks);
+        assertEquals(1, summary.players.get(0).attacks);
+        assertEquals(1, summary.players.get(0).deaths);
+        assertEquals(1, summary.players.get(1).deaths);
+    }
+
+    @Test
+    public void newChallengeClearsSummaries() {
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        stage(Stage.TOB_MAIDEN, 10, StageUpdateEvent.Status.COMPLETED);
+        assertNotNull(analytics.getSummary(Stage.TOB_MAIDEN));
+
+        analytics.handleEvent(0, new ChallengeStartEvent(
+                Challenge.TOB,
+                ChallengeMode.TOB_REGULAR,
+                Stage.TOB_MAIDEN,
+                Collections.singletonList("first"),
+                false,
+                CaptureProfile.FULL));
+        assertNull(analytics.getSummary(Stage.TOB_MAIDEN));
+
+        stage(Stage.TOB_MAIDEN, 0, StageUpdateEvent.Status.STARTED);
+        attack(Stage.TOB_MAIDEN, 1, SCYTHE, second);
+        stage(Stage.TOB_MAIDEN, 10, StageUpdateEvent.Status.COMPLETED);
+
+        StageSummary summary = analytics.getSummary(Stage.TOB_MAIDEN);
+        assertNotNull(summary);
+        assertEquals(1, summary.players.size());
+        assertTrue(summary.players.get(0).attacksByType.isEmpty());
+    }
+}
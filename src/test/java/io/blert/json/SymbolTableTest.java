@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class SymbolTableTest {
+    private static Event playerEvent(String name) {
+        Event event = new Event();
+        event.player = new Event.Player();
+        event.player.name = name;
+        return event;
+    }
+
+    private static Event npcEvent(int id, long roomId) {
+        Event event = new Event();
+        event.npc = new Event.Npc();
+        event.npc.id = id;
+        event.npc.roomId = roomId;
+        return event;
+    }
+
+    @Test
+    public void partyIsDefinedInOrder() {
+        SymbolTable table = new SymbolTable();
+        table.definePlayers(List.of("alice", "bob"));
+
+        List<Symbol> definitions = table.drainDefinitions();
+        assertEquals(2, definitions.size());
+        assertEquals(0, definitions.get(0).handle);
+        assertEquals("alice", definitions.get(0).player);
+        assertEquals(1, definitions.get(1).handle);
+        assertEquals("bob", definitions.get(1).player);
+        assertTrue(table.drainDefinitions().isEmpty());
+    }
+
+    @Test
+    public void playerNameIsReplacedByHandle() {
+        SymbolTable table = new SymbolTable();
+        table.definePlayers(List.of("alice", "bob"));
+        table.drainDefinitions();
+
+        Event event = playerEvent("bob");
+        table.encode(event);
+        assertNull(event.player.name);
+        assertEquals(Integer.valueOf(1), event.player.symbol);
+        assertTrue(table.drainDefinitions().isEmpty());
+    }
+
+    @Test
+    public void npcIsDefinedOnce() {
+        SymbolTable table = new SymbolTable();
+
+        Event first = npcEvent(8360, 42L);
+        table.encode(first);
+        assertNull(first.npc.id);
+        assertNull(first.npc.roomId);
+        assertEquals(Integer.valueOf(0), first.npc.symbol);
+
+        List<Symbol> definitions = table.drainDefinitions();
+        assertEquals(1, definitions.size());
+        assertEquals(Integer.valueOf(8360), definitions.get(0).npcId);
+        assertEquals(Long.valueOf(42L), definitions.get(0).roomId);
+
+        Event second = npcEvent(8360, 42L);
+        table.encode(second);
+        assertEquals(Integer.valueOf(0), second.npc.symbol);
+        assertTrue(table.drainDefinitions().isEmpty());
+    }
+
+    @Test
+    public void transformedNpcGetsNewHandle() {
+        SymbolTable table = new SymbolTable();
+        table.encode(npcEvent(8370, 7L));
+        table.drainDefinitions();
+
+        Event event = npcEvent(8371, 7L);
+        table.encode(event);
+        assertEquals(Integer.valueOf(1), event.npc.symbol);
+        assertEquals(1, table.drainDefinitions().size());
+    }
+
+    @Test
+    public void attackAndSpellTargetsAreEncoded() {
+        SymbolTable table = new SymbolTable();
+        table.definePlayers(List.of("alice", "bob"));
+
+        Event attack = playerEvent("alice");
+        attack.playerAttack = new Event.Attack();
+        attack.playerAttack.target = new Event.Npc();
+        attack.playerAttack.target.id = 10814;
+        attack.playerAttack.target.roomId = 3L;
+        table.encode(attack);
+        assertEquals(Integer.valueOf(2), attack.playerAttack.target.symbol);
+
+        Event spell = playerEvent("alice");
+        spell.playerSpell = new Event.Spell();
+        spell.playerSpell.targetPlayer = "bob";
+        table.encode(spell);
+        assertNull(spell.playerSpell.targetPlayer);
+        assertEquals(Integer.valueOf(1), spell.playerSpell.targetPlayerSymbol);
+
+        Event npcAttack = npcEvent(10814, 3L);
+        npcAttack.npcAttack = new Event.NpcAttack();
+        npcAttack.npcAttack.target = "alice";
+        table.encode(npcAttack);
+        assertEquals(Integer.valueOf(2), npcAttack.npc.symbol);
+        assertEquals(Integer.valueOf(0), npcAttack.npcAttack.targetSymbol);
+    }
+
+    @Test
+    public void resetStartsNewDictionary() {
+        SymbolTable table = new SymbolTable();
+        table.definePlayers(List.of("alice"));
+        table.reset();
+        assertTrue(table.drainDefinitions().isEmpty());
+
+        Event event = playerEvent("bob");
+        table.encode(event);
+        assertEquals(Integer.valueOf(0), event.player.symbol);
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import com.google.gson.Gson;
+import io.blert.json.Event;
+import io.blert.replay.Capture;
+import io.blert.replay.CorpusRunner;
+import io.blert.replay.ReplayHarness;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Runs many simulated plugin instances against a {@link StandInServer}, each replaying recorded raids, and reports
+ * how the client side of the protocol holds up: how long event streams take to reach the server, how many bytes a
+ * raid costs, and how quickly instances recover when the server drops or drains their connections.
+ * <p>
+ * Recordings are the event streams produced by replaying captures through the {@link ReplayHarness}.
+ * <p>
+ * Usage: {@code LoadGenerator <corpus directory> [--instances N] [--raids N] [--tick-ms N] [--ping-ms N]
+ * [--drop-ms N] [--drain-ms N]}, or {@code ./gradlew loadTest -Pcorpus=<directory>}. The drop and drain options
+ * close or drain every connection once, that many milliseconds into the run.
+ */
+public class LoadGenerator {
+    /**
+     * A recorded raid, as the sequence of events the plugin would stream for each tick.
+     */
+    public static class Recording {
+        private final int challenge;
+        private final List<List<Event>> ticks;
+
+        Recording(int challenge, List<List<Event>> ticks) {
+            this.challenge = challenge;
+            this.ticks = ticks;
+        }
+
+        /**
+         * Replays a capture and groups its events by tick.
+         */
+        public static Recording of(Gson gson, ReplayHarness harness, Capture capture) {
+            Map<Integer, List<Event>> byTick = new TreeMap<>();
+            for (String json : harness.replay(capture).getEvents()) {
+                Event event = gson.fromJson(json, Event.class);
+                // The challenge ID is carried by the message rather than its events.
+                event.challengeId = null;
+                byTick.computeIfAbsent(event.tick, t -> new ArrayList<>()).add(event);
+            }
+            return new Recording(capture.challenge, new ArrayList<>(byTick.values()));
+        }
+
+        public int getChallenge() {
+            return challenge;
+        }
+
+        public List<List<Event>> getTicks() {
+            return ticks;
+        }
+    }
+
+    public static class Options {
+        public int instances = 100;
+        public int raidsPerInstance = 5;
+
+        /**
+         * Delay between ticks of a raid. Real raids stream one tick every 600ms.
+         */
+        public long tickMillis = 20;
+
+        public long pingMillis = 1000;
+
+        /**
+         * Time into the run at which the server drops every connection, or -1 to never drop them.
+         */
+        public long dropAfterMillis = -1;
+
+        /**
+         * Time into the run at which the server drains every connection, or -1 to never drain them.
+         */
+        public long drainAfterMillis = -1;
+    }
+
+    /**
+     * Measurements from a load run, or from a single instance within it.
+     */
+    public static class Report {
+        private int instances;
+        private int completedRaids;
+        private int abortedRaids;
+        private int disconnects;
+        private long raidBytes;
+        private long wallNanos;
+        private long[] latencies = new long[64];
+        private int latencyCount;
+        private final List<Long> recoveries = new ArrayList<>();
+
+        synchronized void recordCompletedRaid(long bytes) {
+            completedRaids++;
+            raidBytes += bytes;
+        }
+
+        synchronized void recordAbortedRaid() {
+            abortedRaids++;
+        }
+
+        synchronized void recordDisconnect() {
+            disconnects++;
+        }
+
+        synchronized void recordLatency(long nanos) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[latencyCount++] = nanos;
+        }
+
+        synchronized void recordRecovery(long nanos) {
+            recoveries.add(nanos);
+        }
+
+        synchronized void merge(Report other) {
+            synchronized (other) {
+                instances++;
+                completedRaids += other.completedRaids;
+                abortedRaids += other.abortedRaids;
+                disconnects += other.disconnects;
+                raidBytes += other.raidBytes;
+                for (int i = 0; i < other.latencyCount; i++) {
+                    recordLatency(other.latencies[i]);
+                }
+                recoveries.addAll(other.recoveries);
+            }
+        }
+
+        public synchronized int getCompletedRaids() {
+            return completedRaids;
+        }
+
+        public synchronized int getAbortedRaids() {
+            return abortedRaids;
+        }
+
+        public synchronized int getDisconnects() {
+            return disconnects;
+        }
+
+        public synchronized int getLatencySamples() {
+            return latencyCount;
+        }
+
+        public synchronized int getRecoveries() {
+            return recoveries.size();
+        }
+
+        public synchronized double bytesPerRaid() {
+            return completedRaids > 0 ? (double) raidBytes / completedRaids : 0;
+        }
+
+        /**
+         * Returns the given percentile of event stream send latency, in milliseconds.
+         */
+        public synchronized double latencyPercentile(double percentile) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return percentile(sorted, percentile);
+        }
+
+        /**
+         * Returns the given percentile of time taken to reconnect after a dropped or drained connection, in
+         * milliseconds.
+         */
+        public synchronized double recoveryPercentile(double percentile) {
+            long[] sorted = recoveries.stream().mapToLong(Long::longValue).sorted().toArray();
+            return percentile(sorted, percentile);
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        public synchronized String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(
+                    "%d instances: %d raids completed, %d aborted in %.2fs (%.1f raids/s)%n",
+                    instances,
+                    completedRaids,
+                    abortedRaids,
+                    wallNanos / 1e9,
+                    wallNanos > 0 ? completedRaids / (wallNanos / 1e9) : 0));
+            sb.append(String.format(
+                    "  send latency   p50 %.2fms  p90 %.2fms  p99 %.2fms  max %.2fms (%d samples)%n",
+                    latencyPercentile(50),
+                    latencyPercentile(90),
+                    latencyPercentile(99),
+                    latencyPercentile(100),
+                    latencyCount));
+            sb.append(String.format("  bytes per raid %.0f%n", bytesPerRaid()));
+            sb.append(String.format(
+                    "  reconnects     %d after %d disconnects, recovery p50 %.2fms  p99 %.2fms  max %.2fms%n",
+                    recoveries.size(),
+                    disconnects,
+                    recoveryPercentile(50),
+                    recoveryPercentile(99),
+                    recoveryPercentile(100)));
+            return sb.toString();
+        }
+    }
+
+    private final Gson gson;
+    private final StandInServer server;
+
+    public LoadGenerator(Gson gson, StandInServer server) {
+        this.gson = gson;
+        this.server = server;
+    }
+
+    /**
+     * Runs every simulated instance to completion against the server.
+     */
+    public Report run(List<Recording> recordings, Options options) throws InterruptedException {
+        if (recordings.isEmpty()) {
+            throw new IllegalArgumentException("No recordings to replay");
+        }
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(options.instances);
+        dispatcher.setMaxRequestsPerHost(options.instances);
+        OkHttpClient httpClient = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+
+        Map<String, SimulatedPlugin> instances = new ConcurrentHashMap<>();
+        for (int i = 0; i < options.instances; i++) {
+            String apiKey = "loadtest-" + i;
+            instances.put(
+                    apiKey, new SimulatedPlugin(apiKey, server.url(), httpClient, gson, recordings, options));
+        }
+        server.setListener((apiKey, message, bytes, receivedNanos) -> {
+            SimulatedPlugin instance = instances.get(apiKey);
+            if (instance != null) {
+                instance.onServerReceived(message, receivedNanos);
+            }
+        });
+
+        ScheduledExecutorService disruptions = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService pool = Executors.newFixedThreadPool(options.instances);
+        long start = System.nanoTime();
+
+        try {
+            if (options.pingMillis > 0) {
+                disruptions.scheduleAtFixedRate(
+                        server::pingAll, options.pingMillis, options.pingMillis, TimeUnit.MILLISECONDS);
+            }
+            if (options.dropAfterMillis >= 0) {
+                disruptions.schedule(server::dropAll, options.dropAfterMillis, TimeUnit.MILLISECONDS);
+            }
+            if (options.drainAfterMillis >= 0) {
+                disruptions.schedule(server::drainAll, options.drainAfterMillis, TimeUnit.MILLISECONDS);
+            }
+
+            List<Future<?>> running = new ArrayList<>();
+            instances.values().forEach(instance -> running.add(pool.submit(instance)));
+            for (Future<?> future : running) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Simulated instance failed", e.getCause());
+                }
+            }
+        } finally {
+            disruptions.shutdownNow();
+            pool.shutdownNow();
+            server.setListener(null);
+            httpClient.dispatcher().executorService().shutdown();
+        }
+
+        Report report = new Report();
+        instances.values().forEach(instance -> report.merge(instance.getReport()));
+        report.wallNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Replays every capture in a corpus directory into a recording.
+     */
+    public static List<Recording> loadRecordings(Gson gson, Path corpus) throws IOException {
+        List<Path> captures;
+        try (Stream<Path> files = Files.walk(corpus)) {
+            captures = files.filter(p -> p.getFileName().toString().endsWith(CorpusRunner.CAPTURE_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        ReplayHarness harness = new ReplayHarness(gson);
+        List<Recording> recordings = new ArrayList<>();
+        for (Path path : captures) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                recordings.add(Recording.of(gson, harness, Capture.read(gson, reader)));
+            }
+        }
+        return Collections.unmodifiableList(recordings);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path corpus = null;
+        Options options = new Options();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--instances":
+                    options.instances = Integer.parseInt(args[++i]);
+                    break;
+                case "--raids":
+                    options.raidsPerInstance = Integer.parseInt(args[++i]);
+                    break;
+                case "--tick-ms":
+                    options.tickMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--ping-ms":
+                    options.pingMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--drop-ms":
+                    options.dropAfterMillis = Long.parseLong(args[++i]);
+                    break;
+                case "--drain-ms":
+                    options.drainAfterMillis = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    corpus = Paths.get(args[i]);
+                    break;
+            }
+        }
+
+        if (corpus == null) {
+            System.err.println("Usage: LoadGenerator <corpus directory> [--instances N] [--raids N] [--tick-ms N] "
+                    + "[--ping-ms N] [--drop-ms N] [--drain-ms N]");
+            System.exit(2);
+        }
+
+        Gson gson = new Gson();
+        List<Recording> recordings = loadRecordings(gson, corpus);
+        try (StandInServer server = new StandInServer(gson)) {
+            server.start();
+            Report report = new LoadGenerator(gson, server).run(recordings, options);
+            System.out.print(report.summary());
+            System.exit(report.getAbortedRaids() == 0 || options.dropAfterMillis >= 0 ? 0 : 1);
+        }
+    }
+}
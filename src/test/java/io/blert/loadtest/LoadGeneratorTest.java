@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.replay.ReplayHarness;
+import io.blert.replay.ReplayHarnessTest;
+import java.util.List;
+import org.junit.Test;
+
+public class LoadGeneratorTest {
+    private final Gson gson = new Gson();
+
+    private List<LoadGenerator.Recording> recordings() {
+        return List.of(LoadGenerator.Recording.of(gson, new ReplayHarness(gson), ReplayHarnessTest.infernoCapture()));
+    }
+
+    @Test
+    public void replaysRaidsFromManyInstances() throws Exception {
+        LoadGenerator.Options options = new LoadGenerator.Options();
+        options.instances = 25;
+        options.raidsPerInstance = 2;
+        options.tickMillis = 1;
+
+        try (StandInServer server = new StandInServer(gson)) {
+            server.start();
+            LoadGenerator.Report report = new LoadGenerator(gson, server).run(recordings(), options);
+
+            assertEquals(50, report.getCompletedRaids());
+            assertEquals(0, report.getAbortedRaids());
+            assertEquals(50, server.getChallengesEnded());
+            assertTrue(report.getLatencySamples() > 0);
+            assertTrue(report.latencyPercentile(99) >= report.latencyPercentile(50));
+            assertTrue(report.bytesPerRaid() > 0);
+        }
+    }
+
+    @Test
+    public void instancesRecoverFromDroppedConnections() throws Exception {
+        LoadGenerator.Options options = new LoadGenerator.Options();
+        options.instances = 10;
+        options.raidsPerInstance = 6;
+        options.tickMillis = 10;
+        options.dropAfterMillis = 250;
+
+        try (StandInServer server = new StandInServer(gson)) {
+            server.start();
+            LoadGenerator.Report report = new LoadGenerator(gson, server).run(recordings(), options);
+
+            assertEquals(60, report.getCompletedRaids() + report.getAbortedRaids());
+            assertTrue(report.getDisconnects() > 0);
+            assertTrue(report.getRecoveries() > 0);
+            assertTrue(server.getConnections() > options.instances);
+        }
+    }
+}
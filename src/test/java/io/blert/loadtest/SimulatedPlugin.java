@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import com.google.gson.Gson;
+import io.blert.client.WebSocketClient;
+import io.blert.json.ChallengeEndRequest;
+import io.blert.json.ChallengeStartRequest;
+import io.blert.json.Event;
+import io.blert.json.ServerMessage;
+import io.blert.json.ServerStatus;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import okhttp3.OkHttpClient;
+
+/**
+ * A single simulated plugin instance, which replays recordings over a real {@link WebSocketClient} the way the plugin
+ * reports a challenge: a start request, the challenge's events streamed one tick at a time, then an end request.
+ * <p>
+ * Like the plugin, it answers pings, reconnects through a fresh client when its connection is lost, and honors drain
+ * requests by reconnecting once it is between raids.
+ */
+class SimulatedPlugin implements Runnable {
+    private static final long RESPONSE_TIMEOUT_MS = 5000;
+    private static final long OPEN_TIMEOUT_MS = 5000;
+    private static final int MAX_CONNECT_ATTEMPTS = 10;
+    private static final long RETRY_DELAY_MS = 50;
+
+    // Placed in the response queue to wake up a raid waiting on a connection that was lost.
+    private static final ServerMessage DISCONNECTED = new ServerMessage();
+
+    private final String apiKey;
+    private final String url;
+    private final OkHttpClient httpClient;
+    private final Gson gson;
+    private final List<LoadGenerator.Recording> recordings;
+    private final LoadGenerator.Options options;
+    private final LoadGenerator.Report report = new LoadGenerator.Report();
+
+    private final BlockingQueue<ServerMessage> responses = new LinkedBlockingQueue<>();
+    private final Queue<Long> inFlightStreams = new ConcurrentLinkedQueue<>();
+
+    private volatile @Nullable WebSocketClient client = null;
+    private volatile boolean draining = false;
+    private volatile long disconnectedAt = -1;
+    private int nextRequestId = 1;
+
+    SimulatedPlugin(
+            String apiKey,
+            String url,
+            OkHttpClient httpClient,
+            Gson gson,
+            List<LoadGenerator.Recording> recordings,
+            LoadGenerator.Options options) {
+        this.apiKey = apiKey;
+        this.url = url;
+        this.httpClient = httpClient;
+        this.gson = gson;
+        this.recordings = recordings;
+        this.options = options;
+    }
+
+    String getApiKey() {
+        return apiKey;
+    }
+
+    LoadGenerator.Report getReport() {
+        return report;
+    }
+
+    @Override
+    public void run() {
+        int offset = Math.floorMod(apiKey.hashCode(), recordings.size());
+        try {
+            for (int i = 0; i < options.raidsPerInstance; i++) {
+                if (draining) {
+                    reconnect();
+                }
+                if (!ensureConnected()) {
+                    report.recordAbortedRaid();
+                    continue;
+                }
+                raid(recordings.get((offset + i) % recordings.size()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            WebSocketClient current = client;
+            if (current != null) {
+                detach(current);
+                current.close();
+            }
+        }
+    }
+
+    /**
+     * Called by the server when it receives a message from this instance, to measure how long event streams take to
+     * arrive.
+     */
+    void onServerReceived(ServerMessage message, long receivedNanos) {
+        if (message.type != ServerMessage.TYPE_EVENT_STREAM) {
+            return;
+        }
+        Long sentNanos = inFlightStreams.poll();
+        if (sentNanos != null) {
+            report.recordLatency(receivedNanos - sentNanos);
+        }
+    }
+
+    private void raid(LoadGenerator.Recording recording) throws InterruptedException {
+        responses.clear();
+        long bytes = 0;
+
+        ServerMessage start = new ServerMessage();
+        start.type = ServerMessage.TYPE_CHALLENGE_START_REQUEST;
+        start.requestId = nextRequestId++;
+        start.challengeStartRequest = new ChallengeStartRequest();
+        start.challengeStartRequest.challenge = recording.getChallenge();
+        start.challengeStartRequest.party = List.of(apiKey);
+        start.challengeStartRequest.provisionalChallengeId = UUID.randomUUID().toString();
+        bytes += send(start);
+
+        ServerMessage startResponse = awaitResponse(start.requestId);
+        if (startResponse == null || startResponse.activeChallengeId == null) {
+            report.recordAbortedRaid();
+            return;
+        }
+        String challengeId = startResponse.activeChallengeId;
+
+        for (List<Event> tick : recording.getTicks()) {
+            if (options.tickMillis > 0) {
+                Thread.sleep(options.tickMillis);
+            }
+
+            WebSocketClient current = client;
+            if (current == null || !current.isOpen()) {
+                report.recordAbortedRaid();
+                return;
+            }
+
+            ServerMessage stream = new ServerMessage();
+            stream.type = ServerMessage.TYPE_EVENT_STREAM;
+            stream.activeChallengeId = challengeId;
+            stream.challengeEvents = tick;
+            inFlightStreams.add(System.nanoTime());
+            bytes += send(stream);
+        }
+
+        ServerMessage end = new ServerMessage();
+        end.type = ServerMessage.TYPE_CHALLENGE_END_REQUEST;
+        end.requestId = nextRequestId++;
+        end.activeChallengeId = challengeId;
+        end.challengeEndRequest = new ChallengeEndRequest();
+        end.challengeEndRequest.challengeTimeTicks = recording.getTicks().size();
+        end.challengeEndRequest.overallTimeTicks = recording.getTicks().size();
+        bytes += send(end);
+
+        if (awaitResponse(end.requestId) == null) {
+            report.recordAbortedRaid();
+            return;
+        }
+
+        report.recordCompletedRaid(bytes);
+    }
+
+    private int send(ServerMessage message) {
+        String text = gson.toJson(message);
+        WebSocketClient current = client;
+        if (current != null) {
+            current.sendTextMessage(text);
+        }
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private @Nullable ServerMessage awaitResponse(int requestId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RESPONSE_TIMEOUT_MS);
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            ServerMessage response = remaining > 0 ? responses.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (response == null || response == DISCONNECTED) {
+                return null;
+            }
+            if (response.requestId != null && response.requestId == requestId) {
+                return response;
+            }
+        }
+    }
+
+    private boolean ensureConnected() throws InterruptedException {
+        WebSocketClient current = client;
+        if (current != null && current.isOpen()) {
+            return true;
+        }
+
+        for (int attempt = 0; attempt < MAX_CONNECT_ATTEMPTS; attempt++) {
+            if (connect()) {
+                if (disconnectedAt >= 0) {
+                    report.recordRecovery(System.nanoTime() - disconnectedAt);
+                    disconnectedAt = -1;
+                }
+                return true;
+            }
+            Thread.sleep(RETRY_DELAY_MS << Math.min(attempt, 5));
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the connection with a fresh one, as the plugin does when the server asks it to drain.
+     */
+    private void reconnect() throws InterruptedException {
+        draining = false;
+        WebSocketClient current = client;
+        if (current != null) {
+            detach(current);
+            current.close();
+            client = null;
+        }
+        disconnectedAt = System.nanoTime();
+        ensureConnected();
+    }
+
+    private boolean connect() throws InterruptedException {
+        WebSocketClient newClient = new WebSocketClient(url, apiKey, "runelite-loadtest", httpClient);
+        newClient.setTextMessageCallback(this::onMessage);
+        newClient.setDisconnectCallback(reason -> onDisconnect(newClient));
+        client = newClient;
+        inFlightStreams.clear();
+
+        try {
+            return newClient.open().get(OPEN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void onMessage(String text) {
+        ServerMessage message = gson.fromJson(text, ServerMessage.class);
+        switch (message.type) {
+            case ServerMessage.TYPE_PING: {
+                ServerMessage pong = new ServerMessage();
+                pong.type = ServerMessage.TYPE_PONG;
+                send(pong);
+                break;
+            }
+
+            case ServerMessage.TYPE_SERVER_STATUS:
+                if (message.serverStatus != null
+                        && (message.serverStatus.status == ServerStatus.STATUS_DRAINING
+                                || message.serverStatus.status == ServerStatus.STATUS_REBALANCING)) {
+                    draining = true;
+                }
+                break;
+
+            case ServerMessage.TYPE_CHALLENGE_START_RESPONSE:
+            case ServerMessage.TYPE_CHALLENGE_END_RESPONSE:
+                responses.add(message);
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void onDisconnect(WebSocketClient disconnected) {
+        if (disconnected != client) {
+            return;
+        }
+        if (disconnectedAt < 0) {
+            disconnectedAt = System.nanoTime();
+            report.recordDisconnect();
+        }
+        inFlightStreams.clear();
+        responses.add(DISCONNECTED);
+    }
+
+    private static void detach(WebSocketClient client) {
+        client.setTextMessageCallback(null);
+        client.setDisconnectCallback(null);
+    }
+}
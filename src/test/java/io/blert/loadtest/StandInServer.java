@@ -0,0 +1,465 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import com.google.gson.Gson;
+import io.blert.client.DefinitionCache;
+import io.blert.json.AttackDefinition;
+import io.blert.json.ErrorData;
+import io.blert.json.PastChallenge;
+import io.blert.json.ServerMessage;
+import io.blert.json.ServerStatus;
+import io.blert.json.SpellDefinition;
+import io.blert.json.User;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * A local stand-in for the Blert server, speaking enough of the websocket protocol to drive a real
+ * {@link io.blert.client.WebSocketClient}: the authenticated handshake, history requests, challenge start, update and
+ * end requests, heartbeat pings, drain requests and definition pushes.
+ * <p>
+ * Each connection is authenticated by its API key, which is also reported back as the connected user's name. Events
+ * are counted rather than stored, so the server can absorb traffic from hundreds of clients.
+ */
+public class StandInServer implements AutoCloseable {
+    /**
+     * Receives every message sent by a client, after the server has handled it.
+     */
+    public interface MessageListener {
+        void onMessage(String apiKey, ServerMessage message, int bytes, long receivedNanos);
+    }
+
+    private static final int MAX_HISTORY = 10;
+
+    private final Gson gson;
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextUserId = new AtomicInteger(1);
+
+    private volatile int features = ServerMessage.FEATURE_PROVISIONAL_CHALLENGE_IDS
+            | ServerMessage.FEATURE_STAGE_SUMMARIES
+            | ServerMessage.FEATURE_SYMBOL_TABLE;
+    private volatile @Nullable MessageListener listener = null;
+    private volatile boolean holdingStartResponses = false;
+
+    private volatile @Nullable String attackVersion = null;
+    private volatile List<AttackDefinition> attackDefinitions = List.of();
+    private volatile @Nullable String spellVersion = null;
+    private volatile List<SpellDefinition> spellDefinitions = List.of();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger challengesStarted = new AtomicInteger();
+    private final AtomicInteger challengesEnded = new AtomicInteger();
+    private final AtomicInteger pongs = new AtomicInteger();
+    private final AtomicLong eventsReceived = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public StandInServer(Gson gson) {
+        this.gson = gson;
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return handshake(request);
+            }
+        });
+    }
+
+    public void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * Returns the URL to which a {@link io.blert.client.WebSocketClient} should connect.
+     */
+    public String url() {
+        return server.url("/").toString().replaceFirst("^http", "ws");
+    }
+
+    public void setFeatures(int features) {
+        this.features = features;
+    }
+
+    public void setListener(@Nullable MessageListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the attack definition set, pushing it to every connected client which does not already have it. Clients
+     * connecting later receive it during the handshake unless they advertise the same version.
+     */
+    public void setAttackDefinitions(String version, List<AttackDefinition> definitions) {
+        attackVersion = version;
+        attackDefinitions = List.copyOf(definitions);
+        sessions.values().forEach(Session::pushDefinitions);
+    }
+
+    public void setSpellDefinitions(String version, List<SpellDefinition> definitions) {
+        spellVersion = version;
+        spellDefinitions = List.copyOf(definitions);
+        sessions.values().forEach(Session::pushDefinitions);
+    }
+
+    /**
+     * Sends a heartbeat ping to every connected client.
+     */
+    public void pingAll() {
+        ServerMessage message = new ServerMessage();
+        message.type = ServerMessage.TYPE_PING;
+        broadcast(message);
+    }
+
+    /**
+     * Asks every connected client to reconnect to another instance once it is idle.
+     */
+    public void drainAll() {
+        sendStatus(ServerStatus.STATUS_DRAINING);
+    }
+
+    public void sendStatus(int status) {
+        ServerMessage message = new ServerMessage();
+        message.type = ServerMessage.TYPE_SERVER_STATUS;
+        message.serverStatus = new ServerStatus();
+        message.serverStatus.status = status;
+        broadcast(message);
+    }
+
+    /**
+     * Holds back responses to challenge start requests until {@link #releaseStartResponses()} is called, as a server
+     * slow to start challenges would. Only the response to each client's latest request is kept.
+     */
+    public void holdStartResponses() {
+        holdingStartResponses = true;
+    }
+
+    /**
+     * Sends every held challenge start response and stops holding new ones.
+     */
+    public void releaseStartResponses() {
+        holdingStartResponses = false;
+        sessions.values().forEach(Session::releaseStartResponse);
+    }
+
+    /**
+     * Closes every connection, as a restarting server would.
+     */
+    public void dropAll() {
+        sessions.values().forEach(session -> session.socket.close(1012, "server restarting"));
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public int getChallengesStarted() {
+        return challengesStarted.get();
+    }
+
+    public int getChallengesEnded() {
+        return challengesEnded.get();
+    }
+
+    public int getPongs() {
+        return pongs.get();
+    }
+
+    public long getEventsReceived() {
+        return eventsReceived.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        sessions.values().forEach(session -> session.socket.close(1001, "server shutting down"));
+        server.shutdown();
+    }
+
+    private void broadcast(ServerMessage message) {
+        String text = gson.toJson(message);
+        sessions.values().forEach(session -> session.socket.send(text));
+    }
+
+    private MockResponse handshake(RecordedRequest request) {
+        String apiKey = apiKey(request.getHeader("Authorization"));
+        if (apiKey == null) {
+            return new MockResponse().setResponseCode(401);
+        }
+
+        return new MockResponse()
+                .setHeader("Sec-WebSocket-Protocol", "blert-json")
+                .withWebSocketUpgrade(new Session(
+                        apiKey,
+                        request.getHeader(DefinitionCache.ATTACK_DEFINITIONS_HEADER),
+                        request.getHeader(DefinitionCache.SPELL_DEFINITIONS_HEADER)));
+    }
+
+    private static @Nullable String apiKey(@Nullable String authorization) {
+        if (authorization == null || !authorization.startsWith("Basic ")) {
+            return null;
+        }
+        try {
+            return new String(Base64.getDecoder().decode(authorization.substring(6)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private class Session extends WebSocketListener {
+        private final String apiKey;
+        private final User user = new User();
+        private final List<PastChallenge> history = new ArrayList<>();
+        private @Nullable String clientAttackVersion;
+        private @Nullable String clientSpellVersion;
+        private @Nullable ServerMessage heldStartResponse;
+        private WebSocket socket;
+
+        Session(String apiKey, @Nullable String clientAttackVersion, @Nullable String clientSpellVersion) {
+            this.apiKey = apiKey;
+            this.clientAttackVersion = clientAttackVersion;
+            this.clientSpellVersion = clientSpellVersion;
+            user.id = nextUserId.getAndIncrement();
+            user.name = apiKey;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            socket = webSocket;
+            connections.incrementAndGet();
+            Session previous = sessions.put(apiKey, this);
+            if (previous != null) {
+                previous.socket.close(1000, "replaced by a new connection");
+            }
+
+            ServerMessage message = new ServerMessage();
+            message.type = ServerMessage.TYPE_CONNECTION_RESPONSE;
+            message.user = user;
+            message.features = features;
+            send(message);
+
+            pushDefinitions();
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            long receivedNanos = System.nanoTime();
+            int bytes = text.getBytes(StandardCharsets.UTF_8).length;
+            bytesReceived.addAndGet(bytes);
+
+            ServerMessage message;
+            try {
+                message = gson.fromJson(text, ServerMessage.class);
+            } catch (Exception e) {
+                sendError(ErrorData.TYPE_BAD_REQUEST, null);
+                return;
+            }
+
+            handle(message);
+
+            MessageListener l = listener;
+            if (l != null) {
+                l.onMessage(apiKey, message, bytes, receivedNanos);
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(code, reason);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            sessions.remove(apiKey, this);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, @Nullable Response response) {
+            sessions.remove(apiKey, this);
+        }
+
+        private void handle(ServerMessage message) {
+            switch (message.type) {
+                case ServerMessage.TYPE_PONG:
+                    pongs.incrementAndGet();
+                    break;
+
+                case ServerMessage.TYPE_HISTORY_REQUEST: {
+                    ServerMessage response = new ServerMessage();
+                    response.type = ServerMessage.TYPE_HISTORY_RESPONSE;
+                    synchronized (history) {
+                        response.recentRecordings = new ArrayList<>(history);
+                    }
+                    send(response);
+                    break;
+                }
+
+                case ServerMessage.TYPE_CHALLENGE_START_REQUEST: {
+                    ServerMessage response = new ServerMessage();
+                    response.type = ServerMessage.TYPE_CHALLENGE_START_RESPONSE;
+                    response.requestId = message.requestId;
+
+                    if (message.challengeStartRequest == null) {
+                        response.error = new ErrorData();
+                        response.error.type = ErrorData.TYPE_BAD_REQUEST;
+                        response.error.message = "Missing challenge start request";
+                    } else {
+                        String provisionalId = message.challengeStartRequest.provisionalChallengeId;
+                        response.activeChallengeId =
+                                provisionalId != null ? provisionalId : UUID.randomUUID().toString();
+                        record(response.activeChallengeId, message);
+                        challengesStarted.incrementAndGet();
+                    }
+
+                    synchronized (this) {
+                        if (holdingStartResponses) {
+                            heldStartResponse = response;
+                            break;
+                        }
+                    }
+                    send(response);
+                    break;
+                }
+
+                case ServerMessage.TYPE_CHALLENGE_END_REQUEST: {
+                    finish(message.activeChallengeId);
+                    challengesEnded.incrementAndGet();
+
+                    ServerMessage response = new ServerMessage();
+                    response.type = ServerMessage.TYPE_CHALLENGE_END_RESPONSE;
+                    response.requestId = message.requestId;
+                    send(response);
+                    break;
+                }
+
+                case ServerMessage.TYPE_EVENT_STREAM:
+                    if (message.challengeEvents != null) {
+                        eventsReceived.addAndGet(message.challengeEvents.size());
+                    }
+                    break;
+
+                case ServerMessage.TYPE_CHALLENGE_UPDATE:
+                case ServerMessage.TYPE_SYMBOL_DEFINITIONS:
+                case ServerMessage.TYPE_GAME_STATE:
+                    break;
+
+                default:
+                    sendError(ErrorData.TYPE_UNIMPLEMENTED, null);
+                    break;
+            }
+        }
+
+        private void record(String challengeId, ServerMessage request) {
+            PastChallenge challenge = new PastChallenge();
+            challenge.id = challengeId;
+            challenge.status = PastChallenge.STATUS_IN_PROGRESS;
+            challenge.challenge = request.challengeStartRequest.challenge;
+            challenge.mode = request.challengeStartRequest.mode;
+            challenge.party = request.challengeStartRequest.party;
+
+            synchronized (history) {
+                history.add(0, challenge);
+                if (history.size() > MAX_HISTORY) {
+                    history.remove(history.size() - 1);
+                }
+            }
+        }
+
+        private void finish(@Nullable String challengeId) {
+            synchronized (history) {
+                history.stream()
+                        .filter(c -> c.id.equals(challengeId))
+                        .forEach(c -> c.status = PastChallenge.STATUS_COMPLETED);
+            }
+        }
+
+        private synchronized void releaseStartResponse() {
+            if (heldStartResponse != null) {
+                send(heldStartResponse);
+                heldStartResponse = null;
+            }
+        }
+
+        private synchronized void pushDefinitions() {
+            if (socket == null) {
+                return;
+            }
+
+            String version = attackVersion;
+            if (version != null && !Objects.equals(version, clientAttackVersion)) {
+                ServerMessage message = new ServerMessage();
+                message.type = ServerMessage.TYPE_ATTACK_DEFINITIONS;
+                message.definitionVersion = version;
+                message.attackDefinitions = attackDefinitions;
+                send(message);
+                clientAttackVersion = version;
+            }
+
+            version = spellVersion;
+            if (version != null && !Objects.equals(version, clientSpellVersion)) {
+                ServerMessage message = new ServerMessage();
+                message.type = ServerMessage.TYPE_SPELL_DEFINITIONS;
+                message.definitionVersion = version;
+                message.spellDefinitions = spellDefinitions;
+                send(message);
+                clientSpellVersion = version;
+            }
+        }
+
+        private void sendError(int type, @Nullable String text) {
+            ServerMessage message = new ServerMessage();
+            message.type = ServerMessage.TYPE_ERROR;
+            message.error = new ErrorData();
+            message.error.type = type;
+            message.error.message = text;
+            send(message);
+        }
+
+        private void send(ServerMessage message) {
+            socket.send(gson.toJson(message));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import io.blert.BlertPluginPanel;
+import io.blert.client.DefinitionCache;
+import io.blert.client.WebSocketClient;
+import io.blert.client.WebSocketEventHandler;
+import io.blert.core.CaptureProfile;
+import io.blert.core.Challenge;
+import io.blert.core.ChallengeMode;
+import io.blert.core.Stage;
+import io.blert.events.ChallengeEndEvent;
+import io.blert.events.ChallengeStartEvent;
+import io.blert.json.AttackDefinition;
+import io.blert.json.ChallengeStartRequest;
+import io.blert.json.ServerMessage;
+import io.blert.json.ServerStatus;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import net.runelite.client.callback.ClientThread;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StandInServerTest {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final Gson gson = new Gson();
+    private final OkHttpClient httpClient = new OkHttpClient();
+    private final BlockingQueue<ServerMessage> received = new LinkedBlockingQueue<>();
+    private StandInServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new StandInServer(gson);
+        server.start();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.close();
+        httpClient.dispatcher().executorService().shutdown();
+    }
+
+    private WebSocketClient connect(Map<String, String> headers) throws Exception {
+        WebSocketClient client = new WebSocketClient(server.url(), "Player One", "runelite-test", httpClient);
+        client.setTextMessageCallback(text -> received.add(gson.fromJson(text, ServerMessage.class)));
+        client.setHandshakeHeaders(() -> headers);
+        assertTrue(client.open().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        return client;
+    }
+
+    private static void await(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for " + description, System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private ServerMessage next(int type) throws InterruptedException {
+        while (true) {
+            ServerMessage message = received.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull("Timed out waiting for message of type " + type, message);
+            if (message.type == type) {
+                return message;
+            }
+        }
+    }
+
+    @Test
+    public void completesHandshakeAndChallenge() throws Exception {
+        WebSocketClient client = connect(Map.of());
+
+        ServerMessage connected = next(ServerMessage.TYPE_CONNECTION_RESPONSE);
+        assertEquals("Player One", connected.user.name);
+        assertTrue((connected.features & ServerMessage.FEATURE_PROVISIONAL_CHALLENGE_IDS) != 0);
+
+        ServerMessage start = new ServerMessage();
+        start.type = ServerMessage.TYPE_CHALLENGE_START_REQUEST;
+        start.requestId = 1;
+        start.challengeStartRequest = new ChallengeStartRequest();
+        start.challengeStartRequest.party = List.of("Player One");
+        start.challengeStartRequest.provisionalChallengeId = "abc-123";
+        client.sendTextMessage(gson.toJson(start));
+
+        ServerMessage started = next(ServerMessage.TYPE_CHALLENGE_START_RESPONSE);
+        assertEquals(Integer.valueOf(1), started.requestId);
+        assertEquals("abc-123", started.activeChallengeId);
+
+        ServerMessage end = new ServerMessage();
+        end.type = ServerMessage.TYPE_CHALLENGE_END_REQUEST;
+        end.requestId = 2;
+        end.activeChallengeId = "abc-123";
+        client.sendTextMessage(gson.toJson(end));
+        assertEquals(Integer.valueOf(2), next(ServerMessage.TYPE_CHALLENGE_END_RESPONSE).requestId);
+
+        ServerMessage history = new ServerMessage();
+        history.type = ServerMessage.TYPE_HISTORY_REQUEST;
+        client.sendTextMessage(gson.toJson(history));
+        ServerMessage recordings = next(ServerMessage.TYPE_HISTORY_RESPONSE);
+        assertEquals("abc-123", recordings.recentRecordings.get(0).id);
+
+        assertEquals(1, server.getChallengesStarted());
+        assertEquals(1, server.getChallengesEnded());
+        client.close();
+    }
+
+    @Test
+    public void pushesDefinitionsOnlyWhenStale() throws Exception {
+        AttackDefinition attack = new AttackDefinition();
+        attack.protoId = 80;
+        attack.name = "ABYSSAL_BLUDGEON";
+        server.setAttackDefinitions("v1", List.of(attack));
+
+        WebSocketClient current = connect(Map.of(DefinitionCache.ATTACK_DEFINITIONS_HEADER, "v1"));
+        next(ServerMessage.TYPE_CONNECTION_RESPONSE);
+
+        server.setAttackDefinitions("v2", List.of(attack));
+        ServerMessage pushed = next(ServerMessage.TYPE_ATTACK_DEFINITIONS);
+        assertEquals("v2", pushed.definitionVersion);
+        assertEquals(80, pushed.attackDefinitions.get(0).protoId);
+        current.close();
+
+        WebSocketClient stale = connect(Map.of());
+        next(ServerMessage.TYPE_CONNECTION_RESPONSE);
+        assertEquals("v2", next(ServerMessage.TYPE_ATTACK_DEFINITIONS).definitionVersion);
+        stale.close();
+    }
+
+    @Test
+    public void sendsPingsAndDrains() throws Exception {
+        WebSocketClient client = connect(Map.of());
+        next(ServerMessage.TYPE_CONNECTION_RESPONSE);
+
+        server.pingAll();
+        next(ServerMessage.TYPE_PING);
+
+        server.drainAll();
+        assertEquals(ServerStatus.STATUS_DRAINING, next(ServerMessage.TYPE_SERVER_STATUS).serverStatus.status);
+        client.close();
+    }
+
+    @Test
+    public void drivesEventHandlerThroughChallenge() throws Exception {
+        AttackDefinition attack = new AttackDefinition();
+        attack.protoId = 80;
+        attack.name = "ABYSSAL_BLUDGEON";
+        attack.weaponIds = List.of(13263);
+        attack.animationIds = List.of(3298);
+        attack.cooldown = 4;
+        attack.category = "MELEE";
+        server.setAttackDefinitions("v1", List.of(attack));
+
+        StubPlugin plugin = new StubPlugin(gson, Files.createTempDirectory("blert"));
+        StubPlugin.RecordingPanel panel = plugin.getSidePanel();
+        BlockingQueue<Boolean> reconnects = new LinkedBlockingQueue<>();
+
+        WebSocketClient client = new WebSocketClient(server.url(), "Player One", "runelite-test", httpClient);
+        client.setHandshakeHeaders(plugin.getDefinitionCache()::handshakeHeaders);
+        WebSocketEventHandler handler =
+                new WebSocketEventHandler(plugin, client, null, new ClientThread(), reconnects::add);
+        assertTrue(client.open().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        await("connection", () -> panel.getConnectionState() == BlertPluginPanel.ConnectionState.CONNECTED);
+        assertEquals("Player One", panel.getUsername());
+        await("recording history", () -> panel.getRecentRecordings() != null);
+        await("attack definitions", () -> plugin.getAttackRegistry().find(13263, 3298).isPresent());
+        assertEquals(
+                "v1", plugin.getDefinitionCache().handshakeHeaders().get(DefinitionCache.ATTACK_DEFINITIONS_HEADER));
+
+        handler.handleEvent(
+                1,
+                new ChallengeStartEvent(
+                        Challenge.INFERNO,
+                        ChallengeMode.NO_MODE,
+                        Stage.INFERNO_WAVE_1,
+                        List.of("Player One"),
+                        false,
+                        CaptureProfile.STANDARD));
+        await("challenge start", () -> panel.getChallengeStatus() == WebSocketEventHandler.Status.CHALLENGE_ACTIVE);
+        assertEquals(1, server.getChallengesStarted());
+
+        // A drain is deferred while recording, and the handler reconnects once the challenge has ended.
+        server.drainAll();
+        assertNull(reconnects.poll(200, TimeUnit.MILLISECONDS));
+        handler.handleEvent(2, new ChallengeEndEvent(100, 100));
+        await("challenge end", () -> panel.getChallengeStatus() == WebSocketEventHandler.Status.IDLE);
+        assertEquals(1, server.getChallengesEnded());
+        assertEquals(Boolean.FALSE, reconnects.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        handler.shutdown();
+        client.close();
+    }
+}
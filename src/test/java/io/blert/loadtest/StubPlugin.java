@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.loadtest;
+
+import com.google.gson.Gson;
+import io.blert.BlertPlugin;
+import io.blert.BlertPluginPanel;
+import io.blert.client.DefinitionCache;
+import io.blert.client.WebSocketEventHandler;
+import io.blert.core.Challenge;
+import io.blert.core.CheckpointStore;
+import io.blert.json.PastChallenge;
+import java.nio.file.Path;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Supplies a {@link WebSocketEventHandler} with the parts of the plugin it uses, without starting the plugin, and
+ * records the state the handler reports to the side panel.
+ */
+public class StubPlugin extends BlertPlugin {
+    public static class RecordingPanel extends BlertPluginPanel {
+        private volatile BlertPluginPanel.ConnectionState connectionState =
+                BlertPluginPanel.ConnectionState.DISCONNECTED;
+        private volatile @Nullable String username = null;
+        private volatile WebSocketEventHandler.Status challengeStatus = WebSocketEventHandler.Status.IDLE;
+        private volatile @Nullable List<PastChallenge> recentRecordings = null;
+
+        RecordingPanel() {
+            super(null, null, null);
+        }
+
+        public BlertPluginPanel.ConnectionState getConnectionState() {
+            return connectionState;
+        }
+
+        public @Nullable String getUsername() {
+            return username;
+        }
+
+        public WebSocketEventHandler.Status getChallengeStatus() {
+            return challengeStatus;
+        }
+
+        public @Nullable List<PastChallenge> getRecentRecordings() {
+            return recentRecordings;
+        }
+
+        @Override
+        public void updateConnectionState(BlertPluginPanel.ConnectionState state, @Nullable String username) {
+            this.connectionState = state;
+            this.username = username;
+        }
+
+        @Override
+        public void updateChallengeStatus(
+                WebSocketEventHandler.Status status, @Nullable Challenge challenge, @Nullable String challengeId) {
+            this.challengeStatus = status;
+        }
+
+        @Override
+        public void setRecentRecordings(@Nullable List<PastChallenge> recentRecordings) {
+            this.recentRecordings = recentRecordings;
+        }
+    }
+
+    private final Gson gson;
+    private final RecordingPanel panel = new RecordingPanel();
+    private final DefinitionCache definitionCache;
+    private final CheckpointStore checkpointStore;
+
+    /**
+     * @param gson      Serializer for server messages.
+     * @param directory Directory in which the definition cache and checkpoint are stored.
+     */
+    public StubPlugin(Gson gson, Path directory) {
+        this.gson = gson;
+        getAttackRegistry().setGson(gson);
+        this.definitionCache =
+                new DefinitionCache(directory, gson, getAttackRegistry(), getSpellRegistry(), Runnable::run);
+        this.checkpointStore = new CheckpointStore(directory, Runnable::run);
+        this.checkpointStore.load(0L);
+    }
+
+    @Override
+    public Gson getGson() {
+        return gson;
+    }
+
+    @Override
+    public RecordingPanel getSidePanel() {
+        return panel;
+    }
+
+    @Override
+    public DefinitionCache getDefinitionCache() {
+        return definitionCache;
+    }
+
+    @Override
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+}
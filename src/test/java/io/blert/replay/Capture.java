@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recording of the RuneLite inputs seen by a challenge over a span of game ticks, which can be replayed into a
+ * {@link io.blert.core.RecordableChallenge} by the {@link ReplayHarness}.
+ *
+ * All coordinates are stored as instance-resolved world coordinates. On replay, they are presented to the challenge
+ * as a non-instanced scene, so instance-aware lookups resolve to the same points.
+ */
+public class Capture {
+    public static final int VERSION = 1;
+
+    public int version = VERSION;
+    public int challenge;
+    public String localPlayer;
+    public List<Tick> ticks = new ArrayList<>();
+
+    /**
+     * All inputs received on a single game tick, in the order the client delivered them, ending with the tick's
+     * {@code GameTick}.
+     */
+    public static class Tick {
+        public int tick;
+        public List<Input> inputs = new ArrayList<>();
+    }
+
+    /**
+     * A single RuneLite input. Which fields are set depends on the input type.
+     */
+    public static class Input {
+        /** Moves the scene base, e.g. when loading a new region. Uses {@code x}, {@code y}, {@code plane}. */
+        public static final int TYPE_SCENE = 0;
+        /** Snapshot of a player's state at the start of the tick. */
+        public static final int TYPE_PLAYER_STATE = 1;
+        /** Snapshot of an NPC's state at the start of the tick. */
+        public static final int TYPE_NPC_STATE = 2;
+        public static final int TYPE_NPC_SPAWNED = 3;
+        public static final int TYPE_NPC_DESPAWNED = 4;
+        public static final int TYPE_ANIMATION_CHANGED = 5;
+        public static final int TYPE_PROJECTILE_MOVED = 6;
+        public static final int TYPE_HITSPLAT_APPLIED = 7;
+        public static final int TYPE_VARBIT_CHANGED = 8;
+        public static final int TYPE_CHAT_MESSAGE = 9;
+
+        public int type;
+
+        /** Username of the player the input refers to, if it refers to a player. */
+        public String player;
+        /** Index of the NPC the input refers to, if it refers to an NPC. */
+        public int npc = -1;
+
+        public int id = -1;
+        public int x;
+        public int y;
+        public int plane;
+        public int size = 1;
+        public int animation = -1;
+        /** Item IDs worn by a player, indexed by {@link net.runelite.api.kit.KitType} ordinal. */
+        public int[] equipment;
+        /** IDs of the spot animations on a player. */
+        public int[] spotAnims;
+        /** Actor being interacted with, as a player username or NPC index. */
+        public String interactingPlayer;
+        public int interactingNpc = -1;
+
+        // Projectile fields. Projectiles are identified by a capture-unique key.
+        public int projectile = -1;
+        public int gameCycle;
+        public int startCycle;
+        public int endCycle;
+        public int remainingCycles;
+        public String targetPlayer;
+        public int targetNpc = -1;
+
+        // Hitsplat fields.
+        public int hitsplatType;
+        public int amount;
+
+        // Varbit fields.
+        public int varbit = -1;
+        public int varp = -1;
+        public int value;
+
+        // Chat message fields.
+        public int messageType;
+        public String message;
+    }
+
+    public static Capture read(Gson gson, Reader reader) throws IOException {
+        Capture capture = gson.fromJson(reader, Capture.class);
+        if (capture == null) {
+            throw new IOException("Empty capture");
+        }
+        if (capture.version != VERSION) {
+            throw new IOException("Unsupported capture version " + capture.version);
+        }
+        return capture;
+    }
+
+    public void write(Gson gson, Writer writer) throws IOException {
+        gson.toJson(this, writer);
+        writer.flush();
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import com.google.gson.Gson;
+import io.blert.challenges.colosseum.ColosseumChallenge;
+import io.blert.challenges.inferno.InfernoChallenge;
+import io.blert.challenges.mokhaiotl.MokhaiotlChallenge;
+import io.blert.challenges.tob.TheatreChallenge;
+import io.blert.core.RecordableChallenge;
+import io.blert.util.Location;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import net.runelite.api.*;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.*;
+import net.runelite.api.kit.KitType;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.plugins.Plugin;
+import net.runelite.client.plugins.PluginDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Development plugin which records the inputs seen by Blert's challenges into a {@link Capture}. The capture is written
+ * to {@code ~/.runelite/blert-captures} when the plugin is turned off.
+ */
+@PluginDescriptor(
+        name = "Blert Capture",
+        description = "Records replayable captures of challenge inputs",
+        developerPlugin = true)
+public class CapturePlugin extends Plugin {
+    private static final Logger log = LoggerFactory.getLogger(CapturePlugin.class);
+
+    private static final File CAPTURE_DIR = new File(RuneLite.RUNELITE_DIR, "blert-captures");
+
+    // Distance the local player can move from the center of the scene before it is rebased.
+    private static final int SCENE_REBASE_DISTANCE = 32;
+    private static final int SCENE_HALF_SIZE = 52;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ClientThread clientThread;
+
+    @Inject
+    private Gson gson;
+
+    private Capture capture;
+    private Capture.Tick currentTick;
+    private final List<RecordableChallenge> challenges = new ArrayList<>();
+
+    private final Map<Projectile, Integer> projectileKeys = new IdentityHashMap<>();
+    private final Map<Projectile, Integer> projectileLastCycle = new IdentityHashMap<>();
+    private int nextProjectileKey;
+
+    private @Nullable WorldPoint sceneBase;
+
+    @Override
+    protected void startUp() {
+        capture = new Capture();
+        capture.challenge = -1;
+        currentTick = new Capture.Tick();
+        projectileKeys.clear();
+        projectileLastCycle.clear();
+        nextProjectileKey = 0;
+        sceneBase = null;
+
+        challenges.clear();
+        challenges.add(new TheatreChallenge(client, clientThread));
+        challenges.add(new ColosseumChallenge(client, clientThread));
+        challenges.add(new InfernoChallenge(client, clientThread));
+        challenges.add(new MokhaiotlChallenge(client, clientThread));
+    }
+
+    @Override
+    protected void shutDown() {
+        if (capture == null || capture.ticks.isEmpty()) {
+            return;
+        }
+
+        File file = new File(CAPTURE_DIR, "capture-" + System.currentTimeMillis() + ".json");
+        try {
+            Files.createDirectories(CAPTURE_DIR.toPath());
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                capture.write(gson, writer);
+            }
+            log.info("Wrote {} ticks of capture to {}", capture.ticks.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to write capture", e);
+        }
+        capture = null;
+    }
+
+    @Subscribe
+    public void onGameTick(GameTick event) {
+        Player localPlayer = client.getLocalPlayer();
+        if (localPlayer == null) {
+            return;
+        }
+
+        WorldPoint location = resolve(localPlayer.getWorldLocation());
+        if (location == null) {
+            return;
+        }
+
+        if (capture.localPlayer == null) {
+            capture.localPlayer = localPlayer.getName();
+        }
+        if (capture.challenge == -1) {
+            challenges.stream()
+                    .filter(c -> c.containsLocation(location))
+                    .findFirst()
+                    .ifPresent(c -> capture.challenge = c.getChallenge().getId());
+        }
+
+        // Inputs are replayed in order, so state snapshots must precede the events which reference them.
+        List<Capture.Input> state = new ArrayList<>();
+
+        if (sceneBase == null
+                || sceneBase.getPlane() != location.getPlane()
+                || Math.abs(location.getX() - sceneBase.getX() - SCENE_HALF_SIZE) > SCENE_REBASE_DISTANCE
+                || Math.abs(location.getY() - sceneBase.getY() - SCENE_HALF_SIZE) > SCENE_REBASE_DISTANCE) {
+            sceneBase = new WorldPoint(
+                    location.getX() - SCENE_HALF_SIZE, location.getY() - SCENE_HALF_SIZE, location.getPlane());
+            Capture.Input scene = new Capture.Input();
+            scene.type = Capture.Input.TYPE_SCENE;
+            scene.x = sceneBase.getX();
+            scene.y = sceneBase.getY();
+            scene.plane = sceneBase.getPlane();
+            state.add(scene);
+        }
+
+        for (Player player : client.getTopLevelWorldView().players()) {
+            Capture.Input input = actorInput(Capture.Input.TYPE_PLAYER_STATE, player);
+            if (input == null) {
+                continue;
+            }
+
+            PlayerComposition composition = player.getPlayerComposition();
+            if (composition != null) {
+                KitType[] kitTypes = KitType.values();
+                input.equipment = new int[kitTypes.length];
+                for (KitType kitType : kitTypes) {
+                    input.equipment[kitType.ordinal()] = composition.getEquipmentId(kitType);
+                }
+            }
+
+            List<Integer> spotAnims = new ArrayList<>();
+            for (ActorSpotAnim spotAnim : player.getSpotAnims()) {
+                spotAnims.add(spotAnim.getId());
+            }
+            input.spotAnims = spotAnims.stream().mapToInt(Integer::intValue).toArray();
+            state.add(input);
+        }
+
+        for (NPC npc : client.getTopLevelWorldView().npcs()) {
+            Capture.Input input = actorInput(Capture.Input.TYPE_NPC_STATE, npc);
+            if (input != null) {
+                state.add(input);
+            }
+        }
+
+        currentTick.tick = client.getTickCount();
+        currentTick.inputs.addAll(0, state);
+        capture.ticks.add(currentTick);
+        currentTick = new Capture.Tick();
+
+        int gameCycle = client.getGameCycle();
+        projectileKeys.keySet().removeIf(p -> p.getEndCycle() < gameCycle);
+        projectileLastCycle.keySet().removeIf(p -> p.getEndCycle() < gameCycle);
+    }
+
+    @Subscribe
+    public void onNpcSpawned(NpcSpawned event) {
+        record(actorInput(Capture.Input.TYPE_NPC_SPAWNED, event.getNpc()));
+    }
+
+    @Subscribe
+    public void onNpcDespawned(NpcDespawned event) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_NPC_DESPAWNED;
+        input.npc = event.getNpc().getIndex();
+        record(input);
+    }
+
+    @Subscribe
+    public void onAnimationChanged(AnimationChanged event) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_ANIMATION_CHANGED;
+        if (!setActorRef(input, event.getActor())) {
+            return;
+        }
+        input.animation = event.getActor().getAnimation();
+        record(input);
+    }
+
+    @Subscribe
+    public void onProjectileMoved(ProjectileMoved event) {
+        Projectile projectile = event.getProjectile();
+        int gameCycle = client.getGameCycle();
+
+        // Projectiles move every frame; only record them once per game cycle.
+        Integer lastCycle = projectileLastCycle.put(projectile, gameCycle);
+        if (lastCycle != null && lastCycle == gameCycle) {
+            return;
+        }
+
+        WorldPoint source = resolve(projectile.getSourcePoint());
+        if (source == null) {
+            return;
+        }
+
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_PROJECTILE_MOVED;
+        input.projectile = projectileKeys.computeIfAbsent(projectile, p -> nextProjectileKey++);
+        input.id = projectile.getId();
+        input.gameCycle = gameCycle;
+        input.startCycle = projectile.getStartCycle();
+        input.endCycle = projectile.getEndCycle();
+        input.remainingCycles = projectile.getRemainingCycles();
+        input.x = source.getX();
+        input.y = source.getY();
+        input.plane = source.getPlane();
+
+        Actor target = projectile.getTargetActor();
+        if (target instanceof Player) {
+            input.targetPlayer = target.getName();
+        } else if (target instanceof NPC) {
+            input.targetNpc = ((NPC) target).getIndex();
+        }
+        record(input);
+    }
+
+    @Subscribe
+    public void onHitsplatApplied(HitsplatApplied event) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_HITSPLAT_APPLIED;
+        if (!setActorRef(input, event.getActor())) {
+            return;
+        }
+        input.hitsplatType = event.getHitsplat().getHitsplatType();
+        input.amount = event.getHitsplat().getAmount();
+        record(input);
+    }
+
+    @Subscribe
+    public void onVarbitChanged(VarbitChanged event) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_VARBIT_CHANGED;
+        input.varbit = event.getVarbitId();
+        input.varp = event.getVarpId();
+        input.value = event.getValue();
+        record(input);
+    }
+
+    @Subscribe
+    public void onChatMessage(ChatMessage event) {
+        Capture.Input input = new Capture.Input();
+        input.type = Capture.Input.TYPE_CHAT_MESSAGE;
+        input.messageType = event.getType().getType();
+        input.message = event.getMessage();
+        record(input);
+    }
+
+    private void record(@Nullable Capture.Input input) {
+        if (capture != null && input != null) {
+            currentTick.inputs.add(input);
+        }
+    }
+
+    @Nullable
+    private Capture.Input actorInput(int type, Actor actor) {
+        WorldPoint location = resolve(actor.getWorldLocation());
+        if (location == null) {
+            return null;
+        }
+
+        Capture.Input input = new Capture.Input();
+        input.type = type;
+        if (!setActorRef(input, actor)) {
+            return null;
+        }
+        input.x = location.getX();
+        input.y = location.getY();
+        input.plane = location.getPlane();
+        input.animation = actor.getAnimation();
+
+        if (actor instanceof NPC) {
+            NPC npc = (NPC) actor;
+            input.id = npc.getId();
+            input.size = npc.getComposition() != null ? npc.getComposition().getSize() : 1;
+        }
+
+        Actor interacting = actor.getInteracting();
+        if (interacting instanceof Player) {
+            input.interactingPlayer = interacting.getName();
+        } else if (interacting instanceof NPC) {
+            input.interactingNpc = ((NPC) interacting).getIndex();
+        }
+        return input;
+    }
+
+    private static boolean setActorRef(Capture.Input input, Actor actor) {
+        if (actor instanceof Player) {
+            input.player = actor.getName();
+            return input.player != null;
+        }
+        if (actor instanceof NPC) {
+            input.npc = ((NPC) actor).getIndex();
+            return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private WorldPoint resolve(@Nullable WorldPoint point) {
+        return point != null ? Location.getWorldLocation(client, point) : null;
+    }
+}
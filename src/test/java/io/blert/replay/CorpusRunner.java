@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import com.google.gson.Gson;
+import io.blert.core.AttackRegistry;
+import io.blert.core.SpellRegistry;
+import io.blert.core.Stage;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Replays a corpus of captures in parallel and diffs each one's event stream against its golden output.
+ *
+ * Each capture {@code name.json} is compared against {@code name.expected}, which holds the expected serialized events
+ * one per line. Every capture is replayed into its own challenge instance; only the read-only attack and spell
+ * registries are shared between workers.
+ *
+ * Usage: {@code CorpusRunner <corpus directory> [--update] [--threads N]}, or
+ * {@code ./gradlew replayCorpus -Pcorpus=<directory>}. With {@code --update}, goldens are rewritten from the current
+ * output instead of compared.
+ */
+public class CorpusRunner {
+    public static final String CAPTURE_SUFFIX = ".json";
+    public static final String GOLDEN_SUFFIX = ".expected";
+
+    // Captures replayed by a single task before it stops splitting its shard.
+    private static final int SHARD_SIZE = 4;
+
+    private final Gson gson;
+    private final AttackRegistry attackRegistry;
+    private final SpellRegistry spellRegistry;
+    private final boolean updateGoldens;
+
+    public CorpusRunner(Gson gson, boolean updateGoldens) {
+        this.gson = gson;
+        this.updateGoldens = updateGoldens;
+
+        attackRegistry = new AttackRegistry();
+        attackRegistry.setGson(gson);
+        attackRegistry.loadDefaults();
+        spellRegistry = new SpellRegistry();
+        spellRegistry.setGson(gson);
+        spellRegistry.loadDefaults();
+    }
+
+    /**
+     * Outcome of replaying a set of captures.
+     */
+    public static class Report {
+        private int captures;
+        private int passed;
+        private long ticks;
+        private long cpuNanos;
+        private long wallNanos;
+        private final List<String> failures = new ArrayList<>();
+        private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+
+        public int getCaptures() {
+            return captures;
+        }
+
+        public int getPassed() {
+            return passed;
+        }
+
+        public List<String> getFailures() {
+            return failures;
+        }
+
+        public Map<Stage, Long> getStageNanos() {
+            return stageNanos;
+        }
+
+        public double raidsPerSecond() {
+            return wallNanos > 0 ? captures / (wallNanos / 1e9) : 0;
+        }
+
+        public double ticksPerSecond() {
+            return wallNanos > 0 ? ticks / (wallNanos / 1e9) : 0;
+        }
+
+        void merge(Report other) {
+            captures += other.captures;
+            passed += other.passed;
+            ticks += other.ticks;
+            cpuNanos += other.cpuNanos;
+            failures.addAll(other.failures);
+            other.stageNanos.forEach((stage, nanos) -> stageNanos.merge(stage, nanos, Long::sum));
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(
+                    "%d/%d captures passed, %d ticks in %.2fs (%.1f raids/s, %.0f ticks/s, %.2fs replay time)%n",
+                    passed,
+                    captures,
+                    ticks,
+                    wallNanos / 1e9,
+                    raidsPerSecond(),
+                    ticksPerSecond(),
+                    cpuNanos / 1e9));
+
+            long total = stageNanos.values().stream().mapToLong(Long::longValue).sum();
+            stageNanos.entrySet().stream()
+                    .sorted(Map.Entry.<Stage, Long>comparingByValue().reversed())
+                    .forEach(e -> sb.append(String.format(
+                            "  %-24s %9.2fms %5.1f%%%n",
+                            e.getKey(),
+                            e.getValue() / 1e6,
+                            total > 0 ? 100.0 * e.getValue() / total : 0)));
+
+            for (String failure : failures) {
+                sb.append("FAIL ").append(failure).append(System.lineSeparator());
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Replays every capture in a corpus directory across the given pool.
+     */
+    public Report run(Path corpus, ForkJoinPool pool) throws IOException {
+        List<Path> captures;
+        try (Stream<Path> files = Files.walk(corpus)) {
+            captures = files.filter(p -> p.getFileName().toString().endsWith(CAPTURE_SUFFIX))
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+
+        long start = System.nanoTime();
+        Report report = pool.invoke(new ShardTask(captures, 0, captures.size()));
+        report.wallNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private class ShardTask extends RecursiveTask<Report> {
+        private final List<Path> captures;
+        private final int from;
+        private final int to;
+
+        ShardTask(List<Path> captures, int from, int to) {
+            this.captures = captures;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from > SHARD_SIZE) {
+                int mid = (from + to) >>> 1;
+                ShardTask left = new ShardTask(captures, from, mid);
+                left.fork();
+                Report report = new ShardTask(captures, mid, to).compute();
+                report.merge(left.join());
+                return report;
+            }
+
+            // Each worker replays with its own harness; harnesses create fresh client and challenge state per capture.
+            ReplayHarness harness = new ReplayHarness(gson, attackRegistry, spellRegistry);
+            Report report = new Report();
+            for (int i = from; i < to; i++) {
+                replayOne(harness, captures.get(i), report);
+            }
+            return report;
+        }
+    }
+
+    private void replayOne(ReplayHarness harness, Path capturePath, Report report) {
+        report.captures++;
+        String name = capturePath.getFileName().toString();
+
+        ReplayHarness.Result result;
+        try (Reader reader = Files.newBufferedReader(capturePath, StandardCharsets.UTF_8)) {
+            result = harness.replay(Capture.read(gson, reader));
+        } catch (Exception e) {
+            report.failures.add(name + ": " + e);
+            return;
+        }
+
+        report.ticks += result.getTicks();
+        report.cpuNanos += result.getElapsedNanos();
+        result.getStageNanos().forEach((stage, nanos) -> report.stageNanos.merge(stage, nanos, Long::sum));
+
+        Path golden = goldenPath(capturePath);
+        try {
+            if (updateGoldens) {
+                Files.write(golden, result.getEvents(), StandardCharsets.UTF_8);
+                report.passed++;
+                return;
+            }
+
+            if (!Files.exists(golden)) {
+                report.failures.add(name + ": missing golden " + golden.getFileName());
+                return;
+            }
+
+            @Nullable String diff = result.diff(Files.readAllLines(golden, StandardCharsets.UTF_8));
+            if (diff == null) {
+                report.passed++;
+            } else {
+                report.failures.add(name + ": " + diff);
+            }
+        } catch (IOException e) {
+            report.failures.add(name + ": " + e);
+        }
+    }
+
+    private static Path goldenPath(Path capture) {
+        String name = capture.getFileName().toString();
+        return capture.resolveSibling(name.substring(0, name.length() - CAPTURE_SUFFIX.length()) + GOLDEN_SUFFIX);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path corpus = null;
+        boolean update = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--update":
+                    update = true;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    corpus = Paths.get(args[i]);
+                    break;
+            }
+        }
+
+        if (corpus == null) {
+            System.err.println("Usage: CorpusRunner <corpus directory> [--update] [--threads N]");
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            Report report = new CorpusRunner(new Gson(), update).run(corpus, pool);
+            System.out.print(report.summary());
+            System.exit(report.getFailures().isEmpty() ? 0 : 1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
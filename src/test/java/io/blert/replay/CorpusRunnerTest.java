@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gson.Gson;
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CorpusRunnerTest {
+    private static final int CORPUS_SIZE = 12;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void goldensRoundTrip() throws Exception {
+        Path corpus = writeCorpus();
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            CorpusRunner.Report update = new CorpusRunner(gson, true).run(corpus, pool);
+            assertEquals(CORPUS_SIZE, update.getCaptures());
+            assertTrue(update.getFailures().isEmpty());
+
+            CorpusRunner.Report check = new CorpusRunner(gson, false).run(corpus, pool);
+            assertEquals(CORPUS_SIZE, check.getPassed());
+            assertTrue(check.getFailures().isEmpty());
+            assertTrue(check.raidsPerSecond() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void reportsDivergentAndMissingGoldens() throws Exception {
+        Path corpus = writeCorpus();
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            new CorpusRunner(gson, true).run(corpus, pool);
+
+            Path golden = corpus.resolve("capture-0" + CorpusRunner.GOLDEN_SUFFIX);
+            List<String> lines = Files.readAllLines(golden, StandardCharsets.UTF_8);
+            lines.set(0, "{}");
+            Files.write(golden, lines, StandardCharsets.UTF_8);
+            Files.delete(corpus.resolve("capture-1" + CorpusRunner.GOLDEN_SUFFIX));
+
+            CorpusRunner.Report report = new CorpusRunner(gson, false).run(corpus, pool);
+            assertEquals(CORPUS_SIZE - 2, report.getPassed());
+            assertEquals(2, report.getFailures().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Path writeCorpus() throws Exception {
+        File dir = folder.newFolder("corpus");
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            Path path = dir.toPath().resolve("capture-" + i + CorpusRunner.CAPTURE_SUFFIX);
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                ReplayHarnessTest.infernoCapture().write(gson, writer);
+            }
+        }
+        return dir.toPath();
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Backs a dynamic proxy of a RuneLite API interface with a bag of properties.
+ *
+ * Methods are resolved by name: a registered method handler takes precedence, followed by a stored property value for
+ * argument-less getters. Anything else returns an inert default for its return type, so fakes only need to describe
+ * the parts of the API a tracker actually reads.
+ */
+final class FakeObject implements InvocationHandler {
+    private final String name;
+    private final Map<String, Object> properties = new HashMap<>();
+    private final Map<String, Function<Object[], Object>> methods = new HashMap<>();
+
+    FakeObject(String name) {
+        this.name = name;
+    }
+
+    static <T> T create(Class<T> type, FakeObject handler) {
+        Object proxy = Proxy.newProxyInstance(FakeObject.class.getClassLoader(), new Class<?>[] {type}, handler);
+        return type.cast(proxy);
+    }
+
+    FakeObject set(String method, Object value) {
+        properties.put(method, value);
+        return this;
+    }
+
+    FakeObject on(String method, Function<Object[], Object> handler) {
+        methods.put(method, handler);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(String method) {
+        return (T) properties.get(method);
+    }
+
+    int getInt(String method) {
+        Object value = properties.get(method);
+        return value != null ? (Integer) value : 0;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String methodName = method.getName();
+        Object[] arguments = args != null ? args : new Object[0];
+
+        switch (methodName) {
+            case "equals":
+                if (arguments.length == 1) {
+                    return proxy == arguments[0];
+                }
+                break;
+            case "hashCode":
+                if (arguments.length == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "toString":
+                if (arguments.length == 0) {
+                    return name + properties;
+                }
+                break;
+        }
+
+        Function<Object[], Object> handler = methods.get(methodName);
+        if (handler != null) {
+            return handler.apply(arguments);
+        }
+
+        if (arguments.length == 0 && properties.containsKey(methodName)) {
+            return properties.get(methodName);
+        }
+
+        return defaultValue(method.getReturnType());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type.isPrimitive()) {
+            return 0;
+        }
+        if (type.isArray()) {
+            return Array.newInstance(type.getComponentType(), 0);
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type == Stream.class) {
+            return Stream.empty();
+        }
+        if (type == List.class || type == Collection.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        if (type.isInterface() && Iterable.class.isAssignableFrom(type)) {
+            return iterable(type, Collections.emptyList());
+        }
+        return null;
+    }
+
+    /**
+     * Creates a fake of an {@link Iterable} API type (e.g. {@code IndexedObjectSet}) over the given elements.
+     */
+    static <T> T iterable(Class<T> type, Collection<?> elements) {
+        return create(type, iterableHandler(type.getSimpleName(), () -> elements));
+    }
+
+    /**
+     * Creates a handler for an {@link Iterable} API type whose contents are read from {@code elements} every time it
+     * is iterated.
+     */
+    static FakeObject iterableHandler(String name, Supplier<Collection<?>> elements) {
+        FakeObject handler = new FakeObject(name);
+        handler.on("iterator", a -> new ArrayList<>(elements.get()).iterator());
+        handler.on("stream", a -> new ArrayList<>(elements.get()).stream());
+        handler.on("spliterator", a -> new ArrayList<>(elements.get()).spliterator());
+        handler.on("forEach", a -> {
+            @SuppressWarnings("unchecked")
+            Consumer<Object> action = (Consumer<Object>) a[0];
+            new ArrayList<>(elements.get()).forEach(action);
+            return null;
+        });
+        return handler;
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import io.blert.core.RuneliteEventHandler;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import net.runelite.api.*;
+import net.runelite.api.coords.LocalPoint;
+import net.runelite.api.coords.WorldArea;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.*;
+import net.runelite.api.kit.KitType;
+
+/**
+ * A fake {@link Client} whose state is driven by the inputs of a {@link Capture}.
+ *
+ * The game is presented as a single non-instanced scene whose base follows {@link Capture.Input#TYPE_SCENE} inputs.
+ * Players, NPCs and projectiles are fakes that hold the state most recently described by the capture.
+ */
+public class ReplayClient {
+    private static final int SCENE_SIZE = 104;
+
+    private final String localPlayerName;
+
+    private final Client client;
+    private final WorldView worldView;
+    private final FakeObject worldViewHandler;
+
+    private final Map<Integer, FakeObject> npcStates = new HashMap<>();
+    private final Map<Integer, NPC> npcs = new LinkedHashMap<>();
+    private final Map<Integer, NPC> spawnedNpcs = new LinkedHashMap<>();
+    private final Map<String, FakeObject> playerStates = new HashMap<>();
+    private final Map<String, Player> players = new LinkedHashMap<>();
+    private final Map<Integer, FakeObject> projectileStates = new HashMap<>();
+    private final Map<Integer, Projectile> projectiles = new LinkedHashMap<>();
+    private final Map<Integer, Integer> varbits = new HashMap<>();
+    private final Map<Integer, Integer> varps = new HashMap<>();
+
+    private int tickCount = 0;
+    private int gameCycle = 0;
+
+    public ReplayClient(String localPlayerName) {
+        this.localPlayerName = localPlayerName;
+
+        worldViewHandler = new FakeObject("WorldView")
+                .set("getId", -1)
+                .set("getBaseX", 0)
+                .set("getBaseY", 0)
+                .set("getPlane", 0)
+                .set("getSizeX", SCENE_SIZE)
+                .set("getSizeY", SCENE_SIZE)
+                .set("isInstance", false)
+                .set("getScene", FakeObject.create(Scene.class, new FakeObject("Scene")));
+        worldViewHandler.on("npcs", a -> indexedSet(spawnedNpcs));
+        worldViewHandler.on("players", a -> indexedSet(players));
+        worldView = FakeObject.create(WorldView.class, worldViewHandler);
+
+        FakeObject clientHandler = new FakeObject("Client")
+                .set("getGameState", GameState.LOGGED_IN)
+                .set("getTopLevelWorldView", worldView)
+                .set("isInInstancedRegion", false);
+        clientHandler.on("getWorldView", a -> worldView);
+        clientHandler.on("getTickCount", a -> tickCount);
+        clientHandler.on("getGameCycle", a -> gameCycle);
+        clientHandler.on("getBaseX", a -> worldViewHandler.getInt("getBaseX"));
+        clientHandler.on("getBaseY", a -> worldViewHandler.getInt("getBaseY"));
+        clientHandler.on("getPlane", a -> worldViewHandler.getInt("getPlane"));
+        clientHandler.on("getLocalPlayer", a -> players.get(localPlayerName));
+        clientHandler.on("getVarbitValue", a -> varbits.getOrDefault((Integer) a[0], 0));
+        clientHandler.on("getVarpValue", a -> a[0] instanceof Integer ? varps.getOrDefault((Integer) a[0], 0) : 0);
+        clientHandler.on("getProjectiles", a -> new ArrayDeque<>(activeProjectiles()));
+        clientHandler.on("getItemDefinition", a -> itemComposition((Integer) a[0]));
+        client = FakeObject.create(Client.class, clientHandler);
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public void setTickCount(int tickCount) {
+        this.tickCount = tickCount;
+    }
+
+    /**
+     * Applies an input to the client state and, if {@code handler} is set, delivers the corresponding RuneLite event
+     * to it.
+     *
+     * @param input The captured input.
+     * @param handler Receiver of the resulting event, or {@code null} to only update client state.
+     */
+    public void replay(Capture.Input input, @Nullable RuneliteEventHandler handler) {
+        switch (input.type) {
+            case Capture.Input.TYPE_SCENE:
+                worldViewHandler.set("getBaseX", input.x).set("getBaseY", input.y).set("getPlane", input.plane);
+                break;
+
+            case Capture.Input.TYPE_PLAYER_STATE:
+                updatePlayer(input);
+                break;
+
+            case Capture.Input.TYPE_NPC_STATE:
+                updateNpc(input);
+                break;
+
+            case Capture.Input.TYPE_NPC_SPAWNED: {
+                NPC npc = updateNpc(input);
+                spawnedNpcs.put(input.npc, npc);
+                if (handler != null) {
+                    handler.onNpcSpawned(new NpcSpawned(npc));
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_NPC_DESPAWNED: {
+                NPC npc = spawnedNpcs.remove(input.npc);
+                if (npc != null && handler != null) {
+                    handler.onNpcDespawned(new NpcDespawned(npc));
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_ANIMATION_CHANGED: {
+                Actor actor = actor(input.player, input.npc);
+                if (actor == null) {
+                    break;
+                }
+                stateOf(actor).set("getAnimation", input.animation);
+                if (handler != null) {
+                    AnimationChanged event = new AnimationChanged();
+                    event.setActor(actor);
+                    handler.onAnimationChanged(event);
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_PROJECTILE_MOVED: {
+                gameCycle = input.gameCycle;
+                Projectile projectile = updateProjectile(input);
+                if (handler != null) {
+                    ProjectileMoved event = new ProjectileMoved();
+                    event.setProjectile(projectile);
+                    handler.onProjectileMoved(event);
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_HITSPLAT_APPLIED: {
+                Actor actor = actor(input.player, input.npc);
+                if (actor != null && handler != null) {
+                    HitsplatApplied event = new HitsplatApplied();
+                    event.setActor(actor);
+                    event.setHitsplat(new Hitsplat(input.hitsplatType, input.amount, 0));
+                    handler.onHitsplatApplied(event);
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_VARBIT_CHANGED: {
+                if (input.varbit != -1) {
+                    varbits.put(input.varbit, input.value);
+                }
+                if (input.varp != -1) {
+                    varps.put(input.varp, input.value);
+                }
+                if (handler != null) {
+                    VarbitChanged event = new VarbitChanged();
+                    event.setVarbitId(input.varbit);
+                    event.setVarpId(input.varp);
+                    event.setValue(input.value);
+                    handler.onVarbitChanged(event);
+                }
+                break;
+            }
+
+            case Capture.Input.TYPE_CHAT_MESSAGE:
+                if (handler != null) {
+                    ChatMessage event = new ChatMessage();
+                    event.setType(ChatMessageType.of(input.messageType));
+                    event.setName("");
+                    event.setSender("");
+                    event.setMessage(input.message);
+                    handler.onChatMessage(event);
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown capture input type: " + input.type);
+        }
+    }
+
+    private Player updatePlayer(Capture.Input input) {
+        FakeObject state = playerStates.computeIfAbsent(input.player, this::createPlayer);
+        state.set("getWorldLocation", new WorldPoint(input.x, input.y, input.plane))
+                .set("getAnimation", input.animation)
+                .set("interacting", interactingRef(input))
+                .set("getSpotAnims", spotAnims(input.spotAnims));
+        if (input.equipment != null) {
+            state.set("equipment", input.equipment.clone());
+        }
+        return players.get(input.player);
+    }
+
+    private static IterableHashTable<?> spotAnims(@Nullable int[] ids) {
+        List<ActorSpotAnim> spotAnims = new ArrayList<>();
+        if (ids != null) {
+            for (int id : ids) {
+                spotAnims.add(FakeObject.create(ActorSpotAnim.class, new FakeObject("ActorSpotAnim").set("getId", id)));
+            }
+        }
+        return FakeObject.iterable(IterableHashTable.class, spotAnims);
+    }
+
+    private FakeObject createPlayer(String username) {
+        FakeObject state = new FakeObject("Player")
+                .set("getName", username)
+                .set("getAnimation", -1)
+                .set("getGraphic", -1)
+                .set("getHealthRatio", -1)
+                .set("getHealthScale", -1)
+                .set("equipment", new int[0]);
+        addActorMethods(state);
+
+        FakeObject composition = new FakeObject("PlayerComposition");
+        composition.on("getEquipmentId", a -> {
+            int[] equipment = state.get("equipment");
+            int slot = ((KitType) a[0]).ordinal();
+            return slot < equipment.length ? equipment[slot] : -1;
+        });
+        state.set("getPlayerComposition", FakeObject.create(PlayerComposition.class, composition));
+
+        players.put(username, FakeObject.create(Player.class, state));
+        return state;
+    }
+
+    private NPC updateNpc(Capture.Input input) {
+        FakeObject state = npcStates.computeIfAbsent(input.npc, this::createNpc);
+        state.set("getId", input.id)
+                .set("getWorldLocation", new WorldPoint(input.x, input.y, input.plane))
+                .set("size", input.size)
+                .set("getAnimation", input.animation)
+                .set("interacting", interactingRef(input));
+        return npcs.get(input.npc);
+    }
+
+    private FakeObject createNpc(int index) {
+        FakeObject state = new FakeObject("NPC")
+                .set("getIndex", index)
+                .set("getId", -1)
+                .set("size", 1)
+                .set("getAnimation", -1)
+                .set("getGraphic", -1)
+                .set("getHealthRatio", -1)
+                .set("getHealthScale", -1);
+        addActorMethods(state);
+
+        FakeObject composition = new FakeObject("NPCComposition");
+        composition.on("getId", a -> state.getInt("getId"));
+        composition.on("getSize", a -> state.getInt("size"));
+        NPCComposition npcComposition = FakeObject.create(NPCComposition.class, composition);
+        state.set("getComposition", npcComposition);
+        state.set("getTransformedComposition", npcComposition);
+
+        npcs.put(index, FakeObject.create(NPC.class, state));
+        return state;
+    }
+
+    private void addActorMethods(FakeObject state) {
+        state.on("getLocalLocation", a -> LocalPoint.fromWorld(client, (WorldPoint) state.get("getWorldLocation")));
+        state.on("getWorldArea", a -> {
+            WorldPoint location = state.get("getWorldLocation");
+            Object size = state.get("size");
+            int tiles = size != null ? (Integer) size : 1;
+            return new WorldArea(location, tiles, tiles);
+        });
+        state.on("getInteracting", a -> {
+            Object ref = state.get("interacting");
+            if (ref instanceof String) {
+                return players.get(ref);
+            }
+            return ref instanceof Integer ? npcs.get(ref) : null;
+        });
+    }
+
+    private Projectile updateProjectile(Capture.Input input) {
+        FakeObject state = projectileStates.computeIfAbsent(input.projectile, key -> {
+            FakeObject handler = new FakeObject("Projectile");
+            handler.on("getTargetActor", a -> actor(handler.get("targetPlayer"), handler.getInt("targetNpc")));
+            handler.on("getInteracting", a -> actor(handler.get("targetPlayer"), handler.getInt("targetNpc")));
+            projectiles.put(key, FakeObject.create(Projectile.class, handler));
+            return handler;
+        });
+
+        state.set("getId", input.id)
+                .set("getStartCycle", input.startCycle)
+                .set("getEndCycle", input.endCycle)
+                .set("getRemainingCycles", input.remainingCycles)
+                .set("getSourcePoint", new WorldPoint(input.x, input.y, input.plane))
+                .set("targetPlayer", input.targetPlayer)
+                .set("targetNpc", input.targetNpc);
+        return projectiles.get(input.projectile);
+    }
+
+    private List<Projectile> activeProjectiles() {
+        return projectileStates.entrySet().stream()
+                .filter(e -> e.getValue().getInt("getEndCycle") > gameCycle)
+                .map(e -> projectiles.get(e.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    @Nullable
+    private Object interactingRef(Capture.Input input) {
+        if (input.interactingPlayer != null) {
+            return input.interactingPlayer;
+        }
+        return input.interactingNpc != -1 ? input.interactingNpc : null;
+    }
+
+    @Nullable
+    private Actor actor(@Nullable String player, int npc) {
+        if (player != null) {
+            return players.get(player);
+        }
+        return npc != -1 ? npcs.get(npc) : null;
+    }
+
+    private FakeObject stateOf(Actor actor) {
+        if (actor instanceof Player) {
+            return playerStates.get(actor.getName());
+        }
+        return npcStates.get(((NPC) actor).getIndex());
+    }
+
+    private ItemComposition itemComposition(int id) {
+        return FakeObject.create(
+                ItemComposition.class, new FakeObject("ItemComposition").set("getId", id).set("getName", ""));
+    }
+
+    private Object indexedSet(Map<?, ? extends Actor> actors) {
+        FakeObject handler = FakeObject.iterableHandler("IndexedObjectSet", actors::values);
+        handler.on("byIndex", a -> {
+            int index = (Integer) a[0];
+            return actors.values().stream()
+                    .filter(actor -> actor instanceof NPC && ((NPC) actor).getIndex() == index)
+                    .findFirst()
+                    .orElse(null);
+        });
+        return FakeObject.create(IndexedObjectSet.class, handler);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.BooleanSupplier;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * A {@link ClientThread} for replays, which are driven from a single thread. Immediate invocations run inline, while
+ * deferred ones are queued and run when the harness finishes processing a tick.
+ */
+class ReplayClientThread extends ClientThread {
+    private final Queue<BooleanSupplier> pending = new ArrayDeque<>();
+
+    @Override
+    public void invoke(Runnable r) {
+        r.run();
+    }
+
+    @Override
+    public void invokeLater(Runnable r) {
+        pending.add(() -> {
+            r.run();
+            return true;
+        });
+    }
+
+    @Override
+    public void invokeLater(BooleanSupplier r) {
+        pending.add(r);
+    }
+
+    @Override
+    public void invokeAtTickEnd(Runnable r) {
+        invokeLater(r);
+    }
+
+    /**
+     * Runs all deferred tasks queued so far. Tasks which report that they are not yet complete are retried on the next
+     * call.
+     */
+    void runPending() {
+        int count = pending.size();
+        for (int i = 0; i < count; i++) {
+            BooleanSupplier task = pending.poll();
+            if (task != null && !task.getAsBoolean()) {
+                pending.add(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import com.google.gson.Gson;
+import io.blert.challenges.colosseum.ColosseumChallenge;
+import io.blert.challenges.inferno.InfernoChallenge;
+import io.blert.challenges.mokhaiotl.MokhaiotlChallenge;
+import io.blert.challenges.tob.TheatreChallenge;
+import io.blert.core.AttackRegistry;
+import io.blert.core.CaptureProfile;
+import io.blert.core.Challenge;
+import io.blert.core.CheckpointStore;
+import io.blert.core.RecordableChallenge;
+import io.blert.core.SpellRegistry;
+import io.blert.core.Stage;
+import io.blert.events.Event;
+import io.blert.events.EventHandler;
+import io.blert.json.JsonEventTranslator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
+import net.runelite.client.callback.ClientThread;
+
+/**
+ * Replays a {@link Capture} into a fresh {@link RecordableChallenge} without a running game, collecting the events it
+ * emits in their serialized form so that they can be compared byte-for-byte against an expected stream.
+ */
+public class ReplayHarness {
+    /**
+     * Challenge ID attached to all serialized replay events.
+     */
+    public static final String REPLAY_CHALLENGE_ID = "00000000-0000-0000-0000-000000000000";
+
+    public interface ChallengeFactory {
+        RecordableChallenge create(Client client, ClientThread clientThread);
+    }
+
+    /**
+     * Output of a single replay.
+     */
+    public static class Result {
+        private final List<String> events;
+        private final List<Event> lifecycleEvents;
+        private final int ticks;
+        private final long elapsedNanos;
+        private final Map<Stage, Long> stageNanos;
+
+        Result(
+                List<String> events,
+                List<Event> lifecycleEvents,
+                int ticks,
+                long elapsedNanos,
+                Map<Stage, Long> stageNanos) {
+            this.events = Collections.unmodifiableList(events);
+            this.lifecycleEvents = Collections.unmodifiableList(lifecycleEvents);
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            this.stageNanos = Collections.unmodifiableMap(stageNanos);
+        }
+
+        /**
+         * Returns every event emitted by the challenge, serialized to JSON, one per line.
+         */
+        public List<String> getEvents() {
+            return events;
+        }
+
+        /**
+         * Returns the challenge and stage lifecycle events emitted by the challenge. These have no JSON event
+         * representation, as the plugin sends them to the server as separate requests.
+         */
+        public List<Event> getLifecycleEvents() {
+            return lifecycleEvents;
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the time spent processing ticks, attributed to the stage whose tracker was active at the time.
+         */
+        public Map<Stage, Long> getStageNanos() {
+            return stageNanos;
+        }
+
+        /**
+         * Compares the emitted events against an expected event stream.
+         *
+         * @param expected Expected serialized events, one per line.
+         * @return Description of the first difference, or {@code null} if the streams are identical.
+         */
+        @Nullable
+        public String diff(List<String> expected) {
+            int common = Math.min(events.size(), expected.size());
+            for (int i = 0; i < common; i++) {
+                if (!events.get(i).equals(expected.get(i))) {
+                    return String.format(
+                            "event %d differs:%n  expected: %s%n    actual: %s", i, expected.get(i), events.get(i));
+                }
+            }
+            if (events.size() != expected.size()) {
+                return String.format("expected %d events, got %d", expected.size(), events.size());
+            }
+            return null;
+        }
+    }
+
+    private final Gson gson;
+    private final AttackRegistry attackRegistry;
+    private final SpellRegistry spellRegistry;
+
+    public ReplayHarness(Gson gson) {
+        this(gson, new AttackRegistry(), new SpellRegistry());
+        attackRegistry.setGson(gson);
+        attackRegistry.loadDefaults();
+        spellRegistry.setGson(gson);
+        spellRegistry.loadDefaults();
+    }
+
+    public ReplayHarness(Gson gson, AttackRegistry attackRegistry, SpellRegistry spellRegistry) {
+        this.gson = gson;
+        this.attackRegistry = attackRegistry;
+        this.spellRegistry = spellRegistry;
+    }
+
+    public static ChallengeFactory factoryFor(Challenge challenge) {
+        switch (challenge) {
+            case TOB:
+                return TheatreChallenge::new;
+            case COLOSSEUM:
+                return ColosseumChallenge::new;
+            case INFERNO:
+                return InfernoChallenge::new;
+            case MOKHAIOTL:
+                return MokhaiotlChallenge::new;
+            default:
+                throw new IllegalArgumentException("Challenge " + challenge + " cannot be replayed");
+        }
+    }
+
+    public Result replay(Capture capture) {
+        Challenge challenge = Challenge.fromId(capture.challenge);
+        if (challenge == null) {
+            throw new IllegalArgumentException("Unknown challenge: " + capture.challenge);
+        }
+        return replay(capture, factoryFor(challenge));
+    }
+
+    /**
+     * Replays a capture into a challenge created by {@code factory}.
+     *
+     * As in the plugin, the challenge is initialized on the first game tick. Inputs preceding it only update the
+     * client state.
+     */
+    public Result replay(Capture capture, ChallengeFactory factory) {
+        return replay(capture, factory, null);
+    }
+
+    /**
+     * Replays a capture into a challenge created by {@code factory}, which checkpoints its progress to
+     * {@code checkpointStore}.
+     */
+    public Result replay(Capture capture, ChallengeFactory factory, @Nullable CheckpointStore checkpointStore) {
+        List<String> events = new ArrayList<>();
+        List<Event> lifecycleEvents = new ArrayList<>();
+        Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+        StageTracker stageTracker = new StageTracker();
+
+        EventHandler handler = (clientTick, event) -> {
+            switch (event.getType()) {
+                case CHALLENGE_START:
+                case CHALLENGE_END:
+                case CHALLENGE_UPDATE:
+                case STAGE_UPDATE:
+                    lifecycleEvents.add(event);
+                    break;
+                default:
+                    events.add(gson.toJson(JsonEventTranslator.toJson(event, REPLAY_CHALLENGE_ID)));
+                    break;
+            }
+            stageTracker.update(event);
+        };
+
+        long start = System.nanoTime();
+        long[] tickStart = {start};
+
+        run(capture, factory, handler, checkpointStore, challenge -> {
+            long now = System.nanoTime();
+            if (stageTracker.stage != null) {
+                stageNanos.merge(stageTracker.stage, now - tickStart[0], Long::sum);
+            }
+            tickStart[0] = now;
+        });
+
+        return new Result(events, lifecycleEvents, capture.ticks.size(), System.nanoTime() - start, stageNanos);
+    }
+
+    /**
+     * Replays a capture, passing every event the challenge emits to {@code handler} rather than collecting it, and
+     * calling {@code afterTick} with the challenge once each tick has been processed. Suited to long captures whose
+     * events would not all fit in memory.
+     */
+    public void stream(
+            Capture capture,
+            ChallengeFactory factory,
+            EventHandler handler,
+            Consumer<RecordableChallenge> afterTick) {
+        run(capture, factory, handler, null, afterTick);
+    }
+
+    private void run(
+            Capture capture,
+            ChallengeFactory factory,
+            EventHandler handler,
+            @Nullable CheckpointStore checkpointStore,
+            Consumer<RecordableChallenge> afterTick) {
+        ReplayClient replayClient = new ReplayClient(capture.localPlayer);
+        ReplayClientThread clientThread = new ReplayClientThread();
+        RecordableChallenge challenge = factory.create(replayClient.getClient(), clientThread);
+
+        boolean initialized = false;
+
+        for (Capture.Tick tick : capture.ticks) {
+            replayClient.setTickCount(tick.tick);
+
+            for (Capture.Input input : tick.inputs) {
+                replayClient.replay(input, initialized ? challenge : null);
+            }
+
+            if (!initialized) {
+                // Replays always capture everything, with the tick watchdog disabled so results don't depend on
+                // the speed of the machine running them.
+                challenge.initialize(handler, attackRegistry, spellRegistry, CaptureProfile.FULL, 0, checkpointStore);
+                initialized = true;
+            }
+
+            challenge.tick();
+            clientThread.runPending();
+            afterTick.accept(challenge);
+        }
+
+        if (initialized) {
+            challenge.terminate();
+            clientThread.runPending();
+        }
+    }
+
+    private static class StageTracker {
+        private @Nullable Stage stage;
+
+        void update(Event event) {
+            event.getStage().ifPresent(s -> stage = s);
+        }
+    }
+}
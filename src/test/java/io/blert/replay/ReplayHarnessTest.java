@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.google.gson.Gson;
+import io.blert.core.Challenge;
+import io.blert.events.EventType;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import net.runelite.api.ChatMessageType;
+import org.junit.Test;
+
+public class ReplayHarnessTest {
+    private static final String PLAYER = "Zezima";
+
+    // A tile inside the Inferno arena.
+    private static final int INFERNO_X = 2271;
+    private static final int INFERNO_Y = 5340;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void captureRoundTrips() throws IOException {
+        Capture capture = infernoCapture();
+
+        StringWriter writer = new StringWriter();
+        capture.write(gson, writer);
+        Capture read = Capture.read(gson, new StringReader(writer.toString()));
+
+        assertEquals(capture.challenge, read.challenge);
+        assertEquals(PLAYER, read.localPlayer);
+        assertEquals(capture.ticks.size(), read.ticks.size());
+        assertEquals(capture.ticks.get(3).inputs.get(1).message, read.ticks.get(3).inputs.get(1).message);
+    }
+
+    @Test
+    public void replayIsDeterministic() {
+        ReplayHarness harness = new ReplayHarness(gson);
+
+        ReplayHarness.Result first = harness.replay(infernoCapture());
+        ReplayHarness.Result second = harness.replay(infernoCapture());
+
+        assertFalse(first.getEvents().isEmpty());
+        assertEquals(EventType.CHALLENGE_START, first.getLifecycleEvents().get(0).getType());
+        assertEquals(10, first.getTicks());
+        assertNull(first.diff(second.getEvents()));
+    }
+
+    @Test
+    public void diffReportsFirstMismatch() {
+        ReplayHarness.Result result = new ReplayHarness(gson).replay(infernoCapture());
+
+        List<String> expected = new ArrayList<>(result.getEvents());
+        expected.set(0, "{}");
+        assertEquals(0, result.diff(expected).indexOf("event 0 differs"));
+
+        expected = new ArrayList<>(result.getEvents());
+        expected.add("{}");
+        assertNotNull(result.diff(expected));
+    }
+
+    public static Capture infernoCapture() {
+        return infernoCapture(1);
+    }
+
+    /**
+     * Returns a capture of the local player standing in the Inferno as the given wave starts.
+     */
+    public static Capture infernoCapture(int wave) {
+        Capture capture = new Capture();
+        capture.challenge = Challenge.INFERNO.getId();
+        capture.localPlayer = PLAYER;
+
+        for (int tick = 0; tick < 10; tick++) {
+            Capture.Tick t = new Capture.Tick();
+            t.tick = 1000 + tick;
+
+            if (tick == 0) {
+                Capture.Input scene = new Capture.Input();
+                scene.type = Capture.Input.TYPE_SCENE;
+                scene.x = INFERNO_X - 52;
+                scene.y = INFERNO_Y - 52;
+                t.inputs.add(scene);
+            }
+
+            Capture.Input player = new Capture.Input();
+            player.type = Capture.Input.TYPE_PLAYER_STATE;
+            player.player = PLAYER;
+            player.x = INFERNO_X;
+            player.y = INFERNO_Y + tick;
+            t.inputs.add(player);
+
+            if (tick == 3) {
+                Capture.Input message = new Capture.Input();
+                message.type = Capture.Input.TYPE_CHAT_MESSAGE;
+                message.messageType = ChatMessageType.GAMEMESSAGE.getType();
+                message.message = "Wave: " + wave;
+                t.inputs.add(message);
+            }
+
+            capture.ticks.add(t);
+        }
+
+        return capture;
+    }
+}
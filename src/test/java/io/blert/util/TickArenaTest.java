@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.util;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import junit.framework.TestCase;
+
+public class TickArenaTest extends TestCase {
+    public void testResetClearsAllBuffers() {
+        TickArena arena = new TickArena();
+        List<Integer> list = arena.list();
+        Set<String> set = arena.set();
+        Queue<Integer> queue = arena.queue();
+        TickArena.ListMap<String, Integer> listMap = arena.listMap();
+        TickArena.IntBuffer ints = arena.intBuffer();
+        TickArena.LongBuffer longs = arena.longBuffer();
+
+        list.add(1);
+        set.add("a");
+        queue.add(2);
+        listMap.add("k", 3);
+        ints.add(4);
+        longs.add(5L);
+
+        arena.reset();
+
+        assertTrue(list.isEmpty());
+        assertTrue(set.isEmpty());
+        assertTrue(queue.isEmpty());
+        assertTrue(listMap.isEmpty());
+        assertNull(listMap.get("k"));
+        assertTrue(ints.isEmpty());
+        assertTrue(longs.isEmpty());
+    }
+
+    public void testListMapGroupsValuesByKey() {
+        TickArena arena = new TickArena();
+        TickArena.ListMap<String, Integer> listMap = arena.listMap();
+
+        listMap.add("a", 1);
+        listMap.add("b", 2);
+        listMap.add("a", 3);
+
+        assertEquals(List.of(1, 3), listMap.get("a"));
+        assertEquals(List.of(2), listMap.get("b"));
+        assertNull(listMap.get("c"));
+    }
+
+    public void testListMapReusesValueLists() {
+        TickArena arena = new TickArena();
+        TickArena.ListMap<String, Integer> listMap = arena.listMap();
+
+        listMap.add("a", 1);
+        List<Integer> first = listMap.get("a");
+        arena.reset();
+
+        listMap.add("b", 2);
+        assertSame(first, listMap.get("b"));
+        assertEquals(List.of(2), listMap.get("b"));
+    }
+
+    public void testListMapGrowsPastInitialCapacity() {
+        TickArena arena = new TickArena();
+        TickArena.ListMap<Integer, Integer> listMap = arena.listMap();
+
+        for (int tick = 0; tick < 2; tick++) {
+            for (int key = 0; key < 100; key++) {
+                listMap.add(key, key);
+                listMap.add(key, -key);
+            }
+            for (int key = 0; key < 100; key++) {
+                assertEquals(List.of(key, -key), listMap.get(key));
+            }
+            assertNull(listMap.get(100));
+            arena.reset();
+            assertNull(listMap.get(0));
+        }
+    }
+
+    public void testIndexedListMapGroupsValuesByIndex() {
+        TickArena arena = new TickArena();
+        TickArena.IndexedListMap<String> listMap = arena.indexedListMap(16);
+        assertTrue(listMap.isEmpty());
+        assertNull(listMap.get(3));
+
+        listMap.add(3, "a");
+        listMap.add(15, "b");
+        listMap.add(3, "c");
+
+        assertFalse(listMap.isEmpty());
+        assertEquals(List.of("a", "c"), listMap.get(3));
+        assertEquals(List.of("b"), listMap.get(15));
+        assertNull(listMap.get(4));
+        assertNull(listMap.get(-1));
+        assertNull(listMap.get(16));
+
+        List<String> first = listMap.get(3);
+        arena.reset();
+        assertTrue(listMap.isEmpty());
+        assertNull(listMap.get(3));
+
+        listMap.add(3, "d");
+        assertSame(first, listMap.get(3));
+        assertEquals(List.of("d"), listMap.get(3));
+    }
+
+    public void testIndexedListMapRejectsIndicesOutOfRange() {
+        TickArena.IndexedListMap<String> listMap = new TickArena().indexedListMap(4);
+        try {
+            listMap.add(4, "a");
+            fail("Expected an out of range index to be rejected");
+        } catch (IndexOutOfBoundsException expected) {
+            assertTrue(listMap.isEmpty());
+        }
+    }
+
+    public void testPrimitiveBuffersGrowAndReset() {
+        TickArena arena = new TickArena();
+        TickArena.IntBuffer ints = arena.intBuffer(2);
+        TickArena.LongBuffer longs = arena.longBuffer(2);
+
+        for (int i = 0; i < 20; i++) {
+            ints.add(i * 3);
+            longs.add(i * 1_000_000_000L);
+        }
+
+        assertEquals(20, ints.size());
+        assertEquals(57, ints.get(19));
+        assertTrue(ints.contains(30));
+        assertFalse(ints.contains(31));
+        assertEquals(20, longs.size());
+        assertEquals(19_000_000_000L, longs.get(19));
+        assertTrue(longs.contains(5_000_000_000L));
+
+        arena.reset();
+        assertEquals(0, ints.size());
+        assertFalse(ints.contains(0));
+        assertEquals(0, longs.size());
+        try {
+            ints.get(0);
+            fail("Expected an out of bounds index to be rejected");
+        } catch (IndexOutOfBoundsException expected) {
+            // Cleared elements are no longer accessible.
+        }
+    }
+
+    public void testBuffersAreReusedAcrossTicks() {
+        TickArena arena = new TickArena();
+        List<Integer> list = arena.list();
+
+        for (int tick = 0; tick < 3; tick++) {
+            list.add(tick);
+            assertEquals(List.of(tick), list);
+            arena.reset();
+        }
+    }
+}
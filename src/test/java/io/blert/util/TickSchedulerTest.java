@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Alexei Frolov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the “Software”), to deal in
+ * the Software without restriction, including without limitation the rights to use,
+ * copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the
+ * Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES
+ * OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT
+ * HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR
+ * OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package io.blert.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+public class TickSchedulerTest extends TestCase {
+    private int tick;
+    private TickScheduler scheduler;
+    private List<String> ran;
+
+    @Override
+    protected void setUp() {
+        tick = 100;
+        scheduler = new TickScheduler(() -> tick);
+        ran = new ArrayList<>();
+    }
+
+    private void advance() {
+        tick++;
+        runTick();
+    }
+
+    private void runTick() {
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
+        ran.add("onTick");
+        scheduler.run(TickScheduler.Priority.AFTER_TICK);
+    }
+
+    public void testRunsOnDueTick() {
+        advance();
+        TickScheduler.Handle handle = scheduler.schedule(3, () -> ran.add("task"));
+        assertEquals(104, handle.getTick());
+
+        advance();
+        advance();
+        assertFalse(ran.contains("task"));
+        assertTrue(handle.isPending());
+
+        advance();
+        assertEquals(List.of("onTick", "onTick", "onTick", "task", "onTick"), ran);
+        assertFalse(handle.isPending());
+        assertEquals(0, scheduler.size());
+    }
+
+    public void testPriorityOrdering() {
+        scheduler.schedule(1, TickScheduler.Priority.AFTER_TICK, () -> ran.add("after"));
+        scheduler.schedule(1, TickScheduler.Priority.BEFORE_TICK, () -> ran.add("before1"));
+        scheduler.schedule(1, () -> ran.add("before2"));
+
+        advance();
+        assertEquals(List.of("before1", "before2", "onTick", "after"), ran);
+    }
+
+    public void testCancel() {
+        TickScheduler.Handle handle = scheduler.schedule(2, () -> ran.add("task"));
+        assertTrue(handle.cancel());
+        assertFalse(handle.cancel());
+        assertFalse(handle.isPending());
+        assertEquals(0, scheduler.size());
+
+        advance();
+        advance();
+        assertFalse(ran.contains("task"));
+    }
+
+    public void testTaskCancelsAnotherDueTask() {
+        TickScheduler.Handle[] second = new TickScheduler.Handle[1];
+        scheduler.schedule(1, () -> second[0].cancel());
+        second[0] = scheduler.schedule(1, () -> ran.add("second"));
+
+        advance();
+        assertFalse(ran.contains("second"));
+    }
+
+    public void testZeroDelay() {
+        // Before the phase has run for the current tick, a zero delay runs on it.
+        scheduler.schedule(0, () -> ran.add("now"));
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
+        assertEquals(List.of("now"), ran);
+
+        // Once it has, the task is pushed to the next tick rather than looping.
+        scheduler.schedule(0, () -> ran.add("next"));
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
+        assertEquals(List.of("now"), ran);
+
+        advance();
+        assertEquals(List.of("now", "next", "onTick"), ran);
+    }
+
+    public void testReschedulingFromTask() {
+        Runnable[] repeat = new Runnable[1];
+        repeat[0] = () -> {
+            ran.add("repeat" + tick);
+            scheduler.schedule(4, repeat[0]);
+        };
+        scheduler.schedule(4, repeat[0]);
+
+        for (int i = 0; i < 12; i++) {
+            advance();
+        }
+        assertTrue(ran.contains("repeat104"));
+        assertTrue(ran.contains("repeat108"));
+        assertTrue(ran.contains("repeat112"));
+        assertEquals(1, scheduler.size());
+    }
+
+    public void testDelaysLongerThanWheel() {
+        scheduler.schedule(200, () -> ran.add("far"));
+        scheduler.schedule(72, () -> ran.add("near"));
+
+        for (int i = 0; i < 199; i++) {
+            advance();
+        }
+        assertTrue(ran.contains("near"));
+        assertFalse(ran.contains("far"));
+
+        advance();
+        assertTrue(ran.contains("far"));
+    }
+
+    public void testCatchesUpOnSkippedTicks() {
+        advance();
+        scheduler.schedule(2, () -> ran.add("a"));
+        scheduler.schedule(3, () -> ran.add("b"));
+
+        tick += 10;
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
+        assertEquals(List.of("onTick", "a", "b"), ran);
+    }
+
+    public void testClockReset() {
+        advance();
+        scheduler.schedule(3, () -> ran.add("task"));
+
+        tick = 0;
+        scheduler.run(TickScheduler.Priority.BEFORE_TICK);
+        assertFalse(ran.contains("task"));
+
+        advance();
+        advance();
+        assertFalse(ran.contains("task"));
+        advance();
+        assertTrue(ran.contains("task"));
+    }
+
+    public void testClear() {
+        TickScheduler.Handle a = scheduler.schedule(1, () -> ran.add("a"));
+        TickScheduler.Handle b = scheduler.schedule(1, TickScheduler.Priority.AFTER_TICK, () -> ran.add("b"));
+        assertEquals(2, scheduler.size());
+
+        scheduler.clear();
+        assertEquals(0, scheduler.size());
+        assertFalse(a.isPending());
+        assertFalse(b.isPending());
+
+        advance();
+        assertEquals(List.of("onTick"), ran);
+    }
+
+    public void testDeferCountsFromNextRun() {
+        advance();
+        TickScheduler.Handle fromTick = scheduler.defer(3, TickScheduler.Priority.BEFORE_TICK, () -> ran.add("tick"));
+        assertEquals(104, fromTick.getTick());
+
+        // An event arrives on the next tick, before the scheduler has been run for it. The run on that tick still
+        // counts towards the deferred task's delay, but not towards a scheduled one's.
+        tick++;
+        TickScheduler.Handle fromEvent = scheduler.defer(3, TickScheduler.Priority.BEFORE_TICK, () -> ran.add("event"));
+        TickScheduler.Handle scheduled = scheduler.schedule(3, () -> ran.add("scheduled"));
+        assertEquals(104, fromEvent.getTick());
+        assertEquals(105, scheduled.getTick());
+
+        runTick();
+        advance();
+        assertFalse(ran.contains("event"));
+
+        advance();
+        assertEquals(List.of("onTick", "onTick", "onTick", "tick", "event", "onTick"), ran);
+        assertTrue(scheduled.isPending());
+    }
+
+    public void testDeferRequiresPositiveDelay() {
+        try {
+            scheduler.defer(0, TickScheduler.Priority.BEFORE_TICK, () -> ran.add("task"));
+            fail("Expected a zero delay to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, scheduler.size());
+        }
+    }
+
+    public void testWithinTickRunsOnlyWhenOwnerRunsIt() {
+        advance();
+        TickScheduler.Handle handle = scheduler.defer(1, TickScheduler.Priority.WITHIN_TICK, () -> ran.add("task"));
+
+        advance();
+        assertTrue(handle.isPending());
+
+        scheduler.run(TickScheduler.Priority.WITHIN_TICK);
+        assertEquals(List.of("onTick", "onTick", "task"), ran);
+    }
+}